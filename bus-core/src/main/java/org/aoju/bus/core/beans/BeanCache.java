@@ -25,8 +25,12 @@
  ********************************************************************************/
 package org.aoju.bus.core.beans;
 
+import org.aoju.bus.core.beans.copier.CompiledCopier;
 import org.aoju.bus.core.lang.SimpleCache;
 import org.aoju.bus.core.lang.function.Func0;
+import org.aoju.bus.core.map.FixedLinkedHashMap;
+
+import java.util.Collections;
 
 /**
  * Bean属性缓存
@@ -40,7 +44,17 @@ public enum BeanCache {
 
     INSTANCE;
 
+    /**
+     * 拷贝器缓存最大数量
+     */
+    private static final int COPIER_CAPACITY = 1024;
+
     private final SimpleCache<Class<?>, BeanDesc> bdCache = new SimpleCache<>();
+    /**
+     * 拷贝器持有源和目标类型的引用,使用固定容量的LRU缓存,避免长期占用类加载器
+     */
+    private final SimpleCache<CompiledCopier.Key, CompiledCopier> copierCache =
+            new SimpleCache<>(Collections.synchronizedMap(new FixedLinkedHashMap<>(COPIER_CAPACITY)));
 
     /**
      * 获得属性名和{@link BeanDesc}Map映射
@@ -53,4 +67,19 @@ public enum BeanCache {
         return bdCache.get(beanClass, supplier);
     }
 
+    /**
+     * 获得源类型、目标类型及拷贝选项对应的{@link CompiledCopier}
+     *
+     * @param key      拷贝器键
+     * @param supplier 对象不存在时创建对象的函数
+     * @return {@link CompiledCopier}
+     */
+    public CompiledCopier getCopier(CompiledCopier.Key key, Func0<CompiledCopier> supplier) {
+        final CompiledCopier copier = copierCache.get(key);
+        if (null != copier) {
+            return copier;
+        }
+        return copierCache.get(key.snapshot(), supplier);
+    }
+
 }
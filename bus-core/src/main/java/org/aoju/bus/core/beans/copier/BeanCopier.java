@@ -151,6 +151,11 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
      * @param destBean     目标Bean
      */
     private void beanToBean(Object providerBean, Object destBean) {
+        final CompiledCopier copier = CompiledCopier.of(providerBean.getClass(), editable(destBean), this.destType, this.copyOptions);
+        if (null != copier) {
+            copier.copy(providerBean, destBean, this.copyOptions);
+            return;
+        }
         valueProviderToBean(new BeanValueProvider(providerBean, this.copyOptions.ignoreCase, this.copyOptions.ignoreError), destBean);
     }
 
@@ -174,10 +179,10 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
      * @param dest   目标Map
      */
     private void mapToMap(Map source, Map dest) {
-        source.forEach((key, value) -> {
-            final CopyOptions copyOptions = this.copyOptions;
-            final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
+        final CopyOptions copyOptions = this.copyOptions;
+        final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
 
+        source.forEach((key, value) -> {
             // 非覆盖模式下，如果目标值存在，则跳过
             if (false == copyOptions.override && null != dest.get(key)) {
                 return;
@@ -266,6 +271,23 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
         });
     }
 
+    /**
+     * 获取实际拷贝的目标类型，设置了限制类时检查限制类是否为目标的父类或接口
+     *
+     * @param bean 目标Bean
+     * @return 实际拷贝的目标类型
+     */
+    private Class<?> editable(Object bean) {
+        final Class<?> editable = this.copyOptions.editable;
+        if (null == editable) {
+            return bean.getClass();
+        }
+        if (false == editable.isInstance(bean)) {
+            throw new IllegalArgumentException(StringKit.format("Target class [{}] not assignable to Editable class [{}]", bean.getClass().getName(), editable.getName()));
+        }
+        return editable;
+    }
+
     /**
      * 值提供器转Bean
      *
@@ -278,14 +300,7 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
         }
 
         final CopyOptions copyOptions = this.copyOptions;
-        Class<?> actualEditable = bean.getClass();
-        if (null != copyOptions.editable) {
-            // 检查限制类是否为target的父类或接口
-            if (false == copyOptions.editable.isInstance(bean)) {
-                throw new IllegalArgumentException(StringKit.format("Target class [{}] not assignable to Editable class [{}]", bean.getClass().getName(), copyOptions.editable.getName()));
-            }
-            actualEditable = copyOptions.editable;
-        }
+        final Class<?> actualEditable = editable(bean);
         final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
 
         // 遍历目标bean的所有属性
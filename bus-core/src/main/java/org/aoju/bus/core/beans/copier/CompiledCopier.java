@@ -0,0 +1,384 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.beans.copier;
+
+import org.aoju.bus.core.beans.BeanCache;
+import org.aoju.bus.core.beans.PropertyDesc;
+import org.aoju.bus.core.convert.BasicType;
+import org.aoju.bus.core.convert.Convert;
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.lang.reflect.LookupFactory;
+import org.aoju.bus.core.toolkit.BeanKit;
+import org.aoju.bus.core.toolkit.ClassKit;
+import org.aoju.bus.core.toolkit.ReflectKit;
+import org.aoju.bus.core.toolkit.StringKit;
+import org.aoju.bus.core.toolkit.TypeKit;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 预编译的Bean到Bean拷贝器
+ * 针对(源类型,目标类型,拷贝选项)预先解析属性对应关系,
+ * Getter和Setter通过{@link LambdaMetafactory}生成函数调用,类型一致的属性不再经过{@link Convert}转换
+ * 拷贝器由{@link BeanCache}缓存,同一组类型和选项只解析一次
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public final class CompiledCopier {
+
+    private final Slot[] slots;
+
+    private CompiledCopier(Slot[] slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * 获取或创建拷贝器
+     * 设置了{@link CopyOptions#fieldNameEditor}时字段名可能动态变化,不进行缓存,返回{@code null}
+     *
+     * @param sourceClass 源Bean类型
+     * @param editable    目标Bean类型或限制类
+     * @param destType    目标的泛型类型
+     * @param copyOptions 拷贝选项
+     * @return 拷贝器, 不支持时返回{@code null}
+     */
+    public static CompiledCopier of(Class<?> sourceClass, Class<?> editable, Type destType, CopyOptions copyOptions) {
+        if (null != copyOptions.fieldNameEditor) {
+            return null;
+        }
+        final Key key = new Key(sourceClass, editable, destType, copyOptions);
+        return BeanCache.INSTANCE.getCopier(key, () -> compile(key, copyOptions));
+    }
+
+    /**
+     * 解析源和目标的属性对应关系
+     *
+     * @param key         缓存键
+     * @param copyOptions 拷贝选项
+     * @return 拷贝器
+     */
+    private static CompiledCopier compile(Key key, CopyOptions copyOptions) {
+        final Map<String, PropertyDesc> sourceMap = BeanKit.getBeanDesc(key.sourceClass).getPropMap(copyOptions.ignoreCase);
+        final Set<String> ignoreProperties = new HashSet<>(Arrays.asList(key.ignoreProperties));
+        final List<Slot> slots = new ArrayList<>();
+
+        BeanKit.descForEach(key.editable, (prop) -> {
+            if (false == prop.isWritable(copyOptions.transientSupport)) {
+                return;
+            }
+            final String fieldName = prop.getFieldName();
+            if (ignoreProperties.contains(fieldName)) {
+                return;
+            }
+            final String providerKey = copyOptions.getMappedFieldName(fieldName, true);
+            if (null == providerKey) {
+                return;
+            }
+            final String booleanKey = StringKit.upperFirstAndAddPre(providerKey, Normal.IS);
+            if (false == sourceMap.containsKey(providerKey) && false == sourceMap.containsKey(booleanKey)) {
+                return;
+            }
+
+            final Type fieldType = TypeKit.getActualType(key.destType, prop.getFieldType());
+            PropertyDesc sourcePd = sourceMap.get(providerKey);
+            if (null == sourcePd && (Boolean.class == fieldType || boolean.class == fieldType)) {
+                // boolean类型字段字段名支持两种方式
+                sourcePd = sourceMap.get(booleanKey);
+            }
+            final Method getter = null != sourcePd ? sourcePd.getGetter() : null;
+            final Method setter = prop.getSetter();
+
+            slots.add(new Slot(prop, providerKey, fieldType,
+                    null != getter ? getter(getter) : null,
+                    null != setter ? setter(setter) : null,
+                    null != setter ? ClassKit.getDefaultValue(setter.getParameterTypes()[0]) : null,
+                    null != getter && null != fieldType && isDirect(getter.getGenericReturnType(), fieldType)));
+        });
+
+        return new CompiledCopier(slots.toArray(new Slot[0]));
+    }
+
+    /**
+     * 源属性为不可变的叶子类型且可直接赋值给目标属性时无需转换
+     * 集合、Map、数组等可变类型仍经过{@link Convert}转换,避免目标与源共享同一对象
+     *
+     * @param sourceType 源属性类型
+     * @param fieldType  目标属性类型
+     * @return 是否可直接赋值
+     */
+    private static boolean isDirect(Type sourceType, Type fieldType) {
+        if (false == (fieldType instanceof Class) || false == (sourceType instanceof Class)) {
+            return false;
+        }
+        final Class<?> sourceClass = (Class<?>) sourceType;
+        if (false == isImmutable(sourceClass)) {
+            return false;
+        }
+        return BasicType.wrap((Class<?>) fieldType).isAssignableFrom(BasicType.wrap(sourceClass));
+    }
+
+    /**
+     * 是否为不可变的叶子类型:原始类型及其包装类、String、枚举和java.time中的类型
+     *
+     * @param clazz 类
+     * @return 是否不可变
+     */
+    private static boolean isImmutable(Class<?> clazz) {
+        return ClassKit.isBasicType(clazz)
+                || String.class == clazz
+                || clazz.isEnum()
+                || clazz.getName().startsWith("java.time.");
+    }
+
+    /**
+     * 生成Getter函数,无法生成时退化为反射调用
+     *
+     * @param method Getter方法
+     * @return 函数
+     */
+    private static Function<Object, Object> getter(Method method) {
+        try {
+            final Class<?> beanClass = method.getDeclaringClass();
+            final MethodHandles.Lookup lookup = LookupFactory.lookup(beanClass);
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    lookup.unreflect(method),
+                    MethodType.methodType(BasicType.wrap(method.getReturnType()), beanClass));
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            return (bean) -> ReflectKit.invoke(bean, method);
+        }
+    }
+
+    /**
+     * 生成Setter函数,无法生成时退化为反射调用
+     *
+     * @param method Setter方法
+     * @return 函数
+     */
+    private static BiConsumer<Object, Object> setter(Method method) {
+        try {
+            final Class<?> beanClass = method.getDeclaringClass();
+            final MethodHandles.Lookup lookup = LookupFactory.lookup(beanClass);
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    lookup.unreflect(method),
+                    MethodType.methodType(void.class, beanClass, BasicType.wrap(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            return (bean, value) -> ReflectKit.invoke(bean, method, value);
+        }
+    }
+
+    /**
+     * 拷贝属性
+     *
+     * @param source      源Bean
+     * @param bean        目标Bean
+     * @param copyOptions 拷贝选项
+     */
+    public void copy(Object source, Object bean, CopyOptions copyOptions) {
+        final boolean ignoreError = copyOptions.ignoreError;
+        final boolean ignoreNullValue = copyOptions.ignoreNullValue;
+        for (Slot slot : slots) {
+            Object value = null;
+            if (null != slot.getter) {
+                try {
+                    value = slot.getter.apply(source);
+                } catch (Exception e) {
+                    if (false == ignoreError) {
+                        throw new InstrumentException("Inject [{}] error!", slot.providerKey);
+                    }
+                }
+                if (false == slot.direct) {
+                    // 尝试转换为目标类型，失败将返回原类型
+                    final Object convertValue = Convert.convertWithCheck(slot.fieldType, value, null, ignoreError);
+                    if (null != convertValue) {
+                        value = convertValue;
+                    }
+                }
+            }
+
+            if (null != copyOptions.propertiesFilter && false == copyOptions.propertiesFilter.test(slot.prop.getField(), value)) {
+                continue;
+            }
+
+            value = copyOptions.editFieldValue(slot.providerKey, value);
+
+            if ((null == value && ignoreNullValue) || bean == value) {
+                // 当允许跳过空时，跳过
+                // 值不能为bean本身，防止循环引用
+                continue;
+            }
+
+            if (null == slot.setter || false == copyOptions.override) {
+                slot.prop.setValue(bean, value, ignoreNullValue, ignoreError, copyOptions.override);
+                continue;
+            }
+
+            if (null != value && false == slot.fieldClass.isInstance(value)) {
+                value = Convert.convertWithCheck(slot.prop.getFieldClass(), value, null, ignoreError);
+                if (null == value && ignoreNullValue) {
+                    continue;
+                }
+            }
+
+            if (null == value) {
+                // 与反射调用一致,原始类型参数写入默认值
+                value = slot.nullValue;
+            }
+
+            try {
+                slot.setter.accept(bean, value);
+            } catch (Exception e) {
+                if (false == ignoreError) {
+                    throw new InstrumentException("Set value of [{}] error!", slot.prop.getFieldName());
+                }
+                // 忽略注入失败
+            }
+        }
+    }
+
+    /**
+     * 单个目标属性的拷贝信息
+     */
+    private static final class Slot {
+
+        final PropertyDesc prop;
+        final String providerKey;
+        final Type fieldType;
+        final Class<?> fieldClass;
+        final Function<Object, Object> getter;
+        final BiConsumer<Object, Object> setter;
+        /**
+         * 值为{@code null}时写入的值,Setter参数为原始类型时为其默认值
+         */
+        final Object nullValue;
+        final boolean direct;
+
+        Slot(PropertyDesc prop, String providerKey, Type fieldType, Function<Object, Object> getter,
+             BiConsumer<Object, Object> setter, Object nullValue, boolean direct) {
+            this.prop = prop;
+            this.providerKey = providerKey;
+            this.fieldType = fieldType;
+            this.fieldClass = BasicType.wrap(prop.getFieldClass());
+            this.getter = getter;
+            this.setter = setter;
+            this.nullValue = nullValue;
+            this.direct = direct;
+        }
+    }
+
+    /**
+     * 拷贝器缓存键,只包含影响属性对应关系的选项
+     * 查找时直接引用{@link CopyOptions}中的忽略属性数组和映射Map,仅在放入缓存时复制一份
+     */
+    public static final class Key {
+
+        final Class<?> sourceClass;
+        final Class<?> editable;
+        final Type destType;
+        final boolean ignoreCase;
+        final boolean transientSupport;
+        final String[] ignoreProperties;
+        final Map<String, String> fieldMapping;
+        private final int hash;
+
+        Key(Class<?> sourceClass, Class<?> editable, Type destType, CopyOptions copyOptions) {
+            this(sourceClass, editable, destType, copyOptions.ignoreCase, copyOptions.transientSupport,
+                    null != copyOptions.ignoreProperties ? copyOptions.ignoreProperties : Normal.EMPTY_STRING_ARRAY,
+                    null != copyOptions.fieldMapping ? copyOptions.fieldMapping : Collections.emptyMap());
+        }
+
+        private Key(Class<?> sourceClass, Class<?> editable, Type destType, boolean ignoreCase,
+                    boolean transientSupport, String[] ignoreProperties, Map<String, String> fieldMapping) {
+            this.sourceClass = sourceClass;
+            this.editable = editable;
+            this.destType = destType;
+            this.ignoreCase = ignoreCase;
+            this.transientSupport = transientSupport;
+            this.ignoreProperties = ignoreProperties;
+            this.fieldMapping = fieldMapping;
+
+            int result = sourceClass.hashCode();
+            result = 31 * result + editable.hashCode();
+            result = 31 * result + Objects.hashCode(destType);
+            result = 31 * result + (ignoreCase ? 1 : 0);
+            result = 31 * result + (transientSupport ? 1 : 0);
+            result = 31 * result + Arrays.hashCode(ignoreProperties);
+            result = 31 * result + fieldMapping.hashCode();
+            this.hash = result;
+        }
+
+        /**
+         * 复制忽略属性和映射,用于放入缓存,避免选项被修改后影响缓存键
+         *
+         * @return 新的键
+         */
+        public Key snapshot() {
+            return new Key(sourceClass, editable, destType, ignoreCase, transientSupport,
+                    ignoreProperties.clone(), fieldMapping.isEmpty() ? Collections.emptyMap() : new HashMap<>(fieldMapping));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return hash == that.hash
+                    && sourceClass == that.sourceClass
+                    && editable == that.editable
+                    && ignoreCase == that.ignoreCase
+                    && transientSupport == that.transientSupport
+                    && Objects.equals(destType, that.destType)
+                    && Arrays.equals(ignoreProperties, that.ignoreProperties)
+                    && fieldMapping.equals(that.fieldMapping);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
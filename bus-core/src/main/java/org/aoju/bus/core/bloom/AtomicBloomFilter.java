@@ -0,0 +1,491 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.bloom;
+
+import org.aoju.bus.core.lang.Murmur;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 线程安全的BloomFilter
+ * <pre>
+ * 1. 每个元素只计算一次Murmur3 128位Hash，使用双重散列(h1 + i * h2)得到k个bit位置
+ * 2. bit位保存在{@link AtomicLongArray}中，通过CAS置位，多个线程可无锁并发写入
+ * 3. 相同参数的过滤器支持并集、交集运算，可保存至文件并通过内存映射读写
+ * </pre>
+ * 交集运算后的误判率不低于按交集元素直接构建的过滤器，仅适用于粗略判断
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class AtomicBloomFilter implements BloomFilter {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 文件头标识 "BUSBLOOM"
+     */
+    private static final long MAGIC = 0x425553424C4F4F4DL;
+    /**
+     * 文件头长度：标识、bit数、hash函数个数、已添加元素数
+     */
+    private static final int HEADER_SIZE = 32;
+    /**
+     * 单次内存映射的最大字节数
+     */
+    private static final long MAPPING_SIZE = 1L << 30;
+
+    /**
+     * bit数组
+     */
+    private final AtomicLongArray bits;
+    /**
+     * bit位总数
+     */
+    private final long bitSize;
+    /**
+     * hash函数个数
+     */
+    private final int hashes;
+    /**
+     * 改变了bit位的添加次数，近似等于已添加的不同元素数
+     */
+    private final AtomicLong count;
+
+    /**
+     * 构造
+     *
+     * @param bitSize bit位总数
+     * @param hashes  hash函数个数
+     */
+    public AtomicBloomFilter(long bitSize, int hashes) {
+        if (bitSize <= 0) {
+            throw new IllegalArgumentException("bit size must be positive");
+        }
+        if (hashes <= 0 || hashes > 255) {
+            throw new IllegalArgumentException("hashes must be between 1 and 255");
+        }
+        final long words = (bitSize + 63) >>> 6;
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(StringKit.format("bit size {} too large", bitSize));
+        }
+        this.bits = new AtomicLongArray((int) words);
+        this.bitSize = words << 6;
+        this.hashes = hashes;
+        this.count = new AtomicLong();
+    }
+
+    /**
+     * 根据预期元素数量和误判率创建过滤器
+     *
+     * @param expected 预期元素数量
+     * @param fpp      期望误判率，范围(0, 1)
+     * @return 过滤器
+     */
+    public static AtomicBloomFilter create(long expected, double fpp) {
+        if (expected <= 0) {
+            throw new IllegalArgumentException("expected must be positive");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be between 0 and 1");
+        }
+        final long bitSize = optimalBitSize(expected, fpp);
+        return new AtomicBloomFilter(bitSize, optimalHashes(expected, bitSize));
+    }
+
+    /**
+     * 计算最优bit位数：m = -n * ln(p) / (ln2)^2
+     *
+     * @param expected 预期元素数量
+     * @param fpp      期望误判率
+     * @return bit位数
+     */
+    public static long optimalBitSize(long expected, double fpp) {
+        return Math.max(64, (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+    }
+
+    /**
+     * 计算最优hash函数个数：k = m / n * ln2
+     *
+     * @param expected 预期元素数量
+     * @param bitSize  bit位数
+     * @return hash函数个数
+     */
+    public static int optimalHashes(long expected, long bitSize) {
+        return (int) Math.min(255, Math.max(1, Math.round((double) bitSize / expected * Math.log(2))));
+    }
+
+    /**
+     * 从文件加载过滤器，文件内容通过内存映射读取
+     *
+     * @param file 由{@link #save(File)}生成的文件
+     * @return 过滤器
+     */
+    public static AtomicBloomFilter load(File file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getLong() != MAGIC) {
+                throw new InstrumentException(StringKit.format("File [{}] is not a bloom filter", file));
+            }
+            final long bitSize = header.getLong();
+            final int hashes = (int) header.getLong();
+            final long count = header.getLong();
+
+            final AtomicBloomFilter filter = new AtomicBloomFilter(bitSize, hashes);
+            if (channel.size() < HEADER_SIZE + ((long) filter.bits.length() << 3)) {
+                throw new InstrumentException(StringKit.format("File [{}] is truncated", file));
+            }
+            filter.count.set(count);
+            filter.transfer(channel, FileChannel.MapMode.READ_ONLY);
+            return filter;
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 保存过滤器至文件，bit数组通过内存映射写入
+     * 保存过程中的并发写入可能只有部分被保存
+     *
+     * @param file 目标文件
+     */
+    public void save(File file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            final long length = HEADER_SIZE + ((long) bits.length() << 3);
+            raf.setLength(length);
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putLong(bitSize).putLong(hashes).putLong(count.get());
+            header.force();
+            transfer(channel, FileChannel.MapMode.READ_WRITE);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 分段映射文件，在bit数组与文件之间复制数据
+     *
+     * @param channel 文件通道
+     * @param mode    READ_ONLY表示从文件读取，READ_WRITE表示写入文件
+     * @throws IOException IO异常
+     */
+    private void transfer(FileChannel channel, FileChannel.MapMode mode) throws IOException {
+        final boolean write = mode == FileChannel.MapMode.READ_WRITE;
+        final int words = bits.length();
+        final int chunk = (int) (MAPPING_SIZE >>> 3);
+        for (int from = 0; from < words; from += chunk) {
+            final int to = (int) Math.min(words, (long) from + chunk);
+            final MappedByteBuffer buffer = channel.map(mode, HEADER_SIZE + ((long) from << 3), (long) (to - from) << 3);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = from; i < to; i++) {
+                if (write) {
+                    buffer.putLong(bits.get(i));
+                } else {
+                    bits.set(i, buffer.getLong());
+                }
+            }
+            if (write) {
+                buffer.force();
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(String text) {
+        return contains((CharSequence) text);
+    }
+
+    @Override
+    public boolean add(String text) {
+        return add((CharSequence) text);
+    }
+
+    /**
+     * 是否可能包含此字符序列，按UTF-8编码计算Hash
+     *
+     * @param text 字符序列
+     * @return 是否可能存在
+     */
+    public boolean contains(CharSequence text) {
+        return contains(Murmur.hash128(text));
+    }
+
+    /**
+     * 增加字符序列，按UTF-8编码计算Hash
+     *
+     * @param text 字符序列
+     * @return 是否改变了过滤器，false表示元素可能已存在
+     */
+    public boolean add(CharSequence text) {
+        return add(Murmur.hash128(text));
+    }
+
+    /**
+     * 是否可能包含此字节数组
+     *
+     * @param data 字节数组
+     * @return 是否可能存在
+     */
+    public boolean contains(byte[] data) {
+        return contains(Murmur.hash128(data));
+    }
+
+    /**
+     * 增加字节数组
+     *
+     * @param data 字节数组
+     * @return 是否改变了过滤器，false表示元素可能已存在
+     */
+    public boolean add(byte[] data) {
+        return add(Murmur.hash128(data));
+    }
+
+    /**
+     * 是否可能包含此数值
+     *
+     * @param value 数值
+     * @return 是否可能存在
+     */
+    public boolean contains(long value) {
+        return contains(Murmur.hash128(toBytes(value)));
+    }
+
+    /**
+     * 增加数值，按小端序8字节计算Hash
+     *
+     * @param value 数值
+     * @return 是否改变了过滤器，false表示元素可能已存在
+     */
+    public boolean add(long value) {
+        return add(Murmur.hash128(toBytes(value)));
+    }
+
+    /**
+     * 按128位Hash值判断是否可能存在，供相同Hash的多个过滤器复用
+     *
+     * @param hash {@link Murmur#hash128(byte[])}的结果
+     * @return 是否可能存在
+     */
+    boolean contains(long[] hash) {
+        long combined = hash[0];
+        for (int i = 0; i < hashes; i++) {
+            final long index = (combined & Long.MAX_VALUE) % bitSize;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    /**
+     * 按128位Hash值增加元素
+     *
+     * @param hash {@link Murmur#hash128(byte[])}的结果
+     * @return 是否改变了过滤器
+     */
+    boolean add(long[] hash) {
+        boolean changed = false;
+        long combined = hash[0];
+        for (int i = 0; i < hashes; i++) {
+            final long index = (combined & Long.MAX_VALUE) % bitSize;
+            changed |= set((int) (index >>> 6), 1L << index);
+            combined += hash[1];
+        }
+        if (changed) {
+            count.incrementAndGet();
+        }
+        return changed;
+    }
+
+    /**
+     * CAS置位
+     *
+     * @param word 所在long的下标
+     * @param mask 位掩码
+     * @return 此前是否未置位
+     */
+    private boolean set(int word, long mask) {
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (false == bits.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    /**
+     * 并集：将另一个过滤器的元素合并到当前过滤器
+     *
+     * @param other 参数相同的过滤器
+     * @return this
+     */
+    public AtomicBloomFilter union(AtomicBloomFilter other) {
+        checkCompatible(other);
+        for (int i = 0; i < bits.length(); i++) {
+            final long value = other.bits.get(i);
+            if (value != 0) {
+                bits.accumulateAndGet(i, value, (a, b) -> a | b);
+            }
+        }
+        count.set(approximateCount());
+        return this;
+    }
+
+    /**
+     * 交集：仅保留两个过滤器均置位的bit
+     *
+     * @param other 参数相同的过滤器
+     * @return this
+     */
+    public AtomicBloomFilter intersect(AtomicBloomFilter other) {
+        checkCompatible(other);
+        for (int i = 0; i < bits.length(); i++) {
+            bits.accumulateAndGet(i, other.bits.get(i), (a, b) -> a & b);
+        }
+        count.set(approximateCount());
+        return this;
+    }
+
+    /**
+     * 两个过滤器是否可以合并
+     *
+     * @param other 其它过滤器
+     * @return 是否bit位数与hash函数个数均相同
+     */
+    public boolean isCompatible(AtomicBloomFilter other) {
+        return null != other && other.bitSize == bitSize && other.hashes == hashes;
+    }
+
+    private void checkCompatible(AtomicBloomFilter other) {
+        if (false == isCompatible(other)) {
+            throw new IllegalArgumentException("Bloom filters must have the same bit size and hash count");
+        }
+    }
+
+    /**
+     * 已置位的bit数
+     *
+     * @return bit数
+     */
+    public long bitCount() {
+        long total = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            total += Long.bitCount(bits.get(i));
+        }
+        return total;
+    }
+
+    /**
+     * 根据置位比例估算元素数量：n = -m / k * ln(1 - X / m)
+     *
+     * @return 估算的元素数量
+     */
+    public long approximateCount() {
+        final double ratio = (double) bitCount() / bitSize;
+        if (ratio >= 1) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-Math.log1p(-ratio) * bitSize / hashes);
+    }
+
+    /**
+     * 当前状态下的预计误判率：(X / m) ^ k
+     *
+     * @return 误判率
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitCount() / bitSize, hashes);
+    }
+
+    /**
+     * 改变了过滤器的添加次数，近似等于已添加的不同元素数
+     *
+     * @return 元素数量
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * bit位总数，已按64对齐
+     *
+     * @return bit位总数
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * hash函数个数
+     *
+     * @return hash函数个数
+     */
+    public int hashes() {
+        return hashes;
+    }
+
+    /**
+     * 清空过滤器
+     */
+    public void clear() {
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0);
+        }
+        count.set(0);
+    }
+
+    /**
+     * 数值转换为小端序字节数组
+     *
+     * @param value 数值
+     * @return 字节数组
+     */
+    static byte[] toBytes(long value) {
+        final byte[] bytes = new byte[8];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (value >>> (i << 3));
+        }
+        return bytes;
+    }
+
+}
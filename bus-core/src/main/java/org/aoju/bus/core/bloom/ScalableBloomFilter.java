@@ -0,0 +1,262 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.bloom;
+
+import org.aoju.bus.core.lang.Murmur;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 可扩容的BloomFilter
+ * <pre>
+ * 1. 由多个{@link AtomicBloomFilter}串联组成，当前子过滤器达到容量后追加新的子过滤器
+ * 2. 新子过滤器容量按growth倍增长，误判率按tightening比例收紧，总误判率收敛于 fpp / (1 - tightening)
+ * 3. 每个元素只计算一次Murmur3 128位Hash，在全部子过滤器间复用
+ * </pre>
+ * 并发添加同一个新元素时，可能被重复计入不同子过滤器，不影响判断结果
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class ScalableBloomFilter implements BloomFilter {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 新子过滤器的容量增长倍数
+     */
+    private final int growth;
+    /**
+     * 新子过滤器的误判率收紧比例
+     */
+    private final double tightening;
+    /**
+     * 子过滤器列表，追加时整体替换
+     */
+    private volatile AtomicBloomFilter[] filters;
+    /**
+     * 各子过滤器的容量
+     */
+    private volatile long[] capacities;
+    /**
+     * 当前子过滤器的误判率
+     */
+    private double fpp;
+
+    /**
+     * 构造，容量每次翻倍，误判率每次收紧至0.8倍
+     *
+     * @param initial 初始容量
+     * @param fpp     初始误判率
+     */
+    public ScalableBloomFilter(long initial, double fpp) {
+        this(initial, fpp, 2, 0.8);
+    }
+
+    /**
+     * 构造
+     *
+     * @param initial    初始容量
+     * @param fpp        初始误判率
+     * @param growth     容量增长倍数，至少为1
+     * @param tightening 误判率收紧比例，范围(0, 1)
+     */
+    public ScalableBloomFilter(long initial, double fpp, int growth, double tightening) {
+        if (growth < 1) {
+            throw new IllegalArgumentException("growth must be at least 1");
+        }
+        if (tightening <= 0 || tightening >= 1) {
+            throw new IllegalArgumentException("tightening must be between 0 and 1");
+        }
+        this.growth = growth;
+        this.tightening = tightening;
+        this.fpp = fpp;
+        this.filters = new AtomicBloomFilter[]{AtomicBloomFilter.create(initial, fpp)};
+        this.capacities = new long[]{initial};
+    }
+
+    @Override
+    public boolean contains(String text) {
+        return contains((CharSequence) text);
+    }
+
+    @Override
+    public boolean add(String text) {
+        return add((CharSequence) text);
+    }
+
+    /**
+     * 是否可能包含此字符序列
+     *
+     * @param text 字符序列
+     * @return 是否可能存在
+     */
+    public boolean contains(CharSequence text) {
+        return contains(Murmur.hash128(text));
+    }
+
+    /**
+     * 增加字符序列
+     *
+     * @param text 字符序列
+     * @return 是否为新元素，false表示元素可能已存在
+     */
+    public boolean add(CharSequence text) {
+        return add(Murmur.hash128(text));
+    }
+
+    /**
+     * 是否可能包含此字节数组
+     *
+     * @param data 字节数组
+     * @return 是否可能存在
+     */
+    public boolean contains(byte[] data) {
+        return contains(Murmur.hash128(data));
+    }
+
+    /**
+     * 增加字节数组
+     *
+     * @param data 字节数组
+     * @return 是否为新元素，false表示元素可能已存在
+     */
+    public boolean add(byte[] data) {
+        return add(Murmur.hash128(data));
+    }
+
+    /**
+     * 是否可能包含此数值
+     *
+     * @param value 数值
+     * @return 是否可能存在
+     */
+    public boolean contains(long value) {
+        return contains(Murmur.hash128(AtomicBloomFilter.toBytes(value)));
+    }
+
+    /**
+     * 增加数值
+     *
+     * @param value 数值
+     * @return 是否为新元素，false表示元素可能已存在
+     */
+    public boolean add(long value) {
+        return add(Murmur.hash128(AtomicBloomFilter.toBytes(value)));
+    }
+
+    private boolean contains(long[] hash) {
+        final AtomicBloomFilter[] filters = this.filters;
+        // 新元素更可能落在较新的子过滤器中
+        for (int i = filters.length - 1; i >= 0; i--) {
+            if (filters[i].contains(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean add(long[] hash) {
+        if (contains(hash)) {
+            return false;
+        }
+        final AtomicBloomFilter[] filters = this.filters;
+        final int last = filters.length - 1;
+        final AtomicBloomFilter current = filters[last];
+        final boolean changed = current.add(hash);
+        if (current.count() >= capacities[last]) {
+            grow(current);
+        }
+        return changed;
+    }
+
+    /**
+     * 当前子过滤器已满时追加新的子过滤器
+     *
+     * @param full 已满的子过滤器
+     */
+    private synchronized void grow(AtomicBloomFilter full) {
+        final AtomicBloomFilter[] filters = this.filters;
+        if (filters[filters.length - 1] != full) {
+            // 其它线程已扩容
+            return;
+        }
+        final long[] capacities = this.capacities;
+        final long capacity = capacities[capacities.length - 1] * growth;
+        fpp *= tightening;
+
+        final AtomicBloomFilter[] newFilters = new AtomicBloomFilter[filters.length + 1];
+        System.arraycopy(filters, 0, newFilters, 0, filters.length);
+        newFilters[filters.length] = AtomicBloomFilter.create(capacity, fpp);
+        final long[] newCapacities = new long[capacities.length + 1];
+        System.arraycopy(capacities, 0, newCapacities, 0, capacities.length);
+        newCapacities[capacities.length] = capacity;
+
+        this.capacities = newCapacities;
+        this.filters = newFilters;
+    }
+
+    /**
+     * 全部子过滤器，只读
+     *
+     * @return 子过滤器列表
+     */
+    public List<AtomicBloomFilter> getFilters() {
+        final List<AtomicBloomFilter> list = new ArrayList<>();
+        Collections.addAll(list, filters);
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 已添加的元素数量(近似)
+     *
+     * @return 元素数量
+     */
+    public long count() {
+        long total = 0;
+        for (AtomicBloomFilter filter : filters) {
+            total += filter.count();
+        }
+        return total;
+    }
+
+    /**
+     * 当前状态下的预计误判率：1 - Π(1 - fpp_i)
+     *
+     * @return 误判率
+     */
+    public double expectedFpp() {
+        double none = 1;
+        for (AtomicBloomFilter filter : filters) {
+            none *= 1 - filter.expectedFpp();
+        }
+        return 1 - none;
+    }
+
+}
@@ -0,0 +1,211 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.io.Serializable;
+
+/**
+ * 线程安全的long到long散列表
+ * 按键的散列高位分为多个分段，每个分段是一个独立加锁的{@link LongLongMap}，不同分段的读写互不阻塞
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class ConcurrentLongLongMap implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LongLongMap[] segments;
+    private final int shift;
+
+    /**
+     * 构造，分段数为CPU核数的4倍
+     */
+    public ConcurrentLongLongMap() {
+        this(Hashing.DEFAULT_EXPECTED, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expected    期望元素数
+     * @param concurrency 期望的并发写线程数，决定分段数
+     */
+    public ConcurrentLongLongMap(int expected, int concurrency) {
+        final int count = Hashing.segmentCount(concurrency);
+        this.segments = new LongLongMap[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new LongLongMap(expected / count + 1);
+        }
+        this.shift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key 键
+     * @return 值，不存在返回0
+     */
+    public long get(long key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key          键
+     * @param defaultValue 不存在时的默认值
+     * @return 值
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        final LongLongMap segment = segment(key);
+        synchronized (segment) {
+            return segment.getOrDefault(key, defaultValue);
+        }
+    }
+
+    /**
+     * 是否包含键
+     *
+     * @param key 键
+     * @return 是否包含
+     */
+    public boolean containsKey(long key) {
+        final LongLongMap segment = segment(key);
+        synchronized (segment) {
+            return segment.containsKey(key);
+        }
+    }
+
+    /**
+     * 放入键值
+     *
+     * @param key   键
+     * @param value 值
+     * @return 旧值，不存在返回0
+     */
+    public long put(long key, long value) {
+        final LongLongMap segment = segment(key);
+        synchronized (segment) {
+            return segment.put(key, value);
+        }
+    }
+
+    /**
+     * 键不存在时放入
+     *
+     * @param key   键
+     * @param value 值
+     * @return 是否放入
+     */
+    public boolean putIfAbsent(long key, long value) {
+        final LongLongMap segment = segment(key);
+        synchronized (segment) {
+            return segment.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * 原子累加值，不存在时视为0
+     *
+     * @param key   键
+     * @param delta 增量
+     * @return 累加后的值
+     */
+    public long addTo(long key, long delta) {
+        final LongLongMap segment = segment(key);
+        synchronized (segment) {
+            return segment.addTo(key, delta);
+        }
+    }
+
+    /**
+     * 移除键
+     *
+     * @param key 键
+     * @return 是否存在并被移除
+     */
+    public boolean remove(long key) {
+        final LongLongMap segment = segment(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    /**
+     * 元素数，并发修改时为近似值
+     *
+     * @return 元素数
+     */
+    public int size() {
+        int size = 0;
+        for (LongLongMap segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 清空
+     */
+    public void clear() {
+        for (LongLongMap segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * 逐个分段遍历，遍历某个分段时持有该分段的锁
+     *
+     * @param consumer 键值消费者
+     */
+    public void forEach(LongLongMap.EntryConsumer consumer) {
+        for (LongLongMap segment : segments) {
+            synchronized (segment) {
+                segment.forEach(consumer);
+            }
+        }
+    }
+
+    private LongLongMap segment(long key) {
+        return segments[shift == 32 ? 0 : Hashing.mix(key) >>> shift];
+    }
+
+}
@@ -0,0 +1,202 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.io.Serializable;
+import java.util.function.LongFunction;
+
+/**
+ * 线程安全的long到对象散列表
+ * 按键的散列高位分为多个分段，每个分段是一个独立加锁的{@link LongObjectMap}，不同分段的读写互不阻塞
+ *
+ * @param <V> 值类型
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class ConcurrentLongObjectMap<V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LongObjectMap<V>[] segments;
+    private final int shift;
+
+    /**
+     * 构造，分段数为CPU核数的4倍
+     */
+    public ConcurrentLongObjectMap() {
+        this(Hashing.DEFAULT_EXPECTED, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expected    期望元素数
+     * @param concurrency 期望的并发写线程数，决定分段数
+     */
+    public ConcurrentLongObjectMap(int expected, int concurrency) {
+        final int count = Hashing.segmentCount(concurrency);
+        this.segments = new LongObjectMap[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new LongObjectMap<>(expected / count + 1);
+        }
+        this.shift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key 键
+     * @return 值，不存在返回null
+     */
+    public V get(long key) {
+        final LongObjectMap<V> segment = segment(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * 是否包含键
+     *
+     * @param key 键
+     * @return 是否包含
+     */
+    public boolean containsKey(long key) {
+        final LongObjectMap<V> segment = segment(key);
+        synchronized (segment) {
+            return segment.containsKey(key);
+        }
+    }
+
+    /**
+     * 放入键值
+     *
+     * @param key   键
+     * @param value 值
+     * @return 旧值，不存在返回null
+     */
+    public V put(long key, V value) {
+        final LongObjectMap<V> segment = segment(key);
+        synchronized (segment) {
+            return segment.put(key, value);
+        }
+    }
+
+    /**
+     * 键不存在时放入
+     *
+     * @param key   键
+     * @param value 值
+     * @return 已存在的值，不存在时放入并返回null
+     */
+    public V putIfAbsent(long key, V value) {
+        final LongObjectMap<V> segment = segment(key);
+        synchronized (segment) {
+            return segment.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * 键不存在时计算并放入，计算函数在分段锁内执行，应避免耗时操作
+     *
+     * @param key      键
+     * @param function 值计算函数，返回null时不放入
+     * @return 已存在或新计算的值
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> function) {
+        final LongObjectMap<V> segment = segment(key);
+        synchronized (segment) {
+            return segment.computeIfAbsent(key, function);
+        }
+    }
+
+    /**
+     * 移除键
+     *
+     * @param key 键
+     * @return 旧值，不存在返回null
+     */
+    public V remove(long key) {
+        final LongObjectMap<V> segment = segment(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    /**
+     * 元素数，并发修改时为近似值
+     *
+     * @return 元素数
+     */
+    public int size() {
+        int size = 0;
+        for (LongObjectMap<V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 清空
+     */
+    public void clear() {
+        for (LongObjectMap<V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * 逐个分段遍历，遍历某个分段时持有该分段的锁
+     *
+     * @param consumer 键值消费者
+     */
+    public void forEach(LongObjectMap.EntryConsumer<? super V> consumer) {
+        for (LongObjectMap<V> segment : segments) {
+            synchronized (segment) {
+                segment.forEach(consumer);
+            }
+        }
+    }
+
+    private LongObjectMap<V> segment(long key) {
+        return segments[shift == 32 ? 0 : Hashing.mix(key) >>> shift];
+    }
+
+}
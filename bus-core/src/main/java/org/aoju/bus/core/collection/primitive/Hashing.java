@@ -0,0 +1,146 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+/**
+ * 开放寻址表公用的散列及容量计算
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+final class Hashing {
+
+    /**
+     * 默认期望容量
+     */
+    static final int DEFAULT_EXPECTED = 16;
+    /**
+     * 默认加载因子，线性探测下兼顾内存与探测长度
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.7f;
+    /**
+     * 最大槽位数
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private Hashing() {
+
+    }
+
+    /**
+     * 打散long键，避免连续ID集中在相邻槽位
+     *
+     * @param key 键
+     * @return 散列值
+     */
+    static int mix(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * 打散int键
+     *
+     * @param key 键
+     * @return 散列值
+     */
+    static int mix(int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 按期望元素数和加载因子计算槽位数，结果为2的幂
+     *
+     * @param expected   期望元素数
+     * @param loadFactor 加载因子
+     * @return 槽位数
+     */
+    static int capacity(int expected, float loadFactor) {
+        if (expected < 0) {
+            throw new IllegalArgumentException("expected must not be negative");
+        }
+        if (false == (loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("load factor must be between 0 and 1");
+        }
+        final long required = Math.max(4, (long) Math.ceil(expected / (double) loadFactor) + 1);
+        if (required > MAX_CAPACITY) {
+            throw new IllegalArgumentException("expected size too large: " + expected);
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+    /**
+     * 扩容阈值
+     *
+     * @param capacity   槽位数
+     * @param loadFactor 加载因子
+     * @return 元素数达到此值时扩容
+     */
+    static int threshold(int capacity, float loadFactor) {
+        return Math.min(capacity - 1, (int) (capacity * (double) loadFactor));
+    }
+
+    /**
+     * 扩容后的槽位数
+     *
+     * @param capacity 当前槽位数
+     * @return 新槽位数
+     */
+    static int grow(int capacity) {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Table is full, capacity: " + capacity);
+        }
+        return capacity << 1;
+    }
+
+    /**
+     * 删除元素后，槽位j的元素是否可以回移到空槽位i(线性探测的后移删除)
+     *
+     * @param home 元素的初始槽位
+     * @param i    空槽位
+     * @param j    元素当前槽位
+     * @return 是否可以回移
+     */
+    static boolean canShift(int home, int i, int j) {
+        return j > i ? (home <= i || home > j) : (home <= i && home > j);
+    }
+
+    /**
+     * 计算分段数，结果为2的幂
+     *
+     * @param concurrency 并发数
+     * @return 分段数
+     */
+    static int segmentCount(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+        return Math.min(1 << 16, Integer.highestOneBit(Math.max(1, concurrency - 1)) << (concurrency > 1 ? 1 : 0));
+    }
+
+}
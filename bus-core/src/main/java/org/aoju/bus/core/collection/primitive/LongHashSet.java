@@ -0,0 +1,274 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * long的开放寻址散列集合，使用线性探测及后移删除，不装箱
+ * 元素0单独保存，不占用槽位；非线程安全
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class LongHashSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final float loadFactor;
+    private long[] keys;
+    private int mask;
+    private int threshold;
+    /**
+     * 槽位中的元素数，不含0
+     */
+    private int assigned;
+    private boolean hasZero;
+
+    /**
+     * 构造
+     */
+    public LongHashSet() {
+        this(Hashing.DEFAULT_EXPECTED);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expected 期望元素数
+     */
+    public LongHashSet(int expected) {
+        this(expected, Hashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expected   期望元素数
+     * @param loadFactor 加载因子，范围(0, 1)
+     */
+    public LongHashSet(int expected, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(Hashing.capacity(expected, loadFactor));
+    }
+
+    /**
+     * 加入元素
+     *
+     * @param value 元素
+     * @return 是否为新元素
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            final boolean added = false == hasZero;
+            hasZero = true;
+            return added;
+        }
+        int slot = slot(value);
+        if (slot >= 0) {
+            return false;
+        }
+        if (assigned >= threshold) {
+            rehash(Hashing.grow(keys.length));
+            slot = slot(value);
+        }
+        keys[-slot - 1] = value;
+        assigned++;
+        return true;
+    }
+
+    /**
+     * 批量加入元素
+     *
+     * @param values 元素
+     * @return 是否有新元素
+     */
+    public boolean addAll(long... values) {
+        boolean changed = false;
+        for (long value : values) {
+            changed |= add(value);
+        }
+        return changed;
+    }
+
+    /**
+     * 是否包含元素
+     *
+     * @param value 元素
+     * @return 是否包含
+     */
+    public boolean contains(long value) {
+        return value == 0 ? hasZero : slot(value) >= 0;
+    }
+
+    /**
+     * 移除元素
+     *
+     * @param value 元素
+     * @return 是否存在并被移除
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            final boolean existed = hasZero;
+            hasZero = false;
+            return existed;
+        }
+        int i = slot(value);
+        if (i < 0) {
+            return false;
+        }
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            final long k = keys[j];
+            if (k == 0) {
+                break;
+            }
+            if (Hashing.canShift(Hashing.mix(k) & mask, i, j)) {
+                keys[i] = k;
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        assigned--;
+        return true;
+    }
+
+    /**
+     * 元素数
+     *
+     * @return 元素数
+     */
+    public int size() {
+        return hasZero ? assigned + 1 : assigned;
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 清空，保留已分配的槽位
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        assigned = 0;
+        hasZero = false;
+    }
+
+    /**
+     * 遍历全部元素
+     *
+     * @param consumer 元素消费者
+     */
+    public void forEach(LongConsumer consumer) {
+        if (hasZero) {
+            consumer.accept(0);
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                consumer.accept(key);
+            }
+        }
+    }
+
+    /**
+     * 转换为数组
+     *
+     * @return 元素数组
+     */
+    public long[] toArray() {
+        final long[] result = new long[size()];
+        int n = 0;
+        if (hasZero) {
+            result[n++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /**
+     * 查找元素所在槽位
+     *
+     * @param value 非0元素
+     * @return 存在时为槽位，不存在时为 -(插入槽位 + 1)
+     */
+    private int slot(long value) {
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        int i = Hashing.mix(value) & mask;
+        long k;
+        while ((k = keys[i]) != 0) {
+            if (k == value) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -i - 1;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+        this.threshold = Hashing.threshold(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = this.keys;
+        allocate(capacity);
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        for (long key : oldKeys) {
+            if (key != 0) {
+                int slot = Hashing.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,398 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * long到long的开放寻址散列表，使用线性探测及后移删除，不装箱
+ * 键0单独保存，不占用槽位；非线程安全，并发场景请使用{@link ConcurrentLongLongMap}
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class LongLongMap implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final float loadFactor;
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int threshold;
+    /**
+     * 槽位中的元素数，不含键0
+     */
+    private int assigned;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    /**
+     * 构造
+     */
+    public LongLongMap() {
+        this(Hashing.DEFAULT_EXPECTED);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expected 期望元素数
+     */
+    public LongLongMap(int expected) {
+        this(expected, Hashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expected   期望元素数
+     * @param loadFactor 加载因子，范围(0, 1)
+     */
+    public LongLongMap(int expected, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(Hashing.capacity(expected, loadFactor));
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key 键
+     * @return 值，不存在返回0
+     */
+    public long get(long key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key          键
+     * @param defaultValue 不存在时的默认值
+     * @return 值
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        int i = Hashing.mix(key) & mask;
+        long k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * 是否包含键
+     *
+     * @param key 键
+     * @return 是否包含
+     */
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : slot(key) >= 0;
+    }
+
+    /**
+     * 放入键值
+     *
+     * @param key   键
+     * @param value 值
+     * @return 旧值，不存在返回0
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            final long previous = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        final int slot = slot(key);
+        if (slot >= 0) {
+            final long previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(-slot - 1, key, value);
+        return 0;
+    }
+
+    /**
+     * 键不存在时放入
+     *
+     * @param key   键
+     * @param value 值
+     * @return 是否放入
+     */
+    public boolean putIfAbsent(long key, long value) {
+        if (key == 0) {
+            if (hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = true;
+            zeroValue = value;
+            return true;
+        }
+        final int slot = slot(key);
+        if (slot >= 0) {
+            return false;
+        }
+        insert(-slot - 1, key, value);
+        return true;
+    }
+
+    /**
+     * 累加值，不存在时视为0，适用于计数
+     *
+     * @param key   键
+     * @param delta 增量
+     * @return 累加后的值
+     */
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            zeroValue = hasZeroKey ? zeroValue + delta : delta;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        final int slot = slot(key);
+        if (slot >= 0) {
+            return values[slot] += delta;
+        }
+        insert(-slot - 1, key, delta);
+        return delta;
+    }
+
+    /**
+     * 移除键
+     *
+     * @param key 键
+     * @return 是否存在并被移除
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            final boolean existed = hasZeroKey;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return existed;
+        }
+        final int slot = slot(key);
+        if (slot < 0) {
+            return false;
+        }
+        shiftRemove(slot);
+        return true;
+    }
+
+    /**
+     * 元素数
+     *
+     * @return 元素数
+     */
+    public int size() {
+        return hasZeroKey ? assigned + 1 : assigned;
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 清空，保留已分配的槽位
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        assigned = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    /**
+     * 遍历全部键值
+     *
+     * @param consumer 键值消费者
+     */
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        final long[] keys = this.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * 全部键
+     *
+     * @return 键数组
+     */
+    public long[] keys() {
+        final long[] result = new long[size()];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 全部值，顺序与{@link #keys()}一致
+     *
+     * @return 值数组
+     */
+    public long[] values() {
+        final long[] result = new long[size()];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = zeroValue;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                result[n++] = values[i];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> builder.append(builder.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return builder.append('}').toString();
+    }
+
+    /**
+     * 查找键所在槽位
+     *
+     * @param key 非0键
+     * @return 存在时为槽位，不存在时为 -(插入槽位 + 1)
+     */
+    private int slot(long key) {
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        int i = Hashing.mix(key) & mask;
+        long k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -i - 1;
+    }
+
+    private void insert(int slot, long key, long value) {
+        if (assigned >= threshold) {
+            rehash(Hashing.grow(keys.length));
+            slot = -slot(key) - 1;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        assigned++;
+    }
+
+    private void shiftRemove(int i) {
+        final long[] keys = this.keys;
+        final long[] values = this.values;
+        final int mask = this.mask;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            final long k = keys[j];
+            if (k == 0) {
+                break;
+            }
+            if (Hashing.canShift(Hashing.mix(k) & mask, i, j)) {
+                keys[i] = k;
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        assigned--;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+        this.threshold = Hashing.threshold(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = this.keys;
+        final long[] oldValues = this.values;
+        allocate(capacity);
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        for (int i = 0; i < oldKeys.length; i++) {
+            final long key = oldKeys[i];
+            if (key != 0) {
+                int slot = Hashing.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * 键值消费者
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * 处理键值
+         *
+         * @param key   键
+         * @param value 值
+         */
+        void accept(long key, long value);
+    }
+
+}
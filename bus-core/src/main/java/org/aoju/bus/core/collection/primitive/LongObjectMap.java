@@ -0,0 +1,400 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * long到对象的开放寻址散列表，使用线性探测及后移删除，键不装箱
+ * 键0单独保存，不占用槽位；非线程安全，并发场景请使用{@link ConcurrentLongObjectMap}
+ *
+ * @param <V> 值类型
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class LongObjectMap<V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final float loadFactor;
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int threshold;
+    /**
+     * 槽位中的元素数，不含键0
+     */
+    private int assigned;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    /**
+     * 构造
+     */
+    public LongObjectMap() {
+        this(Hashing.DEFAULT_EXPECTED);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expected 期望元素数
+     */
+    public LongObjectMap(int expected) {
+        this(expected, Hashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expected   期望元素数
+     * @param loadFactor 加载因子，范围(0, 1)
+     */
+    public LongObjectMap(int expected, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(Hashing.capacity(expected, loadFactor));
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key 键
+     * @return 值，不存在返回null
+     */
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        int i = Hashing.mix(key) & mask;
+        long k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                return value(i);
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * 是否包含键
+     *
+     * @param key 键
+     * @return 是否包含
+     */
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : slot(key) >= 0;
+    }
+
+    /**
+     * 放入键值
+     *
+     * @param key   键
+     * @param value 值
+     * @return 旧值，不存在返回null
+     */
+    public V put(long key, V value) {
+        if (key == 0) {
+            final V previous = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        final int slot = slot(key);
+        if (slot >= 0) {
+            final V previous = value(slot);
+            values[slot] = value;
+            return previous;
+        }
+        insert(-slot - 1, key, value);
+        return null;
+    }
+
+    /**
+     * 键不存在时放入
+     *
+     * @param key   键
+     * @param value 值
+     * @return 已存在的值，不存在时放入并返回null
+     */
+    public V putIfAbsent(long key, V value) {
+        if (key == 0) {
+            if (hasZeroKey) {
+                return zeroValue;
+            }
+            hasZeroKey = true;
+            zeroValue = value;
+            return null;
+        }
+        final int slot = slot(key);
+        if (slot >= 0) {
+            return value(slot);
+        }
+        insert(-slot - 1, key, value);
+        return null;
+    }
+
+    /**
+     * 键不存在时计算并放入
+     *
+     * @param key      键
+     * @param function 值计算函数，返回null时不放入
+     * @return 已存在或新计算的值
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> function) {
+        if (key == 0) {
+            if (false == hasZeroKey) {
+                final V value = function.apply(key);
+                if (null != value) {
+                    hasZeroKey = true;
+                    zeroValue = value;
+                }
+            }
+            return zeroValue;
+        }
+        final int slot = slot(key);
+        if (slot >= 0) {
+            return value(slot);
+        }
+        final V value = function.apply(key);
+        if (null != value) {
+            insert(-slot - 1, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 移除键
+     *
+     * @param key 键
+     * @return 旧值，不存在返回null
+     */
+    public V remove(long key) {
+        if (key == 0) {
+            final V previous = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return previous;
+        }
+        final int slot = slot(key);
+        if (slot < 0) {
+            return null;
+        }
+        final V previous = value(slot);
+        shiftRemove(slot);
+        return previous;
+    }
+
+    /**
+     * 元素数
+     *
+     * @return 元素数
+     */
+    public int size() {
+        return hasZeroKey ? assigned + 1 : assigned;
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 清空，保留已分配的槽位
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        assigned = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    /**
+     * 遍历全部键值
+     *
+     * @param consumer 键值消费者
+     */
+    public void forEach(EntryConsumer<? super V> consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        final long[] keys = this.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], value(i));
+            }
+        }
+    }
+
+    /**
+     * 全部键
+     *
+     * @return 键数组
+     */
+    public long[] keys() {
+        final long[] result = new long[size()];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 全部值，顺序与{@link #keys()}一致
+     *
+     * @return 值列表
+     */
+    public List<V> values() {
+        final List<V> result = new ArrayList<>(size());
+        forEach((key, value) -> result.add(value));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> builder.append(builder.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return builder.append('}').toString();
+    }
+
+    private V value(int slot) {
+        return (V) values[slot];
+    }
+
+    /**
+     * 查找键所在槽位
+     *
+     * @param key 非0键
+     * @return 存在时为槽位，不存在时为 -(插入槽位 + 1)
+     */
+    private int slot(long key) {
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        int i = Hashing.mix(key) & mask;
+        long k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -i - 1;
+    }
+
+    private void insert(int slot, long key, V value) {
+        if (assigned >= threshold) {
+            rehash(Hashing.grow(keys.length));
+            slot = -slot(key) - 1;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        assigned++;
+    }
+
+    private void shiftRemove(int i) {
+        final long[] keys = this.keys;
+        final Object[] values = this.values;
+        final int mask = this.mask;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            final long k = keys[j];
+            if (k == 0) {
+                break;
+            }
+            if (Hashing.canShift(Hashing.mix(k) & mask, i, j)) {
+                keys[i] = k;
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        values[i] = null;
+        assigned--;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.threshold = Hashing.threshold(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        allocate(capacity);
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        for (int i = 0; i < oldKeys.length; i++) {
+            final long key = oldKeys[i];
+            if (key != 0) {
+                int slot = Hashing.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * 键值消费者
+     *
+     * @param <V> 值类型
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * 处理键值
+         *
+         * @param key   键
+         * @param value 值
+         */
+        void accept(long key, V value);
+    }
+
+}
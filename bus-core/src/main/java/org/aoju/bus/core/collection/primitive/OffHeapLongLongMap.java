@@ -0,0 +1,341 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 堆外的long到long开放寻址散列表，键值成对保存在直接内存{@link ByteBuffer}中，不占用堆空间，适合大容量缓存
+ * <pre>
+ * 1. 每个槽位16字节(键、值)，按页分配直接内存，每页最多1M个槽位，总容量不受单个ByteBuffer 2GB的限制
+ * 2. 线性探测及后移删除，键0单独保存
+ * 3. 扩容时分配新页并重新散列，旧页在GC时释放
+ * </pre>
+ * 非线程安全
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class OffHeapLongLongMap {
+
+    /**
+     * 每页槽位数的位数
+     */
+    private static final int PAGE_SHIFT = 20;
+    /**
+     * 每个槽位的字节数
+     */
+    private static final int SLOT_SIZE = 16;
+
+    private final float loadFactor;
+    private ByteBuffer[] pages;
+    private int pageShift;
+    private int pageMask;
+    private int capacity;
+    private int mask;
+    private int threshold;
+    /**
+     * 槽位中的元素数，不含键0
+     */
+    private int assigned;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    /**
+     * 构造
+     *
+     * @param expected 期望元素数
+     */
+    public OffHeapLongLongMap(int expected) {
+        this(expected, Hashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expected   期望元素数
+     * @param loadFactor 加载因子，范围(0, 1)
+     */
+    public OffHeapLongLongMap(int expected, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(Hashing.capacity(expected, loadFactor));
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key 键
+     * @return 值，不存在返回0
+     */
+    public long get(long key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key          键
+     * @param defaultValue 不存在时的默认值
+     * @return 值
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        final int slot = slot(key);
+        return slot >= 0 ? value(slot) : defaultValue;
+    }
+
+    /**
+     * 是否包含键
+     *
+     * @param key 键
+     * @return 是否包含
+     */
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : slot(key) >= 0;
+    }
+
+    /**
+     * 放入键值
+     *
+     * @param key   键
+     * @param value 值
+     * @return 旧值，不存在返回0
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            final long previous = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        final int slot = slot(key);
+        if (slot >= 0) {
+            final long previous = value(slot);
+            setValue(slot, value);
+            return previous;
+        }
+        insert(-slot - 1, key, value);
+        return 0;
+    }
+
+    /**
+     * 累加值，不存在时视为0
+     *
+     * @param key   键
+     * @param delta 增量
+     * @return 累加后的值
+     */
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            zeroValue = hasZeroKey ? zeroValue + delta : delta;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        final int slot = slot(key);
+        if (slot >= 0) {
+            final long value = value(slot) + delta;
+            setValue(slot, value);
+            return value;
+        }
+        insert(-slot - 1, key, delta);
+        return delta;
+    }
+
+    /**
+     * 移除键
+     *
+     * @param key 键
+     * @return 是否存在并被移除
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            final boolean existed = hasZeroKey;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return existed;
+        }
+        int i = slot(key);
+        if (i < 0) {
+            return false;
+        }
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            final long k = key(j);
+            if (k == 0) {
+                break;
+            }
+            if (Hashing.canShift(Hashing.mix(k) & mask, i, j)) {
+                setKey(i, k);
+                setValue(i, value(j));
+                i = j;
+            }
+        }
+        setKey(i, 0);
+        assigned--;
+        return true;
+    }
+
+    /**
+     * 元素数
+     *
+     * @return 元素数
+     */
+    public int size() {
+        return hasZeroKey ? assigned + 1 : assigned;
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 清空，保留已分配的直接内存
+     */
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            setKey(i, 0);
+        }
+        assigned = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    /**
+     * 遍历全部键值
+     *
+     * @param consumer 键值消费者
+     */
+    public void forEach(LongLongMap.EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        for (int i = 0; i < capacity; i++) {
+            final long key = key(i);
+            if (key != 0) {
+                consumer.accept(key, value(i));
+            }
+        }
+    }
+
+    /**
+     * 已分配的直接内存字节数
+     *
+     * @return 字节数
+     */
+    public long memoryUsage() {
+        return (long) capacity * SLOT_SIZE;
+    }
+
+    /**
+     * 查找键所在槽位
+     *
+     * @param key 非0键
+     * @return 存在时为槽位，不存在时为 -(插入槽位 + 1)
+     */
+    private int slot(long key) {
+        int i = Hashing.mix(key) & mask;
+        long k;
+        while ((k = key(i)) != 0) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -i - 1;
+    }
+
+    private void insert(int slot, long key, long value) {
+        if (assigned >= threshold) {
+            rehash(Hashing.grow(capacity));
+            slot = -slot(key) - 1;
+        }
+        setKey(slot, key);
+        setValue(slot, value);
+        assigned++;
+    }
+
+    private long key(int slot) {
+        return pages[slot >>> pageShift].getLong((slot & pageMask) * SLOT_SIZE);
+    }
+
+    private long value(int slot) {
+        return pages[slot >>> pageShift].getLong((slot & pageMask) * SLOT_SIZE + 8);
+    }
+
+    private void setKey(int slot, long key) {
+        pages[slot >>> pageShift].putLong((slot & pageMask) * SLOT_SIZE, key);
+    }
+
+    private void setValue(int slot, long value) {
+        pages[slot >>> pageShift].putLong((slot & pageMask) * SLOT_SIZE + 8, value);
+    }
+
+    private void allocate(int capacity) {
+        // 容量为2的幂，页大小取容量与1M槽位的较小值
+        final int pageShift = Math.min(PAGE_SHIFT, Integer.numberOfTrailingZeros(capacity));
+        final int pageSlots = 1 << pageShift;
+        final ByteBuffer[] pages = new ByteBuffer[capacity / pageSlots];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = ByteBuffer.allocateDirect(pageSlots * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        }
+        this.pages = pages;
+        this.pageShift = pageShift;
+        this.pageMask = pageSlots - 1;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.threshold = Hashing.threshold(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        final ByteBuffer[] oldPages = this.pages;
+        final int oldPageSlots = this.pageMask + 1;
+        allocate(capacity);
+        for (ByteBuffer page : oldPages) {
+            for (int offset = 0; offset < oldPageSlots * SLOT_SIZE; offset += SLOT_SIZE) {
+                final long key = page.getLong(offset);
+                if (key != 0) {
+                    int slot = Hashing.mix(key) & mask;
+                    while (key(slot) != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    setKey(slot, key);
+                    setValue(slot, page.getLong(offset + 8));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,8 @@
+/**
+ * 基本类型集合，避免装箱带来的内存及性能开销
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+package org.aoju.bus.core.collection.primitive;
\ No newline at end of file
@@ -0,0 +1,592 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.compress;
+
+import org.aoju.bus.core.io.resource.Resource;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.thread.NamedThreadFactory;
+import org.aoju.bus.core.toolkit.ArrayKit;
+import org.aoju.bus.core.toolkit.FileKit;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 并行压缩的Zip生成器
+ * <pre>
+ * 1. 每个条目在线程池中独立读取、计算CRC并压缩到各自的缓冲区
+ * 2. 压缩结果按添加顺序写出本地文件头及数据，关闭时写出中央目录
+ * 3. 压缩后未变小的条目以STORED方式保存；条目数或偏移超出限制时自动写出ZIP64结束记录
+ * </pre>
+ * 同时压缩的条目数受限，单个条目须小于2GB，大文件较多时请使用{@link ZipWriter}
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class ParallelZipWriter implements Closeable {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+    private static final int ZIP64_END_HEADER = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+    /**
+     * 文件名使用UTF-8编码的标识位
+     */
+    private static final int FLAG_UTF8 = 1 << 11;
+
+    private final WritableByteChannel channel;
+    private final Charset charset;
+    private final ExecutorService executor;
+    /**
+     * 是否由本对象创建线程池，关闭时一并关闭
+     */
+    private final boolean ownExecutor;
+    /**
+     * 同时在压缩或等待写出的最大条目数
+     */
+    private final int maxPending;
+    /**
+     * 按添加顺序等待写出的条目
+     */
+    private final ArrayDeque<Future<Entry>> pending = new ArrayDeque<>();
+    /**
+     * 已写出的条目，用于生成中央目录
+     */
+    private final List<Entry> written = new ArrayList<>();
+    /**
+     * 每个线程复用的压缩器
+     */
+    private final ThreadLocal<Deflater> deflaters;
+
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private String comment;
+    /**
+     * 当前写出位置
+     */
+    private long offset;
+    private boolean closed;
+
+    /**
+     * 构造，使用CPU核数个压缩线程
+     *
+     * @param zipFile 生成的Zip文件
+     * @param charset 文件名编码
+     */
+    public ParallelZipWriter(File zipFile, Charset charset) {
+        this(open(zipFile), charset, null);
+    }
+
+    /**
+     * 构造
+     *
+     * @param out      Zip输出的流，一般为输出文件流
+     * @param charset  文件名编码
+     * @param executor 压缩使用的线程池，null表示使用CPU核数个压缩线程
+     */
+    public ParallelZipWriter(OutputStream out, Charset charset, ExecutorService executor) {
+        this(Channels.newChannel(out), charset, executor);
+    }
+
+    /**
+     * 构造
+     *
+     * @param channel  输出通道
+     * @param charset  文件名编码
+     * @param executor 压缩使用的线程池，null表示使用CPU核数个压缩线程
+     */
+    public ParallelZipWriter(WritableByteChannel channel, Charset charset, ExecutorService executor) {
+        this.channel = channel;
+        this.charset = null == charset ? StandardCharsets.UTF_8 : charset;
+        final int threads = Runtime.getRuntime().availableProcessors();
+        if (null == executor) {
+            this.executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("zip-", true));
+            this.ownExecutor = true;
+        } else {
+            this.executor = executor;
+            this.ownExecutor = false;
+        }
+        this.maxPending = threads * 2 + 1;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    }
+
+    /**
+     * 创建{@link ParallelZipWriter}
+     *
+     * @param zipFile 生成的Zip文件
+     * @param charset 编码
+     * @return {@link ParallelZipWriter}
+     */
+    public static ParallelZipWriter of(File zipFile, Charset charset) {
+        return new ParallelZipWriter(zipFile, charset);
+    }
+
+    private static FileChannel open(File zipFile) {
+        FileKit.mkdir(zipFile.getAbsoluteFile().getParentFile());
+        try {
+            return FileChannel.open(zipFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 设置压缩级别，可选1~9，-1表示默认，须在添加条目前设置
+     *
+     * @param level 压缩级别
+     * @return this
+     */
+    public ParallelZipWriter setLevel(int level) {
+        this.level = level;
+        return this;
+    }
+
+    /**
+     * 设置注释
+     *
+     * @param comment 注释
+     * @return this
+     */
+    public ParallelZipWriter setComment(String comment) {
+        this.comment = comment;
+        return this;
+    }
+
+    /**
+     * 对文件或文件目录进行压缩，文件在压缩线程中读取
+     *
+     * @param withSrcDir 是否包含被打包目录，只针对压缩目录有效
+     * @param filter     文件过滤器，{@code null}表示不过滤
+     * @param files      要压缩的源文件或目录
+     * @return this
+     * @throws InstrumentException IO异常
+     */
+    public ParallelZipWriter add(boolean withSrcDir, FileFilter filter, File... files) throws InstrumentException {
+        for (File file : files) {
+            String srcRootDir;
+            try {
+                srcRootDir = file.getCanonicalPath();
+                if ((false == file.isDirectory()) || withSrcDir) {
+                    srcRootDir = file.getCanonicalFile().getParentFile().getCanonicalPath();
+                }
+            } catch (IOException e) {
+                throw new InstrumentException(e);
+            }
+            add(file, srcRootDir, filter);
+        }
+        return this;
+    }
+
+    /**
+     * 添加资源到压缩包，添加后关闭资源流
+     *
+     * @param resources 需要压缩的资源，资源的路径为{@link Resource#getName()}
+     * @return this
+     */
+    public ParallelZipWriter add(Resource... resources) {
+        for (Resource resource : resources) {
+            if (null != resource) {
+                add(resource.getName(), resource.getStream());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 添加文件流到压缩包，流在压缩线程中读取，读取后关闭
+     * 如果输入流为{@code null}，则只创建空目录
+     *
+     * @param path 压缩的路径
+     * @param in   需要压缩的输入流，{@code null}表示加入空目录
+     * @return this
+     */
+    public ParallelZipWriter add(String path, InputStream in) {
+        path = StringKit.nullToEmpty(path);
+        if (null == in) {
+            path = StringKit.addSuffixIfNot(path, Symbol.SLASH);
+            if (StringKit.isBlank(path)) {
+                return this;
+            }
+            final String name = path;
+            return submit(() -> compress(name, null, System.currentTimeMillis()));
+        }
+        final String name = path;
+        return submit(() -> {
+            try {
+                return compress(name, in, System.currentTimeMillis());
+            } finally {
+                IoKit.close(in);
+            }
+        });
+    }
+
+    /**
+     * 添加数据到压缩包
+     *
+     * @param path 压缩的路径
+     * @param data 数据
+     * @return this
+     */
+    public ParallelZipWriter add(String path, byte[] data) {
+        return add(path, new ByteArrayInputStream(data));
+    }
+
+    @Override
+    public void close() throws InstrumentException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            while (false == pending.isEmpty()) {
+                write(await(pending.poll()));
+            }
+            writeCentralDirectory();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } finally {
+            for (Future<Entry> future : pending) {
+                future.cancel(true);
+            }
+            if (ownExecutor) {
+                executor.shutdownNow();
+            }
+            IoKit.close(channel);
+        }
+    }
+
+    private ParallelZipWriter add(File file, String srcRootDir, FileFilter filter) {
+        if (null == file || (null != filter && false == filter.accept(file))) {
+            return this;
+        }
+        final String subPath = FileKit.subPath(srcRootDir, file);
+        if (file.isDirectory()) {
+            final File[] files = file.listFiles();
+            if (ArrayKit.isEmpty(files)) {
+                add(subPath, (InputStream) null);
+            } else {
+                for (File childFile : files) {
+                    add(childFile, srcRootDir, filter);
+                }
+            }
+        } else {
+            submit(() -> {
+                try (InputStream in = FileKit.getInputStream(file)) {
+                    return compress(subPath, in, file.lastModified());
+                }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * 提交压缩任务，并写出已完成的前序条目；等待中的条目过多时阻塞等待最早的条目
+     *
+     * @param task 压缩任务
+     * @return this
+     */
+    private ParallelZipWriter submit(Callable<Entry> task) {
+        if (closed) {
+            throw new IllegalStateException("ZipWriter is closed");
+        }
+        pending.add(executor.submit(task));
+        try {
+            while (false == pending.isEmpty() && (pending.peek().isDone() || pending.size() > maxPending)) {
+                write(await(pending.poll()));
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        return this;
+    }
+
+    private static Entry await(Future<Entry> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException(e);
+        } catch (ExecutionException e) {
+            throw new InstrumentException(e.getCause());
+        }
+    }
+
+    /**
+     * 读取并压缩一个条目
+     *
+     * @param name 条目名
+     * @param in   输入流，null表示目录
+     * @param time 修改时间
+     * @return 压缩结果
+     * @throws IOException IO异常
+     */
+    private Entry compress(String name, InputStream in, long time) throws IOException {
+        final Entry entry = new Entry(name.getBytes(charset), time);
+        if (null == in) {
+            entry.data = new byte[0];
+            return entry;
+        }
+
+        final Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setLevel(level);
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[IoKit.DEFAULT_LARGE_BUFFER_SIZE];
+        byte[] out = new byte[Math.max(IoKit.DEFAULT_LARGE_BUFFER_SIZE, in.available() + 64)];
+        int outLength = 0;
+        // 同时保留原始数据，压缩无效时直接存储
+        byte[] raw = new byte[out.length];
+        int rawLength = 0;
+
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            crc.update(buffer, 0, read);
+            if (rawLength + read > raw.length) {
+                raw = grow(raw, rawLength + read);
+            }
+            System.arraycopy(buffer, 0, raw, rawLength, read);
+            rawLength += read;
+            deflater.setInput(buffer, 0, read);
+            while (false == deflater.needsInput()) {
+                if (outLength == out.length) {
+                    out = grow(out, outLength + 1);
+                }
+                outLength += deflater.deflate(out, outLength, out.length - outLength);
+            }
+        }
+        deflater.finish();
+        while (false == deflater.finished()) {
+            if (outLength == out.length) {
+                out = grow(out, outLength + 1);
+            }
+            outLength += deflater.deflate(out, outLength, out.length - outLength);
+        }
+
+        entry.crc = crc.getValue();
+        entry.size = rawLength;
+        if (outLength < rawLength) {
+            entry.method = Deflater.DEFLATED;
+            entry.data = out;
+            entry.compressedSize = outLength;
+        } else {
+            entry.method = 0;
+            entry.data = raw;
+            entry.compressedSize = rawLength;
+        }
+        return entry;
+    }
+
+    private static byte[] grow(byte[] array, int minCapacity) {
+        if (minCapacity < 0) {
+            throw new InstrumentException("Zip entry larger than 2GB");
+        }
+        int capacity = array.length + (array.length >> 1);
+        if (capacity < minCapacity || capacity < 0) {
+            capacity = minCapacity;
+        }
+        final byte[] copy = new byte[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    /**
+     * 写出本地文件头及数据
+     *
+     * @param entry 条目
+     * @throws IOException IO异常
+     */
+    private void write(Entry entry) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(30 + entry.name.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LOCAL_HEADER)
+                .putShort((short) (entry.method == Deflater.DEFLATED ? 20 : 10))
+                .putShort((short) flag())
+                .putShort((short) entry.method)
+                .putInt(entry.dosTime)
+                .putInt((int) entry.crc)
+                .putInt((int) entry.compressedSize)
+                .putInt((int) entry.size)
+                .putShort((short) entry.name.length)
+                .putShort((short) 0)
+                .put(entry.name);
+        header.flip();
+
+        entry.offset = offset;
+        offset += writeFully(header);
+        offset += writeFully(ByteBuffer.wrap(entry.data, 0, (int) entry.compressedSize));
+        // 数据已写出，释放缓冲区
+        entry.data = null;
+        written.add(entry);
+    }
+
+    /**
+     * 写出中央目录及结束记录
+     *
+     * @throws IOException IO异常
+     */
+    private void writeCentralDirectory() throws IOException {
+        final long start = offset;
+        for (Entry entry : written) {
+            final boolean zip64 = entry.offset >= ZIP64_MAGIC;
+            final ByteBuffer header = ByteBuffer.allocate(46 + entry.name.length + (zip64 ? 12 : 0))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(CENTRAL_HEADER)
+                    .putShort((short) (zip64 ? 45 : 20))
+                    .putShort((short) (zip64 ? 45 : entry.method == Deflater.DEFLATED ? 20 : 10))
+                    .putShort((short) flag())
+                    .putShort((short) entry.method)
+                    .putInt(entry.dosTime)
+                    .putInt((int) entry.crc)
+                    .putInt((int) entry.compressedSize)
+                    .putInt((int) entry.size)
+                    .putShort((short) entry.name.length)
+                    .putShort((short) (zip64 ? 12 : 0))
+                    .putShort((short) 0)
+                    .putShort((short) 0)
+                    .putShort((short) 0)
+                    .putInt(0)
+                    .putInt((int) (zip64 ? ZIP64_MAGIC : entry.offset))
+                    .put(entry.name);
+            if (zip64) {
+                header.putShort((short) 0x0001).putShort((short) 8).putLong(entry.offset);
+            }
+            header.flip();
+            offset += writeFully(header);
+        }
+        final long size = offset - start;
+        final int count = written.size();
+        final byte[] commentBytes = null == comment ? new byte[0] : comment.getBytes(charset);
+
+        final boolean zip64 = count >= ZIP64_MAGIC_COUNT || start >= ZIP64_MAGIC || size >= ZIP64_MAGIC;
+        if (zip64) {
+            final long zip64End = offset;
+            final ByteBuffer record = ByteBuffer.allocate(56 + 20).order(ByteOrder.LITTLE_ENDIAN);
+            record.putInt(ZIP64_END_HEADER)
+                    .putLong(44)
+                    .putShort((short) 45)
+                    .putShort((short) 45)
+                    .putInt(0)
+                    .putInt(0)
+                    .putLong(count)
+                    .putLong(count)
+                    .putLong(size)
+                    .putLong(start);
+            record.putInt(ZIP64_LOCATOR)
+                    .putInt(0)
+                    .putLong(zip64End)
+                    .putInt(1);
+            record.flip();
+            offset += writeFully(record);
+        }
+
+        final ByteBuffer end = ByteBuffer.allocate(22 + commentBytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        end.putInt(END_HEADER)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) Math.min(count, ZIP64_MAGIC_COUNT))
+                .putShort((short) Math.min(count, ZIP64_MAGIC_COUNT))
+                .putInt((int) Math.min(size, ZIP64_MAGIC))
+                .putInt((int) Math.min(start, ZIP64_MAGIC))
+                .putShort((short) commentBytes.length)
+                .put(commentBytes);
+        end.flip();
+        offset += writeFully(end);
+    }
+
+    private int flag() {
+        return StandardCharsets.UTF_8.equals(charset) ? FLAG_UTF8 : 0;
+    }
+
+    private int writeFully(ByteBuffer buffer) throws IOException {
+        final int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return length;
+    }
+
+    /**
+     * 压缩完成的条目
+     */
+    private static class Entry {
+
+        final byte[] name;
+        final int dosTime;
+        int method;
+        long crc;
+        long size;
+        long compressedSize;
+        long offset;
+        byte[] data;
+
+        Entry(byte[] name, long time) {
+            this.name = name;
+            this.dosTime = dosTime(time);
+        }
+
+        /**
+         * 转换为MS-DOS格式的日期时间
+         *
+         * @param time 毫秒时间
+         * @return DOS日期时间
+         */
+        private static int dosTime(long time) {
+            final Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(time);
+            final int year = calendar.get(Calendar.YEAR);
+            if (year < 1980) {
+                return (1 << 21) | (1 << 16);
+            }
+            return (year - 1980) << 25
+                    | (calendar.get(Calendar.MONTH) + 1) << 21
+                    | calendar.get(Calendar.DAY_OF_MONTH) << 16
+                    | calendar.get(Calendar.HOUR_OF_DAY) << 11
+                    | calendar.get(Calendar.MINUTE) << 5
+                    | calendar.get(Calendar.SECOND) >> 1;
+        }
+    }
+
+}
@@ -0,0 +1,489 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.compress;
+
+import org.aoju.bus.core.io.streams.ChannelInputStream;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.FileKit;
+import org.aoju.bus.core.toolkit.IoKit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.*;
+
+/**
+ * 基于中央目录的Zip随机读取器
+ * <pre>
+ * 1. 打开时只读取文件尾部的结束记录及中央目录，建立条目索引，支持ZIP64
+ * 2. 读取单个条目时直接定位到本地文件头，通过{@link FileChannel}的定位读取获取数据，无需扫描整个文件
+ * 3. 定位读取不改变通道位置，多个条目可在多个线程中同时读取
+ * </pre>
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class ZipChannelReader implements Closeable {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+    private static final int ZIP64_END_HEADER = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+    private static final int END_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int FLAG_UTF8 = 1 << 11;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    /**
+     * 按中央目录顺序保存的条目
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * 构造
+     *
+     * @param zipFile 读取的的Zip文件
+     * @param charset 未设置UTF-8标识时文件名使用的编码
+     */
+    public ZipChannelReader(File zipFile, Charset charset) {
+        try {
+            this.channel = FileChannel.open(zipFile.toPath(), StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        this.charset = null == charset ? StandardCharsets.UTF_8 : charset;
+        try {
+            this.entries = readCentralDirectory();
+        } catch (IOException | RuntimeException e) {
+            IoKit.close(this.channel);
+            throw e instanceof InstrumentException ? (InstrumentException) e : new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 创建{@link ZipChannelReader}
+     *
+     * @param zipFile 读取的的Zip文件
+     * @param charset 编码
+     * @return {@link ZipChannelReader}
+     */
+    public static ZipChannelReader of(File zipFile, Charset charset) {
+        return new ZipChannelReader(zipFile, charset);
+    }
+
+    /**
+     * 全部条目名，按中央目录顺序
+     *
+     * @return 条目名
+     */
+    public Set<String> names() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * 条目数
+     *
+     * @return 条目数
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取条目信息
+     *
+     * @param name 条目名
+     * @return {@link ZipEntry}，不存在返回{@code null}
+     */
+    public ZipEntry getEntry(String name) {
+        final Entry entry = entries.get(name);
+        if (null == entry) {
+            return null;
+        }
+        final ZipEntry zipEntry = new ZipEntry(name);
+        zipEntry.setMethod(entry.method);
+        zipEntry.setCrc(entry.crc);
+        zipEntry.setSize(entry.size);
+        zipEntry.setCompressedSize(entry.compressedSize);
+        zipEntry.setTime(javaTime(entry.dosTime));
+        return zipEntry;
+    }
+
+    /**
+     * 获取条目的输入流，流中为解压后的数据
+     *
+     * @param name 条目名
+     * @return 输入流，不存在返回{@code null}
+     * @throws InstrumentException IO异常
+     */
+    public InputStream get(String name) throws InstrumentException {
+        final Entry entry = entries.get(name);
+        return null == entry ? null : open(entry);
+    }
+
+    /**
+     * 读取条目的全部数据，并校验CRC
+     *
+     * @param name 条目名
+     * @return 数据，不存在返回{@code null}
+     * @throws InstrumentException IO异常或CRC校验失败
+     */
+    public byte[] getBytes(String name) throws InstrumentException {
+        final Entry entry = entries.get(name);
+        if (null == entry) {
+            return null;
+        }
+        if (entry.size > Integer.MAX_VALUE) {
+            throw new InstrumentException("Zip entry [{}] larger than 2GB", name);
+        }
+        final byte[] data = new byte[(int) entry.size];
+        try (InputStream in = open(entry)) {
+            int offset = 0;
+            int read;
+            while (offset < data.length && (read = in.read(data, offset, data.length - offset)) != -1) {
+                offset += read;
+            }
+            if (offset != data.length) {
+                throw new InstrumentException("Zip entry [{}] truncated", name);
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        if (crc.getValue() != entry.crc) {
+            throw new InstrumentException("Zip entry [{}] CRC mismatch", name);
+        }
+        return data;
+    }
+
+    /**
+     * 解压全部条目到指定目录，条目在公共线程池中并行解压
+     *
+     * @param outFile 解压到的目录
+     * @return 解压的目录
+     * @throws InstrumentException IO异常
+     */
+    public File readTo(File outFile) throws InstrumentException {
+        final List<Entry> list = new ArrayList<>(entries.values());
+        // 先创建目录，避免并行创建时的竞争
+        for (Entry entry : list) {
+            final File file = FileKit.file(outFile, entry.name);
+            if (entry.isDirectory()) {
+                file.mkdirs();
+            } else {
+                FileKit.mkdir(file.getParentFile());
+            }
+        }
+        list.parallelStream().filter(entry -> false == entry.isDirectory()).forEach(entry -> {
+            final File file = FileKit.file(outFile, entry.name);
+            try (InputStream in = open(entry);
+                 FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                         StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                if (entry.method == ZipEntry.STORED) {
+                    // 存储的条目直接在通道间传输
+                    long position = entry.dataOffset;
+                    final long end = position + entry.size;
+                    while (position < end) {
+                        position += channel.transferTo(position, end - position, out);
+                    }
+                } else {
+                    final byte[] buffer = new byte[IoKit.DEFAULT_LARGE_BUFFER_SIZE];
+                    final ByteBuffer wrap = ByteBuffer.wrap(buffer);
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        wrap.clear().limit(read);
+                        while (wrap.hasRemaining()) {
+                            out.write(wrap);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new InstrumentException(e);
+            }
+            file.setLastModified(javaTime(entry.dosTime));
+        });
+        return outFile;
+    }
+
+    @Override
+    public void close() throws InstrumentException {
+        IoKit.close(channel);
+    }
+
+    /**
+     * 打开条目数据流，首次打开时读取本地文件头定位数据
+     *
+     * @param entry 条目
+     * @return 输入流
+     */
+    private InputStream open(Entry entry) {
+        if (entry.dataOffset < 0) {
+            final ByteBuffer header = read(entry.localOffset, 30);
+            if (header.getInt(0) != LOCAL_HEADER) {
+                throw new InstrumentException("Invalid local header for zip entry [{}]", entry.name);
+            }
+            entry.dataOffset = entry.localOffset + 30
+                    + (header.getShort(26) & 0xFFFF) + (header.getShort(28) & 0xFFFF);
+        }
+        final InputStream in = new ChannelInputStream(channel, entry.dataOffset, entry.compressedSize, false);
+        switch (entry.method) {
+            case ZipEntry.STORED:
+                return in;
+            case ZipEntry.DEFLATED:
+                return new EntryInflaterInputStream(in, entry.size);
+            default:
+                IoKit.close(in);
+                throw new InstrumentException("Unsupported compression method {} of zip entry [{}]", entry.method, entry.name);
+        }
+    }
+
+    /**
+     * 读取中央目录
+     *
+     * @return 条目
+     * @throws IOException IO异常
+     */
+    private Map<String, Entry> readCentralDirectory() throws IOException {
+        final long fileSize = channel.size();
+        // 结束记录最多带有65535字节的注释
+        final int tailSize = (int) Math.min(fileSize, END_SIZE + 0xFFFF);
+        final ByteBuffer tail = read(fileSize - tailSize, tailSize);
+        int end = -1;
+        for (int i = tailSize - END_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_HEADER) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new ZipException("End of central directory record not found");
+        }
+        final long endOffset = fileSize - tailSize + end;
+        long count = tail.getShort(end + 10) & 0xFFFF;
+        long size = tail.getInt(end + 12) & ZIP64_MAGIC;
+        long start = tail.getInt(end + 16) & ZIP64_MAGIC;
+
+        if (endOffset >= ZIP64_LOCATOR_SIZE) {
+            final ByteBuffer locator = read(endOffset - ZIP64_LOCATOR_SIZE, ZIP64_LOCATOR_SIZE);
+            if (locator.getInt(0) == ZIP64_LOCATOR) {
+                final ByteBuffer record = read(locator.getLong(8), 56);
+                if (record.getInt(0) != ZIP64_END_HEADER) {
+                    throw new ZipException("Invalid ZIP64 end of central directory record");
+                }
+                count = record.getLong(32);
+                size = record.getLong(40);
+                start = record.getLong(48);
+            }
+        }
+        if (size > Integer.MAX_VALUE || count > Integer.MAX_VALUE) {
+            throw new ZipException("Central directory too large");
+        }
+
+        final ByteBuffer directory = read(start, (int) size);
+        final Map<String, Entry> entries = new LinkedHashMap<>((int) (count / 0.75f) + 1);
+        int position = 0;
+        for (long i = 0; i < count; i++) {
+            if (directory.getInt(position) != CENTRAL_HEADER) {
+                throw new ZipException("Invalid central directory header");
+            }
+            final Entry entry = new Entry();
+            final int flag = directory.getShort(position + 8) & 0xFFFF;
+            entry.method = directory.getShort(position + 10) & 0xFFFF;
+            entry.dosTime = directory.getInt(position + 12);
+            entry.crc = directory.getInt(position + 16) & ZIP64_MAGIC;
+            entry.compressedSize = directory.getInt(position + 20) & ZIP64_MAGIC;
+            entry.size = directory.getInt(position + 24) & ZIP64_MAGIC;
+            final int nameLength = directory.getShort(position + 28) & 0xFFFF;
+            final int extraLength = directory.getShort(position + 30) & 0xFFFF;
+            final int commentLength = directory.getShort(position + 32) & 0xFFFF;
+            entry.localOffset = directory.getInt(position + 42) & ZIP64_MAGIC;
+
+            final byte[] name = new byte[nameLength];
+            directory.position(position + 46);
+            directory.get(name);
+            entry.name = new String(name, (flag & FLAG_UTF8) != 0 ? StandardCharsets.UTF_8 : charset);
+
+            readZip64Extra(directory, position + 46 + nameLength, extraLength, entry);
+            entries.put(entry.name, entry);
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    /**
+     * 读取ZIP64扩展字段，只包含原字段为0xFFFFFFFF的值，顺序为原始大小、压缩大小、本地头偏移
+     *
+     * @param directory 中央目录
+     * @param position  扩展字段开始位置
+     * @param length    扩展字段长度
+     * @param entry     条目
+     */
+    private static void readZip64Extra(ByteBuffer directory, int position, int length, Entry entry) {
+        final int end = position + length;
+        while (position + 4 <= end) {
+            final int tag = directory.getShort(position) & 0xFFFF;
+            final int size = directory.getShort(position + 2) & 0xFFFF;
+            if (tag == 0x0001) {
+                int offset = position + 4;
+                if (entry.size == ZIP64_MAGIC) {
+                    entry.size = directory.getLong(offset);
+                    offset += 8;
+                }
+                if (entry.compressedSize == ZIP64_MAGIC) {
+                    entry.compressedSize = directory.getLong(offset);
+                    offset += 8;
+                }
+                if (entry.localOffset == ZIP64_MAGIC) {
+                    entry.localOffset = directory.getLong(offset);
+                }
+                return;
+            }
+            position += 4 + size;
+        }
+    }
+
+    /**
+     * 从指定位置读取固定长度的数据
+     *
+     * @param position 位置
+     * @param length   长度
+     * @return 小端序的{@link ByteBuffer}
+     */
+    private ByteBuffer read(long position, int length) {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * MS-DOS格式的日期时间转换为毫秒时间
+     *
+     * @param dosTime DOS日期时间
+     * @return 毫秒时间
+     */
+    private static long javaTime(int dosTime) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(((dosTime >> 25) & 0x7f) + 1980, ((dosTime >> 21) & 0x0f) - 1, (dosTime >> 16) & 0x1f,
+                (dosTime >> 11) & 0x1f, (dosTime >> 5) & 0x3f, (dosTime << 1) & 0x3e);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * 中央目录中的条目信息
+     */
+    private static class Entry {
+
+        String name;
+        int method;
+        int dosTime;
+        long crc;
+        long size;
+        long compressedSize;
+        long localOffset;
+        /**
+         * 数据开始位置，-1表示尚未读取本地文件头
+         */
+        volatile long dataOffset = -1;
+
+        boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+
+    /**
+     * 解压条目数据的输入流，关闭时释放{@link Inflater}
+     */
+    private static class EntryInflaterInputStream extends InflaterInputStream {
+
+        private final long size;
+        private boolean eof;
+        private long read;
+
+        EntryInflaterInputStream(InputStream in, long size) {
+            super(in, new Inflater(true), (int) Math.max(512, Math.min(size, IoKit.DEFAULT_LARGE_BUFFER_SIZE)));
+            this.size = size;
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) {
+                throw new EOFException("Unexpected end of zip entry");
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                // 无包装的deflate数据需要额外的空字节才能结束
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = super.read(b, off, len);
+            if (n > 0) {
+                read += n;
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return inf.finished() ? 0 : (int) Math.min(Integer.MAX_VALUE, size - read);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+
+}
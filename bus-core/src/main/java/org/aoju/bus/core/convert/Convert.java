@@ -43,6 +43,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * 类型转换器
@@ -604,6 +605,20 @@ public class Convert {
         return convert(ClassKit.loadClass(className), value);
     }
 
+    /**
+     * 获得源类型到目标类型的转换函数
+     * 源类型为final时转换器只在此处查找一次，否则按值的实际类型查找，对同一组类型反复转换时可缓存返回的函数
+     *
+     * @param <S>        源类型
+     * @param <T>        目标类型
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @return 转换函数，转换失败抛出{@link ConvertException}
+     */
+    public static <S, T> Function<S, T> converter(Class<S> sourceType, Class<T> targetType) {
+        return ConverterRegistry.getInstance().getConverter(sourceType, targetType);
+    }
+
     /**
      * 转换值为指定类型
      *
@@ -29,12 +29,14 @@ import org.aoju.bus.core.date.DateTime;
 import org.aoju.bus.core.lang.Types;
 import org.aoju.bus.core.lang.exception.ConvertException;
 import org.aoju.bus.core.toolkit.BeanKit;
+import org.aoju.bus.core.toolkit.MathKit;
 import org.aoju.bus.core.toolkit.ObjectKit;
 import org.aoju.bus.core.toolkit.ReflectKit;
 import org.aoju.bus.core.toolkit.TypeKit;
 
 import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -47,6 +49,7 @@ import java.time.temporal.TemporalAccessor;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.*;
+import java.util.function.Function;
 
 /**
  * 转换器登记中心,将各种类型Convert对象放入登记中心,通过convert方法查找
@@ -67,9 +70,14 @@ public class ConverterRegistry {
      * 用户自定义类型转换器
      */
     private volatile Map<Type, Converter<?>> customConverterMap;
+    /**
+     * 源类型到目标类型的直接转换器，第一层为源类型，第二层为目标类型
+     */
+    private final Map<Class<?>, Map<Class<?>, Converter<?>>> pairConverterMap = new ConcurrentHashMap<>();
 
     public ConverterRegistry() {
         defaultConverter();
+        defaultPairConverter();
     }
 
     /**
@@ -111,6 +119,66 @@ public class ConverterRegistry {
         return this;
     }
 
+    /**
+     * 登记源类型到目标类型的直接转换器
+     * 源对象的类型与目标类型完全一致时优先于按目标类型查找的默认转换器,
+     * 但不会覆盖针对目标类型登记的自定义转换器
+     *
+     * @param <S>        源类型
+     * @param <T>        目标类型
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @param converter  转换器，传入的值不为{@code null}
+     * @return {@link ConverterRegistry}
+     */
+    public <S, T> ConverterRegistry putPair(Class<S> sourceType, Class<T> targetType, Converter<T> converter) {
+        pairConverterMap.computeIfAbsent(sourceType, (key) -> new ConcurrentHashMap<>()).put(targetType, converter);
+        return this;
+    }
+
+    /**
+     * 获得源类型到目标类型的直接转换器
+     *
+     * @param <T>        目标类型
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @return 转换器，不存在返回{@code null}
+     */
+    public <T> Converter<T> getPairConverter(Class<?> sourceType, Type targetType) {
+        final Map<Class<?>, Converter<?>> targets = pairConverterMap.get(sourceType);
+        return (null == targets) ? null : (Converter<T>) targets.get(targetType);
+    }
+
+    /**
+     * 获得源类型到目标类型的转换函数，调用方可缓存返回的函数重复使用
+     * 源类型为final时转换器只查找一次；否则传入的值可能是其子类(如java.sql.Date)，
+     * 每次按值的实际类型查找，与{@link #convert(Type, Object)}一致
+     * 转换结果与{@link #convert(Type, Object)}一致，{@code null}值返回{@code null}
+     *
+     * @param <S>        源类型
+     * @param <T>        目标类型
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @return 转换函数
+     */
+    public <S, T> Function<S, T> getConverter(Class<S> sourceType, Class<T> targetType) {
+        if (false == Modifier.isFinal(sourceType.getModifiers())) {
+            return (value) -> convert(targetType, value);
+        }
+        Converter<T> converter = null;
+        if (null == getCustomConverter(targetType)) {
+            converter = getPairConverter(sourceType, targetType);
+        }
+        if (null == converter) {
+            converter = getConverter(targetType, true);
+        }
+        if (null == converter) {
+            return (value) -> convert(targetType, value);
+        }
+        final Converter<T> found = converter;
+        return (value) -> (null == value) ? null : found.convert(value, null);
+    }
+
     /**
      * 获得转换器
      *
@@ -184,6 +252,14 @@ public class ConverterRegistry {
             type = ((Types<?>) type).getType();
         }
 
+        // 源类型和目标类型直接对应的转换器
+        if (false == isCustomFirst || null == getCustomConverter(type)) {
+            final Converter<T> pairConverter = getPairConverter(value.getClass(), type);
+            if (null != pairConverter) {
+                return pairConverter.convert(value, defaultValue);
+            }
+        }
+
         // 标准转换器
         final Converter<T> converter = getConverter(type, isCustomFirst);
         if (null != converter) {
@@ -383,6 +459,85 @@ public class ConverterRegistry {
         return this;
     }
 
+    /**
+     * 注册默认的直接转换器，转换结果与按目标类型查找的默认转换器一致，但省去了中间类型判断和对象
+     *
+     * @return 转换器
+     */
+    private ConverterRegistry defaultPairConverter() {
+        // 不可变类型，类型一致时直接返回
+        final Class<?>[] immutables = {
+                Integer.class, Long.class, Short.class, Byte.class, Float.class, Double.class,
+                Boolean.class, Character.class, String.class, BigDecimal.class, BigInteger.class,
+                Instant.class, LocalDateTime.class, LocalDate.class, LocalTime.class,
+                ZonedDateTime.class, OffsetDateTime.class, UUID.class
+        };
+        for (Class<?> type : immutables) {
+            putPair(type, (Class<Object>) type, (value, defaultValue) -> value);
+        }
+
+        // 数值之间的转换
+        final Class<?>[] numbers = {
+                Integer.class, Long.class, Short.class, Byte.class, Float.class, Double.class,
+                BigDecimal.class, BigInteger.class, AtomicInteger.class, AtomicLong.class
+        };
+        for (Class<?> number : numbers) {
+            final Class<Number> source = (Class<Number>) number;
+            putPair(source, Integer.class, (value, defaultValue) -> ((Number) value).intValue());
+            putPair(source, int.class, (value, defaultValue) -> ((Number) value).intValue());
+            putPair(source, Long.class, (value, defaultValue) -> ((Number) value).longValue());
+            putPair(source, long.class, (value, defaultValue) -> ((Number) value).longValue());
+            putPair(source, Short.class, (value, defaultValue) -> ((Number) value).shortValue());
+            putPair(source, short.class, (value, defaultValue) -> ((Number) value).shortValue());
+            putPair(source, Byte.class, (value, defaultValue) -> ((Number) value).byteValue());
+            putPair(source, byte.class, (value, defaultValue) -> ((Number) value).byteValue());
+            putPair(source, Float.class, (value, defaultValue) -> ((Number) value).floatValue());
+            putPair(source, float.class, (value, defaultValue) -> ((Number) value).floatValue());
+            putPair(source, Double.class, (value, defaultValue) -> ((Number) value).doubleValue());
+            putPair(source, double.class, (value, defaultValue) -> ((Number) value).doubleValue());
+            putPair(source, Number.class, (value, defaultValue) -> (Number) value);
+            if (BigDecimal.class != number) {
+                putPair(source, BigDecimal.class, (value, defaultValue) -> toBigDecimal((Number) value, defaultValue));
+            }
+        }
+        putPair(Integer.class, BigInteger.class, (value, defaultValue) -> BigInteger.valueOf((Integer) value));
+        putPair(Long.class, BigInteger.class, (value, defaultValue) -> BigInteger.valueOf((Long) value));
+        putPair(Boolean.class, boolean.class, (value, defaultValue) -> (Boolean) value);
+
+        // 日期时间，与TemporalConverter一致使用系统默认时区
+        putPair(java.util.Date.class, Instant.class, (value, defaultValue) -> ((java.util.Date) value).toInstant());
+        putPair(java.util.Date.class, LocalDateTime.class, (value, defaultValue) ->
+                LocalDateTime.ofInstant(((java.util.Date) value).toInstant(), ZoneId.systemDefault()));
+        putPair(java.util.Date.class, LocalDate.class, (value, defaultValue) ->
+                ((java.util.Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+        putPair(java.util.Date.class, LocalTime.class, (value, defaultValue) ->
+                ((java.util.Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalTime());
+        putPair(Long.class, Instant.class, (value, defaultValue) -> Instant.ofEpochMilli((Long) value));
+        putPair(Long.class, LocalDateTime.class, (value, defaultValue) ->
+                LocalDateTime.ofInstant(Instant.ofEpochMilli((Long) value), ZoneId.systemDefault()));
+        putPair(Instant.class, LocalDateTime.class, (value, defaultValue) ->
+                LocalDateTime.ofInstant((Instant) value, ZoneId.systemDefault()));
+        putPair(LocalDateTime.class, LocalDate.class, (value, defaultValue) -> ((LocalDateTime) value).toLocalDate());
+        putPair(LocalDateTime.class, LocalTime.class, (value, defaultValue) -> ((LocalDateTime) value).toLocalTime());
+
+        return this;
+    }
+
+    /**
+     * 数值转为BigDecimal,NaN和无穷大无法表示,返回默认值
+     *
+     * @param value        数值
+     * @param defaultValue 默认值
+     * @return BigDecimal
+     */
+    private static BigDecimal toBigDecimal(Number value, BigDecimal defaultValue) {
+        if ((value instanceof Double && (((Double) value).isNaN() || ((Double) value).isInfinite()))
+                || (value instanceof Float && (((Float) value).isNaN() || ((Float) value).isInfinite()))) {
+            return defaultValue;
+        }
+        return MathKit.toBigDecimal(value);
+    }
+
     /**
      * 类级的内部类，也就是静态的成员式内部类，该内部类的实例与外部类的实例 没有绑定关系，而且只有被调用到才会装载，从而实现了延迟加载
      */
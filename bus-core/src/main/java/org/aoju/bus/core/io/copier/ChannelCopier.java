@@ -26,19 +26,28 @@
 package org.aoju.bus.core.io.copier;
 
 import org.aoju.bus.core.io.StreamProgress;
+import org.aoju.bus.core.io.VirtualBuffer;
 import org.aoju.bus.core.lang.Assert;
 import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.IoKit;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
 import java.nio.channels.WritableByteChannel;
 
 /**
  * {@link ReadableByteChannel} 向 {@link WritableByteChannel} 拷贝
+ * <pre>
+ * 1. 源为{@link FileChannel}，目标为{@link FileChannel}或{@link java.nio.channels.SocketChannel}等时，使用transferTo零拷贝
+ * 2. 源为{@link FileChannel}，目标为其它通道时，大文件分窗口内存映射后写出，避免逐块read
+ * 3. 目标为{@link FileChannel}时，使用transferFrom
+ * 4. 其它情况使用池化的直接内存缓冲区拷贝
+ * </pre>
+ * 文件通道拷贝从当前位置开始，拷贝后更新通道位置，进度按窗口回调
  *
  * @author Kimi Liu
  * @version 6.3.2
@@ -46,6 +55,15 @@ import java.nio.channels.WritableByteChannel;
  */
 public class ChannelCopier extends IoCopier<ReadableByteChannel, WritableByteChannel> {
 
+    /**
+     * 内存映射及transfer的窗口大小
+     */
+    private static final long WINDOW_SIZE = 8 * 1024 * 1024;
+    /**
+     * 目标不支持transfer时，超过此长度才使用内存映射
+     */
+    private static final long MAP_THRESHOLD = 1024 * 1024;
+
     /**
      * 构造
      */
@@ -94,7 +112,13 @@ public class ChannelCopier extends IoCopier<ReadableByteChannel, WritableByteCha
         }
         final long size;
         try {
-            size = doCopy(source, target, ByteBuffer.allocate(bufferSize(this.count)), progress);
+            if (source instanceof FileChannel) {
+                size = transferTo((FileChannel) source, target, progress);
+            } else if (target instanceof FileChannel) {
+                size = transferFrom(source, (FileChannel) target, progress);
+            } else {
+                size = bufferedCopy(source, target, progress);
+            }
         } catch (IOException e) {
             throw new InstrumentException(e);
         }
@@ -105,6 +129,111 @@ public class ChannelCopier extends IoCopier<ReadableByteChannel, WritableByteCha
         return size;
     }
 
+    /**
+     * 从文件通道当前位置拷贝，目标为文件或Socket时使用transferTo，否则大文件使用内存映射窗口
+     *
+     * @param source   {@link FileChannel}
+     * @param target   {@link WritableByteChannel}
+     * @param progress 进度条
+     * @return 拷贝总长度
+     * @throws IOException IO异常
+     */
+    private long transferTo(FileChannel source, WritableByteChannel target, StreamProgress progress) throws IOException {
+        final long start;
+        final long size;
+        try {
+            start = source.position();
+            size = source.size();
+        } catch (IOException e) {
+            // 管道等不支持定位的文件
+            return bufferedCopy(source, target, progress);
+        }
+        final long length = Math.min(this.count, size - start);
+        final boolean transfer = target instanceof FileChannel || target instanceof SelectableChannel;
+        // 长度未知(如/proc下的文件)或较小时直接缓冲拷贝
+        if (length <= 0 || (false == transfer && length < MAP_THRESHOLD)) {
+            return bufferedCopy(source, target, progress);
+        }
+
+        long total = 0;
+        while (total < length) {
+            final long window = Math.min(WINDOW_SIZE, length - total);
+            final long written;
+            if (transfer) {
+                written = source.transferTo(start + total, window, target);
+                if (written <= 0 && source.size() <= start + total) {
+                    // 拷贝过程中文件被截断
+                    break;
+                }
+            } else {
+                final MappedByteBuffer buffer = source.map(FileChannel.MapMode.READ_ONLY, start + total, window);
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                written = window;
+            }
+            total += written;
+            // transferTo及map不改变通道位置，此处同步，保证与流读取语义一致
+            source.position(start + total);
+            if (null != progress) {
+                progress.progress(total);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 使用transferFrom拷贝到文件通道当前位置
+     *
+     * @param source   {@link ReadableByteChannel}
+     * @param target   {@link FileChannel}
+     * @param progress 进度条
+     * @return 拷贝总长度
+     * @throws IOException IO异常
+     */
+    private long transferFrom(ReadableByteChannel source, FileChannel target, StreamProgress progress) throws IOException {
+        final long start;
+        try {
+            start = target.position();
+        } catch (IOException e) {
+            // 管道等不支持定位的文件
+            return bufferedCopy(source, target, progress);
+        }
+        long numToRead = this.count;
+        long total = 0;
+        while (numToRead > 0) {
+            final long read = target.transferFrom(source, start + total, Math.min(WINDOW_SIZE, numToRead));
+            if (read <= 0) {
+                break;
+            }
+            numToRead -= read;
+            total += read;
+            target.position(start + total);
+            if (null != progress) {
+                progress.progress(total);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 使用池化的直接内存缓冲区拷贝
+     *
+     * @param source   {@link ReadableByteChannel}
+     * @param target   {@link WritableByteChannel}
+     * @param progress 进度条
+     * @return 拷贝总长度
+     * @throws IOException IO异常
+     */
+    private long bufferedCopy(ReadableByteChannel source, WritableByteChannel target, StreamProgress progress) throws IOException {
+        final VirtualBuffer buffer = BufferPool.INSTANCE.allocatePageBuffer().allocate(bufferSize(this.count));
+        try {
+            return doCopy(source, target, buffer.buffer(), progress);
+        } finally {
+            buffer.clean();
+        }
+    }
+
     /**
      * 执行拷贝，如果限制最大长度，则按照最大长度读取，否则一直读取直到遇到-1
      *
@@ -116,19 +245,23 @@ public class ChannelCopier extends IoCopier<ReadableByteChannel, WritableByteCha
      * @throws IOException IO异常
      */
     private long doCopy(ReadableByteChannel source, WritableByteChannel target, ByteBuffer buffer, StreamProgress progress) throws IOException {
-        long numToRead = this.count > 0 ? this.count : Long.MAX_VALUE;
+        long numToRead = this.count;
         long total = 0;
 
         int read;
         while (numToRead > 0) {
+            buffer.clear();
+            // 限制读取长度，避免超出拷贝总数
+            buffer.limit(bufferSize(Math.min(buffer.capacity(), numToRead)));
             read = source.read(buffer);
             if (read < 0) {
                 // 提前读取到末尾
                 break;
             }
             buffer.flip();// 写转读
-            target.write(buffer);
-            buffer.clear();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
 
             numToRead -= read;
             total += read;
@@ -140,4 +273,14 @@ public class ChannelCopier extends IoCopier<ReadableByteChannel, WritableByteCha
         return total;
     }
 
+    /**
+     * 拷贝使用的直接内存池，首次使用时创建
+     */
+    private static class BufferPool {
+
+        static final org.aoju.bus.core.io.ByteBuffer INSTANCE = new org.aoju.bus.core.io.ByteBuffer(
+                IoKit.DEFAULT_LARGE_BUFFER_SIZE * 8, Runtime.getRuntime().availableProcessors(), true);
+
+    }
+
 }
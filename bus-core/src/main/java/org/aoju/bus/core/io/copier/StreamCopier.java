@@ -30,12 +30,16 @@ import org.aoju.bus.core.lang.Assert;
 import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.IoKit;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
 
 /**
  * {@link InputStream} 向 {@link OutputStream} 拷贝
+ * 源为{@link FileInputStream}时转为通道拷贝，目标为{@link java.io.FileOutputStream}时使用transferTo，
+ * 否则大文件使用内存映射窗口，见{@link ChannelCopier}
  *
  * @author Kimi Liu
  * @version 6.3.2
@@ -85,6 +89,17 @@ public class StreamCopier extends IoCopier<InputStream, OutputStream> {
         Assert.notNull(source, "InputStream is null !");
         Assert.notNull(target, "OutputStream is null !");
 
+        if (source instanceof FileInputStream) {
+            final long size = new ChannelCopier(this.bufferSize, this.count, this.progress)
+                    .copy(((FileInputStream) source).getChannel(), Channels.newChannel(target));
+            try {
+                target.flush();
+            } catch (IOException e) {
+                throw new InstrumentException(e);
+            }
+            return size;
+        }
+
         final StreamProgress progress = this.progress;
         if (null != progress) {
             progress.start();
@@ -0,0 +1,116 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.io.streams;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于{@link FileChannel}定位读取的输入流
+ * 只读取[position, position + length)区间,不修改通道自身的位置,
+ * 因此多个流可以并发读取同一个通道的不同区间,区间未读完文件即结束时抛出{@link EOFException}
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class ChannelInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long end;
+    private final boolean closeChannel;
+    private long position;
+
+    /**
+     * 构造
+     *
+     * @param channel      文件通道
+     * @param position     起始位置
+     * @param length       读取长度
+     * @param closeChannel 关闭流时是否同时关闭通道
+     */
+    public ChannelInputStream(FileChannel channel, long position, long length, boolean closeChannel) {
+        this.channel = channel;
+        this.position = position;
+        this.end = position + length;
+        this.closeChannel = closeChannel;
+    }
+
+    /**
+     * 当前读取位置
+     *
+     * @return 位置
+     */
+    public long position() {
+        return this.position;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        long remaining = this.end - this.position;
+        if (remaining <= 0) {
+            return -1;
+        }
+        int n = this.channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), this.position);
+        if (n < 0) {
+            throw new EOFException("Unexpected end of channel at position " + this.position);
+        }
+        this.position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, this.end - this.position));
+        this.position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, this.end - this.position));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closeChannel) {
+            this.channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.key;
+
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁的Snowflake实现，ID结构与{@link Snowflake}一致
+ * <pre>
+ * 1. 时间戳与序列号合并保存在一个{@link AtomicLong}中，通过CAS推进，不使用synchronized
+ * 2. {@link #nextIds(int)} 一次CAS预留同一毫秒内的连续序列号，批量生成ID
+ * 3. 指定rangeSize大于1时开启线程本地号段模式，每个线程一次预留rangeSize个序列号，之后在本线程内直接分配
+ * </pre>
+ * 线程本地号段模式下，同一线程内的ID递增，但不同线程之间不保证按生成顺序递增
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class AtomicSnowflake extends Snowflake {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 时钟回拨的容忍时间(毫秒)
+     */
+    private static final long BACKWARD_TOLERANCE = 2000L;
+
+    /**
+     * 高位为相对起始时间的毫秒数，低12位为序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+    /**
+     * 线程本地号段大小，小于等于1表示不开启
+     */
+    private final int rangeSize;
+    /**
+     * 线程本地号段：[0]为下一个状态值，[1]为号段结束(不含)
+     */
+    private transient volatile ThreadLocal<long[]> range;
+
+    /**
+     * 构造，使用自动生成的工作节点ID和数据中心ID
+     */
+    public AtomicSnowflake() {
+        super();
+        this.rangeSize = 1;
+    }
+
+    /**
+     * 构造
+     *
+     * @param workerId     工作机器ID,数据范围为0~31
+     * @param dataCenterId 数据中心ID,数据范围为0~31
+     */
+    public AtomicSnowflake(long workerId, long dataCenterId) {
+        this(null, workerId, dataCenterId, false, 1);
+    }
+
+    /**
+     * 构造
+     *
+     * @param epochDate    初始化时间起点(null表示默认起始日期)
+     * @param workerId     工作机器节点id
+     * @param dataCenterId 数据中心id
+     * @param isClock      是否使用{@link org.aoju.bus.core.date.NonClock} 获取当前时间戳
+     * @param rangeSize    线程本地号段大小，1表示不开启，最大4096
+     */
+    public AtomicSnowflake(Date epochDate, long workerId, long dataCenterId, boolean isClock, int rangeSize) {
+        super(epochDate, workerId, dataCenterId, isClock);
+        if (rangeSize < 1 || rangeSize > SEQUENCE_MASK + 1) {
+            throw new IllegalArgumentException(StringKit.format("range size must be between 1 and {}", SEQUENCE_MASK + 1));
+        }
+        this.rangeSize = rangeSize;
+    }
+
+    /**
+     * 下一个ID
+     *
+     * @return ID
+     */
+    @Override
+    public long nextId() {
+        if (rangeSize <= 1) {
+            return toId(reserve(1));
+        }
+
+        ThreadLocal<long[]> range = this.range;
+        if (null == range) {
+            range = ThreadLocal.withInitial(() -> new long[2]);
+            this.range = range;
+        }
+        final long[] local = range.get();
+        if (local[0] >= local[1]) {
+            final long start = reserve(rangeSize);
+            local[0] = start;
+            local[1] = end(start, rangeSize);
+        }
+        return toId(local[0]++);
+    }
+
+    /**
+     * 批量生成ID，同一毫秒内的ID通过一次CAS预留
+     *
+     * @param n 数量
+     * @return ID数组，按生成顺序递增
+     */
+    public long[] nextIds(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n < 0");
+        }
+        final long[] ids = new long[n];
+        int index = 0;
+        while (index < n) {
+            final long start = reserve(n - index);
+            final long end = end(start, n - index);
+            for (long value = start; value < end && index < n; value++) {
+                ids[index++] = toId(value);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 预留至多count个同一毫秒内的连续状态值
+     *
+     * @param count 期望数量
+     * @return 起始状态值
+     */
+    private long reserve(int count) {
+        for (; ; ) {
+            final long current = state.get();
+            final long lastTime = current >>> SEQUENCE_BITS;
+            long now = genTime() - startTime;
+
+            if (now < lastTime) {
+                if (lastTime - now < BACKWARD_TOLERANCE) {
+                    // 容忍2秒内的回拨，避免NTP校时造成的异常
+                    now = lastTime;
+                } else {
+                    throw new IllegalStateException(StringKit.format("Clock moved backwards. Refusing to generate id for {}ms", lastTime - now));
+                }
+            }
+
+            final long start;
+            if (now > lastTime) {
+                // 时间戳改变，毫秒内序列重置
+                start = now << SEQUENCE_BITS;
+            } else {
+                start = current + 1;
+                if ((start & SEQUENCE_MASK) == 0) {
+                    // 当前毫秒序列号已用尽，等待下一毫秒
+                    Thread.yield();
+                    continue;
+                }
+            }
+
+            if (state.compareAndSet(current, end(start, count) - 1)) {
+                return start;
+            }
+        }
+    }
+
+    /**
+     * 预留的结束状态值(不含)，号段不跨毫秒，因此可能少于期望数量
+     *
+     * @param start 起始状态值
+     * @param count 期望数量
+     * @return 结束状态值
+     */
+    private static long end(long start, int count) {
+        return Math.min(start + count, (start | SEQUENCE_MASK) + 1);
+    }
+
+    /**
+     * 将状态值转换为ID
+     *
+     * @param value 状态值
+     * @return ID
+     */
+    private long toId(long value) {
+        return ((value >>> SEQUENCE_BITS) << TIMESTAMP_LEFT_SHIFT) |
+                (dataCenterId << DATA_CENTER_ID_SHIFT) |
+                (workerId << WORKER_ID_SHIFT) |
+                (value & SEQUENCE_MASK);
+    }
+
+}
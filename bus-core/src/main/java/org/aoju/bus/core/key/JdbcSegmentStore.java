@@ -0,0 +1,160 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.key;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 基于数据库的号段存储(Leaf-segment)，表结构如下：
+ * <pre>
+ * CREATE TABLE bus_segment (
+ *     biz_tag VARCHAR(128) NOT NULL PRIMARY KEY,
+ *     max_id  BIGINT       NOT NULL
+ * );
+ * </pre>
+ * 每次分配在一个事务中执行UPDATE max_id = max_id + step并读取新值，
+ * 行锁保证多个节点之间的号段不重叠；业务标识不存在时自动插入
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class JdbcSegmentStore implements SegmentStore {
+
+    /**
+     * 默认表名
+     */
+    public static final String DEFAULT_TABLE = "bus_segment";
+
+    private final DataSource dataSource;
+    private final String updateSql;
+    private final String selectSql;
+    private final String insertSql;
+
+    /**
+     * 构造，使用默认表名
+     *
+     * @param dataSource 数据源
+     */
+    public JdbcSegmentStore(DataSource dataSource) {
+        this(dataSource, DEFAULT_TABLE);
+    }
+
+    /**
+     * 构造
+     *
+     * @param dataSource 数据源
+     * @param table      表名
+     */
+    public JdbcSegmentStore(DataSource dataSource, String table) {
+        this.dataSource = dataSource;
+        this.updateSql = StringKit.format("UPDATE {} SET max_id = max_id + ? WHERE biz_tag = ?", table);
+        this.selectSql = StringKit.format("SELECT max_id FROM {} WHERE biz_tag = ?", table);
+        this.insertSql = StringKit.format("INSERT INTO {} (biz_tag, max_id) VALUES (?, ?)", table);
+    }
+
+    @Override
+    public long allocate(String tag, int step) {
+        try (Connection conn = dataSource.getConnection()) {
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                Long max = update(conn, tag, step);
+                if (null == max) {
+                    max = insert(conn, tag, step);
+                }
+                conn.commit();
+                return max;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 增加最大值并读取
+     *
+     * @param conn 连接
+     * @param tag  业务标识
+     * @param step 号段长度
+     * @return 新的最大值，业务标识不存在返回{@code null}
+     * @throws SQLException SQL异常
+     */
+    private Long update(Connection conn, String tag, int step) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(updateSql)) {
+            ps.setLong(1, step);
+            ps.setString(2, tag);
+            if (ps.executeUpdate() == 0) {
+                return null;
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
+            ps.setString(1, tag);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * 插入新的业务标识，并发插入冲突时改为更新
+     *
+     * @param conn 连接
+     * @param tag  业务标识
+     * @param step 号段长度
+     * @return 新的最大值
+     * @throws SQLException SQL异常
+     */
+    private long insert(Connection conn, String tag, int step) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
+            ps.setString(1, tag);
+            ps.setLong(2, step);
+            ps.executeUpdate();
+            return step;
+        } catch (SQLException e) {
+            // 其他节点已插入
+            conn.rollback();
+            final Long max = update(conn, tag, step);
+            if (null == max) {
+                throw e;
+            }
+            return max;
+        }
+    }
+
+}
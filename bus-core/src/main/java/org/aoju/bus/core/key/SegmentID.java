@@ -0,0 +1,223 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.key;
+
+import org.aoju.bus.core.thread.NamedThreadFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 号段模式ID生成器(Leaf-segment)
+ * <pre>
+ * 1. 从{@link SegmentStore}批量获取一段连续的数值，号段内通过{@link AtomicLong}分配，无需访问存储
+ * 2. 双缓冲：当前号段剩余比例低于阈值时，后台预取下一个号段，切换时无需等待存储
+ * 3. 生成的ID在同一业务标识下全局唯一、趋势递增，节点重启会跳过未使用完的号段
+ * </pre>
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class SegmentID {
+
+    /**
+     * 默认预取线程池
+     */
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(
+            new NamedThreadFactory("segment-prefetch-", true));
+
+    private final SegmentStore store;
+    private final String tag;
+    private final int step;
+    private final double prefetchRatio;
+    private final Executor executor;
+    private final AtomicReference<CompletableFuture<Segment>> next = new AtomicReference<>();
+    private volatile Segment current;
+
+    /**
+     * 构造，剩余20%时预取下一个号段
+     *
+     * @param store 号段存储
+     * @param tag   业务标识
+     * @param step  号段长度
+     */
+    public SegmentID(SegmentStore store, String tag, int step) {
+        this(store, tag, step, 0.2, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * 构造
+     *
+     * @param store         号段存储
+     * @param tag           业务标识
+     * @param step          号段长度
+     * @param prefetchRatio 当前号段剩余比例低于此值时预取下一个号段，范围(0, 1)
+     * @param executor      预取使用的线程池
+     */
+    public SegmentID(SegmentStore store, String tag, int step, double prefetchRatio, Executor executor) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step <= 0");
+        }
+        if (prefetchRatio <= 0 || prefetchRatio >= 1) {
+            throw new IllegalArgumentException("prefetch ratio must be in (0, 1): " + prefetchRatio);
+        }
+        this.store = store;
+        this.tag = tag;
+        this.step = step;
+        this.prefetchRatio = prefetchRatio;
+        this.executor = executor;
+    }
+
+    /**
+     * 下一个ID
+     *
+     * @return ID
+     */
+    public long nextId() {
+        for (; ; ) {
+            final Segment segment = segment();
+            final long value = segment.cursor.getAndIncrement();
+            if (value <= segment.max) {
+                if (value == segment.prefetchAt) {
+                    prefetch();
+                }
+                return value;
+            }
+            swap(segment);
+        }
+    }
+
+    /**
+     * 下一个ID(字符串形式)
+     *
+     * @return ID 字符串形式
+     */
+    public String nextIdStr() {
+        return Long.toString(nextId());
+    }
+
+    /**
+     * 业务标识
+     *
+     * @return 业务标识
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * 当前号段剩余可分配数量
+     *
+     * @return 剩余数量
+     */
+    public long remaining() {
+        final Segment segment = this.current;
+        return null == segment ? 0 : Math.max(0, segment.max - segment.cursor.get() + 1);
+    }
+
+    private Segment segment() {
+        Segment segment = this.current;
+        if (null == segment) {
+            synchronized (this) {
+                segment = this.current;
+                if (null == segment) {
+                    segment = load();
+                    this.current = segment;
+                }
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * 后台预取下一个号段
+     */
+    private void prefetch() {
+        final CompletableFuture<Segment> future = new CompletableFuture<>();
+        if (next.compareAndSet(null, future)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        future.complete(load());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                next.compareAndSet(future, null);
+            }
+        }
+    }
+
+    /**
+     * 当前号段用尽，切换到预取的号段，预取未发起或失败时同步加载
+     *
+     * @param exhausted 已用尽的号段
+     */
+    private synchronized void swap(Segment exhausted) {
+        if (this.current != exhausted) {
+            return;
+        }
+        final CompletableFuture<Segment> future = next.getAndSet(null);
+        Segment segment = null;
+        if (null != future) {
+            try {
+                segment = future.join();
+            } catch (CompletionException e) {
+                // 预取失败，改为同步加载
+            }
+        }
+        this.current = null != segment ? segment : load();
+    }
+
+    private Segment load() {
+        final long max = store.allocate(tag, step);
+        return new Segment(max - step + 1, max, max - (long) (step * prefetchRatio));
+    }
+
+    /**
+     * 号段，可分配范围为[cursor, max]
+     */
+    private static final class Segment {
+
+        final AtomicLong cursor;
+        final long max;
+        final long prefetchAt;
+
+        Segment(long start, long max, long prefetchAt) {
+            this.cursor = new AtomicLong(start);
+            this.max = max;
+            this.prefetchAt = Math.max(start, prefetchAt);
+        }
+    }
+
+}
@@ -74,31 +74,31 @@ public class Snowflake implements Serializable {
     /**
      * 序列号占用的位数：12（表示只允许workId的范围为：0-4095）
      */
-    private static final long SEQUENCE_BITS = 12L;
+    protected static final long SEQUENCE_BITS = 12L;
     /**
      * 机器节点左移12位
      */
-    private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
+    protected static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
     /**
      * 数据中心节点左移17位
      */
-    private static final long DATA_CENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
+    protected static final long DATA_CENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
     /**
      * 时间毫秒数左移22位
      */
-    private static final long TIMESTAMP_LEFT_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATA_CENTER_ID_BITS;
+    protected static final long TIMESTAMP_LEFT_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATA_CENTER_ID_BITS;
     /**
      * 用mask防止溢出:位与运算保证计算的结果范围始终是 0-4095
      * 序列掩码，用于限定序列最大值不能超过4095
      */
-    private static final long SEQUENCE_MASK = -1L ^ (-1L << SEQUENCE_BITS);
+    protected static final long SEQUENCE_MASK = -1L ^ (-1L << SEQUENCE_BITS);
 
     /**
      * 起始时间戳，用于用当前时间戳减去这个时间戳，算出偏移量
      */
-    private final long startTime;
-    private final long workerId;
-    private final long dataCenterId;
+    protected final long startTime;
+    protected final long workerId;
+    protected final long dataCenterId;
     private final boolean isClock;
     private long sequence = 0L;
     private long lastTimestamp = -1L;
@@ -265,7 +265,7 @@ public class Snowflake implements Serializable {
      *
      * @return 时间戳
      */
-    private long genTime() {
+    protected long genTime() {
         return this.isClock ? NonClock.now() : System.currentTimeMillis();
     }
 
@@ -0,0 +1,388 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.lang.tree;
+
+import org.aoju.bus.core.collection.primitive.IntHashSet;
+import org.aoju.bus.core.lang.tree.parser.NodeParser;
+import org.aoju.bus.core.toolkit.ObjectKit;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 紧凑树，节点关系保存在int索引数组中，由{@link CompactTreeBuilder}构建
+ * <pre>
+ * 1. 子节点以CSR(偏移+索引)数组保存，节点按先序编号，子树在先序中连续
+ * 2. 祖先判断为O(1)，后代查询为先序区间的直接读取，无需遍历
+ * 3. 只保存源对象及解析器，仅在{@link #toTree()}或{@link #toTree(Object)}时按需转换为{@link Tree}
+ * </pre>
+ * 未挂到根节点下的节点(父节点不存在或形成环)不在先序中，与{@link TreeBuilder}一致不出现在结果中
+ * 构建后不可变，可多线程读取
+ *
+ * @param <E> ID类型
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class CompactTree<E> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 父节点为根节点
+     */
+    static final int ROOT = -1;
+    /**
+     * 未挂载的节点(父节点不存在或ID重复被覆盖)
+     */
+    static final int DETACHED = -2;
+
+    private final E rootId;
+    private final NodeConfig config;
+    private final Object[] ids;
+    private final Object[] sources;
+    private final NodeParser<Object, E>[] parsers;
+    /**
+     * 父节点索引，{@link #ROOT}或{@link #DETACHED}
+     */
+    private final int[] parents;
+    /**
+     * 子节点在{@link #children}中的起始位置，下标n为根节点
+     */
+    private final int[] childOffsets;
+    private final int[] children;
+    /**
+     * 节点的先序编号，未挂载为-1
+     */
+    private final int[] pre;
+    /**
+     * 子树在先序中的结束位置(不含)
+     */
+    private final int[] ends;
+    /**
+     * 节点层级，根节点的子节点为1
+     */
+    private final int[] depths;
+    /**
+     * 先序位置对应的节点索引
+     */
+    private final int[] order;
+    /**
+     * ID到节点索引+1的开放寻址表
+     */
+    private final int[] table;
+    private final int size;
+
+    CompactTree(E rootId, NodeConfig config, Object[] ids, Object[] sources, NodeParser<Object, E>[] parsers,
+                int[] parents, int[] childOffsets, int[] children, int[] pre, int[] ends, int[] depths,
+                int[] order, int[] table, int size) {
+        this.rootId = rootId;
+        this.config = config;
+        this.ids = ids;
+        this.sources = sources;
+        this.parsers = parsers;
+        this.parents = parents;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.pre = pre;
+        this.ends = ends;
+        this.depths = depths;
+        this.order = order;
+        this.table = table;
+        this.size = size;
+    }
+
+    /**
+     * 根节点ID
+     *
+     * @return 根节点ID
+     */
+    public E getRootId() {
+        return rootId;
+    }
+
+    /**
+     * 节点数，不含根节点及被覆盖的重复ID
+     *
+     * @return 节点数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 挂载到根节点下的节点数
+     *
+     * @return 节点数
+     */
+    public int attachedSize() {
+        return order.length;
+    }
+
+    /**
+     * 是否包含节点
+     *
+     * @param id 节点ID
+     * @return 是否包含
+     */
+    public boolean contains(E id) {
+        return index(id) >= 0;
+    }
+
+    /**
+     * 获取父节点ID，根节点的子节点返回根节点ID
+     *
+     * @param id 节点ID
+     * @return 父节点ID，节点不存在或父节点不存在返回{@code null}
+     */
+    public E getParentId(E id) {
+        final int i = index(id);
+        if (i < 0) {
+            return null;
+        }
+        final int parent = parents[i];
+        return parent == ROOT ? rootId : parent == DETACHED ? null : id(parent);
+    }
+
+    /**
+     * 获取节点层级，根节点为0，根节点的子节点为1
+     *
+     * @param id 节点ID
+     * @return 层级，节点不存在或未挂载返回-1
+     */
+    public int getDepth(E id) {
+        if (isRoot(id)) {
+            return 0;
+        }
+        final int i = index(id);
+        return i < 0 || pre[i] < 0 ? -1 : depths[i];
+    }
+
+    /**
+     * 获取直接子节点ID，按权重排序
+     *
+     * @param id 节点ID，可为根节点ID
+     * @return 子节点ID
+     */
+    public List<E> getChildrenIds(E id) {
+        final int slot = isRoot(id) ? ids.length : index(id);
+        if (slot < 0) {
+            return Collections.emptyList();
+        }
+        final List<E> result = new ArrayList<>(childOffsets[slot + 1] - childOffsets[slot]);
+        for (int j = childOffsets[slot]; j < childOffsets[slot + 1]; j++) {
+            result.add(id(children[j]));
+        }
+        return result;
+    }
+
+    /**
+     * 获取全部祖先节点ID，从父节点开始直到根节点的子节点，不含根节点
+     *
+     * @param id                 节点ID
+     * @param includeCurrentNode 是否包含当前节点
+     * @return 祖先节点ID
+     */
+    public List<E> getAncestorIds(E id, boolean includeCurrentNode) {
+        int i = index(id);
+        if (i < 0) {
+            return Collections.emptyList();
+        }
+        final List<E> result = new ArrayList<>(Math.max(depths[i], 1));
+        if (includeCurrentNode) {
+            result.add(id(i));
+        }
+        if (pre[i] >= 0) {
+            while ((i = parents[i]) >= 0) {
+                result.add(id(i));
+            }
+            return result;
+        }
+        // 未挂载的节点可能处于环中，遇到重复节点时停止
+        final IntHashSet visited = new IntHashSet();
+        visited.add(i);
+        while ((i = parents[i]) >= 0 && visited.add(i)) {
+            result.add(id(i));
+        }
+        return result;
+    }
+
+    /**
+     * 获取全部后代节点ID，按先序排列
+     *
+     * @param id 节点ID，可为根节点ID
+     * @return 后代节点ID
+     */
+    public List<E> getDescendantIds(E id) {
+        final int from;
+        final int to;
+        if (isRoot(id)) {
+            from = 0;
+            to = order.length;
+        } else {
+            final int i = index(id);
+            if (i < 0 || pre[i] < 0) {
+                return Collections.emptyList();
+            }
+            from = pre[i] + 1;
+            to = ends[i];
+        }
+        final List<E> result = new ArrayList<>(to - from);
+        for (int p = from; p < to; p++) {
+            result.add(id(order[p]));
+        }
+        return result;
+    }
+
+    /**
+     * 获取后代节点数
+     *
+     * @param id 节点ID，可为根节点ID
+     * @return 后代节点数
+     */
+    public int getDescendantCount(E id) {
+        if (isRoot(id)) {
+            return order.length;
+        }
+        final int i = index(id);
+        return i < 0 || pre[i] < 0 ? 0 : ends[i] - pre[i] - 1;
+    }
+
+    /**
+     * 是否为祖先节点，O(1)
+     *
+     * @param ancestorId 祖先节点ID，可为根节点ID
+     * @param id         节点ID
+     * @return 是否为祖先节点，节点相同返回{@code false}
+     */
+    public boolean isAncestor(E ancestorId, E id) {
+        final int i = index(id);
+        if (i < 0 || pre[i] < 0) {
+            return false;
+        }
+        if (isRoot(ancestorId)) {
+            return true;
+        }
+        final int a = index(ancestorId);
+        return a >= 0 && pre[a] >= 0 && pre[a] < pre[i] && pre[i] < ends[a];
+    }
+
+    /**
+     * 转换为完整的{@link Tree}，与{@link TreeBuilder#build()}结果一致
+     *
+     * @return 根节点
+     */
+    public Tree<E> toTree() {
+        final Tree<E> root = new Tree<>(config);
+        root.setId(rootId);
+        materialize(0, order.length, root);
+        final Integer deep = config.getDeep();
+        if (null != deep && deep == 0) {
+            root.setChildren(null);
+        }
+        return root;
+    }
+
+    /**
+     * 转换为树列表，与{@link TreeBuilder#buildList()}结果一致
+     *
+     * @return 根节点的子节点
+     */
+    public List<Tree<E>> toList() {
+        return toTree().getChildren();
+    }
+
+    /**
+     * 只转换指定节点及其子树为{@link Tree}，节点配置的深度限制按在整棵树中的层级计算
+     *
+     * @param id 节点ID
+     * @return 子树，节点不存在或未挂载返回{@code null}
+     */
+    public Tree<E> toTree(E id) {
+        if (isRoot(id)) {
+            return toTree();
+        }
+        final int i = index(id);
+        if (i < 0 || pre[i] < 0) {
+            return null;
+        }
+        return materialize(pre[i], ends[i], null);
+    }
+
+    /**
+     * 将先序区间内的节点转换为{@link Tree}
+     *
+     * @param from 起始位置
+     * @param to   结束位置(不含)
+     * @param root 区间顶层节点挂载的父节点，{@code null}表示不挂载
+     * @return 区间的第一个节点
+     */
+    private Tree<E> materialize(int from, int to, Tree<E> root) {
+        final Integer deep = config.getDeep();
+        final int maxDepth = null == deep || deep < 0 ? Integer.MAX_VALUE : deep;
+        final Tree<E>[] built = new Tree[to - from];
+        for (int p = from; p < to; p++) {
+            final int i = order[p];
+            // 先序中后代的层级更深，被剪掉节点的后代也会被跳过
+            if (depths[i] > maxDepth) {
+                continue;
+            }
+            final Tree<E> tree = new Tree<>(config);
+            parsers[i].parse(sources[i], tree);
+            built[p - from] = tree;
+            if (p != from && parents[i] >= 0) {
+                built[pre[parents[i]] - from].addChildren(tree);
+            } else if (null != root) {
+                root.addChildren(tree);
+            }
+            if (depths[i] == maxDepth) {
+                tree.setChildren(null);
+            }
+        }
+        return built.length == 0 ? null : built[0];
+    }
+
+    private boolean isRoot(E id) {
+        return ObjectKit.equal(rootId, id) && index(id) < 0;
+    }
+
+    private E id(int index) {
+        return (E) ids[index];
+    }
+
+    /**
+     * 查找节点索引
+     *
+     * @param id 节点ID
+     * @return 索引，不存在返回-1
+     */
+    int index(Object id) {
+        return null == id ? -1 : CompactTreeBuilder.index(table, ids, id);
+    }
+
+}
@@ -0,0 +1,376 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.lang.tree;
+
+import org.aoju.bus.core.builder.Builder;
+import org.aoju.bus.core.collection.primitive.IntList;
+import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.core.lang.tree.parser.NodeParser;
+import org.aoju.bus.core.toolkit.ObjectKit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 紧凑树构建器，适用于数十万以上节点的树
+ * <pre>
+ * 1. 使用复用的临时{@link Tree}解析每个源对象的ID、父ID及权重，不为每个节点保留{@link Tree}
+ * 2. ID通过开放寻址表映射为索引，一次线性扫描解析父节点索引
+ * 3. 按权重稳定排序后生成CSR子节点数组，顺序与{@link TreeBuilder}一致
+ * 4. 节点数较多时，解析及各顶层子树的先序编号在公共线程池中并行进行
+ * </pre>
+ * ID重复时后加入的节点覆盖先加入的节点，保留先加入节点的位置
+ *
+ * @param <E> ID类型
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class CompactTreeBuilder<E> implements Builder<CompactTree<E>> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 节点数超过此值时并行构建
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private final E rootId;
+    private final NodeConfig config;
+    private final List<Object> sources = new ArrayList<>();
+    private final List<NodeParser<Object, E>> parsers = new ArrayList<>();
+    private boolean parallel = true;
+
+    /**
+     * 构造
+     *
+     * @param rootId 根节点ID
+     * @param config 配置
+     */
+    public CompactTreeBuilder(E rootId, NodeConfig config) {
+        this.rootId = rootId;
+        this.config = ObjectKit.defaultIfNull(config, NodeConfig.DEFAULT_CONFIG);
+    }
+
+    /**
+     * 创建紧凑树构建器
+     *
+     * @param rootId 根节点ID
+     * @param <T>    ID类型
+     * @return CompactTreeBuilder
+     */
+    public static <T> CompactTreeBuilder<T> of(T rootId) {
+        return of(rootId, null);
+    }
+
+    /**
+     * 创建紧凑树构建器
+     *
+     * @param rootId 根节点ID
+     * @param config 配置
+     * @param <T>    ID类型
+     * @return CompactTreeBuilder
+     */
+    public static <T> CompactTreeBuilder<T> of(T rootId, NodeConfig config) {
+        return new CompactTreeBuilder<>(rootId, config);
+    }
+
+    /**
+     * 设置节点较多时是否并行构建，默认是
+     *
+     * @param parallel 是否并行
+     * @return this
+     */
+    public CompactTreeBuilder<E> setParallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * 增加节点列表，节点在构建及转换为{@link Tree}时才被解析
+     *
+     * @param list       Bean列表
+     * @param nodeParser 节点转换器，用于定义一个Bean如何转换为Tree节点
+     * @param <T>        Bean类型
+     * @return this
+     */
+    public <T> CompactTreeBuilder<E> append(List<T> list, NodeParser<T, E> nodeParser) {
+        Assert.notNull(nodeParser, "NodeParser must be not null !");
+        for (T t : list) {
+            if (null != t) {
+                this.sources.add(t);
+                this.parsers.add((NodeParser<Object, E>) nodeParser);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public CompactTree<E> build() {
+        final int n = sources.size();
+        final Object[] sources = this.sources.toArray();
+        final NodeParser<Object, E>[] parsers = this.parsers.toArray(new NodeParser[0]);
+        final boolean parallel = this.parallel && n >= PARALLEL_THRESHOLD;
+
+        // 解析ID、父ID及权重，每个线程复用一个临时节点
+        final Object[] ids = new Object[n];
+        final Object[] parentIds = new Object[n];
+        final Comparable<?>[] weights = new Comparable[n];
+        final ThreadLocal<Tree<E>> scratch = ThreadLocal.withInitial(() -> new Tree<>(config));
+        range(n, parallel).forEach(i -> {
+            final Tree<E> tree = scratch.get();
+            parsers[i].parse(sources[i], tree);
+            ids[i] = tree.getId();
+            parentIds[i] = tree.getParentId();
+            weights[i] = tree.getWeight();
+            tree.clear();
+        });
+
+        // ID索引表，重复ID覆盖先加入的节点
+        final int[] table = new int[tableSize(n)];
+        final int mask = table.length - 1;
+        final int[] parents = new int[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            final Object id = ids[i];
+            if (null == id) {
+                parents[i] = CompactTree.DETACHED;
+                continue;
+            }
+            int slot = hash(id) & mask;
+            int value;
+            while ((value = table[slot]) != 0 && false == id.equals(ids[value - 1])) {
+                slot = (slot + 1) & mask;
+            }
+            if (value == 0) {
+                table[slot] = i + 1;
+                size++;
+            } else {
+                final int first = value - 1;
+                sources[first] = sources[i];
+                parsers[first] = parsers[i];
+                parentIds[first] = parentIds[i];
+                weights[first] = weights[i];
+                parents[i] = CompactTree.DETACHED;
+                ids[i] = null;
+            }
+        }
+
+        // 解析父节点索引
+        range(n, parallel).forEach(i -> {
+            if (null == ids[i]) {
+                return;
+            }
+            final Object parentId = parentIds[i];
+            if (ObjectKit.equals(rootId, parentId)) {
+                parents[i] = CompactTree.ROOT;
+            } else {
+                final int parent = null == parentId ? -1 : index(table, ids, parentId);
+                parents[i] = parent < 0 ? CompactTree.DETACHED : parent;
+            }
+        });
+
+        // CSR子节点数组，下标n为根节点
+        final int[] childOffsets = new int[n + 2];
+        for (int i = 0; i < n; i++) {
+            if (parents[i] != CompactTree.DETACHED) {
+                childOffsets[slot(parents[i], n) + 1]++;
+            }
+        }
+        for (int i = 1; i < childOffsets.length; i++) {
+            childOffsets[i] += childOffsets[i - 1];
+        }
+        final int[] children = new int[childOffsets[n + 1]];
+        final int[] cursor = new int[n + 1];
+        System.arraycopy(childOffsets, 0, cursor, 0, n + 1);
+        for (int i : sortByWeight(weights, n)) {
+            if (parents[i] != CompactTree.DETACHED) {
+                children[cursor[slot(parents[i], n)]++] = i;
+            }
+        }
+
+        // 先序编号，各顶层子树独立遍历后按顺序拼接
+        final int[] pre = new int[n];
+        final int[] ends = new int[n];
+        final int[] depths = new int[n];
+        Arrays.fill(pre, -1);
+        final int rootFrom = childOffsets[n];
+        final int topCount = childOffsets[n + 1] - rootFrom;
+        final int[][] locals = new int[topCount][];
+        range(topCount, parallel && topCount > 1).forEach(k ->
+                locals[k] = traverse(children[rootFrom + k], childOffsets, children, parents, ends, depths));
+        final int[] offsets = new int[topCount + 1];
+        for (int k = 0; k < topCount; k++) {
+            offsets[k + 1] = offsets[k] + locals[k].length;
+        }
+        final int[] order = new int[offsets[topCount]];
+        range(topCount, parallel && topCount > 1).forEach(k -> {
+            final int[] local = locals[k];
+            for (int j = 0; j < local.length; j++) {
+                final int i = local[j];
+                final int p = offsets[k] + j;
+                order[p] = i;
+                pre[i] = p;
+                // 遍历时ends中暂存子树大小
+                ends[i] += p;
+            }
+        });
+
+        return new CompactTree<>(rootId, config, ids, sources, parsers, parents, childOffsets, children,
+                pre, ends, depths, order, table, size);
+    }
+
+    /**
+     * 遍历一棵顶层子树，计算层级及子树大小
+     *
+     * @param top          顶层节点
+     * @param childOffsets 子节点偏移
+     * @param children     子节点
+     * @param parents      父节点
+     * @param sizes        子树大小
+     * @param depths       层级
+     * @return 子树节点的先序排列
+     */
+    private static int[] traverse(int top, int[] childOffsets, int[] children, int[] parents, int[] sizes, int[] depths) {
+        final IntList local = new IntList();
+        final IntList stack = new IntList();
+        depths[top] = 1;
+        stack.add(top);
+        while (false == stack.isEmpty()) {
+            final int i = stack.removeAt(stack.size() - 1);
+            local.add(i);
+            // 逆序入栈，保证子节点按顺序出栈
+            for (int j = childOffsets[i + 1] - 1; j >= childOffsets[i]; j--) {
+                final int child = children[j];
+                depths[child] = depths[i] + 1;
+                stack.add(child);
+            }
+        }
+        for (int j = local.size() - 1; j >= 0; j--) {
+            final int i = local.get(j);
+            sizes[i] += 1;
+            if (i != top) {
+                sizes[parents[i]] += sizes[i];
+            }
+        }
+        return local.toArray();
+    }
+
+    /**
+     * 按权重稳定排序的索引，权重已有序时直接返回原顺序
+     *
+     * @param weights 权重
+     * @param n       节点数
+     * @return 排序后的索引
+     */
+    private static int[] sortByWeight(Comparable<?>[] weights, int n) {
+        final int[] indexes = new int[n];
+        boolean sorted = true;
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+            if (i > 0 && compare(weights[i - 1], weights[i]) > 0) {
+                sorted = false;
+            }
+        }
+        if (sorted) {
+            return indexes;
+        }
+        mergeSort(indexes, new int[n], 0, n, weights);
+        return indexes;
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int from, int to, Comparable<?>[] weights) {
+        if (to - from < 2) {
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        mergeSort(a, tmp, from, mid, weights);
+        mergeSort(a, tmp, mid, to, weights);
+        if (compare(weights[a[mid - 1]], weights[a[mid]]) <= 0) {
+            return;
+        }
+        System.arraycopy(a, from, tmp, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && compare(weights[tmp[i]], weights[tmp[j]]) <= 0)) {
+                a[k] = tmp[i++];
+            } else {
+                a[k] = tmp[j++];
+            }
+        }
+    }
+
+    private static int compare(Comparable c1, Comparable c2) {
+        return ObjectKit.compare(c1, c2);
+    }
+
+    /**
+     * 在ID索引表中查找节点索引
+     *
+     * @param table ID索引表，值为索引+1
+     * @param ids   节点ID
+     * @param id    非null的节点ID
+     * @return 索引，不存在返回-1
+     */
+    static int index(int[] table, Object[] ids, Object id) {
+        final int mask = table.length - 1;
+        int slot = hash(id) & mask;
+        int value;
+        while ((value = table[slot]) != 0) {
+            if (id.equals(ids[value - 1])) {
+                return value - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int hash(Object id) {
+        final int h = id.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int slot(int parent, int n) {
+        return parent == CompactTree.ROOT ? n : parent;
+    }
+
+    private static int tableSize(int n) {
+        int size = 2;
+        while (size < n * 2 && size < (1 << 30)) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static IntStream range(int n, boolean parallel) {
+        final IntStream range = IntStream.range(0, n);
+        return parallel ? range.parallel() : range;
+    }
+
+}
@@ -0,0 +1,322 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import org.aoju.bus.core.lang.Assert;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV行游标，{@link MappedCsvReader}解析时每个线程复用同一个游标
+ * 字段以字节区间的形式保存，仅在调用{@link #get(int)}等方法时才解码，
+ * 游标内容仅在回调期间有效，如需保留请调用{@link #toRow()}
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public final class CsvCursor {
+
+    private final Charset charset;
+    private final byte textDelimiter;
+    private final boolean trimField;
+    private final Map<String, Integer> headerMap;
+
+    /**
+     * 当前数据缓冲区
+     */
+    private byte[] data;
+    /**
+     * 各字段在缓冲区中的开始位置
+     */
+    private int[] starts = new int[16];
+    /**
+     * 各字段在缓冲区中的结束位置(不含)
+     */
+    private int[] ends = new int[16];
+    /**
+     * 各字段是否以文本包装符包装
+     */
+    private boolean[] quoted = new boolean[16];
+    /**
+     * 字段数
+     */
+    private int size;
+    /**
+     * 原始行号
+     */
+    private long lineNo;
+    /**
+     * 去除包装符时使用的缓冲区
+     */
+    private byte[] scratch = new byte[64];
+
+    /**
+     * 构造
+     *
+     * @param charset       编码
+     * @param textDelimiter 文本包装符
+     * @param trimField     是否去除未包装字段两边的空白符
+     * @param headerMap     标题Map，可为null
+     */
+    CsvCursor(Charset charset, byte textDelimiter, boolean trimField, Map<String, Integer> headerMap) {
+        this.charset = charset;
+        this.textDelimiter = textDelimiter;
+        this.trimField = trimField;
+        this.headerMap = headerMap;
+    }
+
+    /**
+     * 开始新的一行
+     *
+     * @param data 数据缓冲区
+     */
+    void reset(byte[] data) {
+        this.data = data;
+        this.size = 0;
+    }
+
+    /**
+     * 设置原始行号
+     *
+     * @param lineNo 行号
+     */
+    void setLineNo(long lineNo) {
+        this.lineNo = lineNo;
+    }
+
+    /**
+     * 追加字段
+     *
+     * @param start  开始位置
+     * @param end    结束位置(不含)
+     * @param quoted 是否以文本包装符开始
+     */
+    void add(int start, int end, boolean quoted) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size << 1);
+            ends = Arrays.copyOf(ends, size << 1);
+            this.quoted = Arrays.copyOf(this.quoted, size << 1);
+        }
+        if (trimField && false == quoted) {
+            while (start < end && (data[start] & 0xff) <= ' ') {
+                start++;
+            }
+            while (end > start && (data[end - 1] & 0xff) <= ' ') {
+                end--;
+            }
+        }
+        starts[size] = start;
+        ends[size] = end;
+        this.quoted[size] = quoted;
+        size++;
+    }
+
+    /**
+     * 获取原始行号,多行情况下为首行行号
+     *
+     * @return 行号
+     */
+    public long getOriginalLineNumber() {
+        return lineNo;
+    }
+
+    /**
+     * 字段数
+     *
+     * @return 字段数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 是否为空行，即只有一个空字段
+     *
+     * @return 是否为空行
+     */
+    public boolean isEmptyRow() {
+        return size == 1 && starts[0] == ends[0];
+    }
+
+    /**
+     * 字段是否为空串
+     *
+     * @param index 字段位置
+     * @return 是否为空串，字段不存在也返回true
+     */
+    public boolean isEmpty(int index) {
+        if (index >= size) {
+            return true;
+        }
+        return quoted[index] ? ends[index] - starts[index] <= 2 : starts[index] == ends[index];
+    }
+
+    /**
+     * 获取字段值，自动去除包装符并还原转义的包装符
+     *
+     * @param index 字段位置
+     * @return 字段值，字段不存在返回null
+     */
+    public String get(int index) {
+        if (index >= size) {
+            return null;
+        }
+        final int start = starts[index];
+        final int end = ends[index];
+        if (false == quoted[index]) {
+            return new String(data, start, end - start, charset);
+        }
+        if (scratch.length < end - start) {
+            scratch = new byte[end - start];
+        }
+        final byte[] scratch = this.scratch;
+        int length = 0;
+        int pos = start + 1;
+        while (pos < end) {
+            final byte b = data[pos++];
+            if (b == textDelimiter) {
+                if (pos < end && data[pos] == textDelimiter) {
+                    // 转义的包装符
+                    scratch[length++] = b;
+                    pos++;
+                } else {
+                    // 包装结束，之后的内容原样保留
+                    while (pos < end) {
+                        scratch[length++] = data[pos++];
+                    }
+                }
+            } else {
+                scratch[length++] = b;
+            }
+        }
+        return new String(scratch, 0, length, charset);
+    }
+
+    /**
+     * 获取标题对应的字段值
+     *
+     * @param name 标题名
+     * @return 字段值, null表示无此字段值
+     */
+    public String getByName(String name) {
+        Assert.notNull(this.headerMap, "No header available!");
+        final Integer col = headerMap.get(name);
+        return null == col ? null : get(col);
+    }
+
+    /**
+     * 获取整数字段值，未包装的十进制数字直接从字节解析，不创建字符串
+     *
+     * @param index 字段位置
+     * @return 数值
+     * @throws NumberFormatException 字段不存在或不是合法数字
+     */
+    public long getLong(int index) {
+        if (index < size && false == quoted[index]) {
+            int pos = starts[index];
+            final int end = ends[index];
+            boolean negative = false;
+            if (pos < end && (data[pos] == '-' || data[pos] == '+')) {
+                negative = data[pos] == '-';
+                pos++;
+            }
+            // 18位以内不会溢出
+            if (pos < end && end - pos <= 18) {
+                long value = 0;
+                for (; pos < end; pos++) {
+                    final int digit = data[pos] - '0';
+                    if (digit < 0 || digit > 9) {
+                        break;
+                    }
+                    value = value * 10 + digit;
+                }
+                if (pos == end) {
+                    return negative ? -value : value;
+                }
+            }
+        }
+        return Long.parseLong(get(index));
+    }
+
+    /**
+     * 获取整数字段值
+     *
+     * @param index 字段位置
+     * @return 数值
+     * @throws NumberFormatException 字段不存在或不是合法数字
+     */
+    public int getInt(int index) {
+        final long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * 获取浮点字段值
+     *
+     * @param index 字段位置
+     * @return 数值
+     * @throws NumberFormatException 字段不存在或不是合法数字
+     */
+    public double getDouble(int index) {
+        return Double.parseDouble(get(index));
+    }
+
+    /**
+     * 解码全部字段
+     *
+     * @return 字段值列表
+     */
+    public List<String> getRawList() {
+        final List<String> fields = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            fields.add(get(i));
+        }
+        return fields;
+    }
+
+    /**
+     * 转换为独立的{@link CsvRow}，可在回调之外使用
+     *
+     * @return CsvRow
+     */
+    public CsvRow toRow() {
+        return new CsvRow(lineNo, headerMap, getRawList());
+    }
+
+    @Override
+    public String toString() {
+        return "CsvCursor{originalLineNumber=" + lineNo + ", fields=" + getRawList() + "}";
+    }
+
+}
@@ -33,6 +33,7 @@ import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.*;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -143,6 +144,18 @@ public final class CsvWriter implements Closeable, Flushable {
         this(FileKit.getWriter(file, charset, isAppend), config);
     }
 
+    /**
+     * 构造,直接写出到文件通道,使用复用的编码器及直接内存缓冲区,适合大量数据写出
+     * 关闭此写出器时会同时关闭通道
+     *
+     * @param channel 文件通道
+     * @param charset 编码
+     * @param config  写出配置,null则使用默认配置
+     */
+    public CsvWriter(FileChannel channel, java.nio.charset.Charset charset, CsvWriteConfig config) {
+        this(new ChannelWriter(channel, ObjectKit.defaultIfNull(charset, Charset.UTF_8)), config);
+    }
+
     /**
      * 构造,使用默认配置
      *
@@ -159,7 +172,7 @@ public final class CsvWriter implements Closeable, Flushable {
      * @param config 写出配置,null则使用默认配置
      */
     public CsvWriter(Writer writer, CsvWriteConfig config) {
-        this.writer = (writer instanceof BufferedWriter) ? writer : new BufferedWriter(writer);
+        this.writer = (writer instanceof BufferedWriter || writer instanceof ChannelWriter) ? writer : new BufferedWriter(writer);
         this.config = ObjectKit.defaultIfNull(config, CsvWriteConfig.defaultConfig());
     }
 
@@ -398,11 +411,12 @@ public final class CsvWriter implements Closeable, Flushable {
             return;
         }
 
-        final char[] valueChars = value.toCharArray();
+        final int length = value.length();
         boolean needsTextDelimiter = alwaysDelimitText;
         boolean containsTextDelimiter = false;
 
-        for (final char c : valueChars) {
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
             if (c == textDelimiter) {
                 // 字段值中存在包装符
                 containsTextDelimiter = needsTextDelimiter = true;
@@ -420,7 +434,8 @@ public final class CsvWriter implements Closeable, Flushable {
 
         // 正文
         if (containsTextDelimiter) {
-            for (final char c : valueChars) {
+            for (int i = 0; i < length; i++) {
+                final char c = value.charAt(i);
                 // 转义文本包装符
                 if (c == textDelimiter) {
                     writer.write(textDelimiter);
@@ -428,7 +443,7 @@ public final class CsvWriter implements Closeable, Flushable {
                 writer.write(c);
             }
         } else {
-            writer.write(valueChars);
+            writer.write(value);
         }
 
         // 包装符结尾
@@ -0,0 +1,863 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import org.aoju.bus.core.lang.Charset;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.core.toolkit.MapKit;
+import org.aoju.bus.core.toolkit.ObjectKit;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 基于内存映射的并行CSV读取器，适用于大文件
+ * <pre>
+ * 1. 文件按固定大小分块，并行扫描每块，按与解析一致的规则(仅字段开头的包装符开始包装)分别假设四种起始状态，
+ *    记录各状态下的第一个行边界及分块结束时的状态
+ * 2. 从文件开头依次传递状态，确定每块真实的行边界，得到互不重叠的记录段，包装符内的换行不会被切断
+ * 3. 各记录段在{@link ForkJoinPool}中并行解析，字段以字节区间保存在复用的{@link CsvCursor}中，按需解码
+ * </pre>
+ * 注意：
+ * <ul>
+ *     <li>编码须兼容ASCII，分隔符、包装符、注释符及换行符均为单字节</li>
+ *     <li>注释行中不应包含文本包装符，否则分块时的引号状态可能判断错误</li>
+ *     <li>行的回调顺序不保证与文件顺序一致，回调方法须线程安全</li>
+ * </ul>
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class MappedCsvReader implements Closeable {
+
+    /**
+     * 单个分块的最小字节数
+     */
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    /**
+     * 单个分块的最大字节数
+     */
+    private static final long MAX_CHUNK_SIZE = 64L << 20;
+    /**
+     * 单次内存映射的最大字节数
+     */
+    private static final long MAPPING_SIZE = 256L << 20;
+    /**
+     * 读取缓冲区大小
+     */
+    private static final int BUFFER_SIZE = IoKit.DEFAULT_LARGE_BUFFER_SIZE << 3;
+
+    private static final byte CR = Symbol.C_CR;
+    private static final byte LF = Symbol.C_LF;
+
+    /**
+     * 扫描状态：字段开头
+     */
+    private static final int FIELD_START = 0;
+    /**
+     * 扫描状态：未包装字段中或包装结束之后
+     */
+    private static final int FIELD = 1;
+    /**
+     * 扫描状态：包装符内
+     */
+    private static final int QUOTED = 2;
+    /**
+     * 扫描状态：包装符内遇到包装符，由下一个字符决定是转义还是包装结束
+     */
+    private static final int QUOTE_END = 3;
+    /**
+     * 扫描状态数
+     */
+    private static final int STATES = 4;
+
+    private final FileChannel channel;
+    private final long size;
+    private final java.nio.charset.Charset charset;
+    private final CsvReadConfig config;
+    private final ForkJoinPool pool;
+
+    private final byte separator;
+    private final byte delimiter;
+    /**
+     * 注释符，-1表示不支持注释
+     */
+    private final int comment;
+
+    /**
+     * 标题行
+     */
+    private CsvRow header;
+    /**
+     * 期望的字段数，-1表示不检查
+     */
+    private int expectedFieldCount = -1;
+    /**
+     * 记录段，首次读取时计算
+     */
+    private volatile List<Segment> segments;
+
+    /**
+     * 构造，使用UTF-8编码、默认配置及公共{@link ForkJoinPool}
+     *
+     * @param file CSV文件
+     */
+    public MappedCsvReader(File file) {
+        this(file, Charset.UTF_8, null);
+    }
+
+    /**
+     * 构造，使用公共{@link ForkJoinPool}
+     *
+     * @param file    CSV文件
+     * @param charset 编码
+     * @param config  配置，null表示默认配置
+     */
+    public MappedCsvReader(File file, java.nio.charset.Charset charset, CsvReadConfig config) {
+        this(file, charset, config, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 构造
+     *
+     * @param file    CSV文件
+     * @param charset 编码
+     * @param config  配置，null表示默认配置
+     * @param pool    解析使用的线程池
+     */
+    public MappedCsvReader(File file, java.nio.charset.Charset charset, CsvReadConfig config, ForkJoinPool pool) {
+        this.charset = ObjectKit.defaultIfNull(charset, Charset.UTF_8);
+        this.config = ObjectKit.defaultIfNull(config, CsvReadConfig.defaultConfig());
+        this.pool = ObjectKit.defaultIfNull(pool, ForkJoinPool.commonPool());
+        if (StringKit.bytes(Symbol.LF, this.charset).length != 1) {
+            throw new IllegalArgumentException(StringKit.format("Charset [{}] is not ASCII compatible", this.charset));
+        }
+        this.separator = toByte(this.config.fieldSeparator);
+        this.delimiter = toByte(this.config.textDelimiter);
+        this.comment = null == this.config.commentCharacter ? -1 : toByte(this.config.commentCharacter);
+        try {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.size = channel.size();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 获取头部字段列表，如果containsHeader设置为false则抛出异常
+     *
+     * @return 头部列表
+     */
+    public List<String> getHeader() {
+        if (false == config.containsHeader) {
+            throw new IllegalStateException("No header available - header parsing is disabled");
+        }
+        segments();
+        return null == header ? Collections.emptyList() : header.getRawList();
+    }
+
+    /**
+     * 并行读取全部行，每行转换为独立的{@link CsvRow}
+     *
+     * @param handler 行处理器，会被多个线程同时调用
+     */
+    public void read(CsvHandler handler) {
+        scan(cursor -> handler.handle(cursor.toRow()));
+    }
+
+    /**
+     * 并行读取全部行，同一线程内复用{@link CsvCursor}，不为每行创建对象
+     *
+     * @param consumer 游标处理器，会被多个线程同时调用，游标仅在回调期间有效
+     */
+    public void scan(Consumer<CsvCursor> consumer) {
+        final List<Segment> segments = segments();
+        invoke(segments.size(), index -> {
+            final SegmentParser parser = new SegmentParser(segments.get(index));
+            while (parser.next()) {
+                consumer.accept(parser.cursor);
+            }
+        });
+    }
+
+    /**
+     * 获取行的并行流，各记录段按需解析
+     * 流在调用终止操作的线程所属的{@link ForkJoinPool}中执行，如需使用指定线程池，请在该线程池中提交终止操作
+     *
+     * @return 行流，按记录段划分，记录段内保持文件顺序
+     */
+    public Stream<CsvRow> stream() {
+        final List<Segment> segments = segments();
+        return StreamSupport.stream(new RowSpliterator(segments, 0, segments.size(), null), true);
+    }
+
+    @Override
+    public void close() {
+        IoKit.close(channel);
+    }
+
+    /**
+     * 计算记录段，并解析标题行
+     *
+     * @return 记录段列表
+     */
+    private List<Segment> segments() {
+        List<Segment> segments = this.segments;
+        if (null == segments) {
+            synchronized (this) {
+                segments = this.segments;
+                if (null == segments) {
+                    segments = readFirstRow(split());
+                    this.segments = segments;
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * 分块扫描文件，确定每个记录段的边界
+     *
+     * @return 记录段列表
+     */
+    private List<Segment> split() {
+        final List<Segment> segments = new ArrayList<>();
+        if (size == 0) {
+            return segments;
+        }
+        final long chunkSize = Math.min(MAX_CHUNK_SIZE,
+                Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 4L) + 1));
+        final int count = (int) ((size + chunkSize - 1) / chunkSize);
+        final Chunk[] chunks = new Chunk[count];
+        for (int i = 0; i < count; i++) {
+            chunks[i] = new Chunk(i * chunkSize, Math.min(size, (i + 1) * chunkSize));
+        }
+        if (count > 1) {
+            invoke(count, index -> scan(chunks[index]));
+        }
+
+        long start = 0;
+        long line = 0;
+        long lines = 0;
+        int state = FIELD_START;
+        for (int i = 0; i < count; i++) {
+            final Chunk chunk = chunks[i];
+            if (i > 0) {
+                // 按上一分块结束时的状态取本分块的行边界
+                final long boundary = chunk.boundaries[state];
+                if (boundary > start) {
+                    segments.add(new Segment(start, boundary, line));
+                    start = boundary;
+                    line = lines + chunk.linesBefore[state];
+                }
+            }
+            state = chunk.states[state];
+            lines += chunk.lines;
+        }
+        if (start < size) {
+            segments.add(new Segment(start, size, line));
+        }
+        return segments;
+    }
+
+    /**
+     * 扫描分块，统计换行数，并对每种起始状态记录第一个行边界及分块结束时的状态
+     * 各起始状态的扫描通常在首个分隔符或换行处汇合，之后只按一种状态扫描
+     *
+     * @param chunk 分块
+     */
+    private void scan(Chunk chunk) {
+        final long length = chunk.end - chunk.start;
+        // 多映射一个字节，用于判断分块末尾的\r之后是否为\n
+        final long mapped = Math.min(size - chunk.start, length + 1);
+        final MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, mapped);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        final byte[] block = new byte[BUFFER_SIZE];
+        final int[] states = {FIELD_START, FIELD, QUOTED, QUOTE_END};
+        // 仍需分别扫描的状态数，汇合后为1
+        int active = STATES;
+        // 尚未找到行边界的状态数
+        int missing = STATES;
+        long lines = 0;
+        int offset = 0;
+        while (offset < length) {
+            final int read = (int) Math.min(block.length, length - offset);
+            buffer.position(offset);
+            buffer.get(block, 0, read);
+            for (int i = 0; i < read; i++) {
+                final byte b = block[i];
+                final boolean newline = b == LF || b == CR;
+                if (newline) {
+                    if (b == CR) {
+                        final int next = offset + i + 1;
+                        if (next < mapped && (i + 1 < read ? block[i + 1] : buffer.get(next)) == LF) {
+                            // \r\n，由\n处理
+                            continue;
+                        }
+                    }
+                    lines++;
+                }
+                for (int k = 0; k < active; k++) {
+                    final int state = states[k];
+                    if (newline && state != QUOTED && missing > 0) {
+                        missing -= boundary(chunk, active == 1 ? -1 : k, chunk.start + offset + i + 1, lines);
+                    }
+                    states[k] = next(state, b);
+                }
+                if (active > 1 && states[0] == states[1] && states[0] == states[2] && states[0] == states[3]) {
+                    active = 1;
+                }
+            }
+            offset += read;
+        }
+        for (int k = 0; k < STATES; k++) {
+            chunk.states[k] = states[active == 1 ? 0 : k];
+        }
+        chunk.lines = lines;
+    }
+
+    /**
+     * 记录行边界
+     *
+     * @param chunk    分块
+     * @param state    起始状态，-1表示所有尚未找到行边界的状态
+     * @param position 行边界位置
+     * @param lines    行边界之前(含)的换行数
+     * @return 新记录的状态数
+     */
+    private static int boundary(Chunk chunk, int state, long position, long lines) {
+        int count = 0;
+        for (int k = 0; k < STATES; k++) {
+            if ((state < 0 || state == k) && chunk.boundaries[k] < 0) {
+                chunk.boundaries[k] = position;
+                chunk.linesBefore[k] = lines;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 按解析规则计算读入一个字节后的扫描状态，包装符仅在字段开头时开始包装
+     *
+     * @param state 当前状态
+     * @param b     字节
+     * @return 新状态
+     */
+    private int next(int state, byte b) {
+        switch (state) {
+            case QUOTED:
+                return b == delimiter ? QUOTE_END : QUOTED;
+            case QUOTE_END:
+                if (b == delimiter) {
+                    // 转义的包装符
+                    return QUOTED;
+                }
+                // 包装结束，按包装外处理当前字节
+                return next(FIELD, b);
+            case FIELD_START:
+                if (b == delimiter) {
+                    return QUOTED;
+                }
+                // fall through
+            default:
+                return (b == separator || b == LF || b == CR) ? FIELD_START : FIELD;
+        }
+    }
+
+    /**
+     * 顺序读取第一个有效行，作为标题行或字段数检查的基准
+     *
+     * @param segments 记录段列表
+     * @return 去除标题行后的记录段列表
+     */
+    private List<Segment> readFirstRow(List<Segment> segments) {
+        if (segments.isEmpty() || (false == config.containsHeader && false == config.errorOnDifferentFieldCount)) {
+            return segments;
+        }
+        final Segment first = segments.get(0);
+        final SegmentParser parser = new SegmentParser(first, false);
+        if (false == parser.next()) {
+            return segments;
+        }
+        expectedFieldCount = config.errorOnDifferentFieldCount ? parser.cursor.size() : -1;
+        if (false == config.containsHeader) {
+            return segments;
+        }
+
+        final List<String> fields = parser.cursor.getRawList();
+        final Map<String, Integer> headerMap = new LinkedHashMap<>(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            if (MapKit.isNotEmpty(this.config.headerAlias)) {
+                // 自定义别名
+                field = ObjectKit.defaultIfNull(this.config.headerAlias.get(field), field);
+            }
+            if (StringKit.isNotEmpty(field) && false == headerMap.containsKey(field)) {
+                headerMap.put(field, i);
+            }
+        }
+        this.header = new CsvRow(parser.cursor.getOriginalLineNumber(),
+                Collections.unmodifiableMap(headerMap), Collections.unmodifiableList(fields));
+
+        // 标题行之后的内容作为第一个记录段
+        final List<Segment> result = new ArrayList<>(segments.size());
+        final long position = parser.position();
+        if (position < first.end) {
+            result.add(new Segment(position, first.end, parser.lineNo));
+        }
+        result.addAll(segments.subList(1, segments.size()));
+        return result;
+    }
+
+    /**
+     * 在线程池中并行执行
+     *
+     * @param count  任务数
+     * @param action 按下标执行的任务
+     */
+    private void invoke(int count, IntConsumer action) {
+        if (count == 0) {
+            return;
+        }
+        if (count == 1) {
+            action.accept(0);
+            return;
+        }
+        pool.invoke(new RangeAction(0, count, action));
+    }
+
+    /**
+     * 特殊字符转换为单字节
+     *
+     * @param c 字符
+     * @return 字节
+     */
+    private static byte toByte(char c) {
+        if (c >= 0x80) {
+            throw new IllegalArgumentException(StringKit.format("Character [{}] is not ASCII", c));
+        }
+        return (byte) c;
+    }
+
+    /**
+     * 文件分块
+     */
+    private static class Chunk {
+
+        final long start;
+        final long end;
+        /**
+         * 各起始状态下第一个行边界的位置，-1表示无
+         */
+        final long[] boundaries = {-1, -1, -1, -1};
+        /**
+         * 对应行边界之前(含)的换行数
+         */
+        final long[] linesBefore = new long[STATES];
+        /**
+         * 各起始状态下分块结束时的状态
+         */
+        final int[] states = new int[STATES];
+        long lines;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * 以行边界开始和结束的记录段
+     */
+    private static class Segment {
+
+        final long start;
+        final long end;
+        /**
+         * 起始位置的原始行号
+         */
+        final long line;
+
+        Segment(long start, long end, long line) {
+            this.start = start;
+            this.end = end;
+            this.line = line;
+        }
+    }
+
+    /**
+     * 按下标区间拆分的并行任务
+     */
+    private static class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        RangeAction(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, action), new RangeAction(mid, to, action));
+        }
+    }
+
+    /**
+     * 按记录段拆分的行迭代器
+     */
+    private class RowSpliterator implements Spliterator<CsvRow> {
+
+        private final List<Segment> segments;
+        private final int to;
+        private int from;
+        private SegmentParser parser;
+
+        RowSpliterator(List<Segment> segments, int from, int to, SegmentParser parser) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super CsvRow> action) {
+            while (true) {
+                if (null == parser) {
+                    if (from >= to) {
+                        return false;
+                    }
+                    parser = new SegmentParser(segments.get(from++));
+                }
+                if (parser.next()) {
+                    action.accept(parser.cursor.toRow());
+                    return true;
+                }
+                parser = null;
+            }
+        }
+
+        @Override
+        public Spliterator<CsvRow> trySplit() {
+            final int remaining = to - from;
+            if (remaining < 1 || (remaining < 2 && null == parser)) {
+                return null;
+            }
+            final int mid = from + remaining / 2;
+            final RowSpliterator prefix = new RowSpliterator(segments, from, mid, parser);
+            this.parser = null;
+            this.from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /**
+     * 单个记录段的解析器，按块将映射内容复制到复用的字节数组中解析
+     */
+    private class SegmentParser {
+
+        /**
+         * 表示需要读取更多数据
+         */
+        private static final int NEED_MORE = -1;
+
+        final CsvCursor cursor;
+        /**
+         * 是否按配置过滤行(行号范围、空行、字段数检查)
+         */
+        private final boolean filter;
+        private final long end;
+        /**
+         * 下一个待读取的文件位置
+         */
+        private long next;
+        /**
+         * buffer[0]对应的文件位置
+         */
+        private long bufferStart;
+        private MappedByteBuffer mapped;
+        private long mappedStart;
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int pos;
+        private int limit;
+        /**
+         * 记录段内容是否已全部读入缓冲区
+         */
+        private boolean eof;
+        /**
+         * 下一行的原始行号
+         */
+        private long lineNo;
+        /**
+         * 当前行包装符内的换行数
+         */
+        private int rowLines;
+        /**
+         * 当前行是否为注释行
+         */
+        private boolean rowComment;
+
+        SegmentParser(Segment segment) {
+            this(segment, true);
+        }
+
+        SegmentParser(Segment segment, boolean filter) {
+            this.cursor = new CsvCursor(charset, delimiter, config.trimField,
+                    null == header ? null : header.headerMap);
+            this.filter = filter;
+            this.end = segment.end;
+            this.next = segment.start;
+            this.bufferStart = segment.start;
+            this.lineNo = segment.line;
+        }
+
+        /**
+         * 下一行在文件中的位置
+         *
+         * @return 文件位置
+         */
+        long position() {
+            return bufferStart + pos;
+        }
+
+        /**
+         * 解析下一个有效行到游标中
+         *
+         * @return 是否有下一行
+         */
+        boolean next() {
+            while (true) {
+                if (pos >= limit && eof) {
+                    return false;
+                }
+                final int rowEnd = parseRow();
+                if (rowEnd == NEED_MORE) {
+                    fill();
+                    continue;
+                }
+                pos = rowEnd;
+                final long rowLineNo = lineNo;
+                lineNo += 1 + rowLines;
+                if (rowComment) {
+                    continue;
+                }
+                if (config.skipEmptyRows && cursor.isEmptyRow()) {
+                    continue;
+                }
+                if (filter) {
+                    if (rowLineNo < config.beginLineNo) {
+                        continue;
+                    }
+                    if (rowLineNo > config.endLineNo) {
+                        pos = limit;
+                        eof = true;
+                        return false;
+                    }
+                    if (expectedFieldCount >= 0 && cursor.size() != expectedFieldCount) {
+                        throw new InstrumentException(String.format("Line %d has %d fields, but first line has %d fields",
+                                rowLineNo, cursor.size(), expectedFieldCount));
+                    }
+                }
+                cursor.setLineNo(rowLineNo);
+                return true;
+            }
+        }
+
+        /**
+         * 从当前位置解析一行，字段区间写入游标
+         *
+         * @return 行结束位置，{@link #NEED_MORE}表示当前缓冲区内行不完整
+         */
+        private int parseRow() {
+            final byte[] b = this.buffer;
+            final int limit = this.limit;
+            final boolean eof = this.eof;
+            final byte separator = MappedCsvReader.this.separator;
+            final byte delimiter = MappedCsvReader.this.delimiter;
+            final CsvCursor cursor = this.cursor;
+            int p = this.pos;
+            int lines = 0;
+            cursor.reset(b);
+            rowComment = false;
+
+            // 注释行
+            if (comment >= 0 && p < limit && b[p] == comment) {
+                while (p < limit && b[p] != LF && b[p] != CR) {
+                    p++;
+                }
+                if (p >= limit) {
+                    if (false == eof) {
+                        return NEED_MORE;
+                    }
+                } else if (b[p++] == CR) {
+                    if (p >= limit && false == eof) {
+                        return NEED_MORE;
+                    }
+                    if (p < limit && b[p] == LF) {
+                        p++;
+                    }
+                }
+                rowComment = true;
+                rowLines = 0;
+                return p;
+            }
+
+            while (true) {
+                final int start = p;
+                boolean quoted = false;
+                if (p < limit && b[p] == delimiter) {
+                    quoted = true;
+                    p++;
+                    while (true) {
+                        if (p >= limit) {
+                            if (false == eof) {
+                                return NEED_MORE;
+                            }
+                            // 包装符未闭合，剩余内容均作为字段
+                            break;
+                        }
+                        final byte c = b[p++];
+                        if (c == delimiter) {
+                            if (p >= limit && false == eof) {
+                                return NEED_MORE;
+                            }
+                            if (p < limit && b[p] == delimiter) {
+                                // 转义的包装符
+                                p++;
+                                continue;
+                            }
+                            break;
+                        }
+                        if (c == LF || (c == CR && (p >= limit || b[p] != LF))) {
+                            lines++;
+                        }
+                    }
+                }
+                while (p < limit) {
+                    final byte c = b[p];
+                    if (c == separator || c == CR || c == LF) {
+                        break;
+                    }
+                    p++;
+                }
+                cursor.add(start, p, quoted);
+
+                if (p >= limit) {
+                    if (false == eof) {
+                        return NEED_MORE;
+                    }
+                    break;
+                }
+                final byte c = b[p++];
+                if (c == separator) {
+                    continue;
+                }
+                if (c == CR) {
+                    if (p >= limit && false == eof) {
+                        return NEED_MORE;
+                    }
+                    if (p < limit && b[p] == LF) {
+                        p++;
+                    }
+                }
+                break;
+            }
+            rowLines = lines;
+            return p;
+        }
+
+        /**
+         * 丢弃已解析的内容，并从映射中读取更多数据，一行超过缓冲区大小时自动扩容
+         */
+        private void fill() {
+            final int remaining = limit - pos;
+            if (pos > 0) {
+                System.arraycopy(buffer, pos, buffer, 0, remaining);
+                bufferStart += pos;
+                pos = 0;
+                limit = remaining;
+            } else if (remaining == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length << 1);
+            }
+
+            if (null == mapped || next >= mappedStart + mapped.limit()) {
+                mappedStart = next;
+                try {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(MAPPING_SIZE, end - next));
+                } catch (IOException e) {
+                    throw new InstrumentException(e);
+                }
+            }
+            final int read = (int) Math.min(buffer.length - limit, mappedStart + mapped.limit() - next);
+            mapped.position((int) (next - mappedStart));
+            mapped.get(buffer, limit, read);
+            limit += read;
+            next += read;
+            eof = next >= end;
+        }
+    }
+
+}
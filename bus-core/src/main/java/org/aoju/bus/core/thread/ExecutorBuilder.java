@@ -27,8 +27,12 @@ package org.aoju.bus.core.thread;
 
 import org.aoju.bus.core.builder.Builder;
 import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.ObjectKit;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.concurrent.*;
 
 /**
@@ -51,6 +55,14 @@ public class ExecutorBuilder implements Builder<ThreadPoolExecutor> {
      * 默认的等待队列容量
      */
     public static final int DEFAULT_QUEUE_CAPACITY = Normal._1024;
+    /**
+     * 弹性线程池默认的等待队列容量
+     */
+    public static final int DEFAULT_ELASTIC_QUEUE_CAPACITY = 100000;
+    /**
+     * 创建虚拟线程池的方法，JDK 21以下为{@code null}
+     */
+    private static final MethodHandle VIRTUAL_EXECUTOR = virtualExecutor();
     /**
      * 初始池大小
      */
@@ -79,6 +91,10 @@ public class ExecutorBuilder implements Builder<ThreadPoolExecutor> {
      * 线程执行超时后是否回收线程
      */
     private Boolean allowCoreThreadTimeOut;
+    /**
+     * 是否记录任务排队时间，是则构建{@link MetricsExecutor}
+     */
+    private boolean queueTimeMetrics;
 
     /**
      * 创建ExecutorBuilder，开始构建
@@ -89,6 +105,90 @@ public class ExecutorBuilder implements Builder<ThreadPoolExecutor> {
         return new ExecutorBuilder();
     }
 
+    /**
+     * 创建有界弹性线程池的建造者
+     * 线程数上限为CPU核数的10倍，等待队列容量为{@link #DEFAULT_ELASTIC_QUEUE_CAPACITY}，
+     * 空闲60秒的线程(包括核心线程)被回收，并记录任务排队时间
+     *
+     * @return {@link ExecutorBuilder}
+     */
+    public static ExecutorBuilder elastic() {
+        final int threads = Runtime.getRuntime().availableProcessors() * 10;
+        return create()
+                .setCorePoolSize(threads)
+                .setMaxPoolSize(threads)
+                .setAllowCoreThreadTimeOut(true)
+                .setWorkQueue(new LinkedBlockingQueue<>(DEFAULT_ELASTIC_QUEUE_CAPACITY))
+                .setThreadFactory(new NamedThreadFactory("elastic-", true))
+                .setQueueTimeMetrics(true);
+    }
+
+    /**
+     * 创建工作窃取线程池，任务按先进先出调度，适用于事件类的异步任务
+     *
+     * @param parallelism 并行度
+     * @return {@link ForkJoinPool}
+     */
+    public static ForkJoinPool buildWorkStealing(int parallelism) {
+        return new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的线程池
+     * 虚拟线程需要JDK 21及以上，运行时检测，不支持时返回{@link #elastic()}构建的有界弹性线程池
+     *
+     * @param prefix 线程名前缀
+     * @return 线程池
+     */
+    public static java.util.concurrent.ExecutorService buildVirtual(String prefix) {
+        if (null != VIRTUAL_EXECUTOR) {
+            try {
+                return (java.util.concurrent.ExecutorService) VIRTUAL_EXECUTOR.invokeExact(prefix);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                // 方法均已解析，不会抛出受检异常
+                throw new InstrumentException(e);
+            }
+        }
+        return elastic().build();
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     *
+     * @return 是否支持
+     */
+    public static boolean isVirtualThreadSupported() {
+        return null != VIRTUAL_EXECUTOR;
+    }
+
+    /**
+     * 查找创建虚拟线程池的方法，相当于{@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory())}
+     *
+     * @return 方法，类型为{@code (String)ExecutorService}，不支持时返回{@code null}
+     */
+    private static MethodHandle virtualExecutor() {
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Class<?> virtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(virtualClass));
+            final MethodHandle name = lookup.findVirtual(virtualClass, "name", MethodType.methodType(virtualClass, String.class, long.class));
+            final MethodHandle factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+            // (prefix) -> ofVirtual().name(prefix, 0).factory()
+            MethodHandle handle = MethodHandles.insertArguments(name, 2, 0L);
+            handle = MethodHandles.foldArguments(handle, ofVirtual);
+            handle = MethodHandles.filterReturnValue(handle, factory.asType(MethodType.methodType(ThreadFactory.class, virtualClass)));
+            final MethodHandle executor = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+                    MethodType.methodType(java.util.concurrent.ExecutorService.class, ThreadFactory.class));
+            handle = MethodHandles.filterReturnValue(handle.asType(MethodType.methodType(ThreadFactory.class, String.class)), executor);
+            return handle.asType(MethodType.methodType(java.util.concurrent.ExecutorService.class, String.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
     /**
      * 构建ThreadPoolExecutor
      *
@@ -109,7 +209,14 @@ public class ExecutorBuilder implements Builder<ThreadPoolExecutor> {
         final ThreadFactory threadFactory = (null != builder.threadFactory) ? builder.threadFactory : Executors.defaultThreadFactory();
         RejectedExecutionHandler handler = ObjectKit.defaultIfNull(builder.handler, new ThreadPoolExecutor.AbortPolicy());
 
-        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(//
+        final ThreadPoolExecutor threadPoolExecutor = builder.queueTimeMetrics ? new MetricsExecutor(//
+                corePoolSize,
+                maxPoolSize,
+                keepAliveTime, TimeUnit.NANOSECONDS,
+                workQueue,
+                threadFactory,
+                handler
+        ) : new ThreadPoolExecutor(//
                 corePoolSize,
                 maxPoolSize,
                 keepAliveTime, TimeUnit.NANOSECONDS,
@@ -255,6 +362,17 @@ public class ExecutorBuilder implements Builder<ThreadPoolExecutor> {
         return this;
     }
 
+    /**
+     * 设置是否记录任务排队时间，是则构建{@link MetricsExecutor}
+     *
+     * @param queueTimeMetrics 是否记录任务排队时间
+     * @return this
+     */
+    public ExecutorBuilder setQueueTimeMetrics(boolean queueTimeMetrics) {
+        this.queueTimeMetrics = queueTimeMetrics;
+        return this;
+    }
+
     /**
      * 构建ThreadPoolExecutor
      */
@@ -0,0 +1,83 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.thread;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 线程池类型，用于{@link GlobalThread}等按场景选择线程池
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public enum ExecutorProfile {
+
+    /**
+     * 无界缓存线程池，无空闲线程时创建新线程，为{@link GlobalThread}的默认类型
+     */
+    CACHED {
+        @Override
+        public ExecutorService create() {
+            return ExecutorBuilder.create().useSynchronousQueue().build();
+        }
+    },
+    /**
+     * 每个任务一个虚拟线程，适用于大量阻塞IO任务；JDK 21以下使用{@link #ELASTIC}
+     */
+    VIRTUAL {
+        @Override
+        public ExecutorService create() {
+            return ExecutorBuilder.buildVirtual("virtual-");
+        }
+    },
+    /**
+     * 工作窃取线程池，并行度为CPU核数，适用于计算及可拆分的任务
+     */
+    WORK_STEALING {
+        @Override
+        public ExecutorService create() {
+            return ExecutorBuilder.buildWorkStealing(Runtime.getRuntime().availableProcessors());
+        }
+    },
+    /**
+     * 有界弹性线程池，线程数及队列均有上限，空闲线程自动回收，并记录任务排队时间
+     */
+    ELASTIC {
+        @Override
+        public ExecutorService create() {
+            return ExecutorBuilder.elastic().build();
+        }
+    };
+
+    /**
+     * 创建线程池
+     *
+     * @return 线程池
+     */
+    public abstract ExecutorService create();
+
+}
@@ -27,7 +27,9 @@ package org.aoju.bus.core.thread;
 
 import org.aoju.bus.core.lang.exception.InstrumentException;
 
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
@@ -40,7 +42,12 @@ import java.util.concurrent.Future;
  */
 public class GlobalThread {
 
-    private static ExecutorService executor;
+    /**
+     * 按类型共享的其它线程池，首次使用时创建
+     */
+    private static final Map<ExecutorProfile, ExecutorService> PROFILE_EXECUTORS = new ConcurrentHashMap<>();
+    private static volatile ExecutorService executor;
+    private static volatile ExecutorProfile profile;
 
     static {
         init();
@@ -53,10 +60,25 @@ public class GlobalThread {
      * 初始化全局线程池
      */
     synchronized public static void init() {
+        init(ExecutorProfile.CACHED);
+    }
+
+    /**
+     * 使用指定类型重新初始化全局线程池，如大量阻塞IO任务时使用{@link ExecutorProfile#VIRTUAL}
+     * 原线程池立即关闭
+     *
+     * @param profile 线程池类型
+     */
+    synchronized public static void init(ExecutorProfile profile) {
         if (null != executor) {
             executor.shutdownNow();
         }
-        executor = ExecutorBuilder.create().useSynchronousQueue().build();
+        executor = profile.create();
+        GlobalThread.profile = profile;
+        final ExecutorService previous = PROFILE_EXECUTORS.remove(profile);
+        if (null != previous) {
+            previous.shutdown();
+        }
     }
 
     /**
@@ -72,6 +94,14 @@ public class GlobalThread {
                 executor.shutdown();
             }
         }
+        for (ExecutorService service : PROFILE_EXECUTORS.values()) {
+            if (isNow) {
+                service.shutdownNow();
+            } else {
+                service.shutdown();
+            }
+        }
+        PROFILE_EXECUTORS.clear();
     }
 
     /**
@@ -83,6 +113,20 @@ public class GlobalThread {
         return executor;
     }
 
+    /**
+     * 获得指定类型的共享线程池，与全局线程池类型相同时返回全局线程池
+     * 不加锁，每种类型的线程池只创建一次
+     *
+     * @param profile 线程池类型
+     * @return {@link ExecutorService}
+     */
+    public static ExecutorService getExecutor(ExecutorProfile profile) {
+        if (profile == GlobalThread.profile) {
+            return executor;
+        }
+        return PROFILE_EXECUTORS.computeIfAbsent(profile, ExecutorProfile::create);
+    }
+
     /**
      * 直接在公共线程池中执行线程
      *
@@ -0,0 +1,274 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.thread;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 记录任务排队时间的线程池
+ * 任务提交时记录时间，开始执行时累计排队时长，可用于判断线程数或队列容量是否合适
+ * submit系列方法创建的Future自身携带提交时间；通过{@link #execute(Runnable)}提交的任务包装后入队,
+ * {@link #remove(Runnable)}、{@link #shutdownNow()}及拒绝策略看到的仍为提交的原任务
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class MetricsExecutor extends ThreadPoolExecutor {
+
+    private final LongAdder queuedCount = new LongAdder();
+    private final LongAdder queuedNanos = new LongAdder();
+    private final AtomicLong maxQueuedNanos = new AtomicLong();
+
+    /**
+     * 构造
+     *
+     * @param corePoolSize  初始线程数
+     * @param maxPoolSize   最大线程数
+     * @param keepAliveTime 线程存活时间
+     * @param unit          时间单位
+     * @param workQueue     队列
+     * @param threadFactory 线程工厂
+     * @param handler       拒绝策略
+     */
+    public MetricsExecutor(int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit unit,
+                           BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory,
+                           RejectedExecutionHandler handler) {
+        super(corePoolSize, maxPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+        setRejectedExecutionHandler(handler);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (null == command || command instanceof Timed) {
+            super.execute(command);
+            return;
+        }
+        super.execute(new TimedRunnable(command));
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new TimedFutureTask<>(runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new TimedFutureTask<>(callable);
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        if (runnable instanceof Timed) {
+            final long queued = System.nanoTime() - ((Timed) runnable).getSubmitTime();
+            queuedCount.increment();
+            queuedNanos.add(queued);
+            maxQueuedNanos.accumulateAndGet(queued, Math::max);
+        }
+        super.beforeExecute(thread, runnable);
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+        if (super.remove(task)) {
+            return true;
+        }
+        // 通过execute提交的任务在队列中为包装对象
+        for (Runnable queued : getQueue()) {
+            if (queued instanceof TimedRunnable && ((TimedRunnable) queued).task == task) {
+                return super.remove(queued);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> tasks = super.shutdownNow();
+        tasks.replaceAll(MetricsExecutor::unwrap);
+        return tasks;
+    }
+
+    @Override
+    public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        super.setRejectedExecutionHandler(new Rejection(Objects.requireNonNull(handler)));
+    }
+
+    @Override
+    public RejectedExecutionHandler getRejectedExecutionHandler() {
+        return ((Rejection) super.getRejectedExecutionHandler()).handler;
+    }
+
+    /**
+     * 已开始执行的任务数
+     *
+     * @return 任务数
+     */
+    public long getQueuedCount() {
+        return queuedCount.sum();
+    }
+
+    /**
+     * 累计排队时间
+     *
+     * @param unit 时间单位
+     * @return 累计排队时间
+     */
+    public long getTotalQueueTime(TimeUnit unit) {
+        return unit.convert(queuedNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 平均排队时间
+     *
+     * @param unit 时间单位
+     * @return 平均排队时间，无任务时为0
+     */
+    public double getMeanQueueTime(TimeUnit unit) {
+        final long count = queuedCount.sum();
+        return count == 0 ? 0 : (double) queuedNanos.sum() / count / unit.toNanos(1);
+    }
+
+    /**
+     * 最大排队时间
+     *
+     * @param unit 时间单位
+     * @return 最大排队时间
+     */
+    public long getMaxQueueTime(TimeUnit unit) {
+        return unit.convert(maxQueuedNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 重置排队时间统计
+     */
+    public void resetMetrics() {
+        queuedCount.reset();
+        queuedNanos.reset();
+        maxQueuedNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "[queued = " + getQueuedCount()
+                + ", mean queue time = " + getMeanQueueTime(TimeUnit.MILLISECONDS) + "ms"
+                + ", max queue time = " + getMaxQueueTime(TimeUnit.MILLISECONDS) + "ms]";
+    }
+
+    /**
+     * 获取包装前的原任务
+     *
+     * @param runnable 任务
+     * @return 原任务
+     */
+    private static Runnable unwrap(Runnable runnable) {
+        return runnable instanceof TimedRunnable ? ((TimedRunnable) runnable).task : runnable;
+    }
+
+    /**
+     * 携带提交时间的任务
+     */
+    private interface Timed {
+
+        /**
+         * 提交时间
+         *
+         * @return {@link System#nanoTime()}
+         */
+        long getSubmitTime();
+    }
+
+    /**
+     * 记录提交时间的Future，由submit系列方法创建，任务本身即为返回给调用方的Future
+     */
+    private static class TimedFutureTask<V> extends FutureTask<V> implements Timed {
+
+        private final long submitTime = System.nanoTime();
+
+        TimedFutureTask(Callable<V> callable) {
+            super(callable);
+        }
+
+        TimedFutureTask(Runnable runnable, V result) {
+            super(runnable, result);
+        }
+
+        @Override
+        public long getSubmitTime() {
+            return submitTime;
+        }
+    }
+
+    /**
+     * 通过{@link #execute(Runnable)}提交的任务的包装，记录提交时间
+     */
+    private static final class TimedRunnable implements Runnable, Timed {
+
+        final Runnable task;
+        private final long submitTime = System.nanoTime();
+
+        TimedRunnable(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public long getSubmitTime() {
+            return submitTime;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    /**
+     * 拒绝任务时还原为原任务，再交给原拒绝策略处理
+     */
+    private static final class Rejection implements RejectedExecutionHandler {
+
+        final RejectedExecutionHandler handler;
+
+        Rejection(RejectedExecutionHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            handler.rejectedExecution(unwrap(runnable), executor);
+        }
+    }
+
+}
@@ -260,7 +260,17 @@ public class IoKit {
         Assert.notNull(outChannel, "Out channel is null!");
 
         try {
-            return inChannel.transferTo(0, inChannel.size(), outChannel);
+            // 单次transferTo可能只传输部分数据(如Linux下单次最多约2GB)，需循环至全部完成
+            final long size = inChannel.size();
+            long total = 0;
+            while (total < size) {
+                final long transferred = inChannel.transferTo(total, size - total, outChannel);
+                if (transferred <= 0) {
+                    break;
+                }
+                total += transferred;
+            }
+            return total;
         } catch (IOException e) {
             throw new InstrumentException(e);
         }
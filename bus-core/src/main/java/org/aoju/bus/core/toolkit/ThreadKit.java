@@ -27,7 +27,9 @@ package org.aoju.bus.core.toolkit;
 
 import org.aoju.bus.core.lang.Console;
 import org.aoju.bus.core.thread.ExecutorBuilder;
+import org.aoju.bus.core.thread.ExecutorProfile;
 import org.aoju.bus.core.thread.GlobalThread;
+import org.aoju.bus.core.thread.MetricsExecutor;
 import org.aoju.bus.core.thread.NamedThreadFactory;
 import org.aoju.bus.core.thread.ThreadBuilder;
 
@@ -107,6 +109,34 @@ public class ThreadKit {
                 .build();
     }
 
+    /**
+     * 获得一个每个任务一个虚拟线程的线程池，适用于大量阻塞IO任务
+     * JDK 21以下不支持虚拟线程，返回{@link #newElasticExecutor()}
+     *
+     * @return ExecutorService
+     */
+    public static ExecutorService newVirtualExecutor() {
+        return ExecutorBuilder.buildVirtual("virtual-");
+    }
+
+    /**
+     * 获得一个工作窃取线程池，并行度为CPU核数
+     *
+     * @return ForkJoinPool
+     */
+    public static ForkJoinPool newWorkStealingExecutor() {
+        return ExecutorBuilder.buildWorkStealing(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 获得一个有界弹性线程池，线程数为CPU核数的10倍，空闲线程自动回收，并记录任务排队时间
+     *
+     * @return MetricsExecutor
+     */
+    public static MetricsExecutor newElasticExecutor() {
+        return (MetricsExecutor) ExecutorBuilder.elastic().build();
+    }
+
     /**
      * 获得一个新的线程池,只有单个线程
      * <pre>
@@ -171,6 +201,29 @@ public class ThreadKit {
         return runnable;
     }
 
+    /**
+     * 在指定类型的线程池中执行有返回值的异步方法，线程池按类型共享，首次使用时创建
+     *
+     * @param <T>     回调对象类型
+     * @param task    {@link Callable}
+     * @param profile 线程池类型
+     * @return Future
+     */
+    public static <T> Future<T> execAsync(Callable<T> task, ExecutorProfile profile) {
+        return GlobalThread.getExecutor(profile).submit(task);
+    }
+
+    /**
+     * 在指定类型的线程池中执行异步方法，线程池按类型共享，首次使用时创建
+     *
+     * @param runnable 可运行对象
+     * @param profile  线程池类型
+     * @return {@link Future}
+     */
+    public static Future<?> execAsync(Runnable runnable, ExecutorProfile profile) {
+        return GlobalThread.getExecutor(profile).submit(runnable);
+    }
+
     /**
      * 执行有返回值的异步方法
      * Future代表一个异步执行的操作,通过get()方法可以获得操作的结果,如果异步操作还没有完成,则,get()会使当前线程阻塞
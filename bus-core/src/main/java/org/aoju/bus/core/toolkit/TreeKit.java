@@ -1,5 +1,7 @@
 package org.aoju.bus.core.toolkit;
 
+import org.aoju.bus.core.lang.tree.CompactTree;
+import org.aoju.bus.core.lang.tree.CompactTreeBuilder;
 import org.aoju.bus.core.lang.tree.NodeConfig;
 import org.aoju.bus.core.lang.tree.Tree;
 import org.aoju.bus.core.lang.tree.TreeBuilder;
@@ -162,6 +164,34 @@ public class TreeKit {
         return createEmptyNode(rootId);
     }
 
+    /**
+     * 构建紧凑树，适用于节点数很多的场景，按需转换为{@link Tree}
+     *
+     * @param <E>    ID类型
+     * @param list   源数据集合
+     * @param rootId 根节点id值 一般为 0 之类
+     * @return {@link CompactTree}
+     */
+    public static <E> CompactTree<E> buildCompact(List<TreeNode<E>> list, E rootId) {
+        return buildCompact(list, rootId, NodeConfig.DEFAULT_CONFIG, new DefaultNodeParser<>());
+    }
+
+    /**
+     * 构建紧凑树，适用于节点数很多的场景，按需转换为{@link Tree}
+     *
+     * @param <T>        转换的实体 为数据源里的对象类型
+     * @param <E>        ID类型
+     * @param list       源数据集合
+     * @param rootId     根节点id值 一般为 0 之类
+     * @param nodeConfig 配置
+     * @param nodeParser 转换器
+     * @return {@link CompactTree}
+     */
+    public static <T, E> CompactTree<E> buildCompact(List<T> list, E rootId, NodeConfig nodeConfig, NodeParser<T, E> nodeParser) {
+        return CompactTreeBuilder.of(rootId, nodeConfig)
+                .append(list, nodeParser).build();
+    }
+
     /**
      * 获取ID对应的节点，如果有多个ID相同的节点，只返回第一个。
      * 此方法只查找此节点及子节点，采用递归深度优先遍历。
@@ -496,9 +496,10 @@ public class ServletKit {
     public static void write(HttpServletResponse response, File file) {
         final String fileName = file.getName();
         final String contentType = ObjectKit.defaultIfNull(FileKit.getMediaType(fileName), MediaType.APPLICATION_OCTET_STREAM);
-        BufferedInputStream in = null;
+        // 不包装缓冲流，以便拷贝时使用文件通道
+        InputStream in = null;
         try {
-            in = FileKit.getInputStream(file);
+            in = IoKit.toStream(file);
             write(response, in, contentType, fileName);
         } finally {
             IoKit.close(in);
@@ -32,6 +32,7 @@ import org.aoju.bus.core.toolkit.StringKit;
 import org.aoju.bus.extra.json.JsonKit;
 import org.aoju.bus.goalie.Config;
 import org.aoju.bus.goalie.Context;
+import org.aoju.bus.logger.Log;
 import org.aoju.bus.logger.Logger;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -63,6 +64,11 @@ import java.util.Objects;
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class PrimaryFilter implements WebFilter {
 
+    /**
+     * 固定日志对象,避免每次请求通过调用栈获取
+     */
+    private static final Log LOG = Logger.get(PrimaryFilter.class);
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         ServerWebExchange mutate = setDefaultContentTypeIfNecessary(exchange);
@@ -74,7 +80,7 @@ public class PrimaryFilter implements WebFilter {
             context.setRequestMap(params.toSingleValueMap());
             doParams(mutate);
             return chain.filter(mutate)
-                    .then(Mono.fromRunnable(() -> Logger.info("traceId:{},exec time :{} ms", mutate.getLogPrefix(), System.currentTimeMillis() - context.getStartTime())));
+                    .then(Mono.fromRunnable(() -> LOG.info("traceId:{},exec time :{} ms", mutate.getLogPrefix(), System.currentTimeMillis() - context.getStartTime())));
         } else {
             // 文件上传处理
             if (MediaType.MULTIPART_FORM_DATA.isCompatibleWith(mutate.getRequest().getHeaders().getContentType())) {
@@ -95,7 +101,7 @@ public class PrimaryFilter implements WebFilter {
                     context.setFilePartMap(fileMap);
                     doParams(mutate);
                     return chain.filter(mutate)
-                            .doOnTerminate(() -> Logger.info("traceId:{},exec time :{}ms", mutate.getLogPrefix(), System.currentTimeMillis() - context.getStartTime()));
+                            .doOnTerminate(() -> LOG.info("traceId:{},exec time :{}ms", mutate.getLogPrefix(), System.currentTimeMillis() - context.getStartTime()));
                 });
 
             } else {
@@ -103,7 +109,7 @@ public class PrimaryFilter implements WebFilter {
                     context.setRequestMap(params.toSingleValueMap());
                     doParams(mutate);
                     return chain.filter(mutate)
-                            .doOnTerminate(() -> Logger.info("traceId:{},exec time :{}ms", mutate.getLogPrefix(), System.currentTimeMillis() - context.getStartTime()));
+                            .doOnTerminate(() -> LOG.info("traceId:{},exec time :{}ms", mutate.getLogPrefix(), System.currentTimeMillis() - context.getStartTime()));
                 });
             }
 
@@ -121,8 +127,8 @@ public class PrimaryFilter implements WebFilter {
 
         // 过滤无效参数及值- undefined
         for (Map.Entry<String, String> entry : params.entrySet()) {
-            if (Normal.UNDEFINED.equals(StringKit.lowerCase(entry.getKey()))
-                    || Normal.UNDEFINED.equals(StringKit.lowerCase(entry.getValue()))) {
+            if (Normal.UNDEFINED.equalsIgnoreCase(entry.getKey())
+                    || Normal.UNDEFINED.equalsIgnoreCase(entry.getValue())) {
                 throw new BusinessException(ErrorCode.EM_100101);
             }
         }
@@ -140,7 +146,12 @@ public class PrimaryFilter implements WebFilter {
         if (StringKit.isNotBlank(params.get(Config.SIGN))) {
             context.setNeedDecrypt(true);
         }
-        Logger.info("traceId:{},method:{},req =>{}", exchange.getLogPrefix(), params.get(Config.METHOD), JsonKit.toJsonString(context.getRequestMap()));
+        // 完整参数仅在 debug 级别序列化输出
+        if (LOG.isDebug()) {
+            LOG.debug("traceId:{},method:{},req =>{}", exchange.getLogPrefix(), params.get(Config.METHOD), JsonKit.toJsonString(params));
+        } else {
+            LOG.info("traceId:{},method:{},version:{}", exchange.getLogPrefix(), params.get(Config.METHOD), params.get(Config.VERSION));
+        }
     }
 
     /**
@@ -2,6 +2,8 @@ package org.aoju.bus.goalie.registry;
 
 import org.aoju.bus.goalie.Assets;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 抽象路由注册
@@ -12,19 +14,63 @@ import org.aoju.bus.goalie.Assets;
  */
 public class DefaultAssetsRegistry extends AbstractRegistry<Assets> implements AssetsRegistry {
 
+    /**
+     * 路由索引 method -> version -> assets,查找时无需拼接字符串
+     */
+    private final Map<String, Map<String, Assets>> routes = new ConcurrentHashMap<>();
+
     @Override
     public void addAssets(Assets assets) {
-        super.add(assets.getMethod() + assets.getVersion(), assets);
+        add(assets.getMethod() + assets.getVersion(), assets);
     }
 
     @Override
     public void amendAssets(Assets assets) {
-        super.amend(assets.getMethod() + assets.getVersion(), assets);
+        amend(assets.getMethod() + assets.getVersion(), assets);
     }
 
     @Override
     public Assets getAssets(String method, String version) {
-        return get(method + version);
+        if (null == method || null == version) {
+            return get(method + version);
+        }
+        Map<String, Assets> versions = routes.get(method);
+        return null == versions ? null : versions.get(version);
+    }
+
+    @Override
+    public boolean add(String key, Assets reg) {
+        if (!super.add(key, reg)) {
+            return false;
+        }
+        if (null != reg.getMethod() && null != reg.getVersion()) {
+            routes.computeIfAbsent(reg.getMethod(), k -> new ConcurrentHashMap<>()).put(reg.getVersion(), reg);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(String id) {
+        Assets assets = get(id);
+        if (null != assets && null != assets.getMethod() && null != assets.getVersion()) {
+            Map<String, Assets> versions = routes.get(assets.getMethod());
+            if (null != versions) {
+                versions.remove(assets.getVersion(), assets);
+            }
+        }
+        return super.remove(id);
+    }
+
+    @Override
+    public boolean amend(String key, Assets reg) {
+        remove(key);
+        return add(key, reg);
+    }
+
+    @Override
+    public void refresh() {
+        routes.clear();
+        super.refresh();
     }
 
     @Override
@@ -33,4 +79,3 @@ public class DefaultAssetsRegistry extends AbstractRegistry<Assets> implements A
     }
 
 }
-
@@ -324,13 +324,24 @@ public final class Builder {
         return HARDWARE.getNetworkIFs();
     }
 
+    /**
+     * 并行采集进程、线程、文件存储、磁盘及网络接口的快照
+     *
+     * @return 系统快照
+     * @see Snapshot#capture(java.util.Set)
+     */
+    public static Snapshot getSnapshot() {
+        return Snapshot.capture();
+    }
+
     /**
      * 获取系统CPU 系统使用率、用户使用率、利用率等等 相关信息
+     * 结果取自{@link Sampler#getDefault()}的最近一次采样，不阻塞调用线程，仅在首次调用时等待第一次采样
      *
      * @return 系统 CPU 使用率 等信息
      */
     public static Cpu getCpuInfo() {
-        return getCpuInfo(1000);
+        return Sampler.getDefault().getCpu();
     }
 
     /**
@@ -351,10 +362,21 @@ public final class Builder {
      * @return 系统 CPU 使用率 等信息
      */
     private static Cpu getCpuInfo(CentralProcessor processor, long waitingTime) {
-        Cpu cpu = new Cpu();
         long[] prevTicks = processor.getSystemCpuLoadTicks();
         sleep(waitingTime);
-        long[] ticks = processor.getSystemCpuLoadTicks();
+        return getCpuInfo(processor, prevTicks, processor.getSystemCpuLoadTicks());
+    }
+
+    /**
+     * 根据两次CPU滴答数计算系统CPU 系统使用率、用户使用率、利用率等等 相关信息
+     *
+     * @param processor {@link CentralProcessor}
+     * @param prevTicks 前一次的滴答数
+     * @param ticks     当前的滴答数
+     * @return 系统 CPU 使用率 等信息
+     */
+    static Cpu getCpuInfo(CentralProcessor processor, long[] prevTicks, long[] ticks) {
+        Cpu cpu = new Cpu();
         long nice = ticks[CentralProcessor.TickType.NICE.getIndex()] - prevTicks[CentralProcessor.TickType.NICE.getIndex()];
         long irq = ticks[CentralProcessor.TickType.IRQ.getIndex()] - prevTicks[CentralProcessor.TickType.IRQ.getIndex()];
         long softIrq = ticks[CentralProcessor.TickType.SOFTIRQ.getIndex()] - prevTicks[CentralProcessor.TickType.SOFTIRQ.getIndex()];
@@ -64,6 +64,19 @@ public final class Memoize {
         return DEFAULT_EXPIRATION_NANOS.get();
     }
 
+    /**
+     * Expiration of memoized values of one metric family in nanoseconds. Update by
+     * setting {@link Config} property <code>health.memoize.expiration.[family]</code>
+     * to a value in milliseconds, e.g. <code>health.memoize.expiration.process</code>;
+     * families without a property use {@link #defaultExpiration()}.
+     *
+     * @param family The metric family
+     * @return The number of nanoseconds to keep memoized values before refreshing
+     */
+    public static long expiration(Family family) {
+        return family.expiration.get();
+    }
+
     /**
      * Store a supplier in a delegate function to be computed once, and only again
      * after time to live (ttl) has expired.
@@ -112,4 +125,50 @@ public final class Memoize {
         return memoize(original, -1L);
     }
 
+    /**
+     * Metric families whose memoized values expire independently
+     */
+    public enum Family {
+        /**
+         * Processor ticks, frequencies and counters
+         */
+        CPU,
+        /**
+         * Physical and virtual memory
+         */
+        MEMORY,
+        /**
+         * Temperatures, fan speeds and voltages
+         */
+        SENSORS,
+        /**
+         * Process lists and per-process statistics
+         */
+        PROCESS,
+        /**
+         * Thread lists and per-thread statistics
+         */
+        THREAD,
+        /**
+         * Disk stores and their counters
+         */
+        DISK,
+        /**
+         * Network interfaces and protocol statistics
+         */
+        NETWORK,
+        /**
+         * File systems and file stores
+         */
+        FILE_STORE;
+
+        private final Supplier<Long> expiration = memoize(this::queryExpirationConfig, TimeUnit.MINUTES.toNanos(1));
+
+        private long queryExpirationConfig() {
+            String key = "health.memoize.expiration." + name().toLowerCase().replace('_', '.');
+            return null == Config.get(key, (String) null) ? defaultExpiration()
+                    : TimeUnit.MILLISECONDS.toNanos(Config.get(key, 300));
+        }
+    }
+
 }
@@ -0,0 +1,628 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.health;
+
+import org.aoju.bus.core.annotation.ThreadSafe;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.thread.NamedThreadFactory;
+import org.aoju.bus.health.builtin.Cpu;
+import org.aoju.bus.health.builtin.hardware.*;
+import org.aoju.bus.health.builtin.software.OSProcess;
+import org.aoju.bus.logger.Logger;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * 后台指标采样服务
+ * 按固定间隔读取CPU、内存、磁盘、网络及指定进程的计数器，结果保存在基本类型的环形缓冲中，
+ * 查询当前值、移动平均及百分位时直接读取缓冲，不再阻塞调用线程，多个调用方共享同一份采样
+ * 默认实例的采样间隔和保留数量分别由{@link Config}属性
+ * <code>health.sampler.interval</code>(毫秒)及<code>health.sampler.retention</code>指定，
+ * 磁盘及网卡计数器需逐个刷新，开销较大，仅在<code>health.sampler.io</code>为{@code true}时采样
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+@ThreadSafe
+public class Sampler implements Closeable {
+
+    private static volatile Sampler instance;
+
+    private final long intervalNanos;
+    private final int capacity;
+    private final boolean io;
+    private final ScheduledExecutorService scheduler;
+    private final CentralProcessor processor;
+    private final GlobalMemory memory;
+    private final List<HWDiskStore> disks;
+    private final List<NetworkIF> networks;
+    private final Series series;
+    private final Map<Integer, ProcessSeries> processes = new ConcurrentHashMap<>();
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    private long[] prevTicks;
+    private long prevTime;
+    private long prevDiskRead;
+    private long prevDiskWrite;
+    private long prevNetRecv;
+    private long prevNetSent;
+    /**
+     * 最近一次采样的前后两组CPU滴答数，用于构建{@link Cpu}
+     */
+    private volatile long[][] cpuTicks;
+
+    /**
+     * 构造并开始采样，不采样磁盘及网卡
+     *
+     * @param interval 采样间隔
+     * @param unit     时间单位
+     * @param capacity 保留的采样数
+     */
+    public Sampler(long interval, TimeUnit unit, int capacity) {
+        this(interval, unit, capacity, false);
+    }
+
+    /**
+     * 构造并开始采样
+     *
+     * @param interval 采样间隔
+     * @param unit     时间单位
+     * @param capacity 保留的采样数
+     * @param io       是否采样磁盘及网卡，为{@code false}时相关速率指标为{@link Double#NaN}
+     */
+    public Sampler(long interval, TimeUnit unit, int capacity, boolean io) {
+        if (interval <= 0 || capacity <= 0) {
+            throw new InstrumentException("Invalid sampler interval {} or capacity {}", interval, capacity);
+        }
+        this.intervalNanos = unit.toNanos(interval);
+        this.capacity = capacity;
+        this.io = io;
+        final HardwareAbstractionLayer hardware = Builder.getHardware();
+        this.processor = hardware.getProcessor();
+        this.memory = hardware.getMemory();
+        this.disks = io ? hardware.getDiskStores() : Collections.emptyList();
+        this.networks = io ? hardware.getNetworkIFs() : Collections.emptyList();
+        this.series = new Series(Metric.values().length, capacity);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("health-sampler-", true));
+        this.scheduler.scheduleAtFixedRate(this::sample, 0, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 获取默认采样服务，首次调用时创建
+     *
+     * @return 默认采样服务
+     */
+    public static Sampler getDefault() {
+        if (null == instance) {
+            synchronized (Sampler.class) {
+                if (null == instance) {
+                    instance = new Sampler(Config.get("health.sampler.interval", 1000), TimeUnit.MILLISECONDS,
+                            Config.get("health.sampler.retention", 300), Config.get("health.sampler.io", false));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 采样间隔
+     *
+     * @param unit 时间单位
+     * @return 采样间隔
+     */
+    public long getInterval(TimeUnit unit) {
+        return unit.convert(intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 保留的采样数
+     *
+     * @return 采样数
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 当前保存的采样数
+     *
+     * @return 采样数
+     */
+    public int size() {
+        return series.size();
+    }
+
+    /**
+     * 等待第一次采样完成，最多等待两个采样间隔
+     *
+     * @return 是否已有采样
+     */
+    public boolean awaitFirstSample() {
+        try {
+            return ready.await(intervalNanos * 2, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 根据最近一次采样构建CPU信息，尚无采样时最多等待两个采样间隔，
+     * 仍无采样(如采样持续失败)时在调用线程上阻塞测量一个采样间隔
+     *
+     * @return CPU信息
+     */
+    public Cpu getCpu() {
+        awaitFirstSample();
+        final long[][] ticks = cpuTicks;
+        if (null == ticks) {
+            return Builder.getCpuInfo(getInterval(TimeUnit.MILLISECONDS));
+        }
+        return Builder.getCpuInfo(processor, ticks[0], ticks[1]);
+    }
+
+    /**
+     * 最近一次采样值
+     *
+     * @param metric 指标
+     * @return 采样值，无采样返回{@link Double#NaN}
+     */
+    public double latest(Metric metric) {
+        return series.latest(metric.ordinal());
+    }
+
+    /**
+     * 最近若干次采样的平均值
+     *
+     * @param metric  指标
+     * @param samples 采样数，超过已有采样数时取全部
+     * @return 平均值，无采样返回{@link Double#NaN}
+     */
+    public double average(Metric metric, int samples) {
+        return series.average(metric.ordinal(), samples);
+    }
+
+    /**
+     * 最近若干次采样的百分位值(最近秩法)
+     *
+     * @param metric     指标
+     * @param percentile 百分位，0-100
+     * @param samples    采样数，超过已有采样数时取全部
+     * @return 百分位值，无采样返回{@link Double#NaN}
+     */
+    public double percentile(Metric metric, double percentile, int samples) {
+        return series.percentile(metric.ordinal(), percentile, samples);
+    }
+
+    /**
+     * 导出指标的全部历史，按时间从早到晚排列，下标与{@link #timestamps()}对应
+     *
+     * @param metric 指标
+     * @return 采样值
+     */
+    public double[] history(Metric metric) {
+        return series.history(metric.ordinal());
+    }
+
+    /**
+     * 导出全部采样时间(毫秒时间戳)，按时间从早到晚排列
+     *
+     * @return 采样时间
+     */
+    public long[] timestamps() {
+        return series.timestamps();
+    }
+
+    /**
+     * 开始采样指定进程，重复调用无影响
+     *
+     * @param pid 进程ID
+     * @return 进程存在返回{@code true}
+     */
+    public boolean watch(int pid) {
+        if (processes.containsKey(pid)) {
+            return true;
+        }
+        final OSProcess process = Builder.getOs().getProcess(pid);
+        if (null == process) {
+            return false;
+        }
+        processes.putIfAbsent(pid, new ProcessSeries(process, capacity));
+        return true;
+    }
+
+    /**
+     * 停止采样指定进程并丢弃其历史
+     *
+     * @param pid 进程ID
+     */
+    public void unwatch(int pid) {
+        processes.remove(pid);
+    }
+
+    /**
+     * 进程指标最近一次采样值
+     *
+     * @param pid    进程ID
+     * @param metric 指标
+     * @return 采样值，进程未采样返回{@link Double#NaN}
+     */
+    public double latest(int pid, ProcessMetric metric) {
+        final ProcessSeries process = processes.get(pid);
+        return null == process ? Double.NaN : process.latest(metric.ordinal());
+    }
+
+    /**
+     * 进程指标最近若干次采样的平均值
+     *
+     * @param pid     进程ID
+     * @param metric  指标
+     * @param samples 采样数
+     * @return 平均值，进程未采样返回{@link Double#NaN}
+     */
+    public double average(int pid, ProcessMetric metric, int samples) {
+        final ProcessSeries process = processes.get(pid);
+        return null == process ? Double.NaN : process.average(metric.ordinal(), samples);
+    }
+
+    /**
+     * 进程指标最近若干次采样的百分位值
+     *
+     * @param pid        进程ID
+     * @param metric     指标
+     * @param percentile 百分位，0-100
+     * @param samples    采样数
+     * @return 百分位值，进程未采样返回{@link Double#NaN}
+     */
+    public double percentile(int pid, ProcessMetric metric, double percentile, int samples) {
+        final ProcessSeries process = processes.get(pid);
+        return null == process ? Double.NaN : process.percentile(metric.ordinal(), percentile, samples);
+    }
+
+    /**
+     * 导出进程指标的全部历史
+     *
+     * @param pid    进程ID
+     * @param metric 指标
+     * @return 采样值，进程未采样返回空数组
+     */
+    public double[] history(int pid, ProcessMetric metric) {
+        final ProcessSeries process = processes.get(pid);
+        return null == process ? new double[0] : process.history(metric.ordinal());
+    }
+
+    /**
+     * 导出进程的全部采样时间
+     *
+     * @param pid 进程ID
+     * @return 采样时间，进程未采样返回空数组
+     */
+    public long[] timestamps(int pid) {
+        final ProcessSeries process = processes.get(pid);
+        return null == process ? new long[0] : process.timestamps();
+    }
+
+    /**
+     * 停止采样，已有历史仍可读取
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        synchronized (Sampler.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * 执行一次采样，异常只记录日志，避免终止后续调度
+     */
+    private void sample() {
+        try {
+            sampleSystem();
+            for (ProcessSeries process : processes.values()) {
+                process.sample();
+            }
+        } catch (RuntimeException e) {
+            Logger.warn("Failed to sample system metrics: {}", e.getMessage());
+        }
+    }
+
+    private void sampleSystem() {
+        final long now = System.nanoTime();
+        final long[] ticks = processor.getSystemCpuLoadTicks();
+        long diskRead = 0;
+        long diskWrite = 0;
+        for (HWDiskStore disk : disks) {
+            disk.updateAttributes();
+            diskRead += disk.getReadBytes();
+            diskWrite += disk.getWriteBytes();
+        }
+        long netRecv = 0;
+        long netSent = 0;
+        for (NetworkIF network : networks) {
+            network.updateAttributes();
+            netRecv += network.getBytesRecv();
+            netSent += network.getBytesSent();
+        }
+        // 第一次采样只记录计数器，从第二次开始计算差值
+        if (null != prevTicks) {
+            final double seconds = (now - prevTime) / 1e9d;
+            final double[] values = new double[Metric.values().length];
+            long total = 0;
+            for (int i = 0; i < ticks.length; i++) {
+                total += Math.max(ticks[i] - prevTicks[i], 0);
+            }
+            values[Metric.CPU_USER.ordinal()] = ratio(ticks, prevTicks, CentralProcessor.TickType.USER, total);
+            values[Metric.CPU_SYSTEM.ordinal()] = ratio(ticks, prevTicks, CentralProcessor.TickType.SYSTEM, total);
+            values[Metric.CPU_IOWAIT.ordinal()] = ratio(ticks, prevTicks, CentralProcessor.TickType.IOWAIT, total);
+            values[Metric.CPU_IDLE.ordinal()] = ratio(ticks, prevTicks, CentralProcessor.TickType.IDLE, total);
+            values[Metric.CPU_USED.ordinal()] = total == 0 ? 0 : 100 - values[Metric.CPU_IDLE.ordinal()];
+            values[Metric.MEMORY_USED.ordinal()] = memory.getTotal() - memory.getAvailable();
+            values[Metric.MEMORY_AVAILABLE.ordinal()] = memory.getAvailable();
+            values[Metric.SWAP_USED.ordinal()] = memory.getVirtualMemory().getSwapUsed();
+            values[Metric.DISK_READ_RATE.ordinal()] = io ? rate(diskRead, prevDiskRead, seconds) : Double.NaN;
+            values[Metric.DISK_WRITE_RATE.ordinal()] = io ? rate(diskWrite, prevDiskWrite, seconds) : Double.NaN;
+            values[Metric.NET_RECV_RATE.ordinal()] = io ? rate(netRecv, prevNetRecv, seconds) : Double.NaN;
+            values[Metric.NET_SENT_RATE.ordinal()] = io ? rate(netSent, prevNetSent, seconds) : Double.NaN;
+            series.append(System.currentTimeMillis(), values);
+            cpuTicks = new long[][]{prevTicks, ticks};
+            ready.countDown();
+        }
+        prevTicks = ticks;
+        prevTime = now;
+        prevDiskRead = diskRead;
+        prevDiskWrite = diskWrite;
+        prevNetRecv = netRecv;
+        prevNetSent = netSent;
+    }
+
+    private static double ratio(long[] ticks, long[] prevTicks, CentralProcessor.TickType type, long total) {
+        final long delta = ticks[type.getIndex()] - prevTicks[type.getIndex()];
+        return delta <= 0 || total == 0 ? 0 : 100d * delta / total;
+    }
+
+    private static double rate(long value, long prevValue, double seconds) {
+        // 计数器回绕或设备变化时差值为负，此时记为0
+        return value < prevValue || seconds <= 0 ? 0 : (value - prevValue) / seconds;
+    }
+
+    /**
+     * 系统指标
+     */
+    public enum Metric {
+        /**
+         * CPU用户使用率(%)
+         */
+        CPU_USER,
+        /**
+         * CPU系统使用率(%)
+         */
+        CPU_SYSTEM,
+        /**
+         * CPU等待率(%)
+         */
+        CPU_IOWAIT,
+        /**
+         * CPU空闲率(%)
+         */
+        CPU_IDLE,
+        /**
+         * CPU利用率(%)，即100减空闲率
+         */
+        CPU_USED,
+        /**
+         * 已用内存(字节)
+         */
+        MEMORY_USED,
+        /**
+         * 可用内存(字节)
+         */
+        MEMORY_AVAILABLE,
+        /**
+         * 已用交换区(字节)
+         */
+        SWAP_USED,
+        /**
+         * 磁盘读取速率(字节/秒)
+         */
+        DISK_READ_RATE,
+        /**
+         * 磁盘写入速率(字节/秒)
+         */
+        DISK_WRITE_RATE,
+        /**
+         * 网络接收速率(字节/秒)
+         */
+        NET_RECV_RATE,
+        /**
+         * 网络发送速率(字节/秒)
+         */
+        NET_SENT_RATE
+    }
+
+    /**
+     * 进程指标
+     */
+    public enum ProcessMetric {
+        /**
+         * 进程CPU使用率(%)，以单个逻辑处理器为100%，多线程进程可能超过100
+         */
+        CPU,
+        /**
+         * 常驻内存(字节)
+         */
+        RESIDENT,
+        /**
+         * 读取速率(字节/秒)
+         */
+        READ_RATE,
+        /**
+         * 写入速率(字节/秒)
+         */
+        WRITE_RATE
+    }
+
+    /**
+     * 多个指标共用时间轴的环形缓冲，单线程写入，多线程读取
+     */
+    private static class Series {
+
+        private final long[] times;
+        private final double[][] values;
+        private int head;
+        private int size;
+
+        Series(int metrics, int capacity) {
+            this.times = new long[capacity];
+            this.values = new double[metrics][capacity];
+        }
+
+        synchronized void append(long time, double[] sample) {
+            times[head] = time;
+            for (int m = 0; m < sample.length; m++) {
+                values[m][head] = sample[m];
+            }
+            head = (head + 1) % times.length;
+            if (size < times.length) {
+                size++;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized double latest(int metric) {
+            return size == 0 ? Double.NaN : values[metric][(head - 1 + times.length) % times.length];
+        }
+
+        synchronized double average(int metric, int samples) {
+            final int n = Math.min(samples, size);
+            if (n <= 0) {
+                return Double.NaN;
+            }
+            double sum = 0;
+            for (int i = 0, p = head; i < n; i++) {
+                p = (p - 1 + times.length) % times.length;
+                sum += values[metric][p];
+            }
+            return sum / n;
+        }
+
+        double percentile(int metric, double percentile, int samples) {
+            final double[] window;
+            synchronized (this) {
+                window = copy(values[metric], Math.min(samples, size));
+            }
+            if (window.length == 0) {
+                return Double.NaN;
+            }
+            Arrays.sort(window);
+            final int rank = (int) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * window.length);
+            return window[Math.max(rank - 1, 0)];
+        }
+
+        synchronized double[] history(int metric) {
+            return copy(values[metric], size);
+        }
+
+        synchronized long[] timestamps() {
+            final long[] result = new long[size];
+            final int start = (head - size + times.length) % times.length;
+            for (int i = 0; i < size; i++) {
+                result[i] = times[(start + i) % times.length];
+            }
+            return result;
+        }
+
+        /**
+         * 复制最近n个值，按时间从早到晚排列
+         */
+        private double[] copy(double[] ring, int n) {
+            final double[] result = new double[Math.max(n, 0)];
+            final int start = (head - result.length + ring.length) % ring.length;
+            final int first = Math.min(result.length, ring.length - start);
+            System.arraycopy(ring, start, result, 0, first);
+            System.arraycopy(ring, 0, result, first, result.length - first);
+            return result;
+        }
+    }
+
+    /**
+     * 单个进程的采样
+     */
+    private static class ProcessSeries extends Series {
+
+        private final OSProcess process;
+        private long prevCpuTime;
+        private long prevUpTime;
+        private long prevRead;
+        private long prevWritten;
+        private boolean alive = true;
+
+        ProcessSeries(OSProcess process, int capacity) {
+            super(ProcessMetric.values().length, capacity);
+            this.process = process;
+            this.prevCpuTime = process.getKernelTime() + process.getUserTime();
+            this.prevUpTime = process.getUpTime();
+            this.prevRead = process.getBytesRead();
+            this.prevWritten = process.getBytesWritten();
+        }
+
+        void sample() {
+            // 进程结束后保留历史，不再更新
+            if (false == alive) {
+                return;
+            }
+            alive = process.updateAttributes();
+            if (false == alive) {
+                return;
+            }
+            final long cpuTime = process.getKernelTime() + process.getUserTime();
+            final long upTime = process.getUpTime();
+            final long elapsed = upTime - prevUpTime;
+            final double[] values = new double[ProcessMetric.values().length];
+            values[ProcessMetric.CPU.ordinal()] = elapsed <= 0 ? 0 : 100d * (cpuTime - prevCpuTime) / elapsed;
+            values[ProcessMetric.RESIDENT.ordinal()] = process.getResidentSetSize();
+            values[ProcessMetric.READ_RATE.ordinal()] = rate(process.getBytesRead(), prevRead, elapsed / 1000d);
+            values[ProcessMetric.WRITE_RATE.ordinal()] = rate(process.getBytesWritten(), prevWritten, elapsed / 1000d);
+            append(System.currentTimeMillis(), values);
+            prevCpuTime = cpuTime;
+            prevUpTime = upTime;
+            prevRead = process.getBytesRead();
+            prevWritten = process.getBytesWritten();
+        }
+    }
+
+}
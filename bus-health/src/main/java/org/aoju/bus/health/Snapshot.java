@@ -0,0 +1,870 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.health;
+
+import org.aoju.bus.core.annotation.Immutable;
+import org.aoju.bus.core.thread.NamedThreadFactory;
+import org.aoju.bus.health.builtin.hardware.HWDiskStore;
+import org.aoju.bus.health.builtin.hardware.NetworkIF;
+import org.aoju.bus.health.builtin.software.OSFileStore;
+import org.aoju.bus.health.builtin.software.OSProcess;
+import org.aoju.bus.health.builtin.software.OSThread;
+import org.aoju.bus.logger.Logger;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 系统快照，一次调用采集进程、线程、文件存储、磁盘及网络接口
+ * <pre>
+ * 1. 各类信息由独立的探针并行采集，探针结果按{@link Memoize.Family}分别缓存，
+ *    过期时间由<code>health.memoize.expiration.[family]</code>配置
+ * 2. 每类信息保存为按键排序的列式表{@link Table}，数值列为long数组
+ * 3. 两个快照的差异{@link #diff(Snapshot)}为按键的归并比较，无需哈希查找
+ * </pre>
+ * 快照创建后不可变，可多线程读取
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+@Immutable
+public final class Snapshot {
+
+    private static final Map<Probe, Supplier<Table<?>>> PROBES = new EnumMap<>(Probe.class);
+
+    static {
+        for (Probe probe : Probe.values()) {
+            PROBES.put(probe, Memoize.memoize(probe::query, Memoize.expiration(probe.family)));
+        }
+    }
+
+    private final long timestamp;
+    private final Map<Probe, Table<?>> tables;
+
+    private Snapshot(long timestamp, Map<Probe, Table<?>> tables) {
+        this.timestamp = timestamp;
+        this.tables = tables;
+    }
+
+    /**
+     * 采集全部信息
+     *
+     * @return 快照
+     */
+    public static Snapshot capture() {
+        return capture(EnumSet.allOf(Probe.class));
+    }
+
+    /**
+     * 采集指定信息，各探针并行执行，失败的探针记录日志并返回空表
+     *
+     * @param probes 探针
+     * @return 快照
+     */
+    public static Snapshot capture(Set<Probe> probes) {
+        final long timestamp = System.currentTimeMillis();
+        final Map<Probe, CompletableFuture<Table<?>>> futures = new EnumMap<>(Probe.class);
+        for (Probe probe : probes) {
+            futures.put(probe, CompletableFuture.supplyAsync(PROBES.get(probe), ExecutorHolder.EXECUTOR));
+        }
+        final Map<Probe, Table<?>> tables = new EnumMap<>(Probe.class);
+        for (Map.Entry<Probe, CompletableFuture<Table<?>>> entry : futures.entrySet()) {
+            try {
+                tables.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException e) {
+                Logger.warn("Failed to capture {}: {}", entry.getKey(), e.getCause());
+            }
+        }
+        return new Snapshot(timestamp, tables);
+    }
+
+    /**
+     * 采集时间
+     *
+     * @return 毫秒时间戳
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * 进程表，以进程ID为键，名称为进程名
+     *
+     * @return 进程表，未采集时为空表
+     */
+    public Table<ProcessField> getProcesses() {
+        return table(Probe.PROCESS, ProcessField.class);
+    }
+
+    /**
+     * 线程表，以(进程ID &lt;&lt; 32 | 线程ID)为键，名称为线程名
+     *
+     * @return 线程表，未采集时为空表
+     */
+    public Table<ThreadField> getThreads() {
+        return table(Probe.THREAD, ThreadField.class);
+    }
+
+    /**
+     * 文件存储表，以挂载点为键
+     *
+     * @return 文件存储表，未采集时为空表
+     */
+    public Table<FileStoreField> getFileStores() {
+        return table(Probe.FILE_STORE, FileStoreField.class);
+    }
+
+    /**
+     * 磁盘表，以磁盘名称为键
+     *
+     * @return 磁盘表，未采集时为空表
+     */
+    public Table<DiskField> getDisks() {
+        return table(Probe.DISK, DiskField.class);
+    }
+
+    /**
+     * 网络接口表，以接口名称为键
+     *
+     * @return 网络接口表，未采集时为空表
+     */
+    public Table<NetworkField> getNetworks() {
+        return table(Probe.NETWORK, NetworkField.class);
+    }
+
+    /**
+     * 与较早的快照比较
+     *
+     * @param older 较早的快照
+     * @return 差异
+     */
+    public Diff diff(Snapshot older) {
+        return new Diff(timestamp - older.timestamp,
+                getProcesses().diff(older.getProcesses()),
+                getThreads().diff(older.getThreads()),
+                getFileStores().diff(older.getFileStores()),
+                getDisks().diff(older.getDisks()),
+                getNetworks().diff(older.getNetworks()));
+    }
+
+    private <F extends Enum<F> & Field> Table<F> table(Probe probe, Class<F> type) {
+        final Table<?> table = tables.get(probe);
+        return null == table ? Table.empty(type, probe.keyedById) : (Table<F>) table;
+    }
+
+    private static Table<ProcessField> queryProcesses() {
+        final List<OSProcess> processes = new ArrayList<>(Builder.getOs().getProcesses());
+        processes.sort(Comparator.comparingInt(OSProcess::getProcessID));
+        final Table.Builder<ProcessField> builder = new Table.Builder<>(ProcessField.class, processes.size(), true);
+        for (OSProcess process : processes) {
+            builder.row(process.getProcessID(), process.getName())
+                    .set(ProcessField.PARENT_PID, process.getParentProcessID())
+                    .set(ProcessField.STATE, process.getState().ordinal())
+                    .set(ProcessField.PRIORITY, process.getPriority())
+                    .set(ProcessField.THREADS, process.getThreadCount())
+                    .set(ProcessField.VIRTUAL_SIZE, process.getVirtualSize())
+                    .set(ProcessField.RESIDENT, process.getResidentSetSize())
+                    .set(ProcessField.KERNEL_TIME, process.getKernelTime())
+                    .set(ProcessField.USER_TIME, process.getUserTime())
+                    .set(ProcessField.UP_TIME, process.getUpTime())
+                    .set(ProcessField.BYTES_READ, process.getBytesRead())
+                    .set(ProcessField.BYTES_WRITTEN, process.getBytesWritten());
+        }
+        return builder.build();
+    }
+
+    private static Table<ThreadField> queryThreads() {
+        final List<OSThread> threads = new ArrayList<>();
+        for (OSProcess process : Builder.getOs().getProcesses()) {
+            threads.addAll(process.getThreadDetails());
+        }
+        threads.sort(Comparator.comparingLong(Snapshot::threadKey));
+        final Table.Builder<ThreadField> builder = new Table.Builder<>(ThreadField.class, threads.size(), true);
+        long previous = Long.MIN_VALUE;
+        for (OSThread thread : threads) {
+            final long key = threadKey(thread);
+            if (key == previous) {
+                continue;
+            }
+            previous = key;
+            builder.row(key, thread.getName())
+                    .set(ThreadField.STATE, thread.getState().ordinal())
+                    .set(ThreadField.PRIORITY, thread.getPriority())
+                    .set(ThreadField.KERNEL_TIME, thread.getKernelTime())
+                    .set(ThreadField.USER_TIME, thread.getUserTime())
+                    .set(ThreadField.UP_TIME, thread.getUpTime())
+                    .set(ThreadField.CONTEXT_SWITCHES, thread.getContextSwitches())
+                    .set(ThreadField.MINOR_FAULTS, thread.getMinorFaults())
+                    .set(ThreadField.MAJOR_FAULTS, thread.getMajorFaults());
+        }
+        return builder.build();
+    }
+
+    private static long threadKey(OSThread thread) {
+        return (long) thread.getOwningProcessId() << 32 | (thread.getThreadId() & 0xffffffffL);
+    }
+
+    private static Table<FileStoreField> queryFileStores() {
+        final List<OSFileStore> stores = new ArrayList<>(Builder.getOs().getFileSystem().getFileStores());
+        stores.sort(Comparator.comparing(OSFileStore::getMount));
+        final Table.Builder<FileStoreField> builder = new Table.Builder<>(FileStoreField.class, stores.size(), false);
+        String previous = null;
+        for (OSFileStore store : stores) {
+            if (store.getMount().equals(previous)) {
+                continue;
+            }
+            previous = store.getMount();
+            builder.row(0, store.getMount())
+                    .set(FileStoreField.TOTAL_SPACE, store.getTotalSpace())
+                    .set(FileStoreField.USABLE_SPACE, store.getUsableSpace())
+                    .set(FileStoreField.FREE_SPACE, store.getFreeSpace())
+                    .set(FileStoreField.TOTAL_INODES, store.getTotalInodes())
+                    .set(FileStoreField.FREE_INODES, store.getFreeInodes());
+        }
+        return builder.build();
+    }
+
+    private static Table<DiskField> queryDisks() {
+        final List<HWDiskStore> disks = new ArrayList<>(Builder.getHardware().getDiskStores());
+        disks.sort(Comparator.comparing(HWDiskStore::getName));
+        final Table.Builder<DiskField> builder = new Table.Builder<>(DiskField.class, disks.size(), false);
+        String previous = null;
+        for (HWDiskStore disk : disks) {
+            if (disk.getName().equals(previous)) {
+                continue;
+            }
+            previous = disk.getName();
+            builder.row(0, disk.getName())
+                    .set(DiskField.SIZE, disk.getSize())
+                    .set(DiskField.READS, disk.getReads())
+                    .set(DiskField.READ_BYTES, disk.getReadBytes())
+                    .set(DiskField.WRITES, disk.getWrites())
+                    .set(DiskField.WRITE_BYTES, disk.getWriteBytes())
+                    .set(DiskField.QUEUE_LENGTH, disk.getCurrentQueueLength())
+                    .set(DiskField.TRANSFER_TIME, disk.getTransferTime());
+        }
+        return builder.build();
+    }
+
+    private static Table<NetworkField> queryNetworks() {
+        final List<NetworkIF> networks = new ArrayList<>(Builder.getHardware().getNetworkIFs());
+        networks.sort(Comparator.comparing(NetworkIF::getName));
+        final Table.Builder<NetworkField> builder = new Table.Builder<>(NetworkField.class, networks.size(), false);
+        String previous = null;
+        for (NetworkIF network : networks) {
+            if (network.getName().equals(previous)) {
+                continue;
+            }
+            previous = network.getName();
+            builder.row(0, network.getName())
+                    .set(NetworkField.SPEED, network.getSpeed())
+                    .set(NetworkField.BYTES_RECV, network.getBytesRecv())
+                    .set(NetworkField.BYTES_SENT, network.getBytesSent())
+                    .set(NetworkField.PACKETS_RECV, network.getPacketsRecv())
+                    .set(NetworkField.PACKETS_SENT, network.getPacketsSent())
+                    .set(NetworkField.IN_ERRORS, network.getInErrors())
+                    .set(NetworkField.OUT_ERRORS, network.getOutErrors())
+                    .set(NetworkField.IN_DROPS, network.getInDrops())
+                    .set(NetworkField.COLLISIONS, network.getCollisions());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 探针，每个探针的结果按对应的{@link Memoize.Family}缓存
+     */
+    public enum Probe {
+        /**
+         * 进程
+         */
+        PROCESS(Memoize.Family.PROCESS, true) {
+            @Override
+            Table<?> query() {
+                return queryProcesses();
+            }
+        },
+        /**
+         * 全部进程的线程
+         */
+        THREAD(Memoize.Family.THREAD, true) {
+            @Override
+            Table<?> query() {
+                return queryThreads();
+            }
+        },
+        /**
+         * 文件存储
+         */
+        FILE_STORE(Memoize.Family.FILE_STORE, false) {
+            @Override
+            Table<?> query() {
+                return queryFileStores();
+            }
+        },
+        /**
+         * 磁盘
+         */
+        DISK(Memoize.Family.DISK, false) {
+            @Override
+            Table<?> query() {
+                return queryDisks();
+            }
+        },
+        /**
+         * 网络接口
+         */
+        NETWORK(Memoize.Family.NETWORK, false) {
+            @Override
+            Table<?> query() {
+                return queryNetworks();
+            }
+        };
+
+        private final Memoize.Family family;
+        private final boolean keyedById;
+
+        Probe(Memoize.Family family, boolean keyedById) {
+            this.family = family;
+            this.keyedById = keyedById;
+        }
+
+        abstract Table<?> query();
+    }
+
+    /**
+     * 数值列
+     */
+    public interface Field {
+
+        /**
+         * 是否为累计计数器，计数器的差值表示区间内的增量，否则为瞬时值的变化
+         *
+         * @return 是否为计数器
+         */
+        boolean isCounter();
+
+    }
+
+    /**
+     * 进程数值列，时间单位为毫秒，大小单位为字节，{@link #STATE}为{@link OSProcess.State}的序号
+     */
+    public enum ProcessField implements Field {
+        PARENT_PID(false), STATE(false), PRIORITY(false), THREADS(false), VIRTUAL_SIZE(false), RESIDENT(false),
+        KERNEL_TIME(true), USER_TIME(true), UP_TIME(true), BYTES_READ(true), BYTES_WRITTEN(true);
+
+        private final boolean counter;
+
+        ProcessField(boolean counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public boolean isCounter() {
+            return counter;
+        }
+    }
+
+    /**
+     * 线程数值列，时间单位为毫秒，{@link #STATE}为{@link OSProcess.State}的序号
+     */
+    public enum ThreadField implements Field {
+        STATE(false), PRIORITY(false), KERNEL_TIME(true), USER_TIME(true), UP_TIME(true), CONTEXT_SWITCHES(true),
+        MINOR_FAULTS(true), MAJOR_FAULTS(true);
+
+        private final boolean counter;
+
+        ThreadField(boolean counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public boolean isCounter() {
+            return counter;
+        }
+    }
+
+    /**
+     * 文件存储数值列，大小单位为字节
+     */
+    public enum FileStoreField implements Field {
+        TOTAL_SPACE, USABLE_SPACE, FREE_SPACE, TOTAL_INODES, FREE_INODES;
+
+        @Override
+        public boolean isCounter() {
+            return false;
+        }
+    }
+
+    /**
+     * 磁盘数值列，大小单位为字节，{@link #TRANSFER_TIME}单位为毫秒
+     */
+    public enum DiskField implements Field {
+        SIZE(false), READS(true), READ_BYTES(true), WRITES(true), WRITE_BYTES(true), QUEUE_LENGTH(false),
+        TRANSFER_TIME(true);
+
+        private final boolean counter;
+
+        DiskField(boolean counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public boolean isCounter() {
+            return counter;
+        }
+    }
+
+    /**
+     * 网络接口数值列，{@link #SPEED}单位为比特/秒，流量单位为字节
+     */
+    public enum NetworkField implements Field {
+        SPEED(false), BYTES_RECV(true), BYTES_SENT(true), PACKETS_RECV(true), PACKETS_SENT(true), IN_ERRORS(true),
+        OUT_ERRORS(true), IN_DROPS(true), COLLISIONS(true);
+
+        private final boolean counter;
+
+        NetworkField(boolean counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public boolean isCounter() {
+            return counter;
+        }
+    }
+
+    /**
+     * 按键升序排列的不可变列式表，键为long型ID或名称
+     *
+     * @param <F> 数值列类型
+     */
+    @Immutable
+    public static final class Table<F extends Enum<F> & Field> {
+
+        private final Class<F> type;
+        /**
+         * 以名称为键时为{@code null}
+         */
+        private final long[] ids;
+        private final String[] names;
+        /**
+         * 按列保存的数值，[列序号][行号]
+         */
+        private final long[][] values;
+
+        private Table(Class<F> type, long[] ids, String[] names, long[][] values) {
+            this.type = type;
+            this.ids = ids;
+            this.names = names;
+            this.values = values;
+        }
+
+        private static <F extends Enum<F> & Field> Table<F> empty(Class<F> type, boolean keyedById) {
+            return new Builder<>(type, 0, keyedById).build();
+        }
+
+        /**
+         * 行数
+         *
+         * @return 行数
+         */
+        public int size() {
+            return names.length;
+        }
+
+        /**
+         * 是否以long型ID为键
+         *
+         * @return 是否以ID为键
+         */
+        public boolean isKeyedById() {
+            return null != ids;
+        }
+
+        /**
+         * 获取行的ID
+         *
+         * @param row 行号
+         * @return ID，以名称为键时为0
+         */
+        public long getId(int row) {
+            return null == ids ? 0L : ids[row];
+        }
+
+        /**
+         * 获取行的名称
+         *
+         * @param row 行号
+         * @return 名称
+         */
+        public String getName(int row) {
+            return names[row];
+        }
+
+        /**
+         * 获取数值
+         *
+         * @param field 列
+         * @param row   行号
+         * @return 数值
+         */
+        public long get(F field, int row) {
+            return values[field.ordinal()][row];
+        }
+
+        /**
+         * 导出一列
+         *
+         * @param field 列
+         * @return 数值的副本
+         */
+        public long[] column(F field) {
+            return values[field.ordinal()].clone();
+        }
+
+        /**
+         * 导出全部ID
+         *
+         * @return ID的副本，以名称为键时为空数组
+         */
+        public long[] ids() {
+            return null == ids ? new long[0] : ids.clone();
+        }
+
+        /**
+         * 按ID查找行，二分查找
+         *
+         * @param id ID
+         * @return 行号，不存在返回负数
+         */
+        public int indexOf(long id) {
+            return null == ids ? -1 : Arrays.binarySearch(ids, id);
+        }
+
+        /**
+         * 按名称查找行，以ID为键时为顺序查找
+         *
+         * @param name 名称
+         * @return 行号，不存在返回负数
+         */
+        public int indexOf(String name) {
+            if (null == ids) {
+                return Arrays.binarySearch(names, name);
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (Objects.equals(names[i], name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 与较早的表按键归并比较
+         *
+         * @param older 较早的表
+         * @return 差异
+         */
+        public Delta<F> diff(Table<F> older) {
+            final int max = Math.max(size(), older.size());
+            final int[] newerRows = new int[max];
+            final int[] olderRows = new int[max];
+            final int[] added = new int[size()];
+            final int[] removed = new int[older.size()];
+            int common = 0;
+            int addedCount = 0;
+            int removedCount = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size() || j < older.size()) {
+                final int cmp = i == size() ? 1 : j == older.size() ? -1 : compareKey(i, older, j);
+                if (cmp == 0) {
+                    newerRows[common] = i++;
+                    olderRows[common++] = j++;
+                } else if (cmp < 0) {
+                    added[addedCount++] = i++;
+                } else {
+                    removed[removedCount++] = j++;
+                }
+            }
+            final long[][] deltas = new long[values.length][common];
+            for (int c = 0; c < values.length; c++) {
+                final long[] newerColumn = values[c];
+                final long[] olderColumn = older.values[c];
+                final long[] delta = deltas[c];
+                for (int r = 0; r < common; r++) {
+                    delta[r] = newerColumn[newerRows[r]] - olderColumn[olderRows[r]];
+                }
+            }
+            return new Delta<>(this, older, Arrays.copyOf(newerRows, common), Arrays.copyOf(olderRows, common),
+                    Arrays.copyOf(added, addedCount), Arrays.copyOf(removed, removedCount), deltas);
+        }
+
+        private int compareKey(int row, Table<F> other, int otherRow) {
+            return null == ids ? names[row].compareTo(other.names[otherRow]) : Long.compare(ids[row], other.ids[otherRow]);
+        }
+
+        /**
+         * 按键升序逐行添加
+         */
+        private static final class Builder<F extends Enum<F> & Field> {
+
+            private final Class<F> type;
+            private final long[] ids;
+            private final String[] names;
+            private final long[][] values;
+            private int size;
+
+            Builder(Class<F> type, int capacity, boolean keyedById) {
+                this.type = type;
+                this.ids = keyedById ? new long[capacity] : null;
+                this.names = new String[capacity];
+                this.values = new long[type.getEnumConstants().length][capacity];
+            }
+
+            Builder<F> row(long id, String name) {
+                if (null != ids) {
+                    ids[size] = id;
+                }
+                names[size++] = name;
+                return this;
+            }
+
+            Builder<F> set(F field, long value) {
+                values[field.ordinal()][size - 1] = value;
+                return this;
+            }
+
+            Table<F> build() {
+                final long[][] columns = new long[values.length][];
+                for (int c = 0; c < values.length; c++) {
+                    columns[c] = Arrays.copyOf(values[c], size);
+                }
+                return new Table<>(type, null == ids ? null : Arrays.copyOf(ids, size), Arrays.copyOf(names, size), columns);
+            }
+        }
+    }
+
+    /**
+     * 两个表的差异，共同的键按较新表的顺序排列
+     *
+     * @param <F> 数值列类型
+     */
+    @Immutable
+    public static final class Delta<F extends Enum<F> & Field> {
+
+        private final Table<F> newer;
+        private final Table<F> older;
+        private final int[] newerRows;
+        private final int[] olderRows;
+        private final int[] added;
+        private final int[] removed;
+        private final long[][] deltas;
+
+        private Delta(Table<F> newer, Table<F> older, int[] newerRows, int[] olderRows, int[] added, int[] removed,
+                      long[][] deltas) {
+            this.newer = newer;
+            this.older = older;
+            this.newerRows = newerRows;
+            this.olderRows = olderRows;
+            this.added = added;
+            this.removed = removed;
+            this.deltas = deltas;
+        }
+
+        /**
+         * 较新的表
+         *
+         * @return 表
+         */
+        public Table<F> getNewer() {
+            return newer;
+        }
+
+        /**
+         * 较早的表
+         *
+         * @return 表
+         */
+        public Table<F> getOlder() {
+            return older;
+        }
+
+        /**
+         * 两个表共有的行数
+         *
+         * @return 行数
+         */
+        public int size() {
+            return newerRows.length;
+        }
+
+        /**
+         * 共有行在较新表中的行号
+         *
+         * @param i 共有行序号
+         * @return 行号
+         */
+        public int getNewerRow(int i) {
+            return newerRows[i];
+        }
+
+        /**
+         * 共有行在较早表中的行号
+         *
+         * @param i 共有行序号
+         * @return 行号
+         */
+        public int getOlderRow(int i) {
+            return olderRows[i];
+        }
+
+        /**
+         * 共有行的差值，新值减旧值
+         *
+         * @param field 列
+         * @param i     共有行序号
+         * @return 差值
+         */
+        public long get(F field, int i) {
+            return deltas[field.ordinal()][i];
+        }
+
+        /**
+         * 导出一列差值
+         *
+         * @param field 列
+         * @return 差值的副本
+         */
+        public long[] column(F field) {
+            return deltas[field.ordinal()].clone();
+        }
+
+        /**
+         * 新增的行在较新表中的行号
+         *
+         * @return 行号
+         */
+        public int[] getAdded() {
+            return added.clone();
+        }
+
+        /**
+         * 消失的行在较早表中的行号
+         *
+         * @return 行号
+         */
+        public int[] getRemoved() {
+            return removed.clone();
+        }
+
+        /**
+         * 任一数值发生变化的共有行序号
+         *
+         * @return 共有行序号
+         */
+        public int[] getChanged() {
+            final int[] changed = new int[size()];
+            int count = 0;
+            for (int i = 0; i < size(); i++) {
+                for (long[] delta : deltas) {
+                    if (delta[i] != 0) {
+                        changed[count++] = i;
+                        break;
+                    }
+                }
+            }
+            return Arrays.copyOf(changed, count);
+        }
+    }
+
+    /**
+     * 两个快照的差异
+     */
+    @Immutable
+    public static final class Diff {
+
+        private final long elapsed;
+        private final Delta<ProcessField> processes;
+        private final Delta<ThreadField> threads;
+        private final Delta<FileStoreField> fileStores;
+        private final Delta<DiskField> disks;
+        private final Delta<NetworkField> networks;
+
+        private Diff(long elapsed, Delta<ProcessField> processes, Delta<ThreadField> threads,
+                     Delta<FileStoreField> fileStores, Delta<DiskField> disks, Delta<NetworkField> networks) {
+            this.elapsed = elapsed;
+            this.processes = processes;
+            this.threads = threads;
+            this.fileStores = fileStores;
+            this.disks = disks;
+            this.networks = networks;
+        }
+
+        /**
+         * 两个快照的时间间隔
+         *
+         * @return 毫秒数
+         */
+        public long getElapsed() {
+            return elapsed;
+        }
+
+        public Delta<ProcessField> getProcesses() {
+            return processes;
+        }
+
+        public Delta<ThreadField> getThreads() {
+            return threads;
+        }
+
+        public Delta<FileStoreField> getFileStores() {
+            return fileStores;
+        }
+
+        public Delta<DiskField> getDisks() {
+            return disks;
+        }
+
+        public Delta<NetworkField> getNetworks() {
+            return networks;
+        }
+    }
+
+    /**
+     * 探针线程池，首次采集时创建
+     */
+    private static class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(
+                new NamedThreadFactory("health-snapshot-", true));
+    }
+
+}
@@ -46,14 +46,14 @@ import java.util.function.Supplier;
 public abstract class AbstractCentralProcessor implements CentralProcessor {
 
     private final Supplier<ProcessorIdentifier> cpuid = Memoize.memoize(this::queryProcessorId);
-    private final Supplier<Long> maxFreq = Memoize.memoize(this::queryMaxFreq, Memoize.defaultExpiration());
-    private final Supplier<long[]> currentFreq = Memoize.memoize(this::queryCurrentFreq, Memoize.defaultExpiration());
-    private final Supplier<Long> contextSwitches = Memoize.memoize(this::queryContextSwitches, Memoize.defaultExpiration());
-    private final Supplier<Long> interrupts = Memoize.memoize(this::queryInterrupts, Memoize.defaultExpiration());
+    private final Supplier<Long> maxFreq = Memoize.memoize(this::queryMaxFreq, Memoize.expiration(Memoize.Family.CPU));
+    private final Supplier<long[]> currentFreq = Memoize.memoize(this::queryCurrentFreq, Memoize.expiration(Memoize.Family.CPU));
+    private final Supplier<Long> contextSwitches = Memoize.memoize(this::queryContextSwitches, Memoize.expiration(Memoize.Family.CPU));
+    private final Supplier<Long> interrupts = Memoize.memoize(this::queryInterrupts, Memoize.expiration(Memoize.Family.CPU));
 
-    private final Supplier<long[]> systemCpuLoadTicks = Memoize.memoize(this::querySystemCpuLoadTicks, Memoize.defaultExpiration());
+    private final Supplier<long[]> systemCpuLoadTicks = Memoize.memoize(this::querySystemCpuLoadTicks, Memoize.expiration(Memoize.Family.CPU));
     private final Supplier<long[][]> processorCpuLoadTicks = Memoize.memoize(this::queryProcessorCpuLoadTicks,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.CPU));
 
     // 逻辑和物理处理器计数
     private final int physicalPackageCount;
@@ -41,11 +41,11 @@ import java.util.function.Supplier;
 @ThreadSafe
 public abstract class AbstractSensors implements Sensors {
 
-    private final Supplier<Double> cpuTemperature = Memoize.memoize(this::queryCpuTemperature, Memoize.defaultExpiration());
+    private final Supplier<Double> cpuTemperature = Memoize.memoize(this::queryCpuTemperature, Memoize.expiration(Memoize.Family.SENSORS));
 
-    private final Supplier<int[]> fanSpeeds = Memoize.memoize(this::queryFanSpeeds, Memoize.defaultExpiration());
+    private final Supplier<int[]> fanSpeeds = Memoize.memoize(this::queryFanSpeeds, Memoize.expiration(Memoize.Family.SENSORS));
 
-    private final Supplier<Double> cpuVoltage = Memoize.memoize(this::queryCpuVoltage, Memoize.defaultExpiration());
+    private final Supplier<Double> cpuVoltage = Memoize.memoize(this::queryCpuVoltage, Memoize.expiration(Memoize.Family.SENSORS));
 
     @Override
     public double getCpuTemperature() {
@@ -43,7 +43,7 @@ import java.util.function.Supplier;
 @ThreadSafe
 public abstract class AbstractOSProcess implements OSProcess {
 
-    private final Supplier<Double> cumulativeCpuLoad = Memoize.memoize(this::queryCumulativeCpuLoad, Memoize.defaultExpiration());
+    private final Supplier<Double> cumulativeCpuLoad = Memoize.memoize(this::queryCumulativeCpuLoad, Memoize.expiration(Memoize.Family.PROCESS));
 
     private int processID;
 
@@ -38,7 +38,7 @@ import java.util.function.Supplier;
  */
 public abstract class AbstractOSThread implements OSThread {
 
-    private final Supplier<Double> cumulativeCpuLoad = Memoize.memoize(this::queryCumulativeCpuLoad, Memoize.defaultExpiration());
+    private final Supplier<Double> cumulativeCpuLoad = Memoize.memoize(this::queryCumulativeCpuLoad, Memoize.expiration(Memoize.Family.THREAD));
 
     private final int owningProcessId;
 
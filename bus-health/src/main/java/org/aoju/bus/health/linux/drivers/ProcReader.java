@@ -0,0 +1,388 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.health.linux.drivers;
+
+import org.aoju.bus.core.annotation.NotThreadSafe;
+import org.aoju.bus.core.lang.Charset;
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.health.linux.ProcPath;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Allocation-light reader for {@code /proc/[pid]} files. Each file is read into
+ * a reusable byte buffer and numeric fields are parsed straight into caller
+ * supplied {@code long[]} slots, without intermediate strings, regex splits or
+ * boxing. An instance is confined to one thread; use {@link #get()} for the
+ * current thread's reader.
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+@NotThreadSafe
+public final class ProcReader {
+
+    private static final ThreadLocal<ProcReader> READER = ThreadLocal.withInitial(ProcReader::new);
+
+    private static final byte[][] STATUS_KEYS = keys(Arrays.stream(ProcessStat.PidStatus.values())
+            .map(ProcessStat.PidStatus::getKey).toArray(String[]::new));
+    private static final byte[][] IO_KEYS = keys(Arrays.stream(ProcessStat.PidIo.values())
+            .map(ProcessStat.PidIo::getKey).toArray(String[]::new));
+
+    private final StringBuilder path = new StringBuilder(32);
+    private byte[] buffer = new byte[4096];
+    private int length;
+    private int nameStart;
+    private int nameEnd;
+    private int fields;
+
+    /**
+     * Gets the reader of the current thread
+     *
+     * @return the reader
+     */
+    public static ProcReader get() {
+        return READER.get();
+    }
+
+    private static byte[][] keys(String... names) {
+        byte[][] keys = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            keys[i] = names[i].getBytes(Charset.US_ASCII);
+        }
+        return keys;
+    }
+
+    /**
+     * Reads {@code /proc/[pid]/stat} into an array indexed by
+     * {@link ProcessStat.PidStat#ordinal()}. {@link ProcessStat.PidStat#STATE}
+     * holds the state character and {@link ProcessStat.PidStat#COMM} is left as 0;
+     * the name is available from {@link #getName()} until the next read.
+     *
+     * @param pid   process ID
+     * @param stats array to fill, fields missing on older kernels are set to 0
+     * @return false if the process doesn't exist
+     */
+    public boolean readStat(int pid, long[] stats) {
+        return read(pid, "/stat") && parseStat(stats);
+    }
+
+    /**
+     * Reads {@code /proc/[pid]/statm} into an array indexed by
+     * {@link ProcessStat.PidStatM#ordinal()}.
+     *
+     * @param pid   process ID
+     * @param statm array to fill
+     * @return false if the process doesn't exist
+     */
+    public boolean readStatM(int pid, long[] statm) {
+        if (!read(pid, "/statm")) {
+            return false;
+        }
+        Arrays.fill(statm, 0L);
+        this.fields = parseFields(0, length, statm, 0);
+        return true;
+    }
+
+    /**
+     * Reads {@code /proc/[pid]/status} into an array indexed by
+     * {@link ProcessStat.PidStatus#ordinal()}; the {@code Name} line is available
+     * from {@link #getName()} until the next read.
+     *
+     * @param pid    process ID
+     * @param status array to fill, absent keys are set to 0
+     * @return false if the process doesn't exist
+     */
+    public boolean readStatus(int pid, long[] status) {
+        if (!read(pid, "/status")) {
+            return false;
+        }
+        Arrays.fill(status, 0L);
+        this.nameStart = 0;
+        this.nameEnd = 0;
+        int line = 0;
+        while (line < length) {
+            int eol = indexOf((byte) '\n', line, length);
+            int colon = indexOf((byte) ':', line, eol);
+            if (colon < eol) {
+                int value = skipBlanks(colon + 1, eol);
+                if (matches(line, colon, "Name")) {
+                    this.nameStart = value;
+                    this.nameEnd = eol;
+                } else {
+                    int key = find(STATUS_KEYS, line, colon);
+                    if (key == ProcessStat.PidStatus.STATE.ordinal()) {
+                        status[key] = value < eol ? buffer[value] : 0;
+                    } else if (key >= 0) {
+                        status[key] = parse(value, eol);
+                    }
+                }
+            }
+            line = eol + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Reads {@code /proc/[pid]/io} into an array indexed by
+     * {@link ProcessStat.PidIo#ordinal()}. The file is only readable by the
+     * process owner, otherwise all values stay 0.
+     *
+     * @param pid process ID
+     * @param io  array to fill
+     * @return false if the file couldn't be read
+     */
+    public boolean readIo(int pid, long[] io) {
+        Arrays.fill(io, 0L);
+        if (!read(pid, "/io")) {
+            return false;
+        }
+        int line = 0;
+        while (line < length) {
+            int eol = indexOf((byte) '\n', line, length);
+            int colon = indexOf((byte) ':', line, eol);
+            int key = colon < eol ? find(IO_KEYS, line, colon) : -1;
+            if (key >= 0) {
+                io[key] = parse(skipBlanks(colon + 1, eol), eol);
+            }
+            line = eol + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Reads {@code /proc/[pid]/stat} into the internal buffer only, e.g. to
+     * compare it with a previous read before parsing.
+     *
+     * @param pid process ID
+     * @return false if the process doesn't exist
+     */
+    public boolean readStatBytes(int pid) {
+        return read(pid, "/stat");
+    }
+
+    /**
+     * Compares the bytes of the last read file with a copy
+     *
+     * @param bytes previous content, may be null
+     * @return true if the content is identical
+     */
+    public boolean contentEquals(byte[] bytes) {
+        if (null == bytes || bytes.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] != buffer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the bytes of the last read file
+     *
+     * @return the content
+     */
+    public byte[] content() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Parses the last read {@code stat} content, as in {@link #readStat(int, long[])}
+     *
+     * @param stats array to fill
+     * @return false if the content is malformed
+     */
+    public boolean parseStat(long[] stats) {
+        int end = length - 1;
+        while (end >= 0 && buffer[end] != ')') {
+            end--;
+        }
+        int start = 0;
+        while (start < length && buffer[start] != '(') {
+            start++;
+        }
+        if (end < start || end + 2 >= length) {
+            return false;
+        }
+        Arrays.fill(stats, 0L);
+        this.nameStart = start + 1;
+        this.nameEnd = end;
+        stats[ProcessStat.PidStat.PID.ordinal()] = parse(0, start);
+        stats[ProcessStat.PidStat.STATE.ordinal()] = buffer[end + 2];
+        this.fields = 3 + parseFields(end + 3, length, stats, ProcessStat.PidStat.PPID.ordinal());
+        return true;
+    }
+
+    /**
+     * The process name from the last {@code stat} or {@code status} read
+     *
+     * @return the name, empty if none was read
+     */
+    public String getName() {
+        return nameEnd > nameStart ? new String(buffer, nameStart, nameEnd - nameStart, Charset.UTF_8) : Normal.EMPTY;
+    }
+
+    /**
+     * Number of numeric fields present in the last {@code stat} or {@code statm}
+     * read, including the pid, name and state for {@code stat}
+     *
+     * @return the number of fields
+     */
+    public int getFieldCount() {
+        return fields;
+    }
+
+    private boolean read(int pid, String file) {
+        path.setLength(0);
+        path.append(ProcPath.PROC).append('/').append(pid).append(file);
+        length = 0;
+        // Files in /proc report a size of 0, so read until EOF instead of sizing up front
+        try (FileInputStream in = new FileInputStream(path.toString())) {
+            int n;
+            while ((n = in.read(buffer, length, buffer.length - length)) > 0) {
+                length += n;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            return length > 0;
+        } catch (IOException e) {
+            // The process may have terminated
+            length = 0;
+            return false;
+        }
+    }
+
+    /**
+     * Parses whitespace separated numbers into consecutive slots
+     *
+     * @return the number of fields parsed
+     */
+    private int parseFields(int from, int to, long[] slots, int slot) {
+        int count = 0;
+        int i = from;
+        while (i < to) {
+            i = skipBlanks(i, to);
+            if (i >= to || buffer[i] == '\n') {
+                break;
+            }
+            int end = i;
+            while (end < to && buffer[end] > ' ') {
+                end++;
+            }
+            if (slot < slots.length) {
+                slots[slot++] = parse(i, end);
+            }
+            count++;
+            i = end;
+        }
+        return count;
+    }
+
+    /**
+     * Parses a decimal number ending at the first non-digit, values that overflow
+     * a signed long or aren't numbers are returned as 0
+     */
+    private long parse(int from, int to) {
+        int i = skipBlanks(from, to);
+        boolean negative = i < to && buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        for (; i < to; i++) {
+            int d = buffer[i] - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            if (value > (Long.MAX_VALUE - d) / 10) {
+                return 0L;
+            }
+            value = value * 10 + d;
+            digits++;
+        }
+        if (digits == 0) {
+            return 0L;
+        }
+        return negative ? -value : value;
+    }
+
+    private int skipBlanks(int from, int to) {
+        while (from < to && (buffer[from] == ' ' || buffer[from] == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == b) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private int find(byte[][] keys, int from, int to) {
+        for (int k = 0; k < keys.length; k++) {
+            if (matches(from, to, keys[k])) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int from, int to, String key) {
+        if (to - from != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (buffer[from + i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(int from, int to, byte[] key) {
+        if (to - from != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer[from + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -26,7 +26,6 @@
 package org.aoju.bus.health.linux.drivers;
 
 import org.aoju.bus.core.annotation.ThreadSafe;
-import org.aoju.bus.core.lang.RegEx;
 import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.core.lang.tuple.Triple;
 import org.aoju.bus.health.Builder;
@@ -84,25 +83,31 @@ public final class ProcessStat {
      * If the process doesn't exist, returns null.
      */
     public static Triple<String, Character, Map<PidStat, Long>> getPidStats(int pid) {
-        String stat = Builder.getStringFromFile(String.format(ProcPath.PID_STAT, pid));
-        if (stat.isEmpty()) {
+        ProcReader reader = ProcReader.get();
+        long[] stats = new long[PidStat.values().length];
+        if (!reader.readStat(pid, stats)) {
             // If pid doesn't exist
             return null;
         }
-        // Get process name from between parentheses and state immediately after
-        int nameStart = stat.indexOf(Symbol.C_PARENTHESE_LEFT) + 1;
-        int nameEnd = stat.indexOf(Symbol.C_PARENTHESE_RIGHT);
-        String name = stat.substring(nameStart, nameEnd);
-        Character state = stat.charAt(nameEnd + 2);
-        // Split everything after the state
-        String[] split = RegEx.SPACES.split(stat.substring(nameEnd + 4).trim());
-
         Map<PidStat, Long> statMap = new EnumMap<>(PidStat.class);
-        PidStat[] enumArray = PidStat.class.getEnumConstants();
-        for (int i = 3; i < enumArray.length && i - 3 < split.length; i++) {
-            statMap.put(enumArray[i], Builder.parseLongOrDefault(split[i - 3], 0L));
+        PidStat[] enumArray = PidStat.values();
+        for (int i = 3; i < enumArray.length && i < reader.getFieldCount(); i++) {
+            statMap.put(enumArray[i], stats[i]);
         }
-        return Triple.of(name, state, statMap);
+        return Triple.of(reader.getName(), (char) stats[PidStat.STATE.ordinal()], statMap);
+    }
+
+    /**
+     * Reads the statistics in {@code /proc/[pid]/stat} into an array indexed by
+     * {@link PidStat#ordinal()}, without boxing. {@link PidStat#STATE} holds the
+     * state character and {@link PidStat#COMM} is left as 0.
+     *
+     * @param pid   The process ID for which to fetch stats
+     * @param stats Array of at least {@code PidStat.values().length} elements to fill
+     * @return true if the process exists and the array was filled
+     */
+    public static boolean getPidStats(int pid, long[] stats) {
+        return ProcReader.get().readStat(pid, stats);
     }
 
     /**
@@ -115,22 +120,31 @@ public final class ProcessStat {
      * If the process doesn't exist, returns null.
      */
     public static Map<PidStatM, Long> getPidStatM(int pid) {
-        String statm = Builder.getStringFromFile(String.format(ProcPath.PID_STATM, pid));
-        if (statm.isEmpty()) {
+        long[] statm = new long[PidStatM.values().length];
+        if (!getPidStatM(pid, statm)) {
             // If pid doesn't exist
             return null;
         }
-        // Split the fields
-        String[] split = RegEx.SPACES.split(statm);
-
         Map<PidStatM, Long> statmMap = new EnumMap<>(PidStatM.class);
-        PidStatM[] enumArray = PidStatM.class.getEnumConstants();
-        for (int i = 0; i < enumArray.length && i < split.length; i++) {
-            statmMap.put(enumArray[i], Builder.parseLongOrDefault(split[i], 0L));
+        PidStatM[] enumArray = PidStatM.values();
+        for (int i = 0; i < enumArray.length && i < ProcReader.get().getFieldCount(); i++) {
+            statmMap.put(enumArray[i], statm[i]);
         }
         return statmMap;
     }
 
+    /**
+     * Reads the statistics in {@code /proc/[pid]/statm} into an array indexed by
+     * {@link PidStatM#ordinal()}, without boxing.
+     *
+     * @param pid   The process ID for which to fetch stats
+     * @param statm Array of at least {@code PidStatM.values().length} elements to fill
+     * @return true if the process exists and the array was filled
+     */
+    public static boolean getPidStatM(int pid, long[] statm) {
+        return ProcReader.get().readStatM(pid, statm);
+    }
+
     /**
      * Gets an array of files in the /proc/{pid}/fd directory.
      *
@@ -547,4 +561,57 @@ public final class ProcessStat {
         DT
     }
 
+    /**
+     * Enum corresponding to the numeric fields read from {@code /proc/[pid]/status}
+     * by {@link ProcReader#readStatus(int, long[])}. Memory values are in kB as
+     * reported by the kernel; for {@code Uid} and {@code Gid} only the real ID
+     * (first column) is kept, and {@code State} holds the state character.
+     */
+    public enum PidStatus {
+        STATE("State"),
+        TGID("Tgid"),
+        PPID("PPid"),
+        UID("Uid"),
+        GID("Gid"),
+        VM_SIZE("VmSize"),
+        VM_RSS("VmRSS"),
+        VM_SWAP("VmSwap"),
+        THREADS("Threads"),
+        VOLUNTARY_CTXT_SWITCHES("voluntary_ctxt_switches"),
+        NONVOLUNTARY_CTXT_SWITCHES("nonvoluntary_ctxt_switches");
+
+        private final String key;
+
+        PidStatus(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return this.key;
+        }
+    }
+
+    /**
+     * Enum corresponding to the fields in the output of {@code /proc/[pid]/io}
+     */
+    public enum PidIo {
+        RCHAR("rchar"),
+        WCHAR("wchar"),
+        SYSCR("syscr"),
+        SYSCW("syscw"),
+        READ_BYTES("read_bytes"),
+        WRITE_BYTES("write_bytes"),
+        CANCELLED_WRITE_BYTES("cancelled_write_bytes");
+
+        private final String key;
+
+        PidIo(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return this.key;
+        }
+    }
+
 }
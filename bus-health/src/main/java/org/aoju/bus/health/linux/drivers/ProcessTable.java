@@ -0,0 +1,230 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.health.linux.drivers;
+
+import org.aoju.bus.core.annotation.ThreadSafe;
+import org.aoju.bus.core.collection.primitive.LongObjectMap;
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.health.linux.ProcPath;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Incremental table of the processes in {@code /proc}. Each {@link #refresh()}
+ * reads {@code /proc/[pid]/stat} of every process and compares it with the bytes
+ * kept from the previous refresh; only processes whose {@code stat} changed (or
+ * that are new) are parsed again and have {@code statm} and {@code status}
+ * re-read. Processes that disappeared are dropped. Values are kept in primitive
+ * arrays indexed by {@link ProcessStat.PidStat}, {@link ProcessStat.PidStatM}
+ * and {@link ProcessStat.PidStatus}.
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+@ThreadSafe
+public final class ProcessTable {
+
+    private final LongObjectMap<Entry> entries = new LongObjectMap<>();
+    private long generation;
+    private int changed;
+
+    /**
+     * Re-reads the process list, parsing only processes whose {@code stat} changed
+     *
+     * @return the number of processes parsed during this refresh
+     */
+    public synchronized int refresh() {
+        generation++;
+        changed = 0;
+        ProcReader reader = ProcReader.get();
+        String[] names = new File(ProcPath.PROC).list();
+        if (null != names) {
+            for (String name : names) {
+                int pid = parsePid(name);
+                if (pid < 0 || !reader.readStatBytes(pid)) {
+                    continue;
+                }
+                Entry entry = entries.get(pid);
+                if (null == entry) {
+                    entry = new Entry();
+                    entries.put(pid, entry);
+                } else if (reader.contentEquals(entry.raw)) {
+                    entry.generation = generation;
+                    continue;
+                }
+                if (!reader.parseStat(entry.stat)) {
+                    entries.remove(pid);
+                    continue;
+                }
+                entry.raw = reader.content();
+                entry.name = reader.getName();
+                entry.generation = generation;
+                reader.readStatM(pid, entry.statm);
+                if (reader.readStatus(pid, entry.status)) {
+                    String statusName = reader.getName();
+                    if (!statusName.isEmpty()) {
+                        entry.name = statusName;
+                    }
+                }
+                changed++;
+            }
+        }
+        for (long pid : entries.keys()) {
+            if (entries.get(pid).generation != generation) {
+                entries.remove(pid);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * The number of processes parsed during the last {@link #refresh()}
+     *
+     * @return the number of changed or new processes
+     */
+    public synchronized int getChangedCount() {
+        return changed;
+    }
+
+    /**
+     * The number of processes in the table
+     *
+     * @return the number of processes
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * The process IDs in the table
+     *
+     * @return the process IDs, unordered
+     */
+    public synchronized int[] getPids() {
+        long[] keys = entries.keys();
+        int[] pids = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            pids[i] = (int) keys[i];
+        }
+        return pids;
+    }
+
+    /**
+     * Whether the process was present at the last {@link #refresh()}
+     *
+     * @param pid process ID
+     * @return true if present
+     */
+    public synchronized boolean contains(int pid) {
+        return entries.containsKey(pid);
+    }
+
+    /**
+     * The process name
+     *
+     * @param pid process ID
+     * @return the name, empty if the process isn't in the table
+     */
+    public synchronized String getName(int pid) {
+        Entry entry = entries.get(pid);
+        return null == entry ? Normal.EMPTY : entry.name;
+    }
+
+    /**
+     * A value from {@code /proc/[pid]/stat}
+     *
+     * @param pid   process ID
+     * @param field the field
+     * @return the value, 0 if the process isn't in the table
+     */
+    public synchronized long getStat(int pid, ProcessStat.PidStat field) {
+        Entry entry = entries.get(pid);
+        return null == entry ? 0L : entry.stat[field.ordinal()];
+    }
+
+    /**
+     * A value from {@code /proc/[pid]/statm}
+     *
+     * @param pid   process ID
+     * @param field the field
+     * @return the value, 0 if the process isn't in the table
+     */
+    public synchronized long getStatM(int pid, ProcessStat.PidStatM field) {
+        Entry entry = entries.get(pid);
+        return null == entry ? 0L : entry.statm[field.ordinal()];
+    }
+
+    /**
+     * A value from {@code /proc/[pid]/status}
+     *
+     * @param pid   process ID
+     * @param field the field
+     * @return the value, 0 if the process isn't in the table
+     */
+    public synchronized long getStatus(int pid, ProcessStat.PidStatus field) {
+        Entry entry = entries.get(pid);
+        return null == entry ? 0L : entry.status[field.ordinal()];
+    }
+
+    /**
+     * Maps each process in the table to its parent process ID
+     *
+     * @return a map with the pid as the key and the parent pid as the value
+     */
+    public synchronized Map<Integer, Integer> getParentPids() {
+        Map<Integer, Integer> parentPidMap = new HashMap<>(entries.size() * 4 / 3 + 1);
+        entries.forEach((pid, entry) -> parentPidMap.put((int) pid, (int) entry.stat[ProcessStat.PidStat.PPID.ordinal()]));
+        return parentPidMap;
+    }
+
+    private static int parsePid(String name) {
+        if (name.isEmpty() || name.length() > 9) {
+            return -1;
+        }
+        int pid = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            pid = pid * 10 + c - '0';
+        }
+        return pid;
+    }
+
+    private static class Entry {
+        final long[] stat = new long[ProcessStat.PidStat.values().length];
+        final long[] statm = new long[ProcessStat.PidStatM.values().length];
+        final long[] status = new long[ProcessStat.PidStatus.values().length];
+        byte[] raw;
+        String name;
+        long generation;
+    }
+
+}
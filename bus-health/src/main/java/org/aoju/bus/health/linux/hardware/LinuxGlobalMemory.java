@@ -52,7 +52,7 @@ public final class LinuxGlobalMemory extends AbstractGlobalMemory {
     public static final long PAGE_SIZE = Builder
             .parseLongOrDefault(Executor.getFirstAnswer("getconf PAGE_SIZE"), 4096L);
 
-    private final Supplier<Pair<Long, Long>> availTotal = Memoize.memoize(LinuxGlobalMemory::readMemInfo, Memoize.defaultExpiration());
+    private final Supplier<Pair<Long, Long>> availTotal = Memoize.memoize(LinuxGlobalMemory::readMemInfo, Memoize.expiration(Memoize.Family.MEMORY));
 
     private final Supplier<VirtualMemory> vm = Memoize.memoize(this::createVirtualMemory);
 
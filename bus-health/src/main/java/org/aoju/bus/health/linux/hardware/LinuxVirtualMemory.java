@@ -52,9 +52,9 @@ final class LinuxVirtualMemory extends AbstractVirtualMemory {
     private final LinuxGlobalMemory global;
 
     private final Supplier<Triple<Long, Long, Long>> usedTotalCommitLim = Memoize.memoize(LinuxVirtualMemory::queryMemInfo,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.MEMORY));
 
-    private final Supplier<Pair<Long, Long>> inOut = Memoize.memoize(LinuxVirtualMemory::queryVmStat, Memoize.defaultExpiration());
+    private final Supplier<Pair<Long, Long>> inOut = Memoize.memoize(LinuxVirtualMemory::queryVmStat, Memoize.expiration(Memoize.Family.MEMORY));
 
     /**
      * Constructor for LinuxVirtualMemory.
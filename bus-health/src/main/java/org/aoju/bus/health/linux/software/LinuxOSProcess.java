@@ -36,6 +36,7 @@ import org.aoju.bus.health.Memoize;
 import org.aoju.bus.health.builtin.software.AbstractOSProcess;
 import org.aoju.bus.health.builtin.software.OSThread;
 import org.aoju.bus.health.linux.ProcPath;
+import org.aoju.bus.health.linux.drivers.ProcReader;
 import org.aoju.bus.health.linux.drivers.ProcessStat;
 import org.aoju.bus.health.linux.drivers.UserGroup;
 import org.aoju.bus.health.linux.hardware.LinuxGlobalMemory;
@@ -67,17 +68,6 @@ import java.util.stream.Collectors;
 @ThreadSafe
 public class LinuxOSProcess extends AbstractOSProcess {
 
-    // Get a list of orders to pass to ParseUtil
-    private static final int[] PROC_PID_STAT_ORDERS = new int[ProcPidStat.values().length];
-
-    static {
-        for (ProcPidStat stat : ProcPidStat.values()) {
-            // The PROC_PID_STAT enum indices are 1-indexed.
-            // Subtract one to get a zero-based index
-            PROC_PID_STAT_ORDERS[stat.ordinal()] = stat.getOrder() - 1;
-        }
-    }
-
     private Supplier<String> commandLine = Memoize.memoize(this::queryCommandLine);
     private Supplier<List<String>> arguments = Memoize.memoize(this::queryArguments);
     private Supplier<Map<String, String>> environmentVariables = Memoize.memoize(this::queryEnvironmentVariables);
@@ -109,33 +99,6 @@ public class LinuxOSProcess extends AbstractOSProcess {
         updateAttributes();
     }
 
-    /**
-     * If some details couldn't be read from ProcPath.PID_STATUS try reading it from
-     * ProcPath.PID_STAT
-     *
-     * @param status status map to fill.
-     * @param stat   string to read from.
-     */
-    private static void getMissingDetails(Map<String, String> status, String stat) {
-        if (null == status || null == stat) {
-            return;
-        }
-
-        int nameStart = stat.indexOf(Symbol.C_PARENTHESE_LEFT);
-        int nameEnd = stat.indexOf(Symbol.C_PARENTHESE_RIGHT);
-        if (StringKit.isBlank(status.get("Name")) && nameStart > 0 && nameStart < nameEnd) {
-            // remove leading and trailing parentheses
-            String statName = stat.substring(nameStart + 1, nameEnd);
-            status.put("Name", statName);
-        }
-
-        // As per man, the next item after the name is the state
-        if (StringKit.isBlank(status.get("State")) && nameEnd > 0 && stat.length() > nameEnd + 2) {
-            String statState = String.valueOf(stat.charAt(nameEnd + 2));
-            status.put("State", statState);
-        }
-    }
-
     @Override
     public String getName() {
         return this.name;
@@ -351,87 +314,67 @@ public class LinuxOSProcess extends AbstractOSProcess {
         }
         // Fetch all the values here
         // check for terminated process race condition after last one.
-        Map<String, String> io = Builder.getKeyValueMapFromFile(String.format(ProcPath.PID_IO, getProcessID()), Symbol.COLON);
-        Map<String, String> status = Builder.getKeyValueMapFromFile(String.format(ProcPath.PID_STATUS, getProcessID()),
-                Symbol.COLON);
-        String stat = Builder.getStringFromFile(String.format(ProcPath.PID_STAT, getProcessID()));
-        if (stat.isEmpty()) {
+        ProcReader reader = ProcReader.get();
+        long[] io = new long[ProcessStat.PidIo.values().length];
+        reader.readIo(getProcessID(), io);
+        long[] status = new long[ProcessStat.PidStatus.values().length];
+        boolean hasStatus = reader.readStatus(getProcessID(), status);
+        String statusName = hasStatus ? reader.getName() : Normal.EMPTY;
+        long[] statArray = new long[ProcessStat.PidStat.values().length];
+        if (!reader.readStat(getProcessID(), statArray)) {
             this.state = State.INVALID;
             return false;
         }
-
-        // If some details couldn't be read from ProcPath.PID_STATUS try reading it from
-        // ProcPath.PID_STAT
-        getMissingDetails(status, stat);
-
         long now = System.currentTimeMillis();
 
-        // We can get name and status more easily from /proc/pid/status which we
-        // call later, so just get the numeric bits here
-        // See man proc for how to parse /proc/[pid]/stat
-        long[] statArray = Builder.parseStringToLongArray(stat, PROC_PID_STAT_ORDERS,
-                ProcessStat.PROC_PID_STAT_LENGTH, Symbol.C_SPACE);
+        // If some details couldn't be read from ProcPath.PID_STATUS use the ones
+        // from ProcPath.PID_STAT
+        if (StringKit.isBlank(statusName)) {
+            statusName = reader.getName();
+        }
+        long stateValue = status[ProcessStat.PidStatus.STATE.ordinal()];
+        if (stateValue == 0) {
+            stateValue = statArray[ProcessStat.PidStat.STATE.ordinal()];
+        }
 
         // BOOTTIME is in seconds and start time from proc/pid/stat is in jiffies.
         // Combine units to jiffies and convert to millijiffies before hz division to
         // avoid precision loss without having to cast
         this.startTime = (LinuxOperatingSystem.BOOTTIME * LinuxOperatingSystem.getHz()
-                + statArray[ProcPidStat.START_TIME.ordinal()]) * 1000L / LinuxOperatingSystem.getHz();
+                + statArray[ProcessStat.PidStat.STARTTIME.ordinal()]) * 1000L / LinuxOperatingSystem.getHz();
         // BOOT_TIME could be up to 500ms off and start time up to 5ms off. A process
         // that has started within last 505ms could produce a future start time/negative
         // up time, so insert a sanity check.
         if (startTime >= now) {
             startTime = now - 1;
         }
-        this.parentProcessID = (int) statArray[ProcPidStat.PPID.ordinal()];
-        this.threadCount = (int) statArray[ProcPidStat.THREAD_COUNT.ordinal()];
-        this.priority = (int) statArray[ProcPidStat.PRIORITY.ordinal()];
-        this.virtualSize = statArray[ProcPidStat.VSZ.ordinal()];
-        this.residentSetSize = statArray[ProcPidStat.RSS.ordinal()] * LinuxGlobalMemory.PAGE_SIZE;
-        this.kernelTime = statArray[ProcPidStat.KERNEL_TIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
-        this.userTime = statArray[ProcPidStat.USER_TIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
-        this.minorFaults = statArray[ProcPidStat.MINOR_FAULTS.ordinal()];
-        this.majorFaults = statArray[ProcPidStat.MAJOR_FAULTS.ordinal()];
-        long nonVoluntaryContextSwitches = Builder.parseLongOrDefault(status.get("nonvoluntary_ctxt_switches"), 0L);
-        long voluntaryContextSwitches = Builder.parseLongOrDefault(status.get("voluntary_ctxt_switches"), 0L);
-        this.contextSwitches = voluntaryContextSwitches + nonVoluntaryContextSwitches;
+        this.parentProcessID = (int) statArray[ProcessStat.PidStat.PPID.ordinal()];
+        this.threadCount = (int) statArray[ProcessStat.PidStat.NUM_THREADS.ordinal()];
+        this.priority = (int) statArray[ProcessStat.PidStat.PRIORITY.ordinal()];
+        this.virtualSize = statArray[ProcessStat.PidStat.VSIZE.ordinal()];
+        this.residentSetSize = statArray[ProcessStat.PidStat.RSS.ordinal()] * LinuxGlobalMemory.PAGE_SIZE;
+        this.kernelTime = statArray[ProcessStat.PidStat.STIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
+        this.userTime = statArray[ProcessStat.PidStat.UTIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
+        this.minorFaults = statArray[ProcessStat.PidStat.MINFLT.ordinal()];
+        this.majorFaults = statArray[ProcessStat.PidStat.MAJFLT.ordinal()];
+        this.contextSwitches = status[ProcessStat.PidStatus.VOLUNTARY_CTXT_SWITCHES.ordinal()]
+                + status[ProcessStat.PidStatus.NONVOLUNTARY_CTXT_SWITCHES.ordinal()];
 
         this.upTime = now - startTime;
 
         // See man proc for how to parse /proc/[pid]/io
-        this.bytesRead = Builder.parseLongOrDefault(io.getOrDefault("read_bytes", Normal.EMPTY), 0L);
-        this.bytesWritten = Builder.parseLongOrDefault(io.getOrDefault("write_bytes", Normal.EMPTY), 0L);
+        this.bytesRead = io[ProcessStat.PidIo.READ_BYTES.ordinal()];
+        this.bytesWritten = io[ProcessStat.PidIo.WRITE_BYTES.ordinal()];
 
         // Don't set open files or bitness or currentWorkingDirectory; fetch on demand.
 
-        this.userID = RegEx.SPACES.split(status.getOrDefault("Uid", Normal.EMPTY))[0];
+        this.userID = hasStatus ? Long.toString(status[ProcessStat.PidStatus.UID.ordinal()]) : Normal.EMPTY;
         this.user = UserGroup.getUser(userID);
-        this.groupID = RegEx.SPACES.split(status.getOrDefault("Gid", Normal.EMPTY))[0];
+        this.groupID = hasStatus ? Long.toString(status[ProcessStat.PidStatus.GID.ordinal()]) : Normal.EMPTY;
         this.group = UserGroup.getGroupName(groupID);
-        this.name = status.getOrDefault("Name", Normal.EMPTY);
-        this.state = ProcessStat.getState(status.getOrDefault("State", "U").charAt(0));
+        this.name = statusName;
+        this.state = ProcessStat.getState((char) stateValue);
         return true;
     }
 
-    /**
-     * Enum used to update attributes. The order field represents the 1-indexed
-     * numeric order of the stat in /proc/pid/stat per the man file.
-     */
-    private enum ProcPidStat {
-        // The parsing implementation in Builder requires these to be declared
-        // in increasing order
-        PPID(4), MINOR_FAULTS(10), MAJOR_FAULTS(12), USER_TIME(14), KERNEL_TIME(15), PRIORITY(18), THREAD_COUNT(20),
-        START_TIME(22), VSZ(23), RSS(24);
-
-        private final int order;
-
-        ProcPidStat(int order) {
-            this.order = order;
-        }
-
-        public int getOrder() {
-            return this.order;
-        }
-    }
-
 }
@@ -43,6 +43,7 @@ import org.aoju.bus.health.linux.LinuxLibc;
 import org.aoju.bus.health.linux.ProcPath;
 import org.aoju.bus.health.linux.drivers.CpuStat;
 import org.aoju.bus.health.linux.drivers.ProcessStat;
+import org.aoju.bus.health.linux.drivers.ProcessTable;
 import org.aoju.bus.health.linux.drivers.UpTime;
 import org.aoju.bus.health.linux.drivers.Who;
 import org.aoju.bus.logger.Logger;
@@ -74,8 +75,11 @@ public class LinuxOperatingSystem extends AbstractOperatingSystem {
      */
     private static final long USER_HZ = Builder.parseLongOrDefault(Executor.getFirstAnswer("getconf CLK_TCK"),
             100L);
-    // PPID is 4th numeric value in proc pid stat; subtract 1 for 0-index
-    private static final int[] PPID_INDEX = {3};
+    /**
+     * Process table shared by parent/child queries, only re-parses processes whose
+     * stat changed since the previous query
+     */
+    private static final ProcessTable PROCESS_TABLE = new ProcessTable();
 
     static {
         long tempBT = CpuStat.getBootTime();
@@ -95,17 +99,6 @@ public class LinuxOperatingSystem extends AbstractOperatingSystem {
         super.getVersionInfo();
     }
 
-    private static int getParentPidFromProcFile(int pid) {
-        String stat = Builder.getStringFromFile(String.format("/proc/%d/stat", pid));
-        // A race condition may leave us with an empty string
-        if (stat.isEmpty()) {
-            return 0;
-        }
-        // Grab PPID
-        long[] statArray = Builder.parseStringToLongArray(stat, PPID_INDEX, ProcessStat.PROC_PID_STAT_LENGTH, Symbol.C_SPACE);
-        return (int) statArray[0];
-    }
-
     /**
      * Looks for a collection of possible distrib-release filenames
      *
@@ -224,13 +217,9 @@ public class LinuxOperatingSystem extends AbstractOperatingSystem {
         return procs;
     }
 
-    private static Map<Integer, Integer> getParentPidsFromProcFiles(File[] pidFiles) {
-        Map<Integer, Integer> parentPidMap = new HashMap<>();
-        for (File procFile : pidFiles) {
-            int pid = Builder.parseIntOrDefault(procFile.getName(), 0);
-            parentPidMap.put(pid, getParentPidFromProcFile(pid));
-        }
-        return parentPidMap;
+    private static Map<Integer, Integer> getParentPidsFromProcFiles() {
+        PROCESS_TABLE.refresh();
+        return PROCESS_TABLE.getParentPids();
     }
 
     private static Triple<String, String, String> queryFamilyVersionCodenameFromReleaseFiles() {
@@ -535,11 +524,11 @@ public class LinuxOperatingSystem extends AbstractOperatingSystem {
 
     @Override
     public List<OSProcess> queryChildProcesses(int parentPid) {
-        File[] pidFiles = ProcessStat.getPidFiles();
         if (parentPid >= 0) {
             // Only return descendants
-            return queryProcessList(getChildrenOrDescendants(getParentPidsFromProcFiles(pidFiles), parentPid, false));
+            return queryProcessList(getChildrenOrDescendants(getParentPidsFromProcFiles(), parentPid, false));
         }
+        File[] pidFiles = ProcessStat.getPidFiles();
         Set<Integer> descendantPids = new HashSet<>();
         // Put everything in the "descendant" set
         for (File procFile : pidFiles) {
@@ -553,8 +542,7 @@ public class LinuxOperatingSystem extends AbstractOperatingSystem {
 
     @Override
     public List<OSProcess> queryDescendantProcesses(int parentPid) {
-        File[] pidFiles = ProcessStat.getPidFiles();
-        return queryProcessList(getChildrenOrDescendants(getParentPidsFromProcFiles(pidFiles), parentPid, true));
+        return queryProcessList(getChildrenOrDescendants(getParentPidsFromProcFiles(), parentPid, true));
     }
 
     @Override
@@ -58,7 +58,7 @@ final class MacGlobalMemory extends AbstractGlobalMemory {
 
     private final Supplier<Long> total = Memoize.memoize(MacGlobalMemory::queryPhysMem);
     private final Supplier<Long> pageSize = Memoize.memoize(MacGlobalMemory::queryPageSize);
-    private final Supplier<Long> available = Memoize.memoize(this::queryVmStats, Memoize.defaultExpiration());
+    private final Supplier<Long> available = Memoize.memoize(this::queryVmStats, Memoize.expiration(Memoize.Family.MEMORY));
     private final Supplier<VirtualMemory> vm = Memoize.memoize(this::createVirtualMemory);
 
     private static long queryPhysMem() {
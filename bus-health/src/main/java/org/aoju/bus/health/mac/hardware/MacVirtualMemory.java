@@ -52,9 +52,9 @@ final class MacVirtualMemory extends AbstractVirtualMemory {
 
     private final MacGlobalMemory global;
 
-    private final Supplier<Pair<Long, Long>> usedTotal = Memoize.memoize(MacVirtualMemory::querySwapUsage, Memoize.defaultExpiration());
+    private final Supplier<Pair<Long, Long>> usedTotal = Memoize.memoize(MacVirtualMemory::querySwapUsage, Memoize.expiration(Memoize.Family.MEMORY));
 
-    private final Supplier<Pair<Long, Long>> inOut = Memoize.memoize(MacVirtualMemory::queryVmStat, Memoize.defaultExpiration());
+    private final Supplier<Pair<Long, Long>> inOut = Memoize.memoize(MacVirtualMemory::queryVmStat, Memoize.expiration(Memoize.Family.MEMORY));
 
     /**
      * Constructor for MacVirtualMemory.
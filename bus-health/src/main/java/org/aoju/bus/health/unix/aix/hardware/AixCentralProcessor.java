@@ -61,8 +61,8 @@ final class AixCentralProcessor extends AbstractCentralProcessor {
      */
     private static final long USER_HZ = Builder.parseLongOrDefault(Executor.getFirstAnswer("getconf CLK_TCK"),
             100L);
-    private final Supplier<Perfstat.perfstat_cpu_total_t> cpuTotal = Memoize.memoize(PerfstatCpu::queryCpuTotal, Memoize.defaultExpiration());
-    private final Supplier<Perfstat.perfstat_cpu_t[]> cpuProc = Memoize.memoize(PerfstatCpu::queryCpu, Memoize.defaultExpiration());
+    private final Supplier<Perfstat.perfstat_cpu_total_t> cpuTotal = Memoize.memoize(PerfstatCpu::queryCpuTotal, Memoize.expiration(Memoize.Family.CPU));
+    private final Supplier<Perfstat.perfstat_cpu_t[]> cpuProc = Memoize.memoize(PerfstatCpu::queryCpu, Memoize.expiration(Memoize.Family.CPU));
     private Perfstat.perfstat_partition_config_t config;
 
     private static int querySbits() {
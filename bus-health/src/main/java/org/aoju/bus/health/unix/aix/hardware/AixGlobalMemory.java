@@ -54,7 +54,7 @@ final class AixGlobalMemory extends AbstractGlobalMemory {
     // the docs specify 4KB pages so we hardcode this
     private static final long PAGESIZE = 4096L;
     private final Supplier<Perfstat.perfstat_memory_total_t> perfstatMem = Memoize.memoize(AixGlobalMemory::queryPerfstat,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.MEMORY));
     private final Supplier<List<String>> lscfg;
     private final Supplier<VirtualMemory> vm = Memoize.memoize(this::createVirtualMemory);
 
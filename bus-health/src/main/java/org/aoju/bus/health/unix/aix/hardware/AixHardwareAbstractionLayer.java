@@ -50,7 +50,7 @@ public final class AixHardwareAbstractionLayer extends AbstractHardwareAbstracti
     // Memoized hardware listing
     private final Supplier<List<String>> lscfg = Memoize.memoize(Lscfg::queryAllDevices, Memoize.defaultExpiration());
     // Memoized disk stats to pass to disk object(s)
-    private final Supplier<Perfstat.perfstat_disk_t[]> diskStats = Memoize.memoize(PerfstatDisk::queryDiskStats, Memoize.defaultExpiration());
+    private final Supplier<Perfstat.perfstat_disk_t[]> diskStats = Memoize.memoize(PerfstatDisk::queryDiskStats, Memoize.expiration(Memoize.Family.DISK));
 
     @Override
     public ComputerSystem createComputerSystem() {
@@ -44,7 +44,7 @@ import java.util.function.Supplier;
 @ThreadSafe
 public class AixInternetProtocolStats extends AbstractInternetProtocolStats {
 
-    private Supplier<Perfstat.perfstat_protocol_t[]> ipstats = Memoize.memoize(PerfstatProtocol::queryProtocols, Memoize.defaultExpiration());
+    private Supplier<Perfstat.perfstat_protocol_t[]> ipstats = Memoize.memoize(PerfstatProtocol::queryProtocols, Memoize.expiration(Memoize.Family.NETWORK));
 
     @Override
     public TcpStats getTCPv4Stats() {
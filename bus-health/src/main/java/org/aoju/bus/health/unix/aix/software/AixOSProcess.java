@@ -52,7 +52,7 @@ import java.util.function.Supplier;
  */
 @ThreadSafe
 public class AixOSProcess extends AbstractOSProcess {
-    private final Supplier<Long> affinityMask = Memoize.memoize(PerfstatCpu::queryCpuAffinityMask, Memoize.defaultExpiration());
+    private final Supplier<Long> affinityMask = Memoize.memoize(PerfstatCpu::queryCpuAffinityMask, Memoize.expiration(Memoize.Family.PROCESS));
 
     private Supplier<Integer> bitness = Memoize.memoize(this::queryBitness);
     private Supplier<Pair<List<String>, Map<String, String>>> cmdEnv = Memoize.memoize(this::queryCommandlineEnvironment);
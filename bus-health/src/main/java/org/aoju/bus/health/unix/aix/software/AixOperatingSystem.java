@@ -65,7 +65,7 @@ public class AixOperatingSystem extends AbstractOperatingSystem {
     private static final long BOOTTIME = querySystemBootTimeMillis() / 1000L;
     private final Supplier<Perfstat.perfstat_partition_config_t> config = Memoize.memoize(PerfstatConfig::queryConfig);
     private final Supplier<Perfstat.perfstat_process_t[]> procCpu = Memoize.memoize(PerfstatProcess::queryProcesses,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.PROCESS));
 
     private static long querySystemBootTimeMillis() {
         long bootTime = Who.queryBootTime();
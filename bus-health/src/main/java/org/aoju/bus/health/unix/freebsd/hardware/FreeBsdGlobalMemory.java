@@ -47,7 +47,7 @@ final class FreeBsdGlobalMemory extends AbstractGlobalMemory {
 
     private final Supplier<Long> total = Memoize.memoize(FreeBsdGlobalMemory::queryPhysMem);
     private final Supplier<Long> pageSize = Memoize.memoize(FreeBsdGlobalMemory::queryPageSize);
-    private final Supplier<Long> available = Memoize.memoize(this::queryVmStats, Memoize.defaultExpiration());
+    private final Supplier<Long> available = Memoize.memoize(this::queryVmStats, Memoize.expiration(Memoize.Family.MEMORY));
     private final Supplier<VirtualMemory> vm = Memoize.memoize(this::createVirtualMemory);
 
     private static long queryPhysMem() {
@@ -45,10 +45,10 @@ import java.util.function.Supplier;
 @ThreadSafe
 final class FreeBsdVirtualMemory extends AbstractVirtualMemory {
 
-    private final Supplier<Long> used = Memoize.memoize(FreeBsdVirtualMemory::querySwapUsed, Memoize.defaultExpiration());
-    private final Supplier<Long> total = Memoize.memoize(FreeBsdVirtualMemory::querySwapTotal, Memoize.defaultExpiration());
-    private final Supplier<Long> pagesIn = Memoize.memoize(FreeBsdVirtualMemory::queryPagesIn, Memoize.defaultExpiration());
-    private final Supplier<Long> pagesOut = Memoize.memoize(FreeBsdVirtualMemory::queryPagesOut, Memoize.defaultExpiration());
+    private final Supplier<Long> used = Memoize.memoize(FreeBsdVirtualMemory::querySwapUsed, Memoize.expiration(Memoize.Family.MEMORY));
+    private final Supplier<Long> total = Memoize.memoize(FreeBsdVirtualMemory::querySwapTotal, Memoize.expiration(Memoize.Family.MEMORY));
+    private final Supplier<Long> pagesIn = Memoize.memoize(FreeBsdVirtualMemory::queryPagesIn, Memoize.expiration(Memoize.Family.MEMORY));
+    private final Supplier<Long> pagesOut = Memoize.memoize(FreeBsdVirtualMemory::queryPagesOut, Memoize.expiration(Memoize.Family.MEMORY));
     private final FreeBsdGlobalMemory global;
 
     FreeBsdVirtualMemory(FreeBsdGlobalMemory freeBsdGlobalMemory) {
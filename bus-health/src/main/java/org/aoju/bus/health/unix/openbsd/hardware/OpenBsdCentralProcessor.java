@@ -53,7 +53,7 @@ public class OpenBsdCentralProcessor extends AbstractCentralProcessor {
 
     private static final Pattern DMESG_CPU = Pattern.compile("cpu(\\d+): smt (\\d+), core (\\d+), package (\\d+)");
     private final Supplier<Pair<Long, Long>> vmStats = Memoize.memoize(OpenBsdCentralProcessor::queryVmStats,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.CPU));
 
     private static Triple<Integer, Integer, Integer> cpuidToFamilyModelStepping(int cpuid) {
         // family is bits 27:20 | 11:8
@@ -48,7 +48,7 @@ import java.util.function.Supplier;
 @ThreadSafe
 final class OpenBsdGlobalMemory extends AbstractGlobalMemory {
 
-    private final Supplier<Long> available = Memoize.memoize(OpenBsdGlobalMemory::queryAvailable, Memoize.defaultExpiration());
+    private final Supplier<Long> available = Memoize.memoize(OpenBsdGlobalMemory::queryAvailable, Memoize.expiration(Memoize.Family.MEMORY));
 
     private final Supplier<Long> total = Memoize.memoize(OpenBsdGlobalMemory::queryPhysMem);
 
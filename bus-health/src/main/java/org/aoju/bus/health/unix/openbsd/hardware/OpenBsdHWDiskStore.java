@@ -56,7 +56,7 @@ import java.util.regex.Pattern;
 public final class OpenBsdHWDiskStore extends AbstractHWDiskStore {
 
     private final Supplier<List<String>> iostat = Memoize.memoize(
-            OpenBsdHWDiskStore::querySystatIostat, Memoize.defaultExpiration());
+            OpenBsdHWDiskStore::querySystatIostat, Memoize.expiration(Memoize.Family.DISK));
     private final long currentQueueLength = 0L;
     private long reads = 0L;
     private long readBytes = 0L;
@@ -48,7 +48,7 @@ import java.util.function.Supplier;
 final class OpenBsdSensors extends AbstractSensors {
 
     private final Supplier<Triple<Double, int[], Double>> tempFanVolts = Memoize.memoize(OpenBsdSensors::querySensors,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.SENSORS));
 
     private static Triple<Double, int[], Double> querySensors() {
         double volts = 0d;
@@ -45,8 +45,8 @@ import java.util.function.Supplier;
 final class OpenBsdVirtualMemory extends AbstractVirtualMemory {
 
     private final Supplier<Triple<Integer, Integer, Integer>> usedTotalPgin = Memoize.memoize(
-            OpenBsdVirtualMemory::queryVmstat, Memoize.defaultExpiration());
-    private final Supplier<Integer> pgout = Memoize.memoize(OpenBsdVirtualMemory::queryUvm, Memoize.defaultExpiration());
+            OpenBsdVirtualMemory::queryVmstat, Memoize.expiration(Memoize.Family.MEMORY));
+    private final Supplier<Integer> pgout = Memoize.memoize(OpenBsdVirtualMemory::queryUvm, Memoize.expiration(Memoize.Family.MEMORY));
     private final OpenBsdGlobalMemory global;
 
     OpenBsdVirtualMemory(OpenBsdGlobalMemory freeBsdGlobalMemory) {
@@ -47,7 +47,7 @@ import java.util.function.Supplier;
 final class SolarisGlobalMemory extends AbstractGlobalMemory {
 
     private final Supplier<Pair<Long, Long>> availTotal = Memoize.memoize(SystemPages::queryAvailableTotal,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.MEMORY));
 
     private final Supplier<Long> pageSize = Memoize.memoize(SolarisGlobalMemory::queryPageSize);
 
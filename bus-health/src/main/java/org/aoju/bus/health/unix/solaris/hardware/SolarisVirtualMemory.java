@@ -53,15 +53,15 @@ final class SolarisVirtualMemory extends AbstractVirtualMemory {
 
     // Physical
     private final Supplier<Pair<Long, Long>> availTotal = Memoize.memoize(SystemPages::queryAvailableTotal,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.MEMORY));
 
     // Swap
     private final Supplier<Pair<Long, Long>> usedTotal = Memoize.memoize(SolarisVirtualMemory::querySwapInfo,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.MEMORY));
 
-    private final Supplier<Long> pagesIn = Memoize.memoize(SolarisVirtualMemory::queryPagesIn, Memoize.defaultExpiration());
+    private final Supplier<Long> pagesIn = Memoize.memoize(SolarisVirtualMemory::queryPagesIn, Memoize.expiration(Memoize.Family.MEMORY));
 
-    private final Supplier<Long> pagesOut = Memoize.memoize(SolarisVirtualMemory::queryPagesOut, Memoize.defaultExpiration());
+    private final Supplier<Long> pagesOut = Memoize.memoize(SolarisVirtualMemory::queryPagesOut, Memoize.expiration(Memoize.Family.MEMORY));
 
     /**
      * Constructor for SolarisVirtualMemory.
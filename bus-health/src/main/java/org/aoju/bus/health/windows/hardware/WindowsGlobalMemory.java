@@ -57,7 +57,7 @@ final class WindowsGlobalMemory extends AbstractGlobalMemory {
     private static final boolean IS_WINDOWS10_OR_GREATER = VersionHelpers.IsWindows10OrGreater();
 
     private final Supplier<Triple<Long, Long, Long>> availTotalSize = Memoize.memoize(WindowsGlobalMemory::readPerfInfo,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.MEMORY));
 
     private final Supplier<VirtualMemory> vm = Memoize.memoize(this::createVirtualMemory);
 
@@ -52,13 +52,13 @@ final class WindowsVirtualMemory extends AbstractVirtualMemory {
 
     private final WindowsGlobalMemory global;
 
-    private final Supplier<Long> used = Memoize.memoize(WindowsVirtualMemory::querySwapUsed, Memoize.defaultExpiration());
+    private final Supplier<Long> used = Memoize.memoize(WindowsVirtualMemory::querySwapUsed, Memoize.expiration(Memoize.Family.MEMORY));
 
     private final Supplier<Triple<Long, Long, Long>> totalVmaxVused = Memoize.memoize(
-            WindowsVirtualMemory::querySwapTotalVirtMaxVirtUsed, Memoize.defaultExpiration());
+            WindowsVirtualMemory::querySwapTotalVirtMaxVirtUsed, Memoize.expiration(Memoize.Family.MEMORY));
 
     private final Supplier<Pair<Long, Long>> swapInOut = Memoize.memoize(WindowsVirtualMemory::queryPageSwaps,
-            Memoize.defaultExpiration());
+            Memoize.expiration(Memoize.Family.MEMORY));
 
     /**
      * Constructor for WindowsVirtualMemory.
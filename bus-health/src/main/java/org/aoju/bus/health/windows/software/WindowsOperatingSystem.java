@@ -94,17 +94,17 @@ public class WindowsOperatingSystem extends AbstractOperatingSystem {
      * one returns null.
      */
     private Supplier<Map<Integer, ProcessPerformanceData.PerfCounterBlock>> processMapFromRegistry = Memoize.memoize(
-            WindowsOperatingSystem::queryProcessMapFromRegistry, Memoize.defaultExpiration());
+            WindowsOperatingSystem::queryProcessMapFromRegistry, Memoize.expiration(Memoize.Family.PROCESS));
     private Supplier<Map<Integer, ProcessPerformanceData.PerfCounterBlock>> processMapFromPerfCounters = Memoize.memoize(
-            WindowsOperatingSystem::queryProcessMapFromPerfCounters, Memoize.defaultExpiration());
+            WindowsOperatingSystem::queryProcessMapFromPerfCounters, Memoize.expiration(Memoize.Family.PROCESS));
     /**
      * Cache full thread stats queries. Second query will only populate if first one
      * returns null. Only used if USE_PROCSTATE_SUSPENDED is set true.
      */
     private Supplier<Map<Integer, ThreadPerformanceData.PerfCounterBlock>> threadMapFromRegistry = Memoize.memoize(
-            WindowsOperatingSystem::queryThreadMapFromRegistry, Memoize.defaultExpiration());
+            WindowsOperatingSystem::queryThreadMapFromRegistry, Memoize.expiration(Memoize.Family.THREAD));
     private Supplier<Map<Integer, ThreadPerformanceData.PerfCounterBlock>> threadMapFromPerfCounters = Memoize.memoize(
-            WindowsOperatingSystem::queryThreadMapFromPerfCounters, Memoize.defaultExpiration());
+            WindowsOperatingSystem::queryThreadMapFromPerfCounters, Memoize.expiration(Memoize.Family.THREAD));
 
     private static Map<Integer, Integer> getParentPidsFromSnapshot() {
         Map<Integer, Integer> parentPidMap = new HashMap<>();
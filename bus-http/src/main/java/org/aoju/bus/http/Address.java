@@ -77,6 +77,10 @@ public final class Address {
      * 代理选择器。仅在代理为空时使用。如果无法访问该选择器的代理，则将尝试直接连接
      */
     final ProxySelector proxySelector;
+    /**
+     * 缓存的哈希值,地址作为连接池索引的键被频繁计算
+     */
+    private int hashCode;
     /**
      * 明确指定的HTTP代理，或null来委托给{@link ProxySelector 代理选择器}
      */
@@ -184,7 +188,11 @@ public final class Address {
 
     @Override
     public int hashCode() {
-        int result = 17;
+        int result = hashCode;
+        if (result != 0) {
+            return result;
+        }
+        result = 17;
         result = 31 * result + url.hashCode();
         result = 31 * result + dns.hashCode();
         result = 31 * result + proxyAuthenticator.hashCode();
@@ -195,6 +203,7 @@ public final class Address {
         result = 31 * result + (null != sslSocketFactory ? sslSocketFactory.hashCode() : 0);
         result = 31 * result + (null != hostnameVerifier ? hostnameVerifier.hashCode() : 0);
         result = 31 * result + (null != certificatePinner ? certificatePinner.hashCode() : 0);
+        hashCode = result;
         return result;
     }
 
@@ -32,6 +32,8 @@ import org.aoju.bus.http.Route;
 import org.aoju.bus.http.accord.platform.Platform;
 
 import java.lang.ref.Reference;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
 import java.net.Socket;
 import java.util.*;
 import java.util.concurrent.Executor;
@@ -43,6 +45,10 @@ import java.util.concurrent.TimeUnit;
  * 管理HTTP和HTTP/2连接的重用，以减少网络延迟。 共享相同的
  * {@link Address}的HTTP请求可能共享一个{@link Connection}
  * 该类实现了哪些连接保持开放以供将来使用的策略
+ * <p>
+ * 连接按{@link Address}索引:空闲的HTTP/1连接按最近空闲优先排列,HTTP/2连接另按
+ * 目标套接字地址索引以支持连接合并;空闲连接按空闲时间排入回收队列,
+ * 获取、释放及回收均无需遍历全部连接
  *
  * @author Kimi Liu
  * @version 6.3.2
@@ -57,14 +63,40 @@ public final class ConnectionPool {
     private static final Executor executor = new ThreadPoolExecutor(0,
             Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
             new SynchronousQueue<>(), Builder.threadFactory("Httpd ConnectionPool", true));
-    public final Deque<RealConnection> connections = new ArrayDeque<>();
     public final RouteDatabase routeDatabase = new RouteDatabase();
+    /**
+     * 全部连接
+     */
+    private final Set<RealConnection> connections = new HashSet<>();
+    /**
+     * 按地址索引的空闲HTTP/1连接,最近空闲的在队首
+     */
+    private final Map<Address, Deque<RealConnection>> idleConnections = new HashMap<>();
+    /**
+     * 按地址索引的HTTP/2连接
+     */
+    private final Map<Address, List<RealConnection>> multiplexedConnections = new HashMap<>();
+    /**
+     * 按目标套接字地址索引的HTTP/2连接,用于不同主机间的连接合并
+     */
+    private final Map<InetSocketAddress, List<RealConnection>> coalescedConnections = new HashMap<>();
+    /**
+     * 回收队列,按空闲时间先后排列,队首为空闲最久的连接
+     */
+    private final LinkedHashSet<RealConnection> evictionQueue = new LinkedHashSet<>();
     /**
      * 每个地址的最大空闲连接数.
      */
     private final int maxIdleConnections;
     private final long keepAliveDurationNs;
     boolean cleanupRunning;
+    /**
+     * 下一次泄漏检查的时间
+     */
+    private long leakCheckAtNanos;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
     private final Runnable cleanupRunnable = () -> {
         while (true) {
             long waitNanos = cleanup(System.nanoTime());
@@ -106,11 +138,7 @@ public final class ConnectionPool {
      * @return 连接的数量
      */
     public synchronized int idleConnectionCount() {
-        int total = 0;
-        for (RealConnection connection : connections) {
-            if (connection.allocations.isEmpty()) total++;
-        }
-        return total;
+        return evictionQueue.size();
     }
 
     /**
@@ -124,6 +152,48 @@ public final class ConnectionPool {
         return connections.size();
     }
 
+    /**
+     * 从池中复用连接的次数
+     *
+     * @return 命中次数
+     */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 池中没有可用连接而新建连接的次数
+     *
+     * @return 未命中次数
+     */
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    /**
+     * 因空闲超时、超出空闲数量或泄漏而被回收的连接数
+     *
+     * @return 回收次数
+     */
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 返回每个HTTP/2连接当前承载的流数量
+     *
+     * @return 连接及其流数量
+     */
+    public synchronized Map<Connection, Integer> multiplexedStreamCounts() {
+        Map<Connection, Integer> result = new LinkedHashMap<>();
+        for (List<RealConnection> list : multiplexedConnections.values()) {
+            for (RealConnection connection : list) {
+                result.put(connection, connection.allocations.size());
+            }
+        }
+        return result;
+    }
+
     /**
      * 返回一个循环连接到{@code address}，如果不存在这样的连接，
      * 则返回null。如果地址尚未被路由，则路由为空.
@@ -135,13 +205,28 @@ public final class ConnectionPool {
      */
     public RealConnection get(Address address, StreamAllocation streamAllocation, Route route) {
         assert (Thread.holdsLock(this));
-        for (RealConnection connection : connections) {
-            if (connection.isEligible(address, route)) {
-                streamAllocation.acquire(connection, true);
-                return connection;
+        RealConnection connection = find(multiplexedConnections.get(address), address, route);
+        if (null == connection) {
+            Deque<RealConnection> idle = idleConnections.get(address);
+            if (null != idle) {
+                for (RealConnection candidate : idle) {
+                    if (candidate.isEligible(address, route)) {
+                        connection = candidate;
+                        break;
+                    }
+                }
             }
         }
-        return null;
+        if (null == connection && null != route && route.proxy().type() == Proxy.Type.DIRECT) {
+            connection = find(coalescedConnections.get(route.socketAddress()), address, route);
+        }
+        if (null == connection) {
+            return null;
+        }
+        acquired(connection);
+        streamAllocation.acquire(connection, true);
+        hitCount++;
+        return connection;
     }
 
     /**
@@ -154,10 +239,14 @@ public final class ConnectionPool {
      */
     public Socket deduplicate(Address address, StreamAllocation streamAllocation) {
         assert (Thread.holdsLock(this));
-        for (RealConnection connection : connections) {
+        List<RealConnection> list = multiplexedConnections.get(address);
+        if (null == list) {
+            return null;
+        }
+        for (RealConnection connection : list) {
             if (connection.isEligible(address, null)
-                    && connection.isMultiplexed()
                     && connection != streamAllocation.connection()) {
+                acquired(connection);
                 return streamAllocation.releaseAndAcquire(connection);
             }
         }
@@ -168,9 +257,21 @@ public final class ConnectionPool {
         assert (Thread.holdsLock(this));
         if (!cleanupRunning) {
             cleanupRunning = true;
+            leakCheckAtNanos = System.nanoTime() + keepAliveDurationNs;
             executor.execute(cleanupRunnable);
         }
+        missCount++;
         connections.add(connection);
+        if (connection.isMultiplexed()) {
+            Address address = connection.route().address();
+            multiplexedConnections.computeIfAbsent(address, k -> new ArrayList<>()).add(connection);
+            if (connection.route().proxy().type() == Proxy.Type.DIRECT) {
+                coalescedConnections.computeIfAbsent(connection.route().socketAddress(), k -> new ArrayList<>()).add(connection);
+            }
+        }
+        if (connection.allocations.isEmpty()) {
+            idle(connection);
+        }
     }
 
     /**
@@ -182,9 +283,10 @@ public final class ConnectionPool {
     public boolean connectionBecameIdle(RealConnection connection) {
         assert (Thread.holdsLock(this));
         if (connection.noNewStreams || maxIdleConnections == 0) {
-            connections.remove(connection);
+            remove(connection);
             return true;
         } else {
+            idle(connection);
             // 唤醒清理线程:可能已经超过了空闲连接限制
             notifyAll();
             return false;
@@ -195,15 +297,12 @@ public final class ConnectionPool {
      * 关闭并删除池中的所有空闲连接.
      */
     public void evictAll() {
-        List<RealConnection> evictedConnections = new ArrayList<>();
+        List<RealConnection> evictedConnections;
         synchronized (this) {
-            for (Iterator<RealConnection> i = connections.iterator(); i.hasNext(); ) {
-                RealConnection connection = i.next();
-                if (connection.allocations.isEmpty()) {
-                    connection.noNewStreams = true;
-                    evictedConnections.add(connection);
-                    i.remove();
-                }
+            evictedConnections = new ArrayList<>(evictionQueue);
+            for (RealConnection connection : evictedConnections) {
+                connection.noNewStreams = true;
+                remove(connection);
             }
         }
 
@@ -220,52 +319,115 @@ public final class ConnectionPool {
      * @return 睡眠时间
      */
     long cleanup(long now) {
-        int inUseConnectionCount = 0;
-        int idleConnectionCount = 0;
-        RealConnection longestIdleConnection = null;
-        long longestIdleDurationNs = Long.MIN_VALUE;
+        List<RealConnection> evicted = new ArrayList<>();
+        long waitNanos;
 
-        // 找到与清除的联系，或者下一次清除的时间
         synchronized (this) {
-            for (Iterator<RealConnection> i = connections.iterator(); i.hasNext(); ) {
-                RealConnection connection = i.next();
-
-                // 如果正在使用连接，请继续搜索.
-                if (pruneAndGetAllocationCount(connection, now) > 0) {
-                    inUseConnectionCount++;
-                    continue;
+            // 泄漏检查需要遍历使用中的连接,按保活时长周期进行
+            if (now >= leakCheckAtNanos) {
+                leakCheckAtNanos = now + keepAliveDurationNs;
+                for (RealConnection connection : new ArrayList<>(connections)) {
+                    if (!evictionQueue.contains(connection) && pruneAndGetAllocationCount(connection) == 0) {
+                        remove(connection);
+                        evicted.add(connection);
+                    }
                 }
+            }
 
-                idleConnectionCount++;
-
-                // 如果连接准备好被驱逐，我们就完成了
-                long idleDurationNs = now - connection.idleAtNanos;
-                if (idleDurationNs > longestIdleDurationNs) {
-                    longestIdleDurationNs = idleDurationNs;
-                    longestIdleConnection = connection;
+            // 回收队列队首即空闲最久的连接
+            while (!evictionQueue.isEmpty()) {
+                RealConnection longestIdleConnection = evictionQueue.iterator().next();
+                long idleDurationNs = now - longestIdleConnection.idleAtNanos;
+                if (idleDurationNs < keepAliveDurationNs && evictionQueue.size() <= maxIdleConnections) {
+                    break;
                 }
+                remove(longestIdleConnection);
+                evicted.add(longestIdleConnection);
             }
+            evictionCount += evicted.size();
 
-            if (longestIdleDurationNs >= this.keepAliveDurationNs
-                    || idleConnectionCount > this.maxIdleConnections) {
-                // 我们发现了与驱逐有关的证据。将它从列表中移除，然后在下面(同步块外部)关闭它
-                connections.remove(longestIdleConnection);
-            } else if (idleConnectionCount > 0) {
+            if (!evictionQueue.isEmpty()) {
                 // 一个连接将准备驱逐很快.
-                return keepAliveDurationNs - longestIdleDurationNs;
-            } else if (inUseConnectionCount > 0) {
+                long longestIdleDurationNs = now - evictionQueue.iterator().next().idleAtNanos;
+                waitNanos = Math.min(keepAliveDurationNs - longestIdleDurationNs, leakCheckAtNanos - now);
+            } else if (!connections.isEmpty()) {
                 // 所有连接都在使用中。至少能维持生命直到我们再次运行.
-                return keepAliveDurationNs;
+                waitNanos = Math.min(keepAliveDurationNs, leakCheckAtNanos - now);
             } else {
                 // 没有连接，空闲或正在使用
                 cleanupRunning = false;
-                return -1;
+                waitNanos = -1;
+            }
+        }
+
+        for (RealConnection connection : evicted) {
+            IoKit.close(connection.socket());
+        }
+        return waitNanos;
+    }
+
+    /**
+     * 在候选连接中查找可承载该地址的连接
+     */
+    private RealConnection find(List<RealConnection> candidates, Address address, Route route) {
+        if (null != candidates) {
+            for (RealConnection connection : candidates) {
+                if (connection.isEligible(address, route)) {
+                    return connection;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 连接变为空闲:进入回收队列队尾,HTTP/1连接放到其地址空闲队列的队首
+     */
+    private void idle(RealConnection connection) {
+        evictionQueue.remove(connection);
+        evictionQueue.add(connection);
+        if (!connection.isMultiplexed()) {
+            Deque<RealConnection> idle = idleConnections.computeIfAbsent(connection.route().address(), k -> new ArrayDeque<>());
+            idle.remove(connection);
+            idle.addFirst(connection);
+        }
+    }
+
+    /**
+     * 连接被使用:移出回收队列及空闲队列
+     */
+    private void acquired(RealConnection connection) {
+        if (evictionQueue.remove(connection) && !connection.isMultiplexed()) {
+            Deque<RealConnection> idle = idleConnections.get(connection.route().address());
+            if (null != idle) {
+                idle.remove(connection);
+                if (idle.isEmpty()) {
+                    idleConnections.remove(connection.route().address());
+                }
             }
         }
+    }
 
-        IoKit.close(longestIdleConnection.socket());
-        // 立即清理.
-        return 0;
+    /**
+     * 从所有索引中移除连接
+     */
+    private void remove(RealConnection connection) {
+        if (!connections.remove(connection)) {
+            return;
+        }
+        Address address = connection.route().address();
+        acquired(connection);
+        if (connection.isMultiplexed()) {
+            List<RealConnection> list = multiplexedConnections.get(address);
+            if (null != list && list.remove(connection) && list.isEmpty()) {
+                multiplexedConnections.remove(address);
+            }
+            InetSocketAddress socketAddress = connection.route().socketAddress();
+            list = coalescedConnections.get(socketAddress);
+            if (null != list && list.remove(connection) && list.isEmpty()) {
+                coalescedConnections.remove(socketAddress);
+            }
+        }
     }
 
     /**
@@ -273,10 +435,9 @@ public final class ConnectionPool {
      * 泄漏检测是不精确的，并且依赖于垃圾收集
      *
      * @param connection 连接信息
-     * @param now        时间
      * @return 可分配的数量
      */
-    private int pruneAndGetAllocationCount(RealConnection connection, long now) {
+    private int pruneAndGetAllocationCount(RealConnection connection) {
         List<Reference<StreamAllocation>> references = connection.allocations;
         for (int i = 0; i < references.size(); ) {
             Reference<StreamAllocation> reference = references.get(i);
@@ -295,12 +456,6 @@ public final class ConnectionPool {
 
             references.remove(i);
             connection.noNewStreams = true;
-
-            // 如果这是最后一次分配，则该连接可以立即被收回.
-            if (references.isEmpty()) {
-                connection.idleAtNanos = now - keepAliveDurationNs;
-                return 0;
-            }
         }
         return references.size();
     }
@@ -51,6 +51,10 @@ import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 缓存HTTP和HTTPS对文件系统的响应，以便可以重用它们，从而节省时间和带宽.
@@ -65,12 +69,30 @@ public final class Cache implements Closeable, Flushable {
     private static final int ENTRY_METADATA = 0;
     private static final int ENTRY_BODY = 1;
     private static final int ENTRY_COUNT = 2;
-    final DiskLruCache cache;
-    int writeSuccessCount;
-    int writeAbortCount;
-    private int networkCount;
-    private int hitCount;
-    private int requestCount;
+    /**
+     * 合并请求时等待先行请求写入缓存的最长时间
+     */
+    private static final long COALESCE_TIMEOUT_MILLIS = 10_000L;
+    /**
+     * 记录的不可缓存URL数量达到此值时清理过期记录
+     */
+    private static final int MAX_BYPASS = 1024;
+    final File directory;
+    final DiskLruCache[] shards;
+    final MemoryCache memory;
+    final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    /**
+     * 最近响应不可缓存的URL及其失效时间,期间的未命中不再合并
+     */
+    final Map<String, Long> bypass = new ConcurrentHashMap<>();
+    final AtomicInteger writeSuccessCount = new AtomicInteger();
+    final AtomicInteger writeAbortCount = new AtomicInteger();
+    private final AtomicInteger networkCount = new AtomicInteger();
+    private final AtomicInteger hitCount = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger conditionalHitCount = new AtomicInteger();
+    private final AtomicInteger memoryHitCount = new AtomicInteger();
+    private final AtomicInteger coalescedCount = new AtomicInteger();
     public final InternalCache internalCache = new InternalCache() {
 
         @Override
@@ -102,6 +124,16 @@ public final class Cache implements Closeable, Flushable {
         public void trackResponse(CacheStrategy cacheStrategy) {
             Cache.this.trackResponse(cacheStrategy);
         }
+
+        @Override
+        public Response join(Request request) {
+            return Cache.this.join(request);
+        }
+
+        @Override
+        public void release(Request request, boolean cacheable) {
+            Cache.this.release(request, cacheable);
+        }
     };
 
     /**
@@ -111,11 +143,46 @@ public final class Cache implements Closeable, Flushable {
      * @param maxSize   缓存的最大大小(以字节为单位)
      */
     public Cache(File directory, long maxSize) {
-        this(directory, maxSize, FileSystem.SYSTEM);
+        this(directory, maxSize, 1, 0);
+    }
+
+    /**
+     * 在{@code directory}中创建最多{@code maxSize}字节的分片缓存
+     * 磁盘缓存按key的哈希分为{@code shards}个相互独立的{@link DiskLruCache},
+     * 不同分片的读写互不竞争;{@code memorySize}大于0时,较小的热点响应同时保存在内存中
+     *
+     * @param directory  目录
+     * @param maxSize    磁盘缓存的最大大小(以字节为单位),由各分片平分
+     * @param shards     分片数量,为1时与{@link #Cache(File, long)}的目录结构相同
+     * @param memorySize 内存缓存的最大大小(以字节为单位),0表示不启用
+     */
+    public Cache(File directory, long maxSize, int shards, long memorySize) {
+        this(directory, maxSize, shards, memorySize, FileSystem.SYSTEM);
     }
 
     Cache(File directory, long maxSize, FileSystem fileSystem) {
-        this.cache = DiskLruCache.create(fileSystem, directory, VERSION, ENTRY_COUNT, maxSize);
+        this(directory, maxSize, 1, 0, fileSystem);
+    }
+
+    Cache(File directory, long maxSize, int shards, long memorySize, FileSystem fileSystem) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards <= 0");
+        }
+        if (memorySize < 0) {
+            throw new IllegalArgumentException("memorySize < 0");
+        }
+        this.directory = directory;
+        this.shards = new DiskLruCache[shards];
+        if (shards == 1) {
+            this.shards[0] = DiskLruCache.create(fileSystem, directory, VERSION, ENTRY_COUNT, maxSize);
+        } else {
+            long shardSize = Math.max(1L, maxSize / shards);
+            for (int i = 0; i < shards; i++) {
+                this.shards[i] = DiskLruCache.create(fileSystem, new File(directory, Integer.toString(i)),
+                        VERSION, ENTRY_COUNT, shardSize);
+            }
+        }
+        this.memory = memorySize > 0 ? new MemoryCache(memorySize) : null;
     }
 
     public static String key(UnoUrl url) {
@@ -135,12 +202,29 @@ public final class Cache implements Closeable, Flushable {
         }
     }
 
+    DiskLruCache shard(String key) {
+        return shards.length == 1 ? shards[0] : shards[(key.hashCode() & Integer.MAX_VALUE) % shards.length];
+    }
+
     Response get(Request request) {
         String key = key(request.url());
+        if (null != memory) {
+            MemoryEntry cached = memory.get(key);
+            if (null != cached) {
+                Response response = cached.entry.response(cached.body);
+                if (!cached.entry.matches(request, response)) {
+                    return null;
+                }
+                memoryHitCount.incrementAndGet();
+                return response;
+            }
+        }
+
+        long version = null != memory ? memory.version() : 0;
         DiskLruCache.Snapshot snapshot;
         Entry entry;
         try {
-            snapshot = cache.get(key);
+            snapshot = shard(key).get(key);
             if (null == snapshot) {
                 return null;
             }
@@ -156,7 +240,22 @@ public final class Cache implements Closeable, Flushable {
             return null;
         }
 
-        Response response = entry.response(snapshot);
+        Response response;
+        if (null != memory && snapshot.getLength(ENTRY_BODY) <= memory.entrySize) {
+            // 较小的响应读入内存，后续命中不再访问磁盘
+            byte[] body;
+            try {
+                body = IoKit.buffer(snapshot.getSource(ENTRY_BODY)).readByteArray();
+            } catch (IOException e) {
+                return null;
+            } finally {
+                snapshot.close();
+            }
+            memory.put(key, new MemoryEntry(entry, body), version);
+            response = entry.response(body);
+        } else {
+            response = entry.response(snapshot);
+        }
 
         if (!entry.matches(request, response)) {
             IoKit.close(response.body());
@@ -188,14 +287,16 @@ public final class Cache implements Closeable, Flushable {
         }
 
         Entry entry = new Entry(response);
+        String key = key(response.request().url());
         DiskLruCache.Editor editor = null;
         try {
-            editor = cache.edit(key(response.request().url()));
+            editor = shard(key).edit(key);
             if (null == editor) {
                 return null;
             }
+            invalidate(key);
             entry.writeTo(editor);
-            return new CacheRequestImpl(editor);
+            return new CacheRequestImpl(key, editor);
         } catch (IOException e) {
             abortQuietly(editor);
             return null;
@@ -203,14 +304,27 @@ public final class Cache implements Closeable, Flushable {
     }
 
     void remove(Request request) throws IOException {
-        cache.remove(key(request.url()));
+        String key = key(request.url());
+        invalidate(key);
+        shard(key).remove(key);
     }
 
     void update(Response cached, Response network) {
         Entry entry = new Entry(network);
-        DiskLruCache.Snapshot snapshot = ((CacheResponseBody) cached.body()).snapshot;
+        String key = key(cached.request().url());
+        DiskLruCache.Snapshot snapshot = null;
         DiskLruCache.Editor editor = null;
         try {
+            if (cached.body() instanceof CacheResponseBody) {
+                snapshot = ((CacheResponseBody) cached.body()).snapshot;
+            } else {
+                // 响应来自内存，按key重新定位磁盘条目
+                snapshot = shard(key).get(key);
+                if (null == snapshot) {
+                    return;
+                }
+                snapshot.close();
+            }
             // 如果快照不是当前的，则返回null
             editor = snapshot.edit();
             if (null != editor) {
@@ -219,6 +333,81 @@ public final class Cache implements Closeable, Flushable {
             }
         } catch (IOException e) {
             abortQuietly(editor);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    /**
+     * 同一URL并发未命中时只允许一个请求访问网络,其余请求等待其写入缓存后读取
+     * 先行请求超过期限仍未完成时,由等待的请求移除并接替,不再等待该请求
+     *
+     * @param request 请求
+     * @return 先行请求写入的缓存响应;返回null时当前请求需访问网络
+     */
+    Response join(Request request) {
+        if (!Http.GET.equals(request.method())) {
+            return null;
+        }
+        String key = key(request.url());
+        Long until = bypass.get(key);
+        if (null != until) {
+            if (System.nanoTime() - until < 0) {
+                return null;
+            }
+            bypass.remove(key, until);
+        }
+        while (true) {
+            Flight leader = flights.putIfAbsent(key, new Flight(request));
+            if (null == leader) {
+                return null;
+            }
+            long remaining = leader.deadline - System.nanoTime();
+            try {
+                if (remaining <= 0 || !leader.latch.await(remaining, TimeUnit.NANOSECONDS)) {
+                    // 先行请求的响应体可能被泄漏或读取过慢,移除后重新竞争
+                    flights.remove(key, leader);
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Response response = get(request);
+            if (null != response) {
+                coalescedCount.incrementAndGet();
+            }
+            return response;
+        }
+    }
+
+    /**
+     * 先行请求完成(写入缓存、放弃或失败)后唤醒等待的请求
+     *
+     * @param request   请求
+     * @param cacheable 响应是否可缓存,不可缓存时一段时间内该URL的未命中不再合并
+     */
+    void release(Request request, boolean cacheable) {
+        if (!Http.GET.equals(request.method())) {
+            return;
+        }
+        String key = key(request.url());
+        if (!cacheable) {
+            long now = System.nanoTime();
+            if (bypass.size() >= MAX_BYPASS) {
+                bypass.values().removeIf(until -> now - until >= 0);
+            }
+            bypass.put(key, now + TimeUnit.MILLISECONDS.toNanos(COALESCE_TIMEOUT_MILLIS));
+        }
+        Flight flight = flights.get(key);
+        if (null != flight && flight.request == request && flights.remove(key, flight)) {
+            flight.latch.countDown();
+        }
+    }
+
+    private void invalidate(String key) {
+        if (null != memory) {
+            memory.remove(key);
         }
     }
 
@@ -239,7 +428,9 @@ public final class Cache implements Closeable, Flushable {
      * @throws IOException 初始化异常
      */
     public void initialize() throws IOException {
-        cache.initialize();
+        for (DiskLruCache shard : shards) {
+            shard.initialize();
+        }
     }
 
     /**
@@ -248,7 +439,12 @@ public final class Cache implements Closeable, Flushable {
      * @throws IOException 删除异常
      */
     public void delete() throws IOException {
-        cache.delete();
+        if (null != memory) {
+            memory.clear();
+        }
+        for (DiskLruCache shard : shards) {
+            shard.delete();
+        }
     }
 
     /**
@@ -257,7 +453,12 @@ public final class Cache implements Closeable, Flushable {
      * @throws IOException 清除异常
      */
     public void evictAll() throws IOException {
-        cache.evictAll();
+        if (null != memory) {
+            memory.clear();
+        }
+        for (DiskLruCache shard : shards) {
+            shard.evictAll();
+        }
     }
 
 
@@ -270,9 +471,10 @@ public final class Cache implements Closeable, Flushable {
      */
     public Iterator<String> urls() throws IOException {
         return new Iterator<String>() {
-            final Iterator<DiskLruCache.Snapshot> delegate = cache.snapshots();
+            final Iterator<DiskLruCache.Snapshot> delegate = snapshots();
 
             String nextUrl;
+            String nextKey;
             boolean canRemove;
 
             @Override
@@ -287,6 +489,7 @@ public final class Cache implements Closeable, Flushable {
                     try {
                         BufferSource metadata = IoKit.buffer(snapshot.getSource(ENTRY_METADATA));
                         nextUrl = metadata.readUtf8LineStrict();
+                        nextKey = snapshot.key();
                         return true;
                     } catch (IOException ignored) {
                         // 无法读取此快照的元数据;可能是因为主机文件系统已经消失了!跳过它
@@ -310,71 +513,175 @@ public final class Cache implements Closeable, Flushable {
             @Override
             public void remove() {
                 if (!canRemove) throw new IllegalStateException("remove() before next()");
+                invalidate(nextKey);
                 delegate.remove();
             }
         };
     }
 
-    public synchronized int writeAbortCount() {
-        return writeAbortCount;
+    private Iterator<DiskLruCache.Snapshot> snapshots() throws IOException {
+        if (shards.length == 1) {
+            return shards[0].snapshots();
+        }
+        final List<Iterator<DiskLruCache.Snapshot>> iterators = new ArrayList<>(shards.length);
+        for (DiskLruCache shard : shards) {
+            iterators.add(shard.snapshots());
+        }
+        return new Iterator<DiskLruCache.Snapshot>() {
+            int index;
+            Iterator<DiskLruCache.Snapshot> last;
+
+            @Override
+            public boolean hasNext() {
+                while (index < iterators.size()) {
+                    if (iterators.get(index).hasNext()) {
+                        return true;
+                    }
+                    index++;
+                }
+                return false;
+            }
+
+            @Override
+            public DiskLruCache.Snapshot next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                last = iterators.get(index);
+                return last.next();
+            }
+
+            @Override
+            public void remove() {
+                if (null == last) throw new IllegalStateException("remove() before next()");
+                last.remove();
+            }
+        };
+    }
+
+    public int writeAbortCount() {
+        return writeAbortCount.get();
     }
 
-    public synchronized int writeSuccessCount() {
-        return writeSuccessCount;
+    public int writeSuccessCount() {
+        return writeSuccessCount.get();
     }
 
     public long size() throws IOException {
-        return cache.size();
+        long size = 0;
+        for (DiskLruCache shard : shards) {
+            size += shard.size();
+        }
+        return size;
     }
 
     public long maxSize() {
-        return cache.getMaxSize();
+        long maxSize = 0;
+        for (DiskLruCache shard : shards) {
+            maxSize += shard.getMaxSize();
+        }
+        return maxSize;
+    }
+
+    /**
+     * 内存中缓存的响应大小(以字节为单位)
+     *
+     * @return 大小, 未启用内存缓存时为0
+     */
+    public long memorySize() {
+        return null != memory ? memory.size() : 0;
+    }
+
+    public int shardCount() {
+        return shards.length;
     }
 
     @Override
     public void flush() throws IOException {
-        cache.flush();
+        for (DiskLruCache shard : shards) {
+            shard.flush();
+        }
     }
 
     @Override
     public void close() throws IOException {
-        cache.close();
+        if (null != memory) {
+            memory.clear();
+        }
+        for (DiskLruCache shard : shards) {
+            shard.close();
+        }
     }
 
     public File directory() {
-        return cache.getDirectory();
+        return directory;
     }
 
     public boolean isClosed() {
-        return cache.isClosed();
+        return shards[0].isClosed();
     }
 
-    synchronized void trackResponse(CacheStrategy cacheStrategy) {
-        requestCount++;
+    void trackResponse(CacheStrategy cacheStrategy) {
+        requestCount.incrementAndGet();
 
         if (null != cacheStrategy.networkRequest) {
             // 如果这是一个条件请求，我们将增加hitCount如果/当它命中。
-            networkCount++;
+            networkCount.incrementAndGet();
         } else if (null != cacheStrategy.cacheResponse) {
             // 此响应使用缓存而不是网络。这就是缓存命中
-            hitCount++;
+            hitCount.incrementAndGet();
         }
     }
 
-    synchronized void trackConditionalCacheHit() {
-        hitCount++;
+    void trackConditionalCacheHit() {
+        conditionalHitCount.incrementAndGet();
+        hitCount.incrementAndGet();
+    }
+
+    public int networkCount() {
+        return networkCount.get();
+    }
+
+    public int hitCount() {
+        return hitCount.get();
+    }
+
+    public int requestCount() {
+        return requestCount.get();
     }
 
-    public synchronized int networkCount() {
-        return networkCount;
+    /**
+     * 访问网络且未能使用缓存的请求数量
+     *
+     * @return 数量
+     */
+    public int missCount() {
+        return networkCount.get() - conditionalHitCount.get();
     }
 
-    public synchronized int hitCount() {
-        return hitCount;
+    /**
+     * 条件请求返回304并使用缓存的数量
+     *
+     * @return 数量
+     */
+    public int conditionalHitCount() {
+        return conditionalHitCount.get();
     }
 
-    public synchronized int requestCount() {
-        return requestCount;
+    /**
+     * 直接由内存缓存返回的数量
+     *
+     * @return 数量
+     */
+    public int memoryHitCount() {
+        return memoryHitCount.get();
+    }
+
+    /**
+     * 等待同一URL先行请求并读取其缓存的数量
+     *
+     * @return 数量
+     */
+    public int coalescedCount() {
+        return coalescedCount.get();
     }
 
     private static final class Entry {
@@ -616,6 +923,26 @@ public final class Cache implements Closeable, Flushable {
                     .receivedResponseAtMillis(receivedResponseMillis)
                     .build();
         }
+
+        public Response response(byte[] body) {
+            String contentType = responseHeaders.get(Header.CONTENT_TYPE);
+            Request cacheRequest = new Request.Builder()
+                    .url(url)
+                    .method(requestMethod, null)
+                    .headers(varyHeaders)
+                    .build();
+            return new Response.Builder()
+                    .request(cacheRequest)
+                    .protocol(protocol)
+                    .code(code)
+                    .message(message)
+                    .headers(responseHeaders)
+                    .body(ResponseBody.create(null != contentType ? MediaType.valueOf(contentType) : null, body))
+                    .handshake(handshake)
+                    .sentRequestAtMillis(sentRequestMillis)
+                    .receivedResponseAtMillis(receivedResponseMillis)
+                    .build();
+        }
     }
 
     private static class CacheResponseBody extends ResponseBody {
@@ -660,40 +987,142 @@ public final class Cache implements Closeable, Flushable {
         }
     }
 
+    /**
+     * 内存中的缓存条目
+     */
+    private static final class MemoryEntry {
+        final Entry entry;
+        final byte[] body;
+
+        MemoryEntry(Entry entry, byte[] body) {
+            this.entry = entry;
+            this.body = body;
+        }
+    }
+
+    /**
+     * 按字节数限制大小的内存LRU缓存
+     * 每次失效都会递增版本号并记录在该键上,读取磁盘前记录版本号,该键在读取期间失效时不回填,避免写入旧数据
+     */
+    private static final class MemoryCache {
+        /**
+         * 最多记录的失效键数量,超出时清空记录并拒绝此前开始的所有回填
+         */
+        private static final int MAX_INVALIDATED = 4096;
+        final long maxSize;
+        final long entrySize;
+        private final LinkedHashMap<String, MemoryEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<String, Long> invalidated = new HashMap<>();
+        private volatile long version;
+        private long floor;
+        private long size;
+
+        MemoryCache(long maxSize) {
+            this.maxSize = maxSize;
+            this.entrySize = Math.max(1L, maxSize / 8);
+        }
+
+        long version() {
+            return version;
+        }
+
+        synchronized long size() {
+            return size;
+        }
+
+        synchronized MemoryEntry get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, MemoryEntry entry, long expectedVersion) {
+            Long at = invalidated.get(key);
+            if (expectedVersion < floor || (null != at && at > expectedVersion)) {
+                return;
+            }
+            MemoryEntry previous = entries.put(key, entry);
+            if (null != previous) {
+                size -= previous.body.length;
+            }
+            size += entry.body.length;
+            Iterator<MemoryEntry> iterator = entries.values().iterator();
+            while (size > maxSize && iterator.hasNext()) {
+                size -= iterator.next().body.length;
+                iterator.remove();
+            }
+        }
+
+        synchronized void remove(String key) {
+            version++;
+            invalidated.put(key, version);
+            if (invalidated.size() > MAX_INVALIDATED) {
+                invalidated.clear();
+                floor = version;
+            }
+            MemoryEntry previous = entries.remove(key);
+            if (null != previous) {
+                size -= previous.body.length;
+            }
+        }
+
+        synchronized void clear() {
+            version++;
+            invalidated.clear();
+            floor = version;
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * 正在访问网络的先行请求
+     */
+    private static final class Flight {
+        final Request request;
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COALESCE_TIMEOUT_MILLIS);
+
+        Flight(Request request) {
+            this.request = request;
+        }
+    }
+
     private final class CacheRequestImpl implements CacheRequest {
+        private final String key;
         private final DiskLruCache.Editor editor;
         boolean done;
         private Sink cacheOut;
         private Sink body;
 
-        CacheRequestImpl(final DiskLruCache.Editor editor) {
+        CacheRequestImpl(final String key, final DiskLruCache.Editor editor) {
+            this.key = key;
             this.editor = editor;
             this.cacheOut = editor.newSink(ENTRY_BODY);
             this.body = new DelegateSink(cacheOut) {
                 @Override
                 public void close() throws IOException {
-                    synchronized (Cache.this) {
+                    synchronized (CacheRequestImpl.this) {
                         if (done) {
                             return;
                         }
                         done = true;
-                        writeSuccessCount++;
                     }
+                    writeSuccessCount.incrementAndGet();
                     super.close();
                     editor.commit();
+                    invalidate(key);
                 }
             };
         }
 
         @Override
         public void abort() {
-            synchronized (Cache.this) {
+            synchronized (this) {
                 if (done) {
                     return;
                 }
                 done = true;
-                writeAbortCount++;
             }
+            writeAbortCount.incrementAndGet();
             IoKit.close(cacheOut);
             try {
                 editor.abort();
@@ -134,6 +134,16 @@ public final class CacheInterceptor implements Interceptor {
         long now = System.currentTimeMillis();
 
         CacheStrategy strategy = new CacheStrategy.Factory(now, chain.request(), cacheCandidate).get();
+
+        if (null != cache && null == cacheCandidate && null != strategy.networkRequest) {
+            // 同一URL的并发未命中只由一个请求访问网络，其余请求等待其写入缓存
+            Response shared = cache.join(chain.request());
+            if (null != shared) {
+                cacheCandidate = shared;
+                strategy = new CacheStrategy.Factory(now, chain.request(), cacheCandidate).get();
+            }
+        }
+
         Request networkRequest = strategy.networkRequest;
         Response cacheResponse = strategy.cacheResponse;
 
@@ -166,60 +176,72 @@ public final class CacheInterceptor implements Interceptor {
                     .build();
         }
 
-        Response networkResponse = null;
+        // 未交给缓存写入流程时，立即唤醒等待同一URL的请求
+        boolean writing = false;
+        boolean cacheable = true;
         try {
-            networkResponse = chain.proceed(networkRequest);
-        } finally {
-            // 如果我们在I/O或其他方面崩溃，不要泄漏缓存体
-            if (null == networkResponse && null != cacheCandidate) {
-                IoKit.close(cacheCandidate.body());
+            Response networkResponse = null;
+            try {
+                networkResponse = chain.proceed(networkRequest);
+            } finally {
+                // 如果我们在I/O或其他方面崩溃，不要泄漏缓存体
+                if (null == networkResponse && null != cacheCandidate) {
+                    IoKit.close(cacheCandidate.body());
+                }
             }
-        }
 
-        // 如果我们也有缓存响应，那么在做一个条件get
-        if (null != cacheResponse) {
-            if (networkResponse.code() == Http.HTTP_NOT_MODIFIED) {
-                Response response = cacheResponse.newBuilder()
-                        .headers(combine(cacheResponse.headers(), networkResponse.headers()))
-                        .sentRequestAtMillis(networkResponse.sentRequestAtMillis())
-                        .receivedResponseAtMillis(networkResponse.receivedResponseAtMillis())
-                        .cacheResponse(stripBody(cacheResponse))
-                        .networkResponse(stripBody(networkResponse))
-                        .build();
-                networkResponse.body().close();
-
-                // 在合并报头之后但在剥离内容编码报头之前更新缓存(由initContentStream()执行)
-                cache.trackConditionalCacheHit();
-                cache.update(cacheResponse, response);
-                return response;
-            } else {
-                IoKit.close(cacheResponse.body());
+            // 如果我们也有缓存响应，那么在做一个条件get
+            if (null != cacheResponse) {
+                if (networkResponse.code() == Http.HTTP_NOT_MODIFIED) {
+                    Response response = cacheResponse.newBuilder()
+                            .headers(combine(cacheResponse.headers(), networkResponse.headers()))
+                            .sentRequestAtMillis(networkResponse.sentRequestAtMillis())
+                            .receivedResponseAtMillis(networkResponse.receivedResponseAtMillis())
+                            .cacheResponse(stripBody(cacheResponse))
+                            .networkResponse(stripBody(networkResponse))
+                            .build();
+                    networkResponse.body().close();
+
+                    // 在合并报头之后但在剥离内容编码报头之前更新缓存(由initContentStream()执行)
+                    cache.trackConditionalCacheHit();
+                    cache.update(cacheResponse, response);
+                    return response;
+                } else {
+                    IoKit.close(cacheResponse.body());
+                }
             }
-        }
 
-        Response response = networkResponse.newBuilder()
-                .cacheResponse(stripBody(cacheResponse))
-                .networkResponse(stripBody(networkResponse))
-                .build();
+            Response response = networkResponse.newBuilder()
+                    .cacheResponse(stripBody(cacheResponse))
+                    .networkResponse(stripBody(networkResponse))
+                    .build();
 
-        if (null != cache) {
-            if (HttpHeaders.hasBody(response) && CacheStrategy.isCacheable(response, networkRequest)) {
-                // 将此请求提供给缓存
-                CacheRequest cacheRequest = cache.put(response);
-                return cacheWritingResponse(cacheRequest, response);
+            if (null != cache) {
+                if (HttpHeaders.hasBody(response) && CacheStrategy.isCacheable(response, networkRequest)) {
+                    // 将此请求提供给缓存
+                    CacheRequest cacheRequest = cache.put(response);
+                    Response writingResponse = cacheWritingResponse(cacheRequest, response, chain.request());
+                    writing = writingResponse != response;
+                    return writingResponse;
+                }
+                cacheable = false;
+
+                if (HttpMethod.invalidatesCache(networkRequest.method())) {
+                    try {
+                        cache.remove(networkRequest);
+                    } catch (IOException ignored) {
+                        // 无法写入缓存
+                        Logger.error(ignored);
+                    }
+                }
             }
 
-            if (HttpMethod.invalidatesCache(networkRequest.method())) {
-                try {
-                    cache.remove(networkRequest);
-                } catch (IOException ignored) {
-                    // 无法写入缓存
-                    Logger.error(ignored);
-                }
+            return response;
+        } finally {
+            if (!writing && null != cache) {
+                cache.release(chain.request(), cacheable);
             }
         }
-
-        return response;
     }
 
     /**
@@ -228,11 +250,12 @@ public final class CacheInterceptor implements Interceptor {
      *
      * @param cacheRequest 缓存请求
      * @param response     相应信息
+     * @param request      原始请求，缓存写入结束后用于唤醒等待的请求
      * @return 相应体
      * @throws IOException 异常
      */
-    private Response cacheWritingResponse(final CacheRequest cacheRequest, Response response)
-            throws IOException {
+    private Response cacheWritingResponse(final CacheRequest cacheRequest, Response response,
+                                          final Request request) throws IOException {
         // 一些应用程序返回一个空体;为了兼容性，我们将其视为空缓存请求
         if (null == cacheRequest) {
             return response;
@@ -258,6 +281,7 @@ public final class CacheInterceptor implements Interceptor {
                         cacheRequestClosed = true;
                         // 未能写入完整的缓存响应
                         cacheRequest.abort();
+                        cache.release(request, true);
                     }
                     throw e;
                 }
@@ -266,7 +290,11 @@ public final class CacheInterceptor implements Interceptor {
                     if (!cacheRequestClosed) {
                         cacheRequestClosed = true;
                         // 缓存响应完成
-                        cacheBody.close();
+                        try {
+                            cacheBody.close();
+                        } finally {
+                            cache.release(request, true);
+                        }
                     }
                     return -1;
                 }
@@ -287,6 +315,7 @@ public final class CacheInterceptor implements Interceptor {
                         && !Builder.discard(this, HttpCodec.DISCARD_STREAM_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
                     cacheRequestClosed = true;
                     cacheRequest.abort();
+                    cache.release(request, true);
                 }
                 source.close();
             }
@@ -73,4 +73,25 @@ public interface InternalCache {
      */
     void trackResponse(CacheStrategy cacheStrategy);
 
+    /**
+     * 合并同一请求的并发未命中:没有进行中的同类请求时登记当前请求并返回null,
+     * 否则等待进行中的请求完成并返回其写入的缓存响应
+     *
+     * @param request 请求
+     * @return 缓存响应,返回null时需访问网络
+     */
+    default Response join(Request request) {
+        return null;
+    }
+
+    /**
+     * 当前请求访问网络并完成缓存写入(或放弃)后,唤醒等待的同类请求
+     *
+     * @param request   请求
+     * @param cacheable 响应是否可缓存
+     */
+    default void release(Request request, boolean cacheable) {
+
+    }
+
 }
@@ -0,0 +1,406 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.metric;
+
+import org.aoju.bus.core.thread.NamedThreadFactory;
+import org.aoju.bus.http.DnsX;
+import org.aoju.bus.logger.Logger;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带缓存的DNS实现,包装任意{@link DnsX}
+ * <p>
+ * 1. 缓存有效期优先使用应答中的TTL({@link DnsOverHttps}),否则使用默认TTL
+ * 2. 同一主机的并发解析只会触发一次上游查询
+ * 3. 热点主机在过期前由后台线程异步刷新,调用方不会感知解析延迟
+ * 4. 上游解析失败时在宽限期内返回过期结果(stale-if-error)
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class CachingDns implements DnsX {
+
+    private final DnsX delegate;
+    private final long ttl;
+    private final long minTtl;
+    private final long maxTtl;
+    private final long staleTtl;
+    private final double refreshAhead;
+    private final int refreshHits;
+    private final int maxSize;
+    private final Executor executor;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong staleCount = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    CachingDns(Builder builder) {
+        if (null == builder.dns) {
+            throw new NullPointerException("dns not set");
+        }
+        this.delegate = builder.dns;
+        this.ttl = builder.ttl;
+        this.minTtl = builder.minTtl;
+        this.maxTtl = builder.maxTtl;
+        this.staleTtl = builder.staleTtl;
+        this.refreshAhead = builder.refreshAhead;
+        this.refreshHits = builder.refreshHits;
+        this.maxSize = builder.maxSize;
+        this.executor = null != builder.executor ? builder.executor
+                : Executors.newCachedThreadPool(new NamedThreadFactory("dns-refresh-", true));
+    }
+
+    /**
+     * 使用默认参数包装DNS
+     *
+     * @param dns 上游DNS
+     * @return 带缓存的DNS
+     */
+    public static CachingDns of(DnsX dns) {
+        return new Builder().dns(dns).build();
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        if (null == hostname) {
+            throw new UnknownHostException("hostname == null");
+        }
+        long now = System.nanoTime();
+        Entry entry = entries.get(hostname);
+
+        if (null != entry && now - entry.expiresAt < 0) {
+            hitCount.incrementAndGet();
+            int hits = entry.hits.incrementAndGet();
+            if (hits >= refreshHits
+                    && now - entry.refreshAt >= 0
+                    && entry.refreshing.compareAndSet(false, true)) {
+                refresh(hostname, entry);
+            }
+            return entry.addresses;
+        }
+
+        missCount.incrementAndGet();
+        try {
+            return load(hostname).addresses;
+        } catch (UnknownHostException e) {
+            if (null != entry && now - entry.staleAt < 0) {
+                staleCount.incrementAndGet();
+                return entry.addresses;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 移除指定主机的缓存
+     *
+     * @param hostname 主机名
+     */
+    public void evict(String hostname) {
+        entries.remove(hostname);
+    }
+
+    public DnsX delegate() {
+        return delegate;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+    public long missCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 上游失败时返回过期结果的次数
+     *
+     * @return 次数
+     */
+    public long staleCount() {
+        return staleCount.get();
+    }
+
+    /**
+     * 后台异步刷新的次数
+     *
+     * @return 次数
+     */
+    public long refreshCount() {
+        return refreshCount.get();
+    }
+
+    /**
+     * 因合并并发请求而未发起上游查询的次数
+     *
+     * @return 次数
+     */
+    public long coalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public double hitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    private void refresh(String hostname, Entry entry) {
+        try {
+            executor.execute(() -> {
+                try {
+                    load(hostname);
+                    refreshCount.incrementAndGet();
+                } catch (UnknownHostException e) {
+                    Logger.debug("Refresh dns failed: " + hostname, e);
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private Entry load(String hostname) throws UnknownHostException {
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = loading.putIfAbsent(hostname, future);
+        if (null != existing) {
+            coalescedCount.incrementAndGet();
+            return await(hostname, existing);
+        }
+
+        try {
+            Entry entry = resolve(hostname);
+            if (entries.size() >= maxSize && !entries.containsKey(hostname)) {
+                purge();
+            }
+            entries.put(hostname, entry);
+            future.complete(entry);
+            return entry;
+        } catch (UnknownHostException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(hostname, future);
+        }
+    }
+
+    private Entry resolve(String hostname) throws UnknownHostException {
+        long seconds = -1;
+        List<InetAddress> addresses;
+        if (delegate instanceof DnsOverHttps) {
+            long[] answer = new long[1];
+            addresses = ((DnsOverHttps) delegate).lookup(hostname, answer);
+            seconds = answer[0];
+        } else {
+            addresses = delegate.lookup(hostname);
+        }
+        if (null == addresses || addresses.isEmpty()) {
+            throw new UnknownHostException(hostname);
+        }
+
+        long millis = seconds < 0 ? ttl : Math.min(Math.max(TimeUnit.SECONDS.toMillis(seconds), minTtl), maxTtl);
+        long now = System.nanoTime();
+        long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        return new Entry(Collections.unmodifiableList(addresses),
+                now + (long) (nanos * refreshAhead),
+                now + nanos,
+                now + nanos + TimeUnit.MILLISECONDS.toNanos(staleTtl));
+    }
+
+    private void purge() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.staleAt >= 0);
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> now - entry.expiresAt >= 0 || entry.hits.get() < refreshHits);
+        }
+    }
+
+    private static Entry await(String hostname, CompletableFuture<Entry> future) throws UnknownHostException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            UnknownHostException exception = new UnknownHostException(hostname);
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UnknownHostException) {
+                throw (UnknownHostException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            UnknownHostException exception = new UnknownHostException(hostname);
+            exception.initCause(cause);
+            throw exception;
+        }
+    }
+
+    /**
+     * 缓存条目,时间均为{@link System#nanoTime()}
+     */
+    private static final class Entry {
+
+        final List<InetAddress> addresses;
+        final long refreshAt;
+        final long expiresAt;
+        final long staleAt;
+        final AtomicInteger hits = new AtomicInteger();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(List<InetAddress> addresses, long refreshAt, long expiresAt, long staleAt) {
+            this.addresses = addresses;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+            this.staleAt = staleAt;
+        }
+    }
+
+    public static final class Builder {
+
+        DnsX dns = DnsX.SYSTEM;
+        long ttl = TimeUnit.SECONDS.toMillis(60);
+        long minTtl = TimeUnit.SECONDS.toMillis(1);
+        long maxTtl = TimeUnit.HOURS.toMillis(1);
+        long staleTtl = TimeUnit.MINUTES.toMillis(5);
+        double refreshAhead = 0.8;
+        int refreshHits = 2;
+        int maxSize = 1024;
+        Executor executor;
+
+        public Builder() {
+        }
+
+        public CachingDns build() {
+            return new CachingDns(this);
+        }
+
+        public Builder dns(DnsX dns) {
+            this.dns = dns;
+            return this;
+        }
+
+        /**
+         * 上游未提供TTL时使用的缓存时长
+         *
+         * @param ttl  时长
+         * @param unit 单位
+         * @return this
+         */
+        public Builder ttl(long ttl, TimeUnit unit) {
+            this.ttl = unit.toMillis(ttl);
+            return this;
+        }
+
+        /**
+         * 应答TTL的上下限
+         *
+         * @param minTtl 下限
+         * @param maxTtl 上限
+         * @param unit   单位
+         * @return this
+         */
+        public Builder ttlBounds(long minTtl, long maxTtl, TimeUnit unit) {
+            if (minTtl > maxTtl) {
+                throw new IllegalArgumentException("minTtl > maxTtl");
+            }
+            this.minTtl = unit.toMillis(minTtl);
+            this.maxTtl = unit.toMillis(maxTtl);
+            return this;
+        }
+
+        /**
+         * 过期后上游失败时仍可返回旧结果的宽限期,0表示关闭
+         *
+         * @param staleTtl 时长
+         * @param unit     单位
+         * @return this
+         */
+        public Builder staleTtl(long staleTtl, TimeUnit unit) {
+            this.staleTtl = unit.toMillis(staleTtl);
+            return this;
+        }
+
+        /**
+         * 命中次数达到hits的主机,在TTL经过ratio比例后异步刷新
+         *
+         * @param ratio 比例(0,1],1表示关闭提前刷新
+         * @param hits  最少命中次数
+         * @return this
+         */
+        public Builder refreshAhead(double ratio, int hits) {
+            if (ratio <= 0 || ratio > 1) {
+                throw new IllegalArgumentException("ratio must be in (0, 1]: " + ratio);
+            }
+            this.refreshAhead = ratio;
+            this.refreshHits = hits;
+            return this;
+        }
+
+        public Builder maxSize(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize <= 0");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+    }
+
+}
@@ -126,6 +126,20 @@ public class DnsOverHttps implements DnsX {
 
     public static List<InetAddress> decodeAnswers(String hostname, ByteString byteString)
             throws Exception {
+        return decodeAnswers(hostname, byteString, null);
+    }
+
+    /**
+     * 解析DNS应答报文
+     *
+     * @param hostname   主机名
+     * @param byteString 应答报文
+     * @param ttl        非空时写入应答记录中最小的TTL(秒)
+     * @return 解析得到的地址
+     * @throws Exception 解析异常
+     */
+    public static List<InetAddress> decodeAnswers(String hostname, ByteString byteString, long[] ttl)
+            throws Exception {
         List<InetAddress> result = new ArrayList<>();
 
         Buffer buf = new Buffer();
@@ -161,12 +175,20 @@ public class DnsOverHttps implements DnsX {
 
             int type = buf.readShort() & 0xffff;
             buf.readShort();
+            final long seconds = buf.readInt() & 0xffffffffL;
             final int length = buf.readShort() & 0xffff;
 
             if (type == TYPE_A || type == TYPE_AAAA) {
                 byte[] bytes = new byte[length];
                 buf.read(bytes);
                 result.add(InetAddress.getByAddress(bytes));
+                if (null != ttl) {
+                    synchronized (ttl) {
+                        if (ttl[0] < 0 || seconds < ttl[0]) {
+                            ttl[0] = seconds;
+                        }
+                    }
+                }
             } else {
                 buf.skip(length);
             }
@@ -261,6 +283,21 @@ public class DnsOverHttps implements DnsX {
 
     @Override
     public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        return lookup(hostname, null);
+    }
+
+    /**
+     * 解析主机名,同时返回应答记录中的TTL
+     *
+     * @param hostname 主机名
+     * @param ttl      非空时写入应答记录中最小的TTL(秒),无记录时为-1
+     * @return 解析得到的地址
+     * @throws UnknownHostException 解析失败
+     */
+    public List<InetAddress> lookup(String hostname, long[] ttl) throws UnknownHostException {
+        if (null != ttl) {
+            ttl[0] = -1;
+        }
         if (!resolvePrivateAddresses || !resolvePublicAddresses) {
             boolean privateHost = isPrivateHost(hostname);
 
@@ -273,21 +310,21 @@ public class DnsOverHttps implements DnsX {
             }
         }
 
-        return lookupHttps(hostname);
+        return lookupHttps(hostname, ttl);
     }
 
-    private List<InetAddress> lookupHttps(String hostname) throws UnknownHostException {
+    private List<InetAddress> lookupHttps(String hostname, long[] ttl) throws UnknownHostException {
         List<NewCall> networkRequests = new ArrayList<>(2);
         List<Exception> failures = new ArrayList<>(2);
         List<InetAddress> results = new ArrayList<>(5);
 
-        buildRequest(hostname, networkRequests, results, failures, TYPE_A);
+        buildRequest(hostname, networkRequests, results, failures, ttl, TYPE_A);
 
         if (includeIPv6) {
-            buildRequest(hostname, networkRequests, results, failures, TYPE_AAAA);
+            buildRequest(hostname, networkRequests, results, failures, ttl, TYPE_AAAA);
         }
 
-        executeRequests(hostname, networkRequests, results, failures);
+        executeRequests(hostname, networkRequests, results, failures, ttl);
 
         if (!results.isEmpty()) {
             return results;
@@ -297,19 +334,20 @@ public class DnsOverHttps implements DnsX {
     }
 
     private void buildRequest(String hostname, List<NewCall> networkRequests, List<InetAddress> results,
-                              List<Exception> failures, int type) {
+                              List<Exception> failures, long[] ttl, int type) {
         Request request = buildRequest(hostname, type);
         Response response = getCacheOnlyResponse(request);
 
         if (null != response) {
-            processResponse(response, hostname, results, failures);
+            processResponse(response, hostname, results, failures, ttl);
         } else {
             networkRequests.add(client.newCall(request));
         }
     }
 
     private void executeRequests(final String hostname, List<NewCall> networkRequests,
-                                 final List<InetAddress> responses, final List<Exception> failures) {
+                                 final List<InetAddress> responses, final List<Exception> failures,
+                                 final long[] ttl) {
         final CountDownLatch latch = new CountDownLatch(networkRequests.size());
 
         for (NewCall call : networkRequests) {
@@ -324,7 +362,7 @@ public class DnsOverHttps implements DnsX {
 
                 @Override
                 public void onResponse(NewCall call, Response response) {
-                    processResponse(response, hostname, responses, failures);
+                    processResponse(response, hostname, responses, failures, ttl);
                     latch.countDown();
                 }
             });
@@ -338,9 +376,9 @@ public class DnsOverHttps implements DnsX {
     }
 
     private void processResponse(Response response, String hostname, List<InetAddress> results,
-                                 List<Exception> failures) {
+                                 List<Exception> failures, long[] ttl) {
         try {
-            List<InetAddress> addresses = readResponse(hostname, response);
+            List<InetAddress> addresses = readResponse(hostname, response, ttl);
             synchronized (results) {
                 results.addAll(addresses);
             }
@@ -390,7 +428,7 @@ public class DnsOverHttps implements DnsX {
         return null;
     }
 
-    private List<InetAddress> readResponse(String hostname, Response response) throws Exception {
+    private List<InetAddress> readResponse(String hostname, Response response, long[] ttl) throws Exception {
         if (null == response.cacheResponse() && response.protocol() != Protocol.HTTP_2) {
             Logger.debug("Incorrect protocol: " + response.protocol(), null);
         }
@@ -412,7 +450,7 @@ public class DnsOverHttps implements DnsX {
 
             ByteString responseBytes = body.source().readByteString();
 
-            return decodeAnswers(hostname, responseBytes);
+            return decodeAnswers(hostname, responseBytes, ttl);
         } finally {
             response.close();
         }
@@ -240,14 +240,14 @@ public class Args {
     }
 
     /**
-     * 配置TLS链接相关参数
+     * 配置TLS链接相关参数，未设置密码套件时不启用TLS
      *
      * @param conn   链接信息
      * @param remote 远程信息
      * @throws IOException 异常
      */
     public void configureTLS(Connection conn, Connection remote) throws IOException {
-        if (null != option) {
+        if (null != option && null != option.getCipherSuites() && option.getCipherSuites().length > 0) {
             conn.setTlsCipherSuites(option.getCipherSuites());
             conn.setTlsProtocols(option.getTlsProtocols());
             conn.setTlsNeedClientAuth(option.isTlsNeedClientAuth());
@@ -178,6 +178,10 @@ public class Centre {
         if (null != device) {
             device.unbindConnections();
         }
+        if (null != storeSCP && null != storeSCP.getPipeline()) {
+            // 等待已接收的实例写完并提交
+            storeSCP.getPipeline().close();
+        }
         Builder.shutdown(scheduledExecutor);
         Builder.shutdown(executor);
         executor = null;
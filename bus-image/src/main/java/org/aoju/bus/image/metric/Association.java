@@ -81,6 +81,10 @@ public class Association {
     private int maxPDULength;
     private int performing;
     private Timeout timeout;
+    /**
+     * 关联已关闭，由{@link #rspHandlerForMsgId}保护
+     */
+    private boolean closed;
 
     Association(ApplicationEntity ae, Connection local, Socket sock)
             throws IOException {
@@ -519,6 +523,7 @@ public class Association {
                     };
             rspHandlerForMsgId.accept(visitor);
             rspHandlerForMsgId.clear();
+            closed = true;
             rspHandlerForMsgId.notifyAll();
         }
         if (null != ae)
@@ -716,11 +721,16 @@ public class Association {
     }
 
     private void addDimseRSPHandler(DimseRSPHandler rspHandler)
-            throws InterruptedException {
+            throws InterruptedException, IOException {
         synchronized (rspHandlerForMsgId) {
             while (maxOpsInvoked > 0
                     && rspHandlerForMsgId.size() >= maxOpsInvoked)
                 rspHandlerForMsgId.wait();
+            // 等待期间关联已关闭时不再登记，否则waitForOutstandingRSP永远等不到响应
+            if (closed) {
+                checkException();
+                throw new IOException("Association closed: " + name);
+            }
             rspHandlerForMsgId.put(rspHandler.getMessageID(), rspHandler);
         }
     }
@@ -36,6 +36,7 @@ import java.net.URL;
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Executors;
 
 /**
  * @author Kimi Liu
@@ -167,7 +168,77 @@ public class CStore {
         }
     }
 
-    private static void configureRelatedSOPClass(StoreSCU storescu, URL url) {
+    /**
+     * 通过多个关联并行发送，关联数在1和最大关联数之间按吞吐量调整
+     *
+     * @param args         可选的高级参数(代理、身份验证、连接和TLS)
+     * @param callingNode  调用DICOM节点的配置
+     * @param calledNode   被调用的DICOM节点配置
+     * @param files        文件路径的列表
+     * @param progress     处理的进度
+     * @param associations 最大关联数
+     * @return Status实例，其中包含DICOM响应，DICOM状态，错误消息和进度信息
+     */
+    public static Status process(Args args,
+                                 Node callingNode,
+                                 Node calledNode,
+                                 List<String> files,
+                                 Progress progress,
+                                 int associations) {
+        if (null == callingNode || null == calledNode) {
+            throw new IllegalArgumentException("callingNode or calledNode cannot be null!");
+        }
+
+        Device device = new Device("storescu");
+        Connection conn = new Connection();
+        device.addConnection(conn);
+        ApplicationEntity ae = new ApplicationEntity(callingNode.getAet());
+        device.addApplicationEntity(ae);
+        ae.addConnection(conn);
+
+        Centre centre = new Centre(device);
+        try (ParallelStoreSCU storeSCU = new ParallelStoreSCU(ae, args, calledNode, progress)) {
+            args.configureBind(ae, conn, callingNode);
+            args.configure(conn);
+            args.configureTLS(conn, null);
+            storeSCU.setMaxAssociations(associations);
+
+            storeSCU.scanFiles(files);
+
+            Status dcmState = storeSCU.getState();
+
+            int n = storeSCU.getFilesScanned();
+            if (n == 0) {
+                return new Status(Status.UnableToProcess, "No DICOM file has been found!", null);
+            }
+            // 每个关联需要独立的读取线程
+            centre.executor = Executors.newCachedThreadPool();
+            centre.scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+            device.setExecutor(centre.executor);
+            device.setScheduledExecutor(centre.scheduledExecutor);
+            try {
+                long t1 = System.currentTimeMillis();
+                storeSCU.sendFiles();
+                long t2 = System.currentTimeMillis();
+                String timeMsg = MessageFormat.format(
+                        "DICOM C-STORE from {0} to {1} over {2} associations. Stored files in {3}ms. Total size {4}",
+                        callingNode.getAet(), calledNode.getAet(), storeSCU.getProgresses().size(),
+                        t2 - t1, Builder.humanReadableByte(storeSCU.getTotalSize(), false));
+                return Status.build(dcmState, timeMsg, null);
+            } catch (Exception e) {
+                Logger.error("storescu", e);
+                return Status.build(dcmState, null, e);
+            } finally {
+                centre.stop();
+            }
+        } catch (Exception e) {
+            Logger.error("storescu", e);
+            return new Status(Status.UnableToProcess,
+                    "DICOM Store failed : " + e.getMessage(), null);
+        }
+    }
+
+    static void configureRelatedSOPClass(StoreSCU storescu, URL url) {
         storescu.enableSOPClassRelationshipExtNeg(true);
         Properties p = new Properties();
         try {
@@ -0,0 +1,767 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.image.plugin;
+
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.core.toolkit.StringKit;
+import org.aoju.bus.image.*;
+import org.aoju.bus.image.galaxy.data.Attributes;
+import org.aoju.bus.image.galaxy.data.VR;
+import org.aoju.bus.image.metric.*;
+import org.aoju.bus.logger.Logger;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 多关联并行发送的StoreSCU
+ * <pre>
+ * 1. 扫描时按SOP类和传输语法分组，每组的文件信息写入各自的临时文件
+ * 2. 分组按表示上下文数量(最多128个)划分为多个计划，每个关联只协商所属计划的表示上下文
+ * 3. 每个关联按批次从计划中取文件，协商了异步操作窗口时可同时有多个C-STORE请求未响应
+ * 4. 按采样周期内的吞吐量调整关联数：吞吐量上升则沿当前方向继续调整，下降则反向
+ * 5. 每个关联有独立的{@link Progress}，总进度写入构造时传入的{@link Progress}
+ * 6. 关联中途断开时未发送或未收到响应的文件放回计划由其他关联重发，最多尝试{@value #MAX_ATTEMPTS}次，
+ *    仍未成功或无法发送的文件计为失败，此时最终状态为{@link org.aoju.bus.image.Status#OneOrMoreFailures}
+ * </pre>
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class ParallelStoreSCU implements AutoCloseable {
+
+    /**
+     * 一个关联最多的表示上下文数
+     */
+    private static final int MAX_PRESENTATION_CONTEXTS = 128;
+    /**
+     * 一个文件最多随关联断开而重发的次数
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ApplicationEntity ae;
+    private final Args args;
+    private final Node calledNode;
+    private final Status state;
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+    private final List<Progress> progresses = new CopyOnWriteArrayList<>();
+    private final List<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong totalSize = new AtomicLong();
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final Object lock = new Object();
+    private List<Plan> plans = Collections.emptyList();
+    private int filesScanned;
+    private int maxAssociations = 4;
+    private int batchSize = 64;
+    private boolean adaptive = true;
+    private long sampleInterval = 2000L;
+    private File tmpDir;
+    /**
+     * 目标关联数和正在运行的关联数，由{@link #lock}保护
+     */
+    private int target;
+    private int running;
+    private boolean failed;
+
+    /**
+     * @param ae         本地AE，需已配置连接
+     * @param args       参数，用于配置每个关联的请求和远程连接
+     * @param calledNode 被叫节点
+     * @param progress   总进度，可以为{@code null}
+     */
+    public ParallelStoreSCU(ApplicationEntity ae, Args args, Node calledNode, Progress progress) {
+        this.ae = Objects.requireNonNull(ae);
+        this.args = Objects.requireNonNull(args);
+        this.calledNode = Objects.requireNonNull(calledNode);
+        this.state = new Status(progress);
+    }
+
+    /**
+     * 设置最大关联数
+     *
+     * @param maxAssociations 最大关联数，默认为4
+     */
+    public void setMaxAssociations(int maxAssociations) {
+        this.maxAssociations = Math.max(1, maxAssociations);
+    }
+
+    /**
+     * 设置每个关联每次取的文件数
+     *
+     * @param batchSize 文件数，默认为64
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 设置是否根据吞吐量调整关联数，关闭时始终使用最大关联数
+     *
+     * @param adaptive 是否调整，默认为{@code true}
+     */
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * 设置吞吐量的采样周期
+     *
+     * @param sampleInterval 周期，单位毫秒，默认为2000
+     */
+    public void setSampleInterval(long sampleInterval) {
+        this.sampleInterval = Math.max(100L, sampleInterval);
+    }
+
+    public void setTmpFileDirectory(File tmpDir) {
+        this.tmpDir = tmpDir;
+    }
+
+    /**
+     * 添加每个关联的进度监听器，参数为该关联的{@link Progress}
+     *
+     * @param listener 监听器
+     */
+    public void addProgressListener(ProgressListener listener) {
+        if (null != listener) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * 扫描文件并按SOP类和传输语法分组
+     *
+     * @param fnames 文件或目录
+     * @throws IOException 写入临时文件失败
+     */
+    public void scanFiles(List<String> fnames) throws IOException {
+        try {
+            StoreSCU.scan(fnames, false, (f, fmi, dsPos, ds) -> {
+                String cuid = fmi.getString(Tag.MediaStorageSOPClassUID);
+                String iuid = fmi.getString(Tag.MediaStorageSOPInstanceUID);
+                String ts = fmi.getString(Tag.TransferSyntaxUID);
+                if (null == cuid || null == iuid) {
+                    return false;
+                }
+                String key = cuid + Symbol.C_HT + ts;
+                Group group = groups.get(key);
+                if (null == group) {
+                    group = new Group(cuid, ts, File.createTempFile("storescu-", null, tmpDir));
+                    groups.put(key, group);
+                }
+                group.add(iuid, dsPos, f);
+                filesScanned++;
+                return true;
+            });
+        } finally {
+            for (Group group : groups.values()) {
+                group.closeWriter();
+            }
+        }
+        plans = plan(groups.values());
+    }
+
+    /**
+     * 发送所有扫描到的文件，阻塞直到全部完成或取消
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void sendFiles() throws InterruptedException {
+        if (filesScanned == 0) {
+            return;
+        }
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            synchronized (lock) {
+                target = adaptive ? 1 : maxAssociations;
+            }
+            spawn(executor);
+            long lastBytes = 0;
+            long lastTime = System.nanoTime();
+            double lastRate = 0;
+            int direction = 1;
+            while (true) {
+                synchronized (lock) {
+                    lock.wait(sampleInterval);
+                    if (running == 0 && (failed || isCancelled() || isDone())) {
+                        break;
+                    }
+                }
+                long now = System.nanoTime();
+                // 关联退出时会提前唤醒，采样不足一个周期时不调整
+                if (adaptive && !isDone() && now - lastTime >= TimeUnit.MILLISECONDS.toNanos(sampleInterval)) {
+                    long bytes = totalSize.get();
+                    double rate = (bytes - lastBytes) * 1e9 / (now - lastTime);
+                    lastBytes = bytes;
+                    lastTime = now;
+                    if (rate < lastRate * 0.95) {
+                        direction = -direction;
+                    }
+                    lastRate = rate;
+                    synchronized (lock) {
+                        target = Math.min(maxAssociations, Math.max(1, target + direction));
+                        if (target == maxAssociations || target == 1) {
+                            // 到达边界后下次从另一方向试探
+                            direction = target == 1 ? 1 : -1;
+                        }
+                        Logger.debug("C-STORE throughput {}/s with {} associations, next {}",
+                                Builder.humanReadableByte((long) rate, false), running, target);
+                    }
+                }
+                spawn(executor);
+            }
+            synchronized (state) {
+                // 状态取自最后一个响应，有文件失败时改为部分失败
+                if (!failed && failures.get() > 0) {
+                    state.setStatus(org.aoju.bus.image.Status.OneOrMoreFailures);
+                    Progress total = state.getProgress();
+                    if (null != total && null != total.getAttributes()) {
+                        Attributes cmd = new Attributes(total.getAttributes());
+                        cmd.setInt(Tag.Status, VR.US, org.aoju.bus.image.Status.OneOrMoreFailures);
+                        total.setAttributes(cmd);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * 每个关联的进度，按关联建立的顺序排列
+     *
+     * @return 进度
+     */
+    public List<Progress> getProgresses() {
+        return Collections.unmodifiableList(progresses);
+    }
+
+    public int getFilesScanned() {
+        return filesScanned;
+    }
+
+    public long getTotalSize() {
+        return totalSize.get();
+    }
+
+    public Status getState() {
+        return state;
+    }
+
+    /**
+     * 当前的目标关联数
+     *
+     * @return 关联数
+     */
+    public int getTarget() {
+        synchronized (lock) {
+            return target;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Group group : groups.values()) {
+            group.closeWriter();
+            IoKit.close(group.reader);
+            group.file.delete();
+        }
+    }
+
+    /**
+     * 按表示上下文数量将分组划分为计划，同一SOP类的分组放在同一计划中
+     *
+     * @param groups 分组
+     * @return 计划
+     */
+    private static List<Plan> plan(Collection<Group> groups) {
+        Map<String, List<Group>> byClass = new LinkedHashMap<>();
+        for (Group group : groups) {
+            byClass.computeIfAbsent(group.cuid, k -> new ArrayList<>()).add(group);
+        }
+        List<Plan> plans = new ArrayList<>();
+        Plan current = new Plan();
+        for (List<Group> classGroups : byClass.values()) {
+            // 每个传输语法一个上下文，另加显式和隐式VR小端
+            int contexts = classGroups.size() + 2;
+            if (!current.groups.isEmpty() && current.contexts + contexts > MAX_PRESENTATION_CONTEXTS) {
+                plans.add(current);
+                current = new Plan();
+            }
+            current.groups.addAll(classGroups);
+            current.contexts += contexts;
+        }
+        if (!current.groups.isEmpty()) {
+            plans.add(current);
+        }
+        return plans;
+    }
+
+    private boolean isDone() {
+        for (Plan plan : plans) {
+            if (plan.hasNext()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isCancelled() {
+        Progress total = state.getProgress();
+        return null != total && total.isCancel();
+    }
+
+    private void spawn(ExecutorService executor) {
+        synchronized (lock) {
+            if (isCancelled()) {
+                return;
+            }
+            while (running < target && !failed && !isDone()) {
+                running++;
+                executor.execute(new Worker());
+            }
+        }
+    }
+
+    /**
+     * 关联数超过目标时退出当前关联，退出时减少正在运行的关联数
+     *
+     * @return 是否退出
+     */
+    private boolean retire() {
+        synchronized (lock) {
+            if (running > target) {
+                running--;
+                lock.notifyAll();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private void exit(boolean openFailed) {
+        synchronized (lock) {
+            running--;
+            if (openFailed && running == 0) {
+                failed = true;
+                state.setStatus(org.aoju.bus.image.Status.UnableToProcess);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private Plan nextPlan() {
+        Plan best = null;
+        for (Plan plan : plans) {
+            if (plan.hasNext() && (null == best || plan.remaining() > best.remaining())) {
+                best = plan;
+            }
+        }
+        return best;
+    }
+
+    private void onCStoreRSP(Attributes cmd, File f, Progress progress, int[] counts) {
+        int status = cmd.getInt(Tag.Status, -1);
+        switch (status) {
+            case org.aoju.bus.image.Status.Success:
+                totalSize.addAndGet(f.length());
+                update(cmd, status, Builder.COMPLETED, 0, f, progress, counts);
+                break;
+            case org.aoju.bus.image.Status.CoercionOfDataElements:
+            case org.aoju.bus.image.Status.ElementsDiscarded:
+            case org.aoju.bus.image.Status.DataSetDoesNotMatchSOPClassWarning:
+                totalSize.addAndGet(f.length());
+                Logger.warn("Received C-STORE-RSP with Status {}H for {}", Tag.shortToHexString(status), f);
+                update(cmd, status, Builder.WARNING, 2, f, progress, counts);
+                break;
+            default:
+                Logger.error("Received C-STORE-RSP with Status {}H for {}", Tag.shortToHexString(status), f);
+                update(cmd, status, Builder.FAILED, 1, f, progress, counts);
+        }
+    }
+
+    /**
+     * 文件未能发送或重发次数用尽，计为失败
+     *
+     * @param item     文件
+     * @param progress 关联的进度
+     * @param counts   关联的完成、失败和警告数
+     */
+    private void onFailure(Item item, Progress progress, int[] counts) {
+        Attributes cmd = new Attributes();
+        cmd.setString(Tag.AffectedSOPClassUID, VR.UI, item.cuid);
+        cmd.setString(Tag.AffectedSOPInstanceUID, VR.UI, item.iuid);
+        cmd.setInt(Tag.Status, VR.US, org.aoju.bus.image.Status.UnableToProcess);
+        update(cmd, org.aoju.bus.image.Status.UnableToProcess, Builder.FAILED, 1, new File(item.path), progress, counts);
+    }
+
+    /**
+     * 文件处理完成后更新关联的进度和总进度
+     *
+     * @param cmd      响应命令
+     * @param status   状态
+     * @param ps       进度状态
+     * @param slot     计数的位置：0为完成，1为失败，2为警告
+     * @param f        文件
+     * @param progress 关联的进度
+     * @param counts   关联的完成、失败和警告数
+     */
+    private void update(Attributes cmd, int status, String ps, int slot, File f, Progress progress, int[] counts) {
+        if (slot == 1) {
+            failures.incrementAndGet();
+        }
+        int remaining = filesScanned - processed.incrementAndGet();
+
+        // 关联的进度：本关联的完成、失败和警告数，剩余数为全部剩余的文件数
+        Attributes rsp = new Attributes(cmd);
+        synchronized (progress) {
+            counts[slot]++;
+            rsp.setInt(Tag.NumberOfCompletedSuboperations, VR.US, counts[0]);
+            rsp.setInt(Tag.NumberOfFailedSuboperations, VR.US, counts[1]);
+            rsp.setInt(Tag.NumberOfWarningSuboperations, VR.US, counts[2]);
+            rsp.setInt(Tag.NumberOfRemainingSuboperations, VR.US, remaining);
+            progress.setProcessedFile(f);
+            progress.setAttributes(rsp);
+        }
+
+        Progress total = state.getProgress();
+        synchronized (state) {
+            state.setStatus(status);
+            if (null != total) {
+                Builder.notify(total, cmd, ps, filesScanned);
+                total.setProcessedFile(f);
+                total.setAttributes(cmd);
+            }
+        }
+    }
+
+    /**
+     * 同一SOP类和传输语法的文件
+     */
+    private static class Group {
+
+        private final String cuid;
+        private final String ts;
+        private final File file;
+        private BufferedWriter writer;
+        private BufferedReader reader;
+        private int count;
+        private int taken;
+
+        Group(String cuid, String ts, File file) throws IOException {
+            this.cuid = cuid;
+            this.ts = ts;
+            this.file = file;
+            this.file.deleteOnExit();
+            this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file)));
+        }
+
+        void add(String iuid, long dsPos, File f) throws IOException {
+            writer.write(iuid);
+            writer.write(Symbol.C_HT);
+            writer.write(Long.toString(dsPos));
+            writer.write(Symbol.C_HT);
+            writer.write(f.getPath());
+            writer.newLine();
+            count++;
+        }
+
+        void closeWriter() {
+            IoKit.close(writer);
+            writer = null;
+        }
+
+        /**
+         * 读取下一行，调用时须持有所属计划的锁
+         *
+         * @return 文件信息，读完时返回{@code null}
+         * @throws IOException 读取失败
+         */
+        String[] next() throws IOException {
+            if (taken >= count) {
+                return null;
+            }
+            if (null == reader) {
+                reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
+            }
+            String line = reader.readLine();
+            if (null == line) {
+                taken = count;
+                return null;
+            }
+            taken++;
+            if (taken == count) {
+                IoKit.close(reader);
+            }
+            return StringKit.splitToArray(line, Symbol.C_HT);
+        }
+    }
+
+    /**
+     * 一个关联可以协商的一组分组
+     */
+    private static class Plan {
+
+        private final List<Group> groups = new ArrayList<>();
+        /**
+         * 关联断开后放回的文件，优先于分组中的文件发送
+         */
+        private final Deque<Item> retries = new ArrayDeque<>();
+        private int contexts;
+
+        synchronized boolean hasNext() {
+            return remaining() > 0;
+        }
+
+        synchronized int remaining() {
+            int remaining = retries.size();
+            for (Group group : groups) {
+                remaining += group.count - group.taken;
+            }
+            return remaining;
+        }
+
+        /**
+         * 取一批文件，先取放回的文件，再优先取同一分组的文件
+         *
+         * @param size 最多的文件数
+         * @return 文件
+         */
+        synchronized List<Item> next(int size) {
+            List<Item> batch = new ArrayList<>(size);
+            while (batch.size() < size && !retries.isEmpty()) {
+                batch.add(retries.poll());
+            }
+            for (Group group : groups) {
+                if (batch.size() >= size) {
+                    break;
+                }
+                try {
+                    String[] line;
+                    while (batch.size() < size && null != (line = group.next())) {
+                        batch.add(new Item(group.cuid, group.ts, line[0], Long.parseLong(line[1]), line[2]));
+                    }
+                } catch (IOException e) {
+                    Logger.error("Cannot read file list {}", group.file, e);
+                    group.taken = group.count;
+                }
+                if (batch.size() >= size) {
+                    break;
+                }
+            }
+            return batch;
+        }
+
+        /**
+         * 放回未发送或未收到响应的文件
+         *
+         * @param item 文件
+         */
+        synchronized void requeue(Item item) {
+            retries.add(item);
+        }
+    }
+
+    /**
+     * 待发送的文件
+     */
+    private static class Item {
+
+        private final String cuid;
+        private final String ts;
+        private final String iuid;
+        private final long dsPos;
+        private final String path;
+        private int attempts;
+
+        Item(String cuid, String ts, String iuid, long dsPos, String path) {
+            this.cuid = cuid;
+            this.ts = ts;
+            this.iuid = iuid;
+            this.dsPos = dsPos;
+            this.path = path;
+        }
+    }
+
+    /**
+     * 一个关联，按计划循环发送直到没有文件、取消或需要退出
+     */
+    private class Worker implements Runnable {
+
+        private final Progress progress = new Progress();
+        private final int[] counts = new int[3];
+        private boolean opened;
+        private boolean retired;
+
+        Worker() {
+            for (ProgressListener listener : listeners) {
+                progress.addProgressListener(listener);
+            }
+            progresses.add(progress);
+        }
+
+        @Override
+        public void run() {
+            try {
+                Plan plan;
+                while (null != (plan = nextPlan()) && send(plan)) {
+                    if (retired || isCancelled() || retireIfNeeded()) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                Logger.error("storescu", e);
+            } finally {
+                if (!retired) {
+                    exit(!opened);
+                }
+            }
+        }
+
+        private boolean retireIfNeeded() {
+            retired = retire();
+            return retired;
+        }
+
+        /**
+         * 建立关联并发送计划中的文件
+         *
+         * @param plan 计划
+         * @return 是否成功建立关联
+         */
+        private boolean send(Plan plan) throws Exception {
+            final StoreSCU scu = new StoreSCU(ae, null, args.getEditors());
+            Connection remote = scu.getRemoteConnection();
+            args.configureBind(scu.getAAssociateRQ(), remote, calledNode);
+            // 本地连接的TLS已由调用方配置，远程连接沿用相同的协议和加密套件
+            Connection conn = ae.getConnections().get(0);
+            remote.setTlsProtocols(conn.getTlsProtocols());
+            remote.setTlsCipherSuites(conn.getTlsCipherSuites());
+            scu.setAttributes(new Attributes());
+            if (args.isExtendNegociation()) {
+                CStore.configureRelatedSOPClass(scu, args.getExtendSopClassesURL());
+            }
+            scu.setPriority(args.getPriority());
+            for (Group group : plan.groups) {
+                scu.addPresentationContext(group.cuid, group.ts);
+            }
+            // 已发送但未收到响应的文件，按发送时创建的File实例识别
+            final Map<File, Item> inFlight = Collections.synchronizedMap(new IdentityHashMap<>());
+            scu.setRspHandlerFactory(file -> new DimseRSPHandler(scu.getAssociation().nextMessageID()) {
+
+                @Override
+                public void onDimseRSP(Association as, Attributes cmd, Attributes data) {
+                    super.onDimseRSP(as, cmd, data);
+                    inFlight.remove(file);
+                    onCStoreRSP(cmd, file, progress, counts);
+                }
+            });
+            try {
+                scu.open();
+            } catch (Exception e) {
+                Logger.error("Cannot open association to {}", calledNode, e);
+                return false;
+            }
+            opened = true;
+            try {
+                Association as = scu.getAssociation();
+                Logger.info("{}: C-STORE with {} operations in flight", as,
+                        as.getAAssociateAC().isAsyncOps() ? as.getAAssociateAC().getMaxOpsInvoked() : 1);
+                List<Item> batch;
+                while (as.isReadyForDataTransfer() && !(batch = plan.next(batchSize)).isEmpty()) {
+                    int i = 0;
+                    for (; i < batch.size() && as.isReadyForDataTransfer(); i++) {
+                        Item item = batch.get(i);
+                        File file = new File(item.path);
+                        inFlight.put(file, item);
+                        try {
+                            scu.send(file, item.dsPos, item.cuid, item.iuid, item.ts);
+                        } catch (Exception e) {
+                            // 关联已断开时在关闭后放回计划，否则为文件本身的问题，计为失败
+                            if (as.isReadyForDataTransfer()) {
+                                inFlight.remove(file);
+                                Logger.error("Cannot send file {}", file, e);
+                                onFailure(item, progress, counts);
+                            }
+                        }
+                    }
+                    // 关联中途停止时放回本批未发送的文件
+                    for (; i < batch.size(); i++) {
+                        requeue(plan, batch.get(i), progress, counts);
+                    }
+                    if (isCancelled()) {
+                        Logger.info("Aborting C-Store: {}", "cancel by progress");
+                        as.abort();
+                        break;
+                    }
+                    if (retireIfNeeded()) {
+                        break;
+                    }
+                }
+                as.waitForOutstandingRSP();
+            } finally {
+                Builder.close(scu);
+                // 关联断开时未收到响应的文件放回计划
+                List<Item> lost;
+                synchronized (inFlight) {
+                    lost = new ArrayList<>(inFlight.values());
+                    inFlight.clear();
+                }
+                for (Item item : lost) {
+                    requeue(plan, item, progress, counts);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 放回计划由其他关联重发，尝试次数用尽时计为失败
+         *
+         * @param plan     计划
+         * @param item     文件
+         * @param progress 关联的进度
+         * @param counts   关联的完成、失败和警告数
+         */
+        private void requeue(Plan plan, Item item, Progress progress, int[] counts) {
+            if (++item.attempts < MAX_ATTEMPTS) {
+                plan.requeue(item);
+            } else {
+                Logger.error("Give up sending {} after {} interrupted associations", item.path, item.attempts);
+                onFailure(item, progress, counts);
+            }
+        }
+    }
+
+}
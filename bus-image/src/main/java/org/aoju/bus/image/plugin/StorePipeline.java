@@ -0,0 +1,635 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.image.plugin;
+
+import org.aoju.bus.core.annotation.ThreadSafe;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.thread.NamedThreadFactory;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.core.toolkit.ObjectKit;
+import org.aoju.bus.image.Efforts;
+import org.aoju.bus.image.Tag;
+import org.aoju.bus.image.UID;
+import org.aoju.bus.image.galaxy.data.Attributes;
+import org.aoju.bus.image.galaxy.io.ImageInputStream;
+import org.aoju.bus.image.galaxy.io.ImageOutputStream;
+import org.aoju.bus.image.metric.Association;
+import org.aoju.bus.image.metric.PDVInputStream;
+import org.aoju.bus.logger.Logger;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StoreSCP的异步存储管道
+ * <pre>
+ * 1. 关联线程只把PDV数据读入池化的缓冲区，读完即可回复C-STORE-RSP，不再等待磁盘
+ * 2. 缓冲区用尽时关联线程阻塞等待，从而向发送方施加背压；等待超时或单个实例过大时，
+ *    剩余数据直接由关联线程写入临时文件
+ * 3. 有界的写线程池使用{@link FileChannel}聚集写出文件元信息和数据
+ * 4. 写完的文件按批次统一fsync并改名为正式文件，再异步调用{@link Efforts}
+ * 5. 文件按检查/序列的哈希值分目录存放：storageDir/ab/abcdef01/12345678/SOPInstanceUID.dcm
+ * </pre>
+ * C-STORE-RSP在数据进入缓冲区后即返回成功，持久化失败只记录日志和计数
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+@ThreadSafe
+public class StorePipeline implements Closeable {
+
+    /**
+     * 默认的写线程数
+     */
+    public static final int DEFAULT_WRITERS = 4;
+    /**
+     * 默认的缓冲区大小
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    /**
+     * 默认的缓冲区数量，共32M
+     */
+    public static final int DEFAULT_BUFFERS = 512;
+    /**
+     * 默认每批fsync的文件数
+     */
+    public static final int DEFAULT_SYNC_BATCH = 32;
+    /**
+     * 默认未满一批时的提交间隔，单位毫秒
+     */
+    public static final long DEFAULT_SYNC_INTERVAL = 200L;
+    /**
+     * 默认等待空闲缓冲区的时间，单位毫秒
+     */
+    public static final long DEFAULT_BUFFER_TIMEOUT = 1000L;
+
+    private static final String PART_SUFFIX = ".part";
+    private static final String SUFFIX = ".dcm";
+    private static final String UNKNOWN = "unknown";
+
+    private final File storageDir;
+    private final BufferPool pool;
+    /**
+     * 单个实例最多占用的缓冲区数，超过后直接写入文件
+     */
+    private final int maxInstanceBuffers;
+    private final ExecutorService writers;
+    private final ScheduledExecutorService committer;
+    private final ExecutorService callbacks;
+    private final Set<File> directories = ConcurrentHashMap.newKeySet();
+    private final List<Pending> batch = new ArrayList<>();
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    /**
+     * 临时文件序号，同一实例重发或重复发送时临时文件互不覆盖
+     */
+    private final AtomicLong sequence = new AtomicLong();
+    private ScheduledFuture<?> flusher;
+    private volatile boolean fsync = true;
+    private volatile int syncBatch = DEFAULT_SYNC_BATCH;
+    private volatile long bufferTimeout = DEFAULT_BUFFER_TIMEOUT;
+    private volatile boolean closed;
+
+    /**
+     * @param storageDir 存储文件夹的基本路径
+     */
+    public StorePipeline(String storageDir) {
+        this(storageDir, DEFAULT_WRITERS, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFERS);
+    }
+
+    /**
+     * @param storageDir 存储文件夹的基本路径
+     * @param writers    写线程数
+     * @param bufferSize 缓冲区大小
+     * @param buffers    缓冲区数量，即缓冲的最大字节数为bufferSize * buffers
+     */
+    public StorePipeline(String storageDir, int writers, int bufferSize, int buffers) {
+        if (writers <= 0 || bufferSize <= 0 || buffers <= 0) {
+            throw new IllegalArgumentException("writers, bufferSize and buffers must be greater than 0");
+        }
+        this.storageDir = new File(storageDir);
+        this.pool = new BufferPool(bufferSize, buffers);
+        this.maxInstanceBuffers = Math.max(1, buffers / 4);
+        this.writers = new ThreadPoolExecutor(writers, writers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("storescp-writer-", true));
+        this.committer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("storescp-sync-", true));
+        this.callbacks = Executors.newSingleThreadExecutor(new NamedThreadFactory("storescp-efforts-", true));
+        setSyncInterval(DEFAULT_SYNC_INTERVAL);
+    }
+
+    private static String hash(String uid) {
+        final String value = Integer.toHexString(null == uid ? 0 : uid.hashCode());
+        return "00000000".substring(value.length()) + value;
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int count = 0;
+        int read;
+        while (count < buffer.length && (read = in.read(buffer, count, buffer.length - count)) > 0) {
+            count += read;
+        }
+        return count;
+    }
+
+    private static byte[] toBytes(Attributes fmi) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        final ImageOutputStream dos = new ImageOutputStream(out, UID.ExplicitVRLittleEndian);
+        dos.writeFileMetaInformation(fmi);
+        dos.flush();
+        return out.toByteArray();
+    }
+
+    /**
+     * 读取检查和序列UID，遇到像素数据或数据结束时停止
+     *
+     * @param in    数据集
+     * @param tsuid 传输语法
+     * @return 读取到的属性，格式错误时为已读取的部分
+     */
+    private static Attributes parse(InputStream in, String tsuid) {
+        final Attributes attrs = new Attributes();
+        ImageInputStream dis = null;
+        try {
+            dis = null == tsuid ? new ImageInputStream(in) : new ImageInputStream(in, tsuid);
+            dis.setIncludeBulkData(ImageInputStream.IncludeBulkData.NO);
+            if (null == tsuid) {
+                dis.readFileMetaInformation();
+            }
+            dis.readAttributes(attrs, -1, Tag.PixelData);
+        } catch (IOException e) {
+            Logger.debug("Incomplete header: {}", e.getMessage());
+        } finally {
+            IoKit.close(dis);
+        }
+        return attrs;
+    }
+
+    /**
+     * 设置提交前是否fsync，关闭后只保证改名的原子性
+     *
+     * @param fsync 是否fsync，默认为{@code true}
+     */
+    public void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+
+    /**
+     * 设置每批fsync的文件数
+     *
+     * @param syncBatch 文件数
+     */
+    public void setSyncBatch(int syncBatch) {
+        this.syncBatch = Math.max(1, syncBatch);
+    }
+
+    /**
+     * 设置未满一批时的提交间隔
+     *
+     * @param syncInterval 间隔，单位毫秒
+     */
+    public synchronized void setSyncInterval(long syncInterval) {
+        if (null != flusher) {
+            flusher.cancel(false);
+        }
+        flusher = committer.scheduleWithFixedDelay(this::flush, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 设置关联线程等待空闲缓冲区的时间，超时后直接写入文件
+     *
+     * @param bufferTimeout 等待时间，单位毫秒
+     */
+    public void setBufferTimeout(long bufferTimeout) {
+        this.bufferTimeout = bufferTimeout;
+    }
+
+    /**
+     * 接收一个实例，在关联线程中调用
+     * 数据全部进入缓冲区后交给写线程，否则由当前线程写入临时文件
+     *
+     * @param as      关联
+     * @param fmi     文件元信息
+     * @param data    数据集
+     * @param efforts 提交后的回调，可以为{@code null}
+     * @param clazz   调用类信息
+     * @throws IOException 管道已关闭或写入失败
+     */
+    public void store(Association as, Attributes fmi, PDVInputStream data, Efforts efforts, Class<?> clazz)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Store pipeline is closed");
+        }
+        final Instance instance = new Instance(as, fmi, efforts, clazz);
+        try {
+            byte[] buffer = pool.acquire(bufferTimeout);
+            while (null != buffer) {
+                final int count = readFully(data, buffer);
+                instance.add(buffer, count);
+                if (count < buffer.length) {
+                    writers.execute(() -> write(instance));
+                    return;
+                }
+                buffer = instance.size() < maxInstanceBuffers ? pool.acquire(0L) : null;
+            }
+            spill(instance, data);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            instance.release();
+            throw new InterruptedIOException("Interrupted while waiting for a buffer");
+        } catch (IOException | RuntimeException e) {
+            instance.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 根据检查和序列计算实例的存储路径
+     *
+     * @param attrs 数据集属性
+     * @param iuid  SOP实例UID
+     * @return 存储文件
+     */
+    public File layout(Attributes attrs, String iuid) {
+        final String study = attrs.getString(Tag.StudyInstanceUID);
+        final String series = attrs.getString(Tag.SeriesInstanceUID);
+        if (null == study) {
+            return new File(new File(storageDir, UNKNOWN), iuid + SUFFIX);
+        }
+        final String studyHash = hash(study);
+        final File dir = new File(new File(new File(storageDir, studyHash.substring(0, 2)), studyHash), hash(series));
+        return new File(dir, iuid + SUFFIX);
+    }
+
+    /**
+     * 提交所有已写完的文件
+     */
+    public void flush() {
+        final List<Pending> pending;
+        synchronized (batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            pending = new ArrayList<>(batch);
+            batch.clear();
+        }
+        sync(pending);
+    }
+
+    /**
+     * 已提交的实例数
+     *
+     * @return 实例数
+     */
+    public long getStored() {
+        return stored.get();
+    }
+
+    /**
+     * 直接由关联线程写入文件的实例数
+     *
+     * @return 实例数
+     */
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    /**
+     * 写入或提交失败的实例数
+     *
+     * @return 实例数
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * 等待所有实例写完并提交，之后不再接收新的实例
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writers.shutdown();
+        try {
+            writers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        committer.shutdown();
+        try {
+            committer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        callbacks.shutdown();
+        try {
+            callbacks.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 写线程中将缓冲的实例写入临时文件
+     *
+     * @param instance 实例
+     */
+    private void write(Instance instance) {
+        FileChannel channel = null;
+        try {
+            final Attributes attrs = parse(instance.input(), instance.fmi.getString(Tag.TransferSyntaxUID));
+            channel = open(instance);
+            final ByteBuffer[] buffers = instance.buffers(toBytes(instance.fmi));
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            instance.release();
+            commit(new Pending(instance, channel, layout(attrs, instance.iuid)));
+        } catch (IOException | RuntimeException e) {
+            instance.release();
+            fail(instance, channel, e);
+        }
+    }
+
+    /**
+     * 关联线程中将已缓冲的部分和剩余数据写入临时文件，再从文件中读取检查和序列
+     *
+     * @param instance 实例
+     * @param data     剩余数据
+     * @throws IOException 写入失败
+     */
+    private void spill(Instance instance, PDVInputStream data) throws IOException {
+        spilled.incrementAndGet();
+        Logger.debug("{}: M-WRITE {}", instance.as, instance.temp);
+        FileChannel channel = null;
+        try {
+            channel = open(instance);
+            for (ByteBuffer buffer : instance.buffers(toBytes(instance.fmi))) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            instance.release();
+            // 不关闭输出流，通道在提交时关闭
+            final OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 65536);
+            data.copyTo(out);
+            out.flush();
+            final Attributes attrs;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(instance.temp))) {
+                attrs = parse(in, null);
+            }
+            commit(new Pending(instance, channel, layout(attrs, instance.iuid)));
+        } catch (IOException | RuntimeException e) {
+            IoKit.close(channel);
+            Files.deleteIfExists(instance.temp.toPath());
+            failed.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private void commit(Pending pending) {
+        List<Pending> full = null;
+        synchronized (batch) {
+            batch.add(pending);
+            if (batch.size() >= syncBatch) {
+                full = new ArrayList<>(batch);
+                batch.clear();
+            }
+        }
+        if (null != full) {
+            sync(full);
+        }
+    }
+
+    /**
+     * fsync并改名为正式文件，然后异步调用回调
+     *
+     * @param pending 待提交的文件
+     */
+    private void sync(List<Pending> pending) {
+        for (Pending item : pending) {
+            try {
+                if (fsync) {
+                    item.channel.force(true);
+                }
+                item.channel.close();
+                final File dir = item.file.getParentFile();
+                mkdirs(dir);
+                try {
+                    Files.move(item.instance.temp.toPath(), item.file.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (NoSuchFileException e) {
+                    // 目录在创建后被外部删除，重新创建后再试一次
+                    directories.remove(dir);
+                    mkdirs(dir);
+                    Files.move(item.instance.temp.toPath(), item.file.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(item.instance, item.channel, e);
+                continue;
+            }
+            stored.incrementAndGet();
+            final Efforts efforts = item.instance.efforts;
+            if (ObjectKit.isNotEmpty(efforts)) {
+                callbacks.execute(() -> {
+                    try {
+                        efforts.supports(item.instance.fmi, item.file, item.instance.clazz);
+                    } catch (RuntimeException e) {
+                        Logger.error("Efforts failed for {}", item.file, e);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * 创建实例的临时文件，存储目录不存在时先创建
+     *
+     * @param instance 实例
+     * @return 文件通道
+     * @throws IOException 创建失败
+     */
+    private FileChannel open(Instance instance) throws IOException {
+        mkdirs(storageDir);
+        return FileChannel.open(instance.temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * 创建目录，创建成功后才记入已创建的目录，
+     * 避免并发时其他线程在目录创建完成前跳过创建
+     *
+     * @param dir 目录
+     * @throws IOException 创建失败
+     */
+    private void mkdirs(File dir) throws IOException {
+        if (false == directories.contains(dir)) {
+            Files.createDirectories(dir.toPath());
+            directories.add(dir);
+        }
+    }
+
+    private void fail(Instance instance, FileChannel channel, Exception e) {
+        failed.incrementAndGet();
+        Logger.error("{}: M-WRITE {} failed", instance.as, instance.temp, e);
+        IoKit.close(channel);
+        if (false == instance.temp.delete() && instance.temp.exists()) {
+            instance.temp.deleteOnExit();
+        }
+    }
+
+    /**
+     * 固定大小缓冲区的有界池
+     */
+    private static class BufferPool {
+
+        private final int bufferSize;
+        private final Semaphore permits;
+        private final ConcurrentLinkedQueue<byte[]> free = new ConcurrentLinkedQueue<>();
+
+        BufferPool(int bufferSize, int buffers) {
+            this.bufferSize = bufferSize;
+            this.permits = new Semaphore(buffers);
+        }
+
+        /**
+         * 获取缓冲区
+         *
+         * @param timeout 等待时间，单位毫秒，为0时不等待
+         * @return 缓冲区，超时返回{@code null}
+         * @throws InterruptedException 等待时被中断
+         */
+        byte[] acquire(long timeout) throws InterruptedException {
+            if (false == (timeout > 0 ? permits.tryAcquire(timeout, TimeUnit.MILLISECONDS) : permits.tryAcquire())) {
+                return null;
+            }
+            final byte[] buffer = free.poll();
+            return null == buffer ? new byte[bufferSize] : buffer;
+        }
+
+        void release(byte[] buffer) {
+            free.offer(buffer);
+            permits.release();
+        }
+    }
+
+    /**
+     * 已提交写入但未改名的文件
+     */
+    private static class Pending {
+
+        private final Instance instance;
+        private final FileChannel channel;
+        private final File file;
+
+        Pending(Instance instance, FileChannel channel, File file) {
+            this.instance = instance;
+            this.channel = channel;
+            this.file = file;
+        }
+    }
+
+    /**
+     * 接收中的实例及其缓冲区
+     */
+    private class Instance {
+
+        private final Association as;
+        private final Attributes fmi;
+        private final Efforts efforts;
+        private final Class<?> clazz;
+        private final String iuid;
+        private final File temp;
+        private final List<byte[]> chunks = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+
+        Instance(Association as, Attributes fmi, Efforts efforts, Class<?> clazz) {
+            this.as = as;
+            this.fmi = fmi;
+            this.efforts = efforts;
+            this.clazz = clazz;
+            this.iuid = fmi.getString(Tag.MediaStorageSOPInstanceUID);
+            this.temp = new File(storageDir, iuid + Symbol.DOT + sequence.incrementAndGet() + PART_SUFFIX);
+        }
+
+        void add(byte[] buffer, int length) {
+            chunks.add(buffer);
+            lengths.add(length);
+        }
+
+        int size() {
+            return chunks.size();
+        }
+
+        ByteBuffer[] buffers(byte[] header) {
+            final ByteBuffer[] buffers = new ByteBuffer[chunks.size() + 1];
+            buffers[0] = ByteBuffer.wrap(header);
+            for (int i = 0; i < chunks.size(); i++) {
+                buffers[i + 1] = ByteBuffer.wrap(chunks.get(i), 0, lengths.get(i));
+            }
+            return buffers;
+        }
+
+        InputStream input() {
+            final List<InputStream> streams = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                streams.add(new ByteArrayInputStream(chunks.get(i), 0, lengths.get(i)));
+            }
+            return new SequenceInputStream(Collections.enumeration(streams));
+        }
+
+        void release() {
+            for (byte[] chunk : chunks) {
+                pool.release(chunk);
+            }
+            chunks.clear();
+            lengths.clear();
+        }
+    }
+
+}
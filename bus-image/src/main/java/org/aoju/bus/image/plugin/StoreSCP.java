@@ -62,6 +62,10 @@ public class StoreSCP extends BasicCStoreSCP {
     public final List<Node> authorizedCallingNodes;
     public Efforts efforts;
     private volatile int status = Status.Success;
+    /**
+     * 异步存储管道，为{@code null}时在关联线程中同步写入storageDir
+     */
+    private volatile StorePipeline pipeline;
 
     /**
      * @param storageDir 存储文件夹的基本路径
@@ -130,6 +134,15 @@ public class StoreSCP extends BasicCStoreSCP {
         String cuid = rq.getString(Tag.AffectedSOPClassUID);
         String iuid = rq.getString(Tag.AffectedSOPInstanceUID);
         String tsuid = pc.getTransferSyntax();
+        StorePipeline pipeline = this.pipeline;
+        if (null != pipeline) {
+            try {
+                pipeline.store(as, as.createFileMetaInformation(iuid, cuid, tsuid), data, efforts, this.getClass());
+            } catch (Exception e) {
+                throw new ImageException(Status.ProcessingFailure, e);
+            }
+            return;
+        }
         File file = new File(storageDir, File.separator + iuid + Builder.IMAGE_ORIGINAL_SUFFIX);
         try {
             Attributes fmi = as.createFileMetaInformation(iuid, cuid, tsuid);
@@ -208,4 +221,17 @@ public class StoreSCP extends BasicCStoreSCP {
         this.efforts = efforts;
     }
 
+    public StorePipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * 设置异步存储管道，文件按检查/序列分目录存放，管道在{@link org.aoju.bus.image.Centre#stop()}时关闭
+     *
+     * @param pipeline 存储管道，为{@code null}时恢复同步写入
+     */
+    public void setPipeline(StorePipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
 }
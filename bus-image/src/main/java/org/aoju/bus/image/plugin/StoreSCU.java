@@ -209,6 +209,10 @@ public class StoreSCU implements AutoCloseable {
         return remote;
     }
 
+    public Association getAssociation() {
+        return as;
+    }
+
     public Attributes getAttributes() {
         return attrs;
     }
@@ -315,8 +319,19 @@ public class StoreSCU implements AutoCloseable {
         fileInfos.write(f.getPath());
         fileInfos.newLine();
 
+        addPresentationContext(cuid, ts);
+        return true;
+    }
+
+    /**
+     * 为SOP类和传输语法添加表示上下文，同时添加显式和隐式VR小端作为备选
+     *
+     * @param cuid SOP类UID
+     * @param ts   文件的传输语法
+     */
+    public void addPresentationContext(String cuid, String ts) {
         if (rq.containsPresentationContextFor(cuid, ts)) {
-            return true;
+            return;
         }
 
         if (!rq.containsPresentationContextFor(cuid)) {
@@ -333,7 +348,6 @@ public class StoreSCU implements AutoCloseable {
             }
         }
         rq.addPresentationContext(new Presentation(rq.getNumberOfPresentationContexts() * 2 + 1, cuid, ts));
-        return true;
     }
 
     public Attributes echo() throws IOException, InterruptedException {
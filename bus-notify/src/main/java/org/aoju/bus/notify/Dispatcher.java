@@ -0,0 +1,382 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.notify;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.aoju.bus.core.thread.NamedThreadFactory;
+import org.aoju.bus.logger.Logger;
+import org.aoju.bus.notify.magic.Letter;
+import org.aoju.bus.notify.magic.Message;
+import org.aoju.bus.notify.magic.Property;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 异步批量发送
+ * 位于任意{@link Provider}之前,提交的接收者按模版合并为服务商接口允许的批次,
+ * 经有界队列由固定数量的发送线程按速率限制发送,失败的批次按指数退避重试,
+ * 超过最大尝试次数后交由死信处理
+ *
+ * <pre>
+ *     Dispatcher&lt;AliyunSmsProperty&gt; dispatcher = DispatcherBuilder.create(provider)
+ *             .setBatchSize(1000)
+ *             .setRate(50)
+ *             .build();
+ *     dispatcher.submit(template, mobiles).thenAccept(message -&gt; ...);
+ * </pre>
+ *
+ * @param <T> 模版类型
+ * @author Justubborn
+ * @version 6.3.2
+ * @since JDK1.8+
+ */
+public class Dispatcher<T extends Property> implements Closeable {
+
+    private final Provider<T> provider;
+    private final int batchSize;
+    private final long linger;
+    private final int maxAttempts;
+    private final long backoff;
+    private final long interval;
+    private final Consumer<Letter<T>> deadLetter;
+
+    /**
+     * 待发送批次
+     */
+    private final BlockingQueue<Letter<T>> queue;
+    /**
+     * 合并中的批次,以模版实例区分
+     */
+    private final Map<T, Letter<T>> pending = new IdentityHashMap<>();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final long startTime = System.nanoTime();
+
+    /**
+     * 下一次允许发送的时间
+     */
+    private long next = System.nanoTime();
+    private volatile boolean running = true;
+
+    Dispatcher(DispatcherBuilder<T> builder) {
+        this.provider = builder.provider;
+        this.batchSize = Math.max(1, Math.min(builder.batchSize, builder.provider.getBatchSize()));
+        this.linger = builder.linger;
+        this.maxAttempts = Math.max(1, builder.maxAttempts);
+        this.backoff = builder.backoff;
+        this.interval = builder.rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / builder.rate) : 0;
+        this.deadLetter = builder.deadLetter;
+        this.queue = new ArrayBlockingQueue<>(builder.capacity);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("notify-scheduler-", true));
+        this.workers = Executors.newFixedThreadPool(builder.concurrency, new NamedThreadFactory("notify-dispatcher-", true));
+        for (int i = 0; i < builder.concurrency; i++) {
+            this.workers.execute(this::work);
+        }
+    }
+
+    /**
+     * 提交发送,接收者与同一模版实例的其他提交合并发送
+     * 待发送队列已满时阻塞当前线程
+     *
+     * @param entity     通知模版
+     * @param recipients 接收者列表
+     * @return 发送结果,全部批次成功时为最后一个批次的结果,否则为首个失败批次的结果
+     */
+    public CompletableFuture<Message> submit(T entity, List<String> recipients) {
+        if (!this.running) {
+            CompletableFuture<Message> future = new CompletableFuture<>();
+            future.completeExceptionally(new RejectedExecutionException("dispatcher closed"));
+            return future;
+        }
+        List<Letter<T>> touched = new ArrayList<>();
+        List<Letter<T>> ready = new ArrayList<>();
+        synchronized (this.pending) {
+            Letter<T> letter = this.pending.get(entity);
+            if (null != letter) {
+                touched.add(letter);
+            }
+            for (String recipient : recipients) {
+                if (null == letter) {
+                    letter = new Letter<>(entity);
+                    touched.add(letter);
+                    if (this.linger > 0) {
+                        Letter<T> lingering = letter;
+                        this.pending.put(entity, letter);
+                        this.scheduler.schedule(() -> flush(lingering), this.linger, TimeUnit.NANOSECONDS);
+                    }
+                }
+                letter.getRecipients().add(recipient);
+                if (letter.getRecipients().size() >= this.batchSize) {
+                    this.pending.remove(entity, letter);
+                    ready.add(letter);
+                    letter = null;
+                }
+            }
+            if (null != letter && this.linger <= 0) {
+                ready.add(letter);
+            }
+        }
+        this.submitted.add(recipients.size());
+        for (Letter<T> letter : ready) {
+            enqueue(letter);
+        }
+        return combine(touched);
+    }
+
+    /**
+     * 提交发送
+     *
+     * @param entity    通知模版
+     * @param recipient 接收者
+     * @return 发送结果
+     */
+    public CompletableFuture<Message> submit(T entity, String recipient) {
+        List<String> recipients = new ArrayList<>(1);
+        recipients.add(recipient);
+        return submit(entity, recipients);
+    }
+
+    /**
+     * 发送统计
+     *
+     * @return {@link Stats}
+     */
+    public Stats stats() {
+        double seconds = Math.max(1e-9, (System.nanoTime() - this.startTime) / 1e9);
+        long sent = this.delivered.sum();
+        return new Stats(this.submitted.sum(), sent, this.failed.sum(), this.retried.sum(),
+                this.batches.sum(), this.queue.size(), sent / seconds);
+    }
+
+    /**
+     * 停止接收新的提交,发送完已合并及已排队的批次后关闭
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        List<Letter<T>> rest;
+        synchronized (this.pending) {
+            rest = new ArrayList<>(this.pending.values());
+            this.pending.clear();
+        }
+        for (Letter<T> letter : rest) {
+            enqueue(letter);
+        }
+        this.scheduler.shutdown();
+        this.workers.shutdown();
+        try {
+            this.scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            this.workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 合并等待超时,将批次放入发送队列
+     */
+    private void flush(Letter<T> letter) {
+        synchronized (this.pending) {
+            if (!this.pending.remove(letter.getEntity(), letter)) {
+                return;
+            }
+        }
+        enqueue(letter);
+    }
+
+    private void enqueue(Letter<T> letter) {
+        try {
+            this.queue.put(letter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            letter.setCause(e);
+            die(letter);
+        }
+    }
+
+    /**
+     * 发送线程
+     */
+    private void work() {
+        while (this.running || !this.queue.isEmpty() || !this.scheduler.isTerminated()) {
+            Letter<T> letter;
+            try {
+                letter = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (null == letter) {
+                    continue;
+                }
+                acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            send(letter);
+        }
+    }
+
+    private void send(Letter<T> letter) {
+        letter.setAttempts(letter.getAttempts() + 1);
+        this.batches.increment();
+        try {
+            Message message = this.provider.send(letter.getEntity(), letter.getRecipients());
+            letter.setMessage(message);
+            letter.setCause(null);
+            if (null != message && Builder.ErrorCode.SUCCESS.getCode().equals(message.getErrcode())) {
+                this.delivered.add(letter.getRecipients().size());
+                letter.getFuture().complete(message);
+                return;
+            }
+        } catch (Exception e) {
+            letter.setCause(e);
+        }
+        if (letter.getAttempts() < this.maxAttempts && !this.scheduler.isShutdown()) {
+            this.retried.increment();
+            long delay = this.backoff << Math.min(letter.getAttempts() - 1, 30);
+            try {
+                this.scheduler.schedule(() -> enqueue(letter), delay, TimeUnit.NANOSECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // 调度已关闭,不再重试
+            }
+        }
+        die(letter);
+    }
+
+    /**
+     * 最终失败,交由死信处理
+     */
+    private void die(Letter<T> letter) {
+        this.failed.add(letter.getRecipients().size());
+        if (null != this.deadLetter) {
+            try {
+                this.deadLetter.accept(letter);
+            } catch (Exception e) {
+                Logger.error(e, "notify dead letter failed");
+            }
+        }
+        if (null != letter.getCause()) {
+            letter.getFuture().completeExceptionally(letter.getCause());
+        } else {
+            letter.getFuture().complete(letter.getMessage());
+        }
+    }
+
+    /**
+     * 按速率限制等待
+     */
+    private void acquire() throws InterruptedException {
+        if (this.interval <= 0) {
+            return;
+        }
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long at = Math.max(this.next, now);
+            this.next = at + this.interval;
+            wait = at - now;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    private CompletableFuture<Message> combine(List<Letter<T>> letters) {
+        if (letters.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (letters.size() == 1) {
+            return letters.get(0).getFuture();
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[letters.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = letters.get(i).getFuture();
+        }
+        return CompletableFuture.allOf(futures).thenApply(v -> {
+            Message last = null;
+            for (Letter<T> letter : letters) {
+                last = letter.getFuture().join();
+                if (null == last || !Builder.ErrorCode.SUCCESS.getCode().equals(last.getErrcode())) {
+                    return last;
+                }
+            }
+            return last;
+        });
+    }
+
+    /**
+     * 发送统计
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Stats {
+
+        /**
+         * 已提交接收者数
+         */
+        private final long submitted;
+        /**
+         * 发送成功接收者数
+         */
+        private final long delivered;
+        /**
+         * 最终失败接收者数
+         */
+        private final long failed;
+        /**
+         * 重试批次数
+         */
+        private final long retried;
+        /**
+         * 发送请求数
+         */
+        private final long batches;
+        /**
+         * 当前排队批次数
+         */
+        private final int queued;
+        /**
+         * 平均每秒发送成功接收者数
+         */
+        private final double throughput;
+
+    }
+
+}
@@ -0,0 +1,144 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.notify;
+
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.notify.magic.Letter;
+import org.aoju.bus.notify.magic.Property;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link Dispatcher} 建造者
+ *
+ * @param <T> 模版类型
+ * @author Justubborn
+ * @version 6.3.2
+ * @since JDK1.8+
+ */
+public class DispatcherBuilder<T extends Property> implements org.aoju.bus.core.builder.Builder<Dispatcher<T>> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 通知提供者
+     */
+    final Provider<T> provider;
+    /**
+     * 待发送队列容量,队列满时提交方阻塞
+     */
+    int capacity = Normal._1024;
+    /**
+     * 并发发送数
+     */
+    int concurrency = Normal._4;
+    /**
+     * 每秒最大发送请求数,小于等于 0 表示不限制
+     */
+    double rate;
+    /**
+     * 单次请求最大接收者数,依服务商接口限制设置
+     */
+    int batchSize = 100;
+    /**
+     * 等待合并更多接收者的时长(纳秒),0 表示不等待
+     */
+    long linger = TimeUnit.MILLISECONDS.toNanos(50);
+    /**
+     * 最大尝试次数
+     */
+    int maxAttempts = Normal._3;
+    /**
+     * 首次重试的退避时长(纳秒),之后逐次翻倍
+     */
+    long backoff = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * 最终失败的批次接收者
+     */
+    Consumer<Letter<T>> deadLetter;
+
+    public DispatcherBuilder(Provider<T> provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * 创建 DispatcherBuilder
+     *
+     * @param provider 通知提供者
+     * @param <T>      模版类型
+     * @return {@link DispatcherBuilder}
+     */
+    public static <T extends Property> DispatcherBuilder<T> create(Provider<T> provider) {
+        return new DispatcherBuilder<>(provider);
+    }
+
+    public DispatcherBuilder<T> setCapacity(int capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    public DispatcherBuilder<T> setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public DispatcherBuilder<T> setRate(double rate) {
+        this.rate = rate;
+        return this;
+    }
+
+    public DispatcherBuilder<T> setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public DispatcherBuilder<T> setLinger(long linger, TimeUnit unit) {
+        this.linger = unit.toNanos(linger);
+        return this;
+    }
+
+    public DispatcherBuilder<T> setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public DispatcherBuilder<T> setBackoff(long backoff, TimeUnit unit) {
+        this.backoff = unit.toNanos(backoff);
+        return this;
+    }
+
+    public DispatcherBuilder<T> setDeadLetter(Consumer<Letter<T>> deadLetter) {
+        this.deadLetter = deadLetter;
+        return this;
+    }
+
+    @Override
+    public Dispatcher<T> build() {
+        return new Dispatcher<>(this);
+    }
+
+}
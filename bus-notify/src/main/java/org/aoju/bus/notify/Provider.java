@@ -59,6 +59,15 @@ public interface Provider<T extends Property> {
      */
     Message send(T entity, List<String> mobile);
 
+    /**
+     * 单次请求支持的最大接收者数量,超出时列表按此数量拆分为多次请求
+     *
+     * @return 最大接收者数量
+     */
+    default int getBatchSize() {
+        return Integer.MAX_VALUE;
+    }
+
     /**
      * 发送通知
      *
@@ -0,0 +1,81 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.notify.magic;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 待发送批次,同一模版的多个接收者合并为一次发送
+ *
+ * @param <T> 模版类型
+ * @author Justubborn
+ * @version 6.3.2
+ * @since JDK1.8+
+ */
+@Getter
+@Setter
+public class Letter<T extends Property> {
+
+    /**
+     * 通知模版
+     */
+    private final T entity;
+
+    /**
+     * 接收者列表
+     */
+    private final List<String> recipients = new ArrayList<>();
+
+    /**
+     * 发送结果
+     */
+    private final CompletableFuture<Message> future = new CompletableFuture<>();
+
+    /**
+     * 已尝试次数
+     */
+    private int attempts;
+
+    /**
+     * 最后一次发送结果
+     */
+    private Message message;
+
+    /**
+     * 最后一次发送异常
+     */
+    private Throwable cause;
+
+    public Letter(T entity) {
+        this.entity = entity;
+    }
+
+}
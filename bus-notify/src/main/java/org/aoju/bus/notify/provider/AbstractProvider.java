@@ -26,6 +26,8 @@
 package org.aoju.bus.notify.provider;
 
 import lombok.AllArgsConstructor;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.notify.Builder;
 import org.aoju.bus.notify.Context;
 import org.aoju.bus.notify.Provider;
 import org.aoju.bus.notify.magic.Message;
@@ -50,9 +52,36 @@ public abstract class AbstractProvider<T extends Property, K extends Context> im
         return null;
     }
 
+    /**
+     * 以接收者列表替换模版中的接收者后发送,模版本身不会被修改
+     * 接收者超过{@link #getBatchSize()}时分多次请求,遇到失败即返回该次结果
+     *
+     * @param entity 通知内容
+     * @param mobile 手机号列表
+     * @return 发送结果
+     */
     @Override
     public Message send(T entity, List<String> mobile) {
-        return null;
+        int size = Math.max(1, getBatchSize());
+        Message message = null;
+        for (int i = 0; i < mobile.size(); i += size) {
+            List<String> batch = mobile.subList(i, Math.min(i + size, mobile.size()));
+            message = send((T) entity.toBuilder().receive(join(batch)).build());
+            if (null == message || !Builder.ErrorCode.SUCCESS.getCode().equals(message.getErrcode())) {
+                return message;
+            }
+        }
+        return message;
+    }
+
+    /**
+     * 将接收者列表编码为服务商要求的格式,默认以逗号分隔
+     *
+     * @param mobile 手机号列表
+     * @return 接收者
+     */
+    protected String join(List<String> mobile) {
+        return String.join(Symbol.COMMA, mobile);
     }
 
 }
@@ -39,7 +39,7 @@ import org.aoju.bus.notify.magic.Property;
  */
 @Getter
 @Setter
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 public class AliyunEmailProperty extends Property {
 
     /**
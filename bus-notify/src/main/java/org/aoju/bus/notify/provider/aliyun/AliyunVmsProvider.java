@@ -85,4 +85,14 @@ public class AliyunVmsProvider extends AliyunProvider<AliyunVmsProperty, Context
         return checkResponse(Httpx.get(Http.HTTPS_PREFIX + ALIYUN_VMS_API, map));
     }
 
+    /**
+     * 语音通知每次只能呼叫一个号码
+     *
+     * @return 1
+     */
+    @Override
+    public int getBatchSize() {
+        return 1;
+    }
+
 }
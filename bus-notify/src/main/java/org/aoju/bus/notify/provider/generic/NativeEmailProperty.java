@@ -43,7 +43,7 @@ import java.io.File;
  */
 @Getter
 @Setter
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 public class NativeEmailProperty extends Property {
 
     private static final String SMTP_HOST = "mail.smtp.host";
@@ -5,6 +5,7 @@ import org.aoju.bus.notify.Context;
 import org.aoju.bus.notify.magic.Message;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,4 +35,25 @@ public class NeteaseSmsProvider extends NeteaseProvider<NeteaseSmsProperty, Cont
         return post(NETEASE_SMS_API, params);
     }
 
+    /**
+     * 模版短信每次最多发送100个号码
+     *
+     * @return 100
+     */
+    @Override
+    public int getBatchSize() {
+        return 100;
+    }
+
+    /**
+     * mobiles参数为JSON数组
+     *
+     * @param mobile 手机号列表
+     * @return JSON数组
+     */
+    @Override
+    protected String join(List<String> mobile) {
+        return JsonKit.toJsonString(mobile);
+    }
+
 }
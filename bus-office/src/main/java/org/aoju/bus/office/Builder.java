@@ -120,6 +120,11 @@ public final class Builder {
      * 默认:30秒
      */
     public static final long DEFAULT_TASK_QUEUE_TIMEOUT = 30000L;
+    /**
+     * 批量任务在转换队列中的默认最大生存时间.
+     * 默认:5分钟
+     */
+    public static final long DEFAULT_BATCH_QUEUE_TIMEOUT = 300000L;
     /**
      * 启动具有相同URL的office进程时的默认行为已经存在.
      */
@@ -160,6 +160,7 @@ public final class LocalOfficePoolManager extends AbstractOfficePoolManager {
             config.setDisableOpengl(disableOpengl);
             config.setTaskExecutionTimeout(taskExecutionTimeout);
             config.setTaskQueueTimeout(taskQueueTimeout);
+            config.setBatchQueueTimeout(batchQueueTimeout);
 
             final LocalOfficePoolManager manager = new LocalOfficePoolManager(unoUrls, config);
             if (install) {
@@ -43,6 +43,7 @@ public class OnlineOfficePoolBuilder extends OnlineOfficeEntryBuilder
         implements OfficeManagerPoolBuilder {
 
     private long taskQueueTimeout = Builder.DEFAULT_TASK_QUEUE_TIMEOUT;
+    private long batchQueueTimeout = Builder.DEFAULT_BATCH_QUEUE_TIMEOUT;
     private File workingDir;
 
     /**
@@ -66,6 +67,16 @@ public class OnlineOfficePoolBuilder extends OnlineOfficeEntryBuilder
         this.taskQueueTimeout = taskQueueTimeout;
     }
 
+    @Override
+    public long getBatchQueueTimeout() {
+        return batchQueueTimeout;
+    }
+
+    @Override
+    public void setBatchQueueTimeout(final long batchQueueTimeout) {
+        this.batchQueueTimeout = batchQueueTimeout;
+    }
+
     @Override
     public File getWorkingDir() {
         return workingDir;
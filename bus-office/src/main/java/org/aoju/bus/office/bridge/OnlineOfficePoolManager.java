@@ -125,6 +125,7 @@ public final class OnlineOfficePoolManager extends AbstractOfficePoolManager {
             final OnlineOfficePoolBuilder config = new OnlineOfficePoolBuilder(workingDir);
             config.setTaskExecutionTimeout(taskExecutionTimeout);
             config.setTaskQueueTimeout(taskQueueTimeout);
+            config.setBatchQueueTimeout(batchQueueTimeout);
 
             final OnlineOfficePoolManager manager = new OnlineOfficePoolManager(poolSize, urlConnection, config);
             if (install) {
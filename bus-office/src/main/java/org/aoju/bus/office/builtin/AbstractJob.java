@@ -42,6 +42,7 @@ public abstract class AbstractJob implements OptionalTarget {
 
     protected AbstractSourceProvider source;
     protected AbstractTargetProvider target;
+    protected Priority priority;
 
     protected AbstractJob(
             final AbstractSourceProvider source, final AbstractTargetProvider target) {
@@ -58,6 +59,12 @@ public abstract class AbstractJob implements OptionalTarget {
         return this;
     }
 
+    @Override
+    public AbstractJob priority(final Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
     @Override
     public final void execute() throws InstrumentException {
         Assert.notNull(target.getFormat(), "The target format is missing or not supported");
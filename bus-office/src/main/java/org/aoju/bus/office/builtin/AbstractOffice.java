@@ -37,6 +37,7 @@ import org.aoju.bus.office.provider.SourceDocumentProvider;
 public abstract class AbstractOffice implements MadeInOffice {
 
     protected final SourceDocumentProvider source;
+    private Priority priority = Priority.NORMAL;
 
     /**
      * 使用指定的源文档创建新任务.
@@ -48,4 +49,18 @@ public abstract class AbstractOffice implements MadeInOffice {
         this.source = source;
     }
 
+    @Override
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * 设置任务的优先级.
+     *
+     * @param priority 优先级，为{@code null}时使用{@link Priority#NORMAL}.
+     */
+    public void setPriority(final Priority priority) {
+        this.priority = null == priority ? Priority.NORMAL : priority;
+    }
+
 }
@@ -43,4 +43,12 @@ public interface ConvertJob {
      */
     void execute() throws InstrumentException;
 
+    /**
+     * 指定转换的优先级，等待office时高优先级的转换先执行.
+     *
+     * @param priority 优先级.
+     * @return 当前转换.
+     */
+    ConvertJob priority(Priority priority);
+
 }
@@ -46,4 +46,13 @@ public interface MadeInOffice {
      */
     void execute(Context context) throws InstrumentException;
 
+    /**
+     * 任务的优先级，决定等待office管理器时的先后顺序.
+     *
+     * @return 优先级，默认为{@link Priority#NORMAL}.
+     */
+    default Priority getPriority() {
+        return Priority.NORMAL;
+    }
+
 }
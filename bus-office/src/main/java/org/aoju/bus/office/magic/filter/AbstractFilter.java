@@ -125,6 +125,15 @@ public abstract class AbstractFilter implements FilterChain {
         }
     }
 
+    /**
+     * 获取链中的过滤器.
+     *
+     * @return 不可修改的过滤器列表.
+     */
+    public List<Filter> getFilters() {
+        return Collections.unmodifiableList(filters);
+    }
+
     /**
      * 将过滤器链中的位置重置为0，使该链可重用.
      */
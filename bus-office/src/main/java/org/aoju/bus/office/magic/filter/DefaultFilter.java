@@ -80,6 +80,15 @@ public class DefaultFilter extends AbstractFilter {
         this.endsWithRefreshFilter = endsWithRefreshFilter;
     }
 
+    /**
+     * 是否总是在链的末尾应用{@link RefreshFilter}.
+     *
+     * @return {@code true}如果在链的末尾应用{@link RefreshFilter}.
+     */
+    public boolean isEndsWithRefreshFilter() {
+        return endsWithRefreshFilter;
+    }
+
     @Override
     public FilterChain copy() {
         return new DefaultFilter(endsWithRefreshFilter, filters.toArray(new Filter[0]));
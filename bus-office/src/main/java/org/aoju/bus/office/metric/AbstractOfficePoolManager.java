@@ -30,15 +30,19 @@ import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.logger.Logger;
 import org.aoju.bus.office.Builder;
 import org.aoju.bus.office.builtin.MadeInOffice;
+import org.aoju.bus.office.builtin.Priority;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * OfficeManagerPool负责维护一个用于执行{@link MadeInOffice}的{@link OfficeProcessEntryManager}池
  * 当调用{@link #execute(MadeInOffice)}函数时，池将使用第一个{@link OfficeProcessEntryManager}来执行给定的任务
+ * 没有空闲的管理器时任务按{@link MadeInOffice#getPriority()}分别等待，管理器释放后交给优先级最高的等待任务
  *
  * @author Kimi Liu
  * @version 6.3.2
@@ -51,7 +55,13 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
     private static final int POOL_SHUTDOWN = 2;
     protected final OfficeManagerPoolBuilder config;
     private final AtomicInteger poolState = new AtomicInteger(POOL_STOPPED);
-    private final BlockingQueue<OfficeManager> pool;
+    private final Deque<OfficeManager> pool;
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * 每个优先级一个等待条件及等待的任务数，下标为{@link Priority#ordinal()}
+     */
+    private final Condition[] available;
+    private final int[] waiting;
     private OfficeManager[] entries;
 
     /**
@@ -65,7 +75,13 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
 
         this.config = config;
 
-        pool = new ArrayBlockingQueue<>(poolSize);
+        pool = new ArrayDeque<>(poolSize);
+        final Priority[] priorities = Priority.values();
+        available = new Condition[priorities.length];
+        for (int i = 0; i < available.length; i++) {
+            available[i] = lock.newCondition();
+        }
+        waiting = new int[priorities.length];
     }
 
     /**
@@ -83,7 +99,7 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
 
         OfficeManager entry = null;
         try {
-            entry = acquireManager();
+            entry = acquireManager(null == task.getPriority() ? Priority.NORMAL : task.getPriority());
             entry.execute(task);
         } finally {
             if (null != entry) {
@@ -135,18 +151,38 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
 
     /**
      * 获取管理器，等待配置的超时以使某个条目可用
+     * 有更高优先级的任务在等待时，即使有空闲的管理器也继续等待
      *
+     * @param priority 任务的优先级
      * @return 一个有空的office管理器
      * @throws InstrumentException 如果我们找不到管理器
      */
-    private OfficeManager acquireManager() throws InstrumentException {
+    private OfficeManager acquireManager(final Priority priority) throws InstrumentException {
+        final long timeout = Priority.BATCH == priority
+                ? config.getBatchQueueTimeout() : config.getTaskQueueTimeout();
+        final int level = priority.ordinal();
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
         try {
-            final OfficeManager manager = pool.poll(config.getTaskQueueTimeout(), TimeUnit.MILLISECONDS);
-            if (null == manager) {
-                throw new InstrumentException(
-                        "No office manager available after " + config.getTaskQueueTimeout() + " millisec.");
+            lock.lockInterruptibly();
+            try {
+                waiting[level]++;
+                try {
+                    while (pool.isEmpty() || isWaitingAbove(level)) {
+                        if (nanos <= 0L) {
+                            throw new InstrumentException(
+                                    "No office manager available for " + priority + " task after " + timeout + " millisec.");
+                        }
+                        nanos = available[level].awaitNanos(nanos);
+                    }
+                    return pool.poll();
+                } finally {
+                    waiting[level]--;
+                    // 超时、中断或仍有空闲管理器时，把机会交给下一个等待的任务
+                    signalNext();
+                }
+            } finally {
+                lock.unlock();
             }
-            return manager;
         } catch (InterruptedException interruptedEx) {
             throw new InstrumentException(
                     "Thread has been interrupted while waiting for a manager to become available.",
@@ -158,13 +194,44 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
      * 使给定的管理器可用于执行任务
      *
      * @param manager office管理器
-     * @throws InstrumentException 如果我们不能释放管理器
      */
-    private void releaseManager(final OfficeManager manager) throws InstrumentException {
+    private void releaseManager(final OfficeManager manager) {
+        lock.lock();
         try {
-            pool.put(manager);
-        } catch (InterruptedException interruptedEx) {
-            throw new InstrumentException("interrupted", interruptedEx);
+            pool.offer(manager);
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 是否有比给定优先级更高的任务在等待，调用时须持有锁
+     *
+     * @param level 优先级序号
+     * @return 有更高优先级的任务在等待时返回{@code true}
+     */
+    private boolean isWaitingAbove(final int level) {
+        for (int i = 0; i < level; i++) {
+            if (waiting[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 有空闲的管理器时唤醒优先级最高的一个等待任务，调用时须持有锁
+     */
+    private void signalNext() {
+        if (pool.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < waiting.length; i++) {
+            if (waiting[i] > 0) {
+                available[i].signal();
+                return;
+            }
         }
     }
 
@@ -182,7 +249,12 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
 
     private void doStop() throws InstrumentException {
         Logger.info("Stopping the office manager pool...");
-        pool.clear();
+        lock.lock();
+        try {
+            pool.clear();
+        } finally {
+            lock.unlock();
+        }
 
         InstrumentException firstException = null;
         for (final OfficeManager manager : entries) {
@@ -211,6 +283,7 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
 
         protected long taskExecutionTimeout = Builder.DEFAULT_TASK_EXECUTION_TIMEOUT;
         protected long taskQueueTimeout = Builder.DEFAULT_TASK_QUEUE_TIMEOUT;
+        protected long batchQueueTimeout = Builder.DEFAULT_BATCH_QUEUE_TIMEOUT;
 
         protected AbstractOfficeManagerPoolBuilder() {
             super();
@@ -244,6 +317,18 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
             return (B) this;
         }
 
+        /**
+         * 指定{@link Priority#BATCH}任务在转换队列中的最大生存时间，其他优先级的任务使用{@link #taskQueueTimeout(long)}
+         * 默认: 300000毫秒 (5分钟)
+         *
+         * @param batchQueueTimeout 批量任务队列超时，以毫秒为单位
+         * @return 当前实例信息
+         */
+        public B batchQueueTimeout(final long batchQueueTimeout) {
+            this.batchQueueTimeout = batchQueueTimeout;
+            return (B) this;
+        }
+
         /**
          * 创建此生成器指定的管理器
          *
@@ -49,4 +49,19 @@ public interface OfficeManagerPoolBuilder extends OfficeManagerBuilder {
      */
     void setTaskQueueTimeout(final long taskQueueTimeout);
 
+    /**
+     * 获取批量任务在转换队列中的最大生存时间。批量任务总是让位于其他优先级的任务，因此等待时间通常更长
+     * 默认:5分钟
+     *
+     * @return 批量任务队列超时，以毫秒为单位
+     */
+    long getBatchQueueTimeout();
+
+    /**
+     * 设置批量任务在转换队列中的最大生存时间
+     *
+     * @param batchQueueTimeout 批量任务队列超时，以毫秒为单位
+     */
+    void setBatchQueueTimeout(final long batchQueueTimeout);
+
 }
@@ -41,6 +41,7 @@ public class OfficeProcessManagerPoolBuilder extends OfficeProcessManagerEntryBu
         implements OfficeManagerPoolBuilder {
 
     private long taskQueueTimeout = Builder.DEFAULT_TASK_QUEUE_TIMEOUT;
+    private long batchQueueTimeout = Builder.DEFAULT_BATCH_QUEUE_TIMEOUT;
 
     /**
      * 使用指定的值创建配置.
@@ -64,4 +65,14 @@ public class OfficeProcessManagerPoolBuilder extends OfficeProcessManagerEntryBu
         this.taskQueueTimeout = taskQueueTimeout;
     }
 
+    @Override
+    public long getBatchQueueTimeout() {
+        return batchQueueTimeout;
+    }
+
+    @Override
+    public void setBatchQueueTimeout(final long batchQueueTimeout) {
+        this.batchQueueTimeout = batchQueueTimeout;
+    }
+
 }
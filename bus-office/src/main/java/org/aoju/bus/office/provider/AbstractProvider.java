@@ -25,11 +25,14 @@
  ********************************************************************************/
 package org.aoju.bus.office.provider;
 
+import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.FileKit;
 import org.aoju.bus.office.Builder;
 import org.aoju.bus.office.Provider;
 import org.aoju.bus.office.builtin.AbstractNorm;
+import org.aoju.bus.office.builtin.AbstractOffice;
 import org.aoju.bus.office.builtin.OptionalSource;
+import org.aoju.bus.office.builtin.Priority;
 import org.aoju.bus.office.magic.family.DefaultFormatRegistry;
 import org.aoju.bus.office.magic.family.DocumentFormat;
 import org.aoju.bus.office.magic.family.FormatRegistry;
@@ -39,6 +42,7 @@ import org.aoju.bus.office.metric.TemporaryFileMaker;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.function.BiFunction;
 
 /**
  * 所有文档转换器实现的基类.
@@ -51,6 +55,18 @@ public abstract class AbstractProvider implements Provider {
 
     protected final OfficeManager officeManager;
     protected final FormatRegistry formatRegistry;
+    /**
+     * 转换结果缓存，为{@code null}时不缓存
+     */
+    protected ConversionCache cache;
+    /**
+     * 作业未指定优先级时使用的优先级
+     */
+    protected Priority priority = Priority.NORMAL;
+    /**
+     * 作业未指定优先级且源文件不大于此字节数时按{@link Priority#INTERACTIVE}执行，0表示不按大小区分
+     */
+    protected long interactiveSize;
 
     protected AbstractProvider(final OfficeManager officeManager,
                                final FormatRegistry formatRegistry) {
@@ -110,6 +126,66 @@ public abstract class AbstractProvider implements Provider {
         return formatRegistry;
     }
 
+    /**
+     * 执行转换作业
+     * 源为输入流时在等待office之前写出临时文件，启用缓存且选项可缓存时按源文件内容查找结果，命中则不再执行office任务
+     *
+     * @param source   源文档规范.
+     * @param target   目标文档规范.
+     * @param priority 作业指定的优先级，可以为{@code null}.
+     * @param task     根据源和目标创建office任务.
+     * @param options  影响转换结果的选项，作为缓存键的一部分.
+     * @throws InstrumentException 如果转换失败.
+     */
+    protected void execute(
+            final AbstractSourceProvider source,
+            final AbstractTargetProvider target,
+            final Priority priority,
+            final BiFunction<SourceDocumentProvider, TargetDocumentProvider, AbstractOffice> task,
+            final Object... options) throws InstrumentException {
+        final ConsumableSource consumable = new ConsumableSource(source);
+        try {
+            final File sourceFile = consumable.getFile();
+            TargetDocumentProvider output = target;
+            final String key = null == cache ? null : cache.key(sourceFile, source.getFormat(), target.getFormat(), options);
+            if (null != key) {
+                final File targetFile = target.getFile();
+                try {
+                    if (cache.copyTo(key, targetFile)) {
+                        target.onComplete(targetFile);
+                        return;
+                    }
+                } catch (InstrumentException ex) {
+                    target.onFailure(targetFile, ex);
+                    throw ex;
+                }
+                output = new CachingTarget(target, targetFile, key);
+            }
+            final AbstractOffice office = task.apply(consumable, output);
+            office.setPriority(getPriority(priority, sourceFile));
+            officeManager.execute(office);
+        } finally {
+            consumable.release();
+        }
+    }
+
+    /**
+     * 确定作业的优先级.
+     *
+     * @param priority   作业指定的优先级.
+     * @param sourceFile 源文件.
+     * @return 优先级.
+     */
+    private Priority getPriority(final Priority priority, final File sourceFile) {
+        if (null != priority) {
+            return priority;
+        }
+        if (interactiveSize > 0 && sourceFile.length() <= interactiveSize) {
+            return Priority.INTERACTIVE;
+        }
+        return this.priority;
+    }
+
     /**
      * 构造{@link AbstractProvider}的构造器.
      *
@@ -119,6 +195,9 @@ public abstract class AbstractProvider implements Provider {
 
         protected OfficeManager officeManager;
         protected FormatRegistry formatRegistry;
+        protected ConversionCache cache;
+        protected Priority priority = Priority.NORMAL;
+        protected long interactiveSize;
 
         protected AbstractConverterBuilder() {
             super();
@@ -146,6 +225,55 @@ public abstract class AbstractProvider implements Provider {
             return (B) this;
         }
 
+        /**
+         * 指定转换结果缓存，相同内容、格式和选项的转换直接从缓存复制结果.
+         *
+         * @param cache 转换结果缓存.
+         * @return 当前实例信息.
+         */
+        public B cache(final ConversionCache cache) {
+            this.cache = cache;
+            return (B) this;
+        }
+
+        /**
+         * 指定作业未单独指定优先级时使用的优先级.
+         * 默认: {@link Priority#NORMAL}
+         *
+         * @param priority 优先级.
+         * @return 当前实例信息.
+         */
+        public B priority(final Priority priority) {
+            this.priority = null == priority ? Priority.NORMAL : priority;
+            return (B) this;
+        }
+
+        /**
+         * 指定按{@link Priority#INTERACTIVE}执行的源文件最大字节数，作业单独指定优先级时不生效.
+         * 默认: 0，不按大小区分
+         *
+         * @param interactiveSize 字节数.
+         * @return 当前实例信息.
+         */
+        public B interactiveSize(final long interactiveSize) {
+            this.interactiveSize = interactiveSize;
+            return (B) this;
+        }
+
+        /**
+         * 将缓存和优先级设置应用到转换器.
+         *
+         * @param provider 转换器.
+         * @param <T>      转换器类型.
+         * @return 转换器.
+         */
+        protected <T extends AbstractProvider> T configure(final T provider) {
+            provider.cache = cache;
+            provider.priority = priority;
+            provider.interactiveSize = interactiveSize;
+            return provider;
+        }
+
         /**
          * 指定此生成器指定的转换器.
          *
@@ -154,4 +282,63 @@ public abstract class AbstractProvider implements Provider {
         protected abstract AbstractProvider build();
     }
 
+    /**
+     * 只获取一次源文件的源规范，任务结束或作业失败时只通知一次原规范
+     */
+    private static class ConsumableSource extends AbstractSourceProvider {
+
+        private final AbstractSourceProvider source;
+        private boolean consumed;
+
+        ConsumableSource(final AbstractSourceProvider source) {
+            super(source.getFile());
+            this.source = source;
+            if (null != source.getFormat()) {
+                setDocumentFormat(source.getFormat());
+            }
+        }
+
+        @Override
+        public void onConsumed(final File file) {
+            release();
+        }
+
+        void release() {
+            if (false == consumed) {
+                consumed = true;
+                source.onConsumed(getFile());
+            }
+        }
+
+    }
+
+    /**
+     * 转换成功后先保存到缓存，再交给原目标规范
+     */
+    private class CachingTarget extends AbstractTargetProvider {
+
+        private final AbstractTargetProvider target;
+        private final String key;
+
+        CachingTarget(final AbstractTargetProvider target, final File file, final String key) {
+            super(file);
+            this.target = target;
+            this.key = key;
+            setDocumentFormat(target.getFormat());
+        }
+
+        @Override
+        public void onComplete(final File file) {
+            cache.put(key, file);
+            target.onComplete(file);
+        }
+
+        @Override
+        public void onFailure(final File file, final Exception exception) {
+            target.onFailure(file, exception);
+        }
+
+    }
+
+
 }
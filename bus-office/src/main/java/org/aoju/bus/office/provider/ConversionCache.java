@@ -0,0 +1,419 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.provider;
+
+import org.aoju.bus.core.annotation.ThreadSafe;
+import org.aoju.bus.core.lang.Charset;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.FileKit;
+import org.aoju.bus.core.toolkit.HexKit;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.core.toolkit.ReflectKit;
+import org.aoju.bus.logger.Logger;
+import org.aoju.bus.office.magic.family.DocumentFormat;
+import org.aoju.bus.office.magic.filter.*;
+import org.aoju.bus.office.magic.filter.text.PageMarginsFilter;
+import org.aoju.bus.office.magic.filter.text.TableOfContentUpdaterFilter;
+import org.aoju.bus.office.magic.filter.text.TextInserterFilter;
+import org.aoju.bus.office.magic.filter.text.TextReplacerFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按内容寻址的转换结果缓存
+ * <pre>
+ * 1. 键为源文件内容的SHA-256摘要、源格式、目标格式以及加载/过滤/存储选项的摘要
+ * 2. 结果以键为文件名保存在缓存目录中，重启后从目录恢复，按最后访问时间排序
+ * 3. 缓存总大小超过上限时淘汰最久未使用的结果
+ * </pre>
+ * 过滤器链只含已知无状态、结果只取决于构造参数的过滤器时才缓存，
+ * 含有收集信息的过滤器(如{@link PageCounterFilter})、读取外部文件的过滤器或自定义过滤器时不缓存
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+@ThreadSafe
+public class ConversionCache {
+
+    private static final String SUFFIX = ".cache";
+    private static final String TEMP_SUFFIX = ".tmp";
+    /**
+     * 描述选项时对象嵌套的最大深度，避免循环引用
+     */
+    private static final int MAX_DEPTH = 8;
+    /**
+     * 无状态且结果只取决于构造参数的过滤器，按构造参数描述，其他过滤器不可缓存
+     */
+    private static final Set<Class<?>> STATELESS_FILTERS = new HashSet<>(Arrays.asList(
+            RefreshFilter.class, NoopFilter.class, TextReplacerFilter.class, TextInserterFilter.class,
+            PageMarginsFilter.class, TableOfContentUpdaterFilter.class,
+            org.aoju.bus.office.magic.filter.text.PageSelectorFilter.class,
+            org.aoju.bus.office.magic.filter.draw.PageSelectorFilter.class));
+
+    private final File directory;
+    private final long maxBytes;
+    /**
+     * 键到结果大小的索引，按访问顺序排列，第一项为最久未使用的结果
+     */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long size;
+
+    /**
+     * 创建缓存，目录中已有的结果会被恢复
+     *
+     * @param directory 缓存目录，不存在时创建
+     * @param maxBytes  缓存的最大字节数
+     */
+    public ConversionCache(final File directory, final long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The cache size must be greater than 0");
+        }
+        this.directory = FileKit.mkdir(directory);
+        this.maxBytes = maxBytes;
+        load();
+    }
+
+    /**
+     * 计算转换结果的键
+     *
+     * @param source       源文件
+     * @param sourceFormat 源格式，可以为{@code null}
+     * @param targetFormat 目标格式
+     * @param options      影响转换结果的其他选项，如加载属性、过滤器链和存储属性
+     * @return 十六进制的键，选项中含有不可缓存的过滤器时返回{@code null}
+     * @throws InstrumentException 读取源文件失败
+     */
+    public String key(final File source, final DocumentFormat sourceFormat, final DocumentFormat targetFormat,
+                      final Object... options) throws InstrumentException {
+        final StringBuilder builder = new StringBuilder();
+        builder.append('\0').append(null == sourceFormat ? null : sourceFormat.getExtension());
+        builder.append('\0').append(targetFormat.getExtension());
+        for (Object option : options) {
+            builder.append('\0');
+            if (false == describe(option, builder, 0)) {
+                return null;
+            }
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new InstrumentException(e);
+        }
+        final byte[] buffer = new byte[IoKit.DEFAULT_LARGE_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(source.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new InstrumentException("Could not read source file " + source, e);
+        }
+        digest.update(builder.toString().getBytes(Charset.UTF_8));
+        return HexKit.encodeHexStr(digest.digest());
+    }
+
+    /**
+     * 将缓存的结果复制到目标文件
+     *
+     * @param key    键
+     * @param target 目标文件
+     * @return 命中时返回{@code true}，未命中时目标文件不变
+     * @throws InstrumentException 复制失败
+     */
+    public boolean copyTo(final String key, final File target) throws InstrumentException {
+        final FileChannel in;
+        synchronized (this) {
+            if (null == index.get(key)) {
+                misses.incrementAndGet();
+                return false;
+            }
+            final File file = file(key);
+            try {
+                in = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            } catch (IOException e) {
+                // 文件被外部删除，从索引中移除
+                size -= index.remove(key);
+                misses.incrementAndGet();
+                return false;
+            }
+            file.setLastModified(System.currentTimeMillis());
+        }
+        hits.incrementAndGet();
+        // 淘汰只删除目录项，已打开的文件仍可读取，因此复制不需要持有锁
+        try (FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            IoKit.copy(in, out);
+        } catch (IOException e) {
+            throw new InstrumentException("Could not copy cached result to " + target, e);
+        } finally {
+            IoKit.close(in);
+        }
+        return true;
+    }
+
+    /**
+     * 保存转换结果，超过最大字节数时淘汰最久未使用的结果
+     * 单个结果大于缓存上限时不保存
+     *
+     * @param key    键
+     * @param result 转换结果文件，本方法只复制不修改
+     */
+    public void put(final String key, final File result) {
+        final long length = result.length();
+        if (length > maxBytes) {
+            return;
+        }
+        final File temp = new File(directory, key + TEMP_SUFFIX + Thread.currentThread().getId());
+        try {
+            Files.copy(result.toPath(), temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this) {
+                Files.move(temp.toPath(), file(key).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                final Long previous = index.put(key, length);
+                size += length - (null == previous ? 0L : previous);
+                evict();
+            }
+        } catch (IOException e) {
+            // 缓存失败不影响转换结果
+            Logger.warn("Could not cache conversion result {}: {}", key, e.getMessage());
+            FileKit.delete(temp);
+        }
+    }
+
+    /**
+     * 清空缓存并删除所有结果文件
+     */
+    public synchronized void clear() {
+        for (String key : index.keySet()) {
+            FileKit.delete(file(key));
+        }
+        index.clear();
+        size = 0L;
+    }
+
+    /**
+     * 缓存的结果数
+     *
+     * @return 结果数
+     */
+    public synchronized int count() {
+        return index.size();
+    }
+
+    /**
+     * 缓存的结果总字节数
+     *
+     * @return 字节数
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * 命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private File file(final String key) {
+        return new File(directory, key + SUFFIX);
+    }
+
+    /**
+     * 从缓存目录恢复索引，按最后修改时间排列，并删除上次未完成的临时文件
+     */
+    private synchronized void load() {
+        final File[] files = directory.listFiles();
+        if (null == files) {
+            return;
+        }
+        final List<File> results = new ArrayList<>(files.length);
+        for (File file : files) {
+            final String name = file.getName();
+            if (name.endsWith(SUFFIX)) {
+                results.add(file);
+            } else if (name.contains(TEMP_SUFFIX)) {
+                FileKit.delete(file);
+            }
+        }
+        results.sort(Comparator.comparingLong(File::lastModified));
+        for (File file : results) {
+            final String name = file.getName();
+            final long length = file.length();
+            index.put(name.substring(0, name.length() - SUFFIX.length()), length);
+            size += length;
+        }
+        evict();
+    }
+
+    /**
+     * 淘汰最久未使用的结果直到总大小不超过上限，调用时须持有锁
+     */
+    private void evict() {
+        final Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+        while (size > maxBytes && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            final File file = file(eldest.getKey());
+            if (false == file.delete() && file.exists()) {
+                file.deleteOnExit();
+            }
+            size -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 将选项描述为稳定的字符串，Map按键排序，过滤器链按其中的过滤器展开，其他对象按类名和非静态字段展开
+     *
+     * @param value   选项
+     * @param builder 输出
+     * @param depth   当前深度
+     * @return 选项可缓存时返回{@code true}
+     */
+    private static boolean describe(final Object value, final StringBuilder builder, final int depth) {
+        if (null == value || depth > MAX_DEPTH) {
+            builder.append(value);
+            return true;
+        }
+        final Class<?> type = value.getClass();
+        if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum || type.isPrimitive()) {
+            builder.append(value);
+        } else if (value instanceof FilterChain) {
+            // 过滤器链的执行位置等状态不影响结果，只描述链中的过滤器
+            if (false == value instanceof AbstractFilter) {
+                return false;
+            }
+            builder.append(type.getName()).append('[');
+            if (value instanceof DefaultFilter) {
+                builder.append(((DefaultFilter) value).isEndsWithRefreshFilter()).append(',');
+            }
+            for (Filter filter : ((AbstractFilter) value).getFilters()) {
+                if (null == filter || false == STATELESS_FILTERS.contains(filter.getClass())
+                        || false == describe(filter, builder, depth + 1)) {
+                    return false;
+                }
+                builder.append(',');
+            }
+            builder.append(']');
+        } else if (value instanceof Filter) {
+            if (false == STATELESS_FILTERS.contains(type)) {
+                return false;
+            }
+            return describeFields(value, builder, depth);
+        } else if (value instanceof Map) {
+            final Map<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            builder.append('{');
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                builder.append(entry.getKey()).append('=');
+                if (false == describe(entry.getValue(), builder, depth + 1)) {
+                    return false;
+                }
+                builder.append(',');
+            }
+            builder.append('}');
+        } else if (value instanceof Iterable) {
+            builder.append('[');
+            for (Object item : (Iterable<?>) value) {
+                if (false == describe(item, builder, depth + 1)) {
+                    return false;
+                }
+                builder.append(',');
+            }
+            builder.append(']');
+        } else if (type.isArray()) {
+            builder.append('[');
+            for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                if (false == describe(Array.get(value, i), builder, depth + 1)) {
+                    return false;
+                }
+                builder.append(',');
+            }
+            builder.append(']');
+        } else {
+            return describeFields(value, builder, depth);
+        }
+        return true;
+    }
+
+    /**
+     * 按类名和非静态、非瞬态字段描述对象
+     *
+     * @param value   对象
+     * @param builder 输出
+     * @param depth   当前深度
+     * @return 对象可缓存时返回{@code true}
+     */
+    private static boolean describeFields(final Object value, final StringBuilder builder, final int depth) {
+        final Class<?> type = value.getClass();
+        builder.append(type.getName()).append('(');
+        for (Field field : ReflectKit.getFields(type)) {
+            final int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                continue;
+            }
+            builder.append(field.getName()).append('=');
+            if (false == describe(ReflectKit.getFieldValue(value, field), builder, depth + 1)) {
+                return false;
+            }
+            builder.append(',');
+        }
+        builder.append(')');
+        return true;
+    }
+
+}
@@ -165,7 +165,7 @@ public class LocalOfficeProvider extends AbstractProvider {
 
         @Override
         public LocalOfficeProvider build() {
-            return new LocalOfficeProvider(officeManager, formatRegistry, loadProperties, filterChain, storeProperties);
+            return configure(new LocalOfficeProvider(officeManager, formatRegistry, loadProperties, filterChain, storeProperties));
         }
 
         /**
@@ -241,8 +241,9 @@ public class LocalOfficeProvider extends AbstractProvider {
 
         @Override
         public void doExecute() throws InstrumentException {
-            final LocalMadeInOffice task = new LocalMadeInOffice(source, target, loadProperties, filterChain, storeProperties);
-            officeManager.execute(task);
+            LocalOfficeProvider.this.execute(source, target, priority,
+                    (input, output) -> new LocalMadeInOffice(input, output, loadProperties, filterChain, storeProperties),
+                    loadProperties, filterChain, storeProperties);
         }
 
     }
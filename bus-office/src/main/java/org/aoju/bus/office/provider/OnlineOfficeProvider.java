@@ -96,7 +96,7 @@ public class OnlineOfficeProvider extends AbstractProvider {
 
         @Override
         public OnlineOfficeProvider build() {
-            return new OnlineOfficeProvider(officeManager, formatRegistry);
+            return configure(new OnlineOfficeProvider(officeManager, formatRegistry));
         }
 
     }
@@ -124,8 +124,7 @@ public class OnlineOfficeProvider extends AbstractProvider {
 
         @Override
         public void doExecute() throws InstrumentException {
-            final OnlineMadeInOffice task = new OnlineMadeInOffice(source, target);
-            officeManager.execute(task);
+            OnlineOfficeProvider.this.execute(source, target, priority, OnlineMadeInOffice::new);
         }
 
     }
@@ -34,6 +34,7 @@ import org.aoju.bus.office.support.PoiChecker;
 import org.aoju.bus.office.support.excel.cell.CellLocation;
 import org.aoju.bus.office.support.excel.sax.ExcelSaxReader;
 import org.aoju.bus.office.support.excel.sax.RowHandler;
+import org.aoju.bus.office.support.excel.stream.StreamExcelWriter;
 
 import java.io.File;
 import java.io.InputStream;
@@ -408,6 +409,26 @@ public class ExcelKit {
         }
     }
 
+    /**
+     * 获得{@link StreamExcelWriter}，不依赖POI，适合大数据量写出
+     *
+     * @param destFile 目标文件
+     * @return {@link StreamExcelWriter}
+     */
+    public static StreamExcelWriter getStreamWriter(File destFile) {
+        return new StreamExcelWriter(destFile);
+    }
+
+    /**
+     * 获得{@link StreamExcelWriter}，不依赖POI，适合大数据量写出
+     *
+     * @param out 输出流
+     * @return {@link StreamExcelWriter}
+     */
+    public static StreamExcelWriter getStreamWriter(OutputStream out) {
+        return new StreamExcelWriter(out);
+    }
+
     /**
      * 将Sheet列号变为列名
      *
@@ -41,6 +41,7 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.ExcelNumberFormat;
 import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.model.SharedStringsTable;
 import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 import org.xml.sax.ContentHandler;
@@ -89,6 +90,19 @@ public class ExcelSaxKit {
      * @return 数据值
      */
     public static Object getDataValue(CellDataType cellDataType, String value, SharedStringsTable sharedStringsTable, String numFmtString) {
+        return getDataValue(cellDataType, value, (SharedStrings) sharedStringsTable, numFmtString);
+    }
+
+    /**
+     * 根据数据类型获取数据
+     *
+     * @param cellDataType       数据类型枚举
+     * @param value              数据值
+     * @param sharedStringsTable {@link SharedStrings}
+     * @param numFmtString       数字格式名
+     * @return 数据值
+     */
+    public static Object getDataValue(CellDataType cellDataType, String value, SharedStrings sharedStringsTable, String numFmtString) {
         if (null == value) {
             return null;
         }
@@ -261,7 +275,8 @@ public class ExcelSaxKit {
      */
     private static Number getNumberValue(double numValue, String numFmtString) {
         // 普通数字
-        if (null != numFmtString && false == StringKit.contains(numFmtString, Symbol.DOT)) {
+        if (null != numFmtString && false == StringKit.contains(numFmtString, Symbol.DOT)
+                && numValue == (long) numValue) {
             return (long) numValue;
         }
         return numValue;
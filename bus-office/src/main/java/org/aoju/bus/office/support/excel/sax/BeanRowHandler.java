@@ -25,17 +25,29 @@
  ********************************************************************************/
 package org.aoju.bus.office.support.excel.sax;
 
+import org.aoju.bus.core.beans.PropertyDesc;
 import org.aoju.bus.core.convert.Convert;
 import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.BeanKit;
 import org.aoju.bus.core.toolkit.CollKit;
-import org.aoju.bus.core.toolkit.IterKit;
+import org.aoju.bus.core.toolkit.ReflectKit;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Bean形式的行处理器
- * 将一行数据转换为Map，key为指定行，value为当前行对应位置的值
+ * 读取到标题行时按标题名称（忽略大小写）为每一列编译属性写入器，之后每行直接创建Bean并按列写入，
+ * 不再经过中间Map和逐行的属性查找
  *
  * @author Kimi Liu
  * @version 6.3.2
@@ -43,14 +55,32 @@ import java.util.List;
  */
 public abstract class BeanRowHandler<T> extends AbstractRowHandler<T> {
 
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
     /**
      * 标题所在行（从0开始计数）
      */
     private final int headerRowIndex;
     /**
-     * 标题行
+     * Bean类型
+     */
+    private final Class<T> clazz;
+    /**
+     * 无参构造，不存在时为{@code null}
+     */
+    private final MethodHandle constructor;
+    /**
+     * 每个sheet的列写入器，并行读取多个sheet时各sheet的标题可不同
+     */
+    private final Map<Integer, Setter[]> sheetSetters = new ConcurrentHashMap<>();
+    /**
+     * 最近一次读取的标题行
+     */
+    volatile List<String> headerList;
+    /**
+     * 最近一次编译的列写入器
      */
-    List<String> headerList;
+    private volatile Setter[] setters = new Setter[0];
 
     /**
      * 构造
@@ -64,16 +94,145 @@ public abstract class BeanRowHandler<T> extends AbstractRowHandler<T> {
         super(startRowIndex, endRowIndex);
         Assert.isTrue(headerRowIndex <= startRowIndex, "Header row must before the start row!");
         this.headerRowIndex = headerRowIndex;
-        this.convertFunc = (rowCells) -> BeanKit.toBean(IterKit.toMap(headerList, rowCells), clazz);
+        this.clazz = clazz;
+        this.constructor = constructor(clazz);
+        this.convertFunc = (rowCells) -> toBean(this.setters, rowCells);
     }
 
     @Override
     public void handle(int sheetIndex, long rowIndex, List<Object> rowCells) {
         if (rowIndex == this.headerRowIndex) {
-            this.headerList = CollKit.unmodifiable(Convert.toList(String.class, rowCells));
+            final List<String> headerList = CollKit.unmodifiable(Convert.toList(String.class, rowCells));
+            final Setter[] setters = compile(headerList);
+            this.sheetSetters.put(sheetIndex, setters);
+            this.headerList = headerList;
+            this.setters = setters;
             return;
         }
-        super.handle(sheetIndex, rowIndex, rowCells);
+        if (rowIndex < this.startRowIndex || rowIndex > this.endRowIndex) {
+            return;
+        }
+        final Setter[] setters = this.sheetSetters.get(sheetIndex);
+        handleData(sheetIndex, rowIndex, toBean(null == setters ? this.setters : setters, rowCells));
+    }
+
+    /**
+     * 行数据在写入Bean后不再使用，可复用
+     *
+     * @return true
+     */
+    @Override
+    public boolean isRowReusable() {
+        return true;
+    }
+
+    /**
+     * 创建Bean并按列写入
+     *
+     * @param setters  列写入器
+     * @param rowCells 行数据
+     * @return Bean
+     */
+    private T toBean(Setter[] setters, List<Object> rowCells) {
+        final T bean = newInstance();
+        final int size = Math.min(setters.length, rowCells.size());
+        for (int i = 0; i < size; i++) {
+            if (null != setters[i]) {
+                setters[i].set(bean, rowCells.get(i));
+            }
+        }
+        return bean;
+    }
+
+    private T newInstance() {
+        if (null == this.constructor) {
+            return ReflectKit.newInstanceIfPossible(this.clazz);
+        }
+        try {
+            return (T) this.constructor.invoke();
+        } catch (Throwable e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 按标题编译每一列的写入器，没有对应可写属性的列为{@code null}
+     *
+     * @param headerList 标题行
+     * @return 列写入器
+     */
+    private Setter[] compile(List<String> headerList) {
+        final Map<String, PropertyDesc> props = BeanKit.getBeanDesc(this.clazz).getPropMap(true);
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final Setter[] setters = new Setter[headerList.size()];
+        for (int i = 0; i < setters.length; i++) {
+            final String header = headerList.get(i);
+            final PropertyDesc prop = null == header ? null : props.get(header);
+            if (null == prop || false == prop.isWritable(false)) {
+                continue;
+            }
+            try {
+                final MethodHandle handle;
+                final Method setter = prop.getSetter();
+                if (null != setter) {
+                    setter.setAccessible(true);
+                    handle = lookup.unreflect(setter);
+                } else {
+                    final Field field = prop.getField();
+                    if (Modifier.isFinal(field.getModifiers()) || Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    handle = lookup.unreflectSetter(field);
+                }
+                setters[i] = new Setter(handle.asType(SETTER_TYPE), prop.getFieldType(), prop.getFieldClass());
+            } catch (IllegalAccessException | SecurityException e) {
+                throw new InstrumentException(e);
+            }
+        }
+        return setters;
+    }
+
+    private static MethodHandle constructor(Class<?> clazz) {
+        try {
+            return MethodHandles.lookup().findConstructor(clazz, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // 无公开的无参构造，退回反射创建
+            return null;
+        }
+    }
+
+    /**
+     * 单个属性的写入器，值的类型不匹配时转换
+     */
+    private static class Setter {
+
+        private final MethodHandle handle;
+        private final Type type;
+        private final Class<?> boxed;
+
+        Setter(MethodHandle handle, Type type, Class<?> clazz) {
+            this.handle = handle;
+            this.type = type;
+            this.boxed = clazz.isPrimitive() ? Convert.wrap(clazz) : clazz;
+        }
+
+        void set(Object bean, Object value) {
+            if (null == value) {
+                return;
+            }
+            if (false == this.boxed.isInstance(value)) {
+                value = Convert.convertQuietly(this.type, value);
+                if (null == value) {
+                    return;
+                }
+            }
+            try {
+                this.handle.invokeExact(bean, value);
+            } catch (Throwable e) {
+                throw new InstrumentException(e);
+            }
+        }
     }
 
 }
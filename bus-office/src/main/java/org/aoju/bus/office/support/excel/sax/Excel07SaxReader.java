@@ -39,7 +39,12 @@ import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Sax方式读取Excel文件
@@ -52,6 +57,14 @@ import java.util.Iterator;
 public class Excel07SaxReader implements ExcelSaxReader<Excel07SaxReader> {
 
     private final SheetSaxHandler handler;
+    /**
+     * 是否使用磁盘存储的共享字符串表
+     */
+    private boolean mappedSharedStrings;
+    /**
+     * 并行读取多个sheet的线程池，{@code null}表示依次读取
+     */
+    private Executor executor;
 
     /**
      * 构造
@@ -73,6 +86,31 @@ public class Excel07SaxReader implements ExcelSaxReader<Excel07SaxReader> {
         return this;
     }
 
+    /**
+     * 设置是否使用磁盘存储的共享字符串表{@link MappedSharedStrings}
+     * 共享字符串很多的大文件建议开启，避免全部字符串保存在堆中
+     *
+     * @param mappedSharedStrings 是否使用磁盘存储的共享字符串表
+     * @return this
+     */
+    public Excel07SaxReader setMappedSharedStrings(boolean mappedSharedStrings) {
+        this.mappedSharedStrings = mappedSharedStrings;
+        return this;
+    }
+
+    /**
+     * 设置读取所有sheet时使用的线程池，设置后各sheet并行解析
+     * 此时行处理器的方法会在多个线程中被同时调用（sheetIndex不同），需自行保证线程安全，
+     * 内置的{@link MapRowHandler}和{@link BeanRowHandler}按sheetIndex分别保存标题行，可直接使用
+     *
+     * @param executor 线程池，{@code null}表示依次读取
+     * @return this
+     */
+    public Excel07SaxReader setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
     @Override
     public Excel07SaxReader read(File file, int rid) throws InstrumentException {
         return read(file, RID_PREFIX + rid);
@@ -150,15 +188,29 @@ public class Excel07SaxReader implements ExcelSaxReader<Excel07SaxReader> {
         }
 
         // 获取共享字符串表
+        MappedSharedStrings mapped = null;
         try {
-            this.handler.sharedStringsTable = xssfReader.getSharedStringsTable();
+            if (this.mappedSharedStrings) {
+                try (InputStream in = xssfReader.getSharedStringsData()) {
+                    mapped = MappedSharedStrings.parse(in);
+                }
+                this.handler.sharedStrings = mapped;
+                this.handler.sharedStringsTable = null;
+            } else {
+                this.handler.sharedStrings = null;
+                this.handler.sharedStringsTable = xssfReader.getSharedStringsTable();
+            }
         } catch (IOException e) {
             throw new InstrumentException(e);
         } catch (InvalidFormatException e) {
             throw new InstrumentException(e);
         }
 
-        return readSheets(xssfReader, idOrRidOrSheetName);
+        try {
+            return readSheets(xssfReader, idOrRidOrSheetName);
+        } finally {
+            IoKit.close(mapped);
+        }
     }
 
     /**
@@ -178,6 +230,8 @@ public class Excel07SaxReader implements ExcelSaxReader<Excel07SaxReader> {
                 sheetInputStream = xssfReader.getSheet(RID_PREFIX + (this.handler.sheetIndex + 1));
                 ExcelSaxKit.readFrom(sheetInputStream, this.handler);
                 this.handler.rowHandler.doAfterAllAnalysed();
+            } else if (null != this.executor) {
+                readSheetsParallel(xssfReader.getSheetsData());
             } else {
                 this.handler.sheetIndex = -1;
                 // 遍历所有sheet
@@ -201,6 +255,37 @@ public class Excel07SaxReader implements ExcelSaxReader<Excel07SaxReader> {
         return this;
     }
 
+    /**
+     * 并行读取所有sheet，每个sheet使用独立的{@link SheetSaxHandler}
+     *
+     * @param sheetInputStreams 所有sheet的数据流
+     * @throws InstrumentException POI异常
+     */
+    private void readSheetsParallel(Iterator<InputStream> sheetInputStreams) throws InstrumentException {
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        int sheetIndex = 0;
+        while (sheetInputStreams.hasNext()) {
+            final InputStream sheetInputStream = sheetInputStreams.next();
+            final SheetSaxHandler sheetHandler = this.handler.fork(sheetIndex++);
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    ExcelSaxKit.readFrom(sheetInputStream, sheetHandler);
+                    sheetHandler.rowHandler.doAfterAllAnalysed();
+                } finally {
+                    IoKit.close(sheetInputStream);
+                }
+            }, this.executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new InstrumentException(e.getCause());
+        }
+    }
+
     /**
      * 获取sheet索引，从0开始
      * <ul>
@@ -31,6 +31,7 @@ import org.aoju.bus.core.toolkit.IterKit;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Map形式的行处理器
@@ -47,9 +48,13 @@ public abstract class MapRowHandler extends AbstractRowHandler<Map<String, Objec
      */
     private final int headerRowIndex;
     /**
-     * 标题行
+     * 每个sheet的标题行，并行读取多个sheet时各sheet的标题可不同
      */
-    List<String> headerList;
+    private final Map<Integer, List<String>> sheetHeaders = new ConcurrentHashMap<>();
+    /**
+     * 最近一次读取的标题行
+     */
+    volatile List<String> headerList;
 
     /**
      * 构造
@@ -67,10 +72,26 @@ public abstract class MapRowHandler extends AbstractRowHandler<Map<String, Objec
     @Override
     public void handle(int sheetIndex, long rowIndex, List<Object> rowCells) {
         if (rowIndex == this.headerRowIndex) {
-            this.headerList = CollKit.unmodifiable(Convert.toList(String.class, rowCells));
+            final List<String> headerList = CollKit.unmodifiable(Convert.toList(String.class, rowCells));
+            this.sheetHeaders.put(sheetIndex, headerList);
+            this.headerList = headerList;
             return;
         }
-        super.handle(sheetIndex, rowIndex, rowCells);
+        if (rowIndex < this.startRowIndex || rowIndex > this.endRowIndex) {
+            return;
+        }
+        final List<String> headerList = this.sheetHeaders.get(sheetIndex);
+        handleData(sheetIndex, rowIndex, IterKit.toMap(null == headerList ? this.headerList : headerList, rowCells));
+    }
+
+    /**
+     * 行数据在转换为Map后不再使用，可复用
+     *
+     * @return true
+     */
+    @Override
+    public boolean isRowReusable() {
+        return true;
     }
 
 }
@@ -0,0 +1,280 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.support.excel.sax;
+
+import org.aoju.bus.core.annotation.ThreadSafe;
+import org.aoju.bus.core.lang.Charset;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.FileKit;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.office.support.excel.ExcelSaxKit;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 磁盘存储的共享字符串表，替代将全部字符串保存在堆中的{@link org.apache.poi.xssf.model.SharedStringsTable}
+ * <pre>
+ * 1. 解析sharedStrings.xml时将每个字符串的UTF-8内容顺序写入数据文件，起始偏移写入偏移文件
+ * 2. 偏移文件以内存映射方式读取，按序号查找时只读取该字符串的字节
+ * 3. 最近读取的字符串按序号缓存在固定大小的数组中，重复出现的字符串无需再次读取
+ * </pre>
+ * 可被多个线程同时读取，使用完毕后需调用{@link #close()}删除临时文件
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+@ThreadSafe
+public class MappedSharedStrings implements SharedStrings, Closeable {
+
+    /**
+     * 缓存的字符串数，须为2的幂
+     */
+    private static final int CACHE_SIZE = 4096;
+
+    private final File dataFile;
+    private final File offsetFile;
+    private final FileChannel data;
+    /**
+     * 第i个字符串的起始偏移，最后一项为数据文件的长度
+     */
+    private final LongBuffer offsets;
+    private final int count;
+    private final int uniqueCount;
+    private final Entry[] cache = new Entry[CACHE_SIZE];
+
+    private MappedSharedStrings(File dataFile, File offsetFile, int count, int uniqueCount) throws IOException {
+        this.dataFile = dataFile;
+        this.offsetFile = offsetFile;
+        this.count = count;
+        this.uniqueCount = uniqueCount;
+        this.data = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ);
+        try (FileChannel channel = FileChannel.open(offsetFile.toPath(), StandardOpenOption.READ)) {
+            this.offsets = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer();
+        }
+    }
+
+    /**
+     * 解析sharedStrings.xml并建立磁盘索引
+     *
+     * @param in sharedStrings.xml内容，为{@code null}时返回空表
+     * @return 共享字符串表
+     * @throws InstrumentException IO异常或XML格式错误
+     */
+    public static MappedSharedStrings parse(InputStream in) throws InstrumentException {
+        File dataFile = null;
+        File offsetFile = null;
+        try {
+            dataFile = File.createTempFile("bus-sst", ".dat");
+            offsetFile = File.createTempFile("bus-sst", ".idx");
+            final Indexer indexer;
+            try (OutputStream dataOut = new BufferedOutputStream(new FileOutputStream(dataFile), 65536);
+                 DataOutputStream offsetOut = new DataOutputStream(
+                         new BufferedOutputStream(new FileOutputStream(offsetFile), 65536))) {
+                indexer = new Indexer(dataOut, offsetOut);
+                if (null != in) {
+                    ExcelSaxKit.readFrom(in, indexer);
+                }
+                offsetOut.writeLong(indexer.position);
+            }
+            if (null != indexer.failure) {
+                throw indexer.failure;
+            }
+            return new MappedSharedStrings(dataFile, offsetFile, Math.max(indexer.count, indexer.index),
+                    indexer.index);
+        } catch (IOException e) {
+            FileKit.delete(dataFile);
+            FileKit.delete(offsetFile);
+            throw new InstrumentException(e);
+        } catch (RuntimeException e) {
+            FileKit.delete(dataFile);
+            FileKit.delete(offsetFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 获取字符串
+     *
+     * @param idx 序号，从0开始
+     * @return 字符串
+     */
+    public String getString(int idx) {
+        if (idx < 0 || idx >= uniqueCount) {
+            throw new IndexOutOfBoundsException("Shared string index " + idx + " out of " + uniqueCount);
+        }
+        final int slot = idx & (CACHE_SIZE - 1);
+        final Entry cached = cache[slot];
+        if (null != cached && cached.index == idx) {
+            return cached.value;
+        }
+        final long start = offsets.get(idx);
+        final int length = (int) (offsets.get(idx + 1) - start);
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (data.read(buffer, start + buffer.position()) < 0) {
+                    throw new EOFException(dataFile.getPath());
+                }
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        final String value = new String(buffer.array(), 0, length, Charset.UTF_8);
+        cache[slot] = new Entry(idx, value);
+        return value;
+    }
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+        return new XSSFRichTextString(getString(idx));
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return uniqueCount;
+    }
+
+    /**
+     * 关闭并删除临时文件，偏移文件的映射在回收后释放，无法立即删除时在退出时删除
+     */
+    @Override
+    public void close() {
+        IoKit.close(data);
+        if (false == dataFile.delete()) {
+            dataFile.deleteOnExit();
+        }
+        if (false == offsetFile.delete()) {
+            offsetFile.deleteOnExit();
+        }
+    }
+
+    /**
+     * 缓存项，字段均为final，可在线程间安全发布
+     */
+    private static class Entry {
+
+        private final int index;
+        private final String value;
+
+        Entry(int index, String value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 解析sharedStrings.xml，si为一个字符串，由其中的t拼接而成，rPh中的注音忽略
+     */
+    private static class Indexer extends DefaultHandler {
+
+        private final OutputStream dataOut;
+        private final DataOutputStream offsetOut;
+        private final StringBuilder text = new StringBuilder();
+        private long position;
+        private int index;
+        private int count;
+        private boolean inText;
+        private boolean inPhonetic;
+        private IOException failure;
+
+        Indexer(OutputStream dataOut, DataOutputStream offsetOut) {
+            this.dataOut = dataOut;
+            this.offsetOut = offsetOut;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            final String name = localName(localName, qName);
+            if ("t".equals(name)) {
+                inText = false == inPhonetic;
+            } else if ("si".equals(name)) {
+                text.setLength(0);
+            } else if ("rPh".equals(name)) {
+                inPhonetic = true;
+            } else if ("sst".equals(name)) {
+                final String value = attributes.getValue("count");
+                if (null != value) {
+                    try {
+                        count = Integer.parseInt(value);
+                    } catch (NumberFormatException ignore) {
+                        // 计数仅供参考
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            final String name = localName(localName, qName);
+            if ("t".equals(name)) {
+                inText = false;
+            } else if ("rPh".equals(name)) {
+                inPhonetic = false;
+            } else if ("si".equals(name) && null == failure) {
+                final byte[] bytes = text.toString().getBytes(Charset.UTF_8);
+                try {
+                    offsetOut.writeLong(position);
+                    dataOut.write(bytes);
+                } catch (IOException e) {
+                    failure = e;
+                }
+                position += bytes.length;
+                index++;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        private static String localName(String localName, String qName) {
+            if (null != localName && false == localName.isEmpty()) {
+                return localName;
+            }
+            final int colon = qName.indexOf(':');
+            return colon < 0 ? qName : qName.substring(colon + 1);
+        }
+    }
+
+}
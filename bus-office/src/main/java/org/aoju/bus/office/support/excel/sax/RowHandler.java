@@ -61,6 +61,16 @@ public interface RowHandler {
 
     }
 
+    /**
+     * 行数据列表是否可复用，返回true时读取器在每行处理后清空并复用同一个列表，
+     * 此时{@link #handle(int, long, List)}中不能保留该列表的引用
+     *
+     * @return 是否可复用行数据列表
+     */
+    default boolean isRowReusable() {
+        return false;
+    }
+
     /**
      * 处理一个sheet页完成的操作
      */
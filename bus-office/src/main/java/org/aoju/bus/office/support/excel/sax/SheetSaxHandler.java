@@ -32,6 +32,7 @@ import org.aoju.bus.core.toolkit.StringKit;
 import org.aoju.bus.office.support.excel.ExcelSaxKit;
 import org.aoju.bus.office.support.excel.cell.FormulaCellValue;
 import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.model.SharedStringsTable;
 import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
@@ -66,6 +67,10 @@ public class SheetSaxHandler extends DefaultHandler {
      * excel 2007 的共享字符串表,对应sharedString.xml
      */
     protected SharedStringsTable sharedStringsTable;
+    /**
+     * 其它实现的共享字符串表，如{@link MappedSharedStrings}，不为{@code null}时优先于{@link #sharedStringsTable}
+     */
+    protected SharedStrings sharedStrings;
     /**
      * sheet的索引，从0开始
      */
@@ -127,6 +132,21 @@ public class SheetSaxHandler extends DefaultHandler {
         this.rowHandler = rowHandler;
     }
 
+    /**
+     * 创建读取另一个sheet的处理器，共用样式表、共享字符串表和行处理器
+     *
+     * @param sheetIndex sheet的索引，从0开始
+     * @return 新的处理器
+     */
+    SheetSaxHandler fork(int sheetIndex) {
+        final SheetSaxHandler handler = new SheetSaxHandler(this.rowHandler);
+        handler.stylesTable = this.stylesTable;
+        handler.sharedStringsTable = this.sharedStringsTable;
+        handler.sharedStrings = this.sharedStrings;
+        handler.sheetIndex = sheetIndex;
+        return handler;
+    }
+
     /**
      * 设置行处理器
      *
@@ -272,8 +292,13 @@ public class SheetSaxHandler extends DefaultHandler {
         rowHandler.handle(sheetIndex, rowNumber, rowCellList);
 
         // 一行结束
-        // 新建一个新列，之前的列抛弃（可能被回收或rowHandler处理）
-        rowCellList = new ArrayList<>(curCell + 1);
+        if (rowHandler.isRowReusable()) {
+            // 行处理器不保留行数据，复用列表
+            rowCellList.clear();
+        } else {
+            // 新建一个新列，之前的列抛弃（可能被回收或rowHandler处理）
+            rowCellList = new ArrayList<>(curCell + 1);
+        }
         // 行数增加
         index++;
         // 当前列置0
@@ -291,7 +316,8 @@ public class SheetSaxHandler extends DefaultHandler {
         fillBlankCell(preCoordinate, curCoordinate, false);
 
         final String contentStr = StringKit.trim(lastContent);
-        Object value = ExcelSaxKit.getDataValue(this.cellDataType, contentStr, this.sharedStringsTable, this.numFmtString);
+        Object value = ExcelSaxKit.getDataValue(this.cellDataType, contentStr,
+                null != this.sharedStrings ? this.sharedStrings : this.sharedStringsTable, this.numFmtString);
         if (false == this.lastFormula.isEmpty()) {
             value = new FormulaCellValue(StringKit.trim(lastFormula), value);
         }
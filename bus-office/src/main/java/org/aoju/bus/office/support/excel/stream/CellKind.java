@@ -0,0 +1,140 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.support.excel.stream;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单元格值的类型，在编译行编码器时按属性类型确定，避免逐个单元格判断类型
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+enum CellKind {
+
+    /**
+     * 整数
+     */
+    INTEGER,
+    /**
+     * 小数
+     */
+    DECIMAL,
+    /**
+     * 布尔
+     */
+    BOOLEAN,
+    /**
+     * {@link Date}
+     */
+    DATE,
+    /**
+     * {@link Calendar}
+     */
+    CALENDAR,
+    /**
+     * {@link LocalDate}
+     */
+    LOCAL_DATE,
+    /**
+     * {@link LocalDateTime}
+     */
+    LOCAL_DATE_TIME,
+    /**
+     * {@link Instant}
+     */
+    INSTANT,
+    /**
+     * {@link ZonedDateTime}
+     */
+    ZONED_DATE_TIME,
+    /**
+     * {@link OffsetDateTime}
+     */
+    OFFSET_DATE_TIME,
+    /**
+     * 字符串，其它类型按toString写出
+     */
+    STRING,
+    /**
+     * 声明类型无法确定，按值的实际类型判断
+     */
+    OBJECT;
+
+    /**
+     * 根据类型获取单元格值类型
+     *
+     * @param type 类型
+     * @return 单元格值类型
+     */
+    static CellKind of(Class<?> type) {
+        if (type == Object.class || type == Number.class || type.isInterface()) {
+            return OBJECT;
+        }
+        if (type == long.class || type == Long.class || type == int.class || type == Integer.class
+                || type == short.class || type == Short.class || type == byte.class || type == Byte.class
+                || type == AtomicInteger.class || type == AtomicLong.class) {
+            return INTEGER;
+        }
+        if (type == double.class || type == Double.class || type == float.class || type == Float.class
+                || BigDecimal.class.isAssignableFrom(type) || BigInteger.class.isAssignableFrom(type)) {
+            return DECIMAL;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return BOOLEAN;
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return DATE;
+        }
+        if (Calendar.class.isAssignableFrom(type)) {
+            return CALENDAR;
+        }
+        if (type == LocalDate.class) {
+            return LOCAL_DATE;
+        }
+        if (type == LocalDateTime.class) {
+            return LOCAL_DATE_TIME;
+        }
+        if (type == Instant.class) {
+            return INSTANT;
+        }
+        if (type == ZonedDateTime.class) {
+            return ZONED_DATE_TIME;
+        }
+        if (type == OffsetDateTime.class) {
+            return OFFSET_DATE_TIME;
+        }
+        return STRING;
+    }
+
+}
@@ -0,0 +1,242 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.support.excel.stream;
+
+import org.aoju.bus.core.beans.PropertyDesc;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.BeanKit;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * 行编码器，将一行数据按列写出到{@link SheetWriter}
+ * Bean的编码器按类编译：属性的Getter转换为{@link MethodHandle}，单元格类型按属性类型预先确定，
+ * 编码器由{@link StreamExcelWriter}按实例缓存，不在静态缓存中长期持有Bean类
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+final class RowEncoder {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * 列的键，Bean为字段名，Map为键
+     */
+    private final Object[] keys;
+    private final String[] names;
+    private final CellKind[] kinds;
+    /**
+     * Bean属性的Getter，Map行为{@code null}
+     */
+    private final MethodHandle[] getters;
+
+    private RowEncoder(Object[] keys, String[] names, CellKind[] kinds, MethodHandle[] getters) {
+        this.keys = keys;
+        this.names = names;
+        this.kinds = kinds;
+        this.getters = getters;
+    }
+
+    /**
+     * 根据Map的键创建编码器，键的顺序为列的顺序
+     *
+     * @param map 第一行数据
+     * @return 编码器
+     */
+    static RowEncoder of(Map<?, ?> map) {
+        final Object[] keys = map.keySet().toArray();
+        final String[] names = new String[keys.length];
+        final CellKind[] kinds = new CellKind[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            names[i] = String.valueOf(keys[i]);
+            kinds[i] = CellKind.OBJECT;
+        }
+        return new RowEncoder(keys, names, kinds, null);
+    }
+
+    /**
+     * 编译Bean类的编码器
+     *
+     * @param type Bean类
+     * @return 编码器
+     */
+    static RowEncoder of(Class<?> type) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final List<Object> keys = new ArrayList<>();
+        final List<CellKind> kinds = new ArrayList<>();
+        final List<MethodHandle> getters = new ArrayList<>();
+        for (PropertyDesc prop : BeanKit.getBeanDesc(type).getProps()) {
+            if (false == prop.isReadable(false)) {
+                continue;
+            }
+            final MethodHandle handle;
+            try {
+                final Method getter = prop.getGetter();
+                if (null != getter) {
+                    getter.setAccessible(true);
+                    handle = lookup.unreflect(getter);
+                } else {
+                    final Field field = prop.getField();
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    handle = lookup.unreflectGetter(field);
+                }
+            } catch (IllegalAccessException | SecurityException e) {
+                throw new InstrumentException(e);
+            }
+            keys.add(prop.getFieldName());
+            kinds.add(CellKind.of(prop.getFieldClass()));
+            getters.add(handle.asType(GETTER_TYPE));
+        }
+        final String[] names = new String[keys.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = (String) keys.get(i);
+        }
+        return new RowEncoder(keys.toArray(), names, kinds.toArray(new CellKind[0]),
+                getters.toArray(new MethodHandle[0]));
+    }
+
+    /**
+     * 按标题别名选择和重命名列
+     *
+     * @param headerAlias 标题别名，key为字段名或Map的键，value为别名
+     * @param onlyAlias   是否只保留有别名的列，为true时列按别名的顺序排列
+     * @return 新的编码器，无别名时返回本身
+     */
+    RowEncoder alias(Map<String, String> headerAlias, boolean onlyAlias) {
+        if (null == headerAlias || headerAlias.isEmpty()) {
+            return this;
+        }
+        final List<Integer> selected = new ArrayList<>(names.length);
+        if (onlyAlias) {
+            for (String name : headerAlias.keySet()) {
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].equals(name)) {
+                        selected.add(i);
+                        break;
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < names.length; i++) {
+                selected.add(i);
+            }
+        }
+        final int size = selected.size();
+        final Object[] aliasKeys = new Object[size];
+        final String[] aliasNames = new String[size];
+        final CellKind[] aliasKinds = new CellKind[size];
+        final MethodHandle[] aliasGetters = null == getters ? null : new MethodHandle[size];
+        for (int i = 0; i < size; i++) {
+            final int column = selected.get(i);
+            aliasKeys[i] = keys[column];
+            aliasNames[i] = headerAlias.getOrDefault(names[column], names[column]);
+            aliasKinds[i] = kinds[column];
+            if (null != getters) {
+                aliasGetters[i] = getters[column];
+            }
+        }
+        return new RowEncoder(aliasKeys, aliasNames, aliasKinds, aliasGetters);
+    }
+
+    /**
+     * 写出标题行
+     *
+     * @param writer 工作表
+     * @throws IOException IO异常
+     */
+    void header(SheetWriter writer) throws IOException {
+        writer.startRow();
+        for (int i = 0; i < names.length; i++) {
+            writer.header(i, names[i]);
+        }
+        writer.endRow();
+    }
+
+    /**
+     * 写出一行
+     *
+     * @param writer 工作表
+     * @param row    Bean或Map
+     * @throws IOException IO异常
+     */
+    void encode(SheetWriter writer, Object row) throws IOException {
+        writer.startRow();
+        if (null == getters) {
+            final Map<?, ?> map = (Map<?, ?>) row;
+            for (int i = 0; i < keys.length; i++) {
+                writer.cell(i, kinds[i], map.get(keys[i]));
+            }
+        } else {
+            for (int i = 0; i < getters.length; i++) {
+                final Object value;
+                try {
+                    value = getters[i].invokeExact(row);
+                } catch (Throwable e) {
+                    throw new InstrumentException(e);
+                }
+                writer.cell(i, kinds[i], value);
+            }
+        }
+        writer.endRow();
+    }
+
+    /**
+     * 按位置写出一行，用于{@link Iterable}和数组行
+     *
+     * @param writer 工作表
+     * @param row    行数据
+     * @throws IOException IO异常
+     */
+    static void encodeValues(SheetWriter writer, Object row) throws IOException {
+        writer.startRow();
+        int column = 0;
+        if (row instanceof Iterable) {
+            for (Object value : (Iterable<?>) row) {
+                writer.cell(column++, CellKind.OBJECT, value);
+            }
+        } else if (row instanceof Object[]) {
+            for (Object value : (Object[]) row) {
+                writer.cell(column++, CellKind.OBJECT, value);
+            }
+        } else {
+            writer.cell(column, CellKind.OBJECT, row);
+        }
+        writer.endRow();
+    }
+
+}
@@ -0,0 +1,443 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.support.excel.stream;
+
+import org.aoju.bus.core.annotation.NotThreadSafe;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * 单个工作表XML的写出，直接拼接sheet XML，不创建行和单元格对象
+ * 数字、日期和布尔值内联写出，字符串按{@link SharedStrings}是否存在写为共享字符串或内联字符串
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+@NotThreadSafe
+final class SheetWriter {
+
+    /**
+     * Excel日期序列号的起点1899-12-30与1970-01-01相差的天数
+     */
+    private static final long EPOCH_OFFSET = 25569L;
+    private static final double MILLIS_PER_DAY = 86400000D;
+    private static final double SECONDS_PER_DAY = 86400D;
+    /**
+     * xlsx工作表的最大行数和列数
+     */
+    static final int MAX_ROWS = 1048576;
+    static final int MAX_COLUMNS = 16384;
+
+    private static final String HEAD = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+            + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">";
+
+    private final Writer out;
+    private final SharedStrings sharedStrings;
+    private final TimeZone timeZone = TimeZone.getDefault();
+    private final char[] buffer = new char[8192];
+    private final char[] digits = new char[20];
+    /**
+     * 写入缓冲区的{@link Appendable}视图，用于转义文本
+     */
+    private final Appendable sink = new Appendable() {
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            SheetWriter.this.append(csq.toString());
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            SheetWriter.this.append(csq.subSequence(start, end).toString());
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            SheetWriter.this.append(c);
+            return this;
+        }
+    };
+    private String[] columns = new String[0];
+    private int position;
+    private int row;
+
+    /**
+     * 构造
+     *
+     * @param out           输出，本类只刷新不关闭
+     * @param sharedStrings 共享字符串表，{@code null}表示字符串内联写出
+     */
+    SheetWriter(Writer out, SharedStrings sharedStrings) {
+        this.out = out;
+        this.sharedStrings = sharedStrings;
+    }
+
+    /**
+     * 写出工作表头部
+     *
+     * @param freezeRows 冻结的行数，0表示不冻结
+     * @throws IOException IO异常
+     */
+    void start(int freezeRows) throws IOException {
+        append(HEAD);
+        if (freezeRows > 0) {
+            append("<sheetViews><sheetView workbookViewId=\"0\"><pane ySplit=\"");
+            appendLong(freezeRows);
+            append("\" topLeftCell=\"A");
+            appendLong(freezeRows + 1);
+            append("\" activePane=\"bottomLeft\" state=\"frozen\"/></sheetView></sheetViews>");
+        }
+        append("<sheetData>");
+    }
+
+    /**
+     * 开始新行
+     *
+     * @throws IOException IO异常
+     */
+    void startRow() throws IOException {
+        if (row >= MAX_ROWS) {
+            throw new InstrumentException("Row number (" + (row + 1) + ") outside allowable range (1.." + MAX_ROWS + ")");
+        }
+        row++;
+        append("<row r=\"");
+        appendLong(row);
+        append("\">");
+    }
+
+    /**
+     * 结束当前行
+     *
+     * @throws IOException IO异常
+     */
+    void endRow() throws IOException {
+        append("</row>");
+    }
+
+    /**
+     * 写出标题单元格
+     *
+     * @param column 列号，从0开始
+     * @param name   标题
+     * @throws IOException IO异常
+     */
+    void header(int column, String name) throws IOException {
+        string(column, name, StyleTable.HEADER);
+    }
+
+    /**
+     * 按值的类型写出单元格，{@code null}不写出
+     *
+     * @param column 列号，从0开始
+     * @param kind   值的类型，{@link CellKind#OBJECT}表示按值的实际类型判断
+     * @param value  值
+     * @throws IOException IO异常
+     */
+    void cell(int column, CellKind kind, Object value) throws IOException {
+        if (null == value) {
+            return;
+        }
+        if (kind == CellKind.OBJECT) {
+            kind = CellKind.of(value.getClass());
+        }
+        switch (kind) {
+            case INTEGER:
+                integer(column, ((Number) value).longValue());
+                break;
+            case DECIMAL:
+                decimal(column, (Number) value);
+                break;
+            case BOOLEAN:
+                bool(column, (Boolean) value);
+                break;
+            case DATE:
+                date(column, (Date) value);
+                break;
+            case CALENDAR:
+                final Calendar calendar = (Calendar) value;
+                serial(column, (calendar.getTimeInMillis() + calendar.getTimeZone().getOffset(calendar.getTimeInMillis()))
+                        / MILLIS_PER_DAY + EPOCH_OFFSET, StyleTable.DATETIME);
+                break;
+            case LOCAL_DATE:
+                serial(column, ((LocalDate) value).toEpochDay() + EPOCH_OFFSET, StyleTable.DATE);
+                break;
+            case LOCAL_DATE_TIME:
+                final LocalDateTime dateTime = (LocalDateTime) value;
+                serial(column, dateTime.toLocalDate().toEpochDay() + EPOCH_OFFSET
+                        + dateTime.toLocalTime().toNanoOfDay() / 1e9 / SECONDS_PER_DAY, StyleTable.DATETIME);
+                break;
+            case INSTANT:
+                final long millis = ((Instant) value).toEpochMilli();
+                serial(column, (millis + timeZone.getOffset(millis)) / MILLIS_PER_DAY + EPOCH_OFFSET, StyleTable.DATETIME);
+                break;
+            case ZONED_DATE_TIME:
+                cell(column, CellKind.LOCAL_DATE_TIME, ((ZonedDateTime) value).toLocalDateTime());
+                break;
+            case OFFSET_DATE_TIME:
+                cell(column, CellKind.LOCAL_DATE_TIME, ((OffsetDateTime) value).toLocalDateTime());
+                break;
+            default:
+                string(column, value.toString(), StyleTable.DEFAULT);
+        }
+    }
+
+    /**
+     * 写出工作表尾部并刷新输出
+     *
+     * @throws IOException IO异常
+     */
+    void end() throws IOException {
+        append("</sheetData></worksheet>");
+        flush();
+    }
+
+    /**
+     * 已写出的行数，包含标题行
+     *
+     * @return 行数
+     */
+    int getRowCount() {
+        return row;
+    }
+
+    private void integer(int column, long value) throws IOException {
+        open(column, StyleTable.DEFAULT);
+        append("><v>");
+        appendLong(value);
+        append("</v></c>");
+    }
+
+    private void decimal(int column, Number value) throws IOException {
+        if (value instanceof BigDecimal) {
+            open(column, StyleTable.DEFAULT);
+            append("><v>");
+            append(((BigDecimal) value).toString());
+            append("</v></c>");
+        } else if (value instanceof BigInteger) {
+            open(column, StyleTable.DEFAULT);
+            append("><v>");
+            append(value.toString());
+            append("</v></c>");
+        } else {
+            serial(column, value.doubleValue(), StyleTable.DEFAULT);
+        }
+    }
+
+    private void date(int column, Date value) throws IOException {
+        final long millis = value.getTime();
+        final double serial = (millis + timeZone.getOffset(millis)) / MILLIS_PER_DAY + EPOCH_OFFSET;
+        serial(column, serial, value instanceof java.sql.Date ? StyleTable.DATE : StyleTable.DATETIME);
+    }
+
+    private void serial(int column, double value, int style) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            string(column, Double.toString(value), StyleTable.DEFAULT);
+            return;
+        }
+        open(column, style);
+        append("><v>");
+        final long integral = (long) value;
+        if (integral == value && Math.abs(integral) < 1L << 53) {
+            appendLong(integral);
+        } else {
+            append(Double.toString(value));
+        }
+        append("</v></c>");
+    }
+
+    private void bool(int column, boolean value) throws IOException {
+        open(column, StyleTable.DEFAULT);
+        append(" t=\"b\"><v>");
+        append(value ? '1' : '0');
+        append("</v></c>");
+    }
+
+    private void string(int column, String value, int style) throws IOException {
+        open(column, style);
+        if (null != sharedStrings) {
+            append(" t=\"s\"><v>");
+            appendLong(sharedStrings.index(value));
+            append("</v></c>");
+            return;
+        }
+        append(" t=\"inlineStr\"><is>");
+        if (needsPreserve(value)) {
+            append("<t xml:space=\"preserve\">");
+        } else {
+            append("<t>");
+        }
+        escape(value, sink);
+        append("</t></is></c>");
+    }
+
+    private void open(int column, int style) throws IOException {
+        append("<c r=\"");
+        append(column(column));
+        appendLong(row);
+        append('"');
+        if (style != StyleTable.DEFAULT) {
+            append(" s=\"");
+            appendLong(style);
+            append('"');
+        }
+    }
+
+    private String column(int index) {
+        if (index < 0 || index >= MAX_COLUMNS) {
+            throw new InstrumentException("Column index (" + index + ") outside allowable range (0.." + (MAX_COLUMNS - 1) + ")");
+        }
+        if (index >= columns.length) {
+            final String[] grown = new String[Math.min(Math.max(index + 1, columns.length * 2), MAX_COLUMNS)];
+            System.arraycopy(columns, 0, grown, 0, columns.length);
+            for (int i = columns.length; i < grown.length; i++) {
+                grown[i] = columnName(i);
+            }
+            columns = grown;
+        }
+        return columns[index];
+    }
+
+    /**
+     * 将列号转换为列名，0为A，26为AA
+     *
+     * @param index 列号
+     * @return 列名
+     */
+    static String columnName(int index) {
+        final StringBuilder name = new StringBuilder(3);
+        int n = index + 1;
+        while (n > 0) {
+            n--;
+            name.append((char) ('A' + n % 26));
+            n /= 26;
+        }
+        return name.reverse().toString();
+    }
+
+    static boolean needsPreserve(String value) {
+        return value.length() > 0 && (Character.isWhitespace(value.charAt(0))
+                || Character.isWhitespace(value.charAt(value.length() - 1)));
+    }
+
+    /**
+     * 转义XML文本和属性值，去除XML 1.0不允许的控制字符
+     *
+     * @param value 文本
+     * @param out   输出
+     * @throws IOException IO异常
+     */
+    static void escape(String value, Appendable out) throws IOException {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                case '\t':
+                case '\n':
+                case '\r':
+                    out.append(c);
+                    break;
+                default:
+                    if (c >= 0x20 && c != 0xFFFE && c != 0xFFFF) {
+                        out.append(c);
+                    }
+            }
+        }
+    }
+
+    private void appendLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            append(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        int i = digits.length;
+        do {
+            digits[--i] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        if (position + digits.length - i > buffer.length) {
+            flushBuffer();
+        }
+        System.arraycopy(digits, i, buffer, position, digits.length - i);
+        position += digits.length - i;
+    }
+
+    private void append(String value) throws IOException {
+        final int length = value.length();
+        if (length > buffer.length - position) {
+            flushBuffer();
+            if (length > buffer.length) {
+                out.write(value);
+                return;
+            }
+        }
+        value.getChars(0, length, buffer, position);
+        position += length;
+    }
+
+    private void append(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = c;
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+    private void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+}
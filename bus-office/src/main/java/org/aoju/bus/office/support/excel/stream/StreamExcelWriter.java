@@ -0,0 +1,440 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.support.excel.stream;
+
+import org.aoju.bus.core.lang.Charset;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.thread.GlobalThread;
+import org.aoju.bus.core.toolkit.FileKit;
+import org.aoju.bus.core.toolkit.IoKit;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 流式xlsx写出，不依赖POI
+ * 工作表XML直接写入{@link ZipOutputStream}，不创建Workbook、Row和Cell对象，也不为单元格创建样式，
+ * 内存占用与行数无关，适合百万行以上的导出
+ * <pre>
+ * 1. 每行可为Bean、Map、Iterable或数组，Bean的行编码器按类编译一次
+ * 2. 数字、日期和布尔值内联写出，字符串默认内联，可通过{@link #setSharedStrings(boolean)}改为共享字符串
+ * 3. 使用固定的样式表：默认、日期、日期时间、标题
+ * 4. 多个工作表可通过{@link #write(Map, Executor)}并行生成
+ * </pre>
+ * 工作表按调用顺序写出，全部写出后调用{@link #close()}完成文件
+ * 与SXSSF相同，单个工作表超过1048576行或16384列时抛出异常，工作表名按Excel的规则校验
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class StreamExcelWriter implements Closeable {
+
+    private final ZipOutputStream out;
+    private final List<String> sheetNames = new ArrayList<>();
+    /**
+     * Bean类的行编码器，并行写出多个工作表时共享
+     */
+    private final Map<Class<?>, RowEncoder> encoders = new ConcurrentHashMap<>();
+    private SharedStrings sharedStrings;
+    private Map<String, String> headerAlias;
+    private boolean onlyAlias;
+    private boolean writeHeader = true;
+    private boolean freezeHeader;
+    private boolean closed;
+
+    /**
+     * 构造
+     *
+     * @param destFile 目标文件，存在则覆盖
+     */
+    public StreamExcelWriter(File destFile) {
+        this(FileKit.getOutputStream(destFile));
+    }
+
+    /**
+     * 构造
+     *
+     * @param out 输出流，{@link #close()}时关闭
+     */
+    public StreamExcelWriter(OutputStream out) {
+        this.out = new ZipOutputStream(out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 65536));
+        // 工作表XML重复度高，最快压缩级别的文件仅略大，但压缩耗时约为默认级别的三分之一
+        this.out.setLevel(Deflater.BEST_SPEED);
+    }
+
+    /**
+     * 设置是否使用共享字符串表，重复字符串较多时文件更小，但所有不同的字符串都保存在内存中
+     * 需在写出第一个工作表前设置
+     *
+     * @param sharedStrings 是否使用共享字符串
+     * @return this
+     */
+    public StreamExcelWriter setSharedStrings(boolean sharedStrings) {
+        if (false == sheetNames.isEmpty()) {
+            throw new InstrumentException("Shared strings must be set before the first sheet is written");
+        }
+        this.sharedStrings = sharedStrings ? new SharedStrings() : null;
+        return this;
+    }
+
+    /**
+     * 设置压缩级别，默认为{@link Deflater#BEST_SPEED}
+     *
+     * @param level 压缩级别，0-9
+     * @return this
+     */
+    public StreamExcelWriter setCompressionLevel(int level) {
+        out.setLevel(level);
+        return this;
+    }
+
+    /**
+     * 设置标题别名,key为字段名或Map中的key,value为别名
+     *
+     * @param headerAlias 标题别名
+     * @return this
+     */
+    public StreamExcelWriter setHeaderAlias(Map<String, String> headerAlias) {
+        this.headerAlias = headerAlias;
+        return this;
+    }
+
+    /**
+     * 增加标题别名
+     *
+     * @param name  原标题
+     * @param alias 别名
+     * @return this
+     */
+    public StreamExcelWriter addHeaderAlias(String name, String alias) {
+        if (null == this.headerAlias) {
+            this.headerAlias = new LinkedHashMap<>();
+        }
+        this.headerAlias.put(name, alias);
+        return this;
+    }
+
+    /**
+     * 设置是否只保留别名中的字段值,如果为true,则不设置alias的字段将不被输出,且列按别名的顺序排列
+     *
+     * @param isOnlyAlias 是否只保留别名中的字段值
+     * @return this
+     */
+    public StreamExcelWriter setOnlyAlias(boolean isOnlyAlias) {
+        this.onlyAlias = isOnlyAlias;
+        return this;
+    }
+
+    /**
+     * 设置Bean和Map行是否写出标题行
+     *
+     * @param writeHeader 是否写出标题行
+     * @return this
+     */
+    public StreamExcelWriter setWriteHeader(boolean writeHeader) {
+        this.writeHeader = writeHeader;
+        return this;
+    }
+
+    /**
+     * 设置是否冻结标题行
+     *
+     * @param freezeHeader 是否冻结标题行
+     * @return this
+     */
+    public StreamExcelWriter setFreezeHeader(boolean freezeHeader) {
+        this.freezeHeader = freezeHeader;
+        return this;
+    }
+
+    /**
+     * 写出到新的工作表，工作表名为sheet加序号
+     *
+     * @param rows 行数据
+     * @return this
+     */
+    public StreamExcelWriter write(Iterable<?> rows) {
+        return write("sheet" + (sheetNames.size() + 1), rows);
+    }
+
+    /**
+     * 写出到新的工作表，行数据逐行编码写入压缩流，不在内存中保留
+     *
+     * @param sheetName 工作表名
+     * @param rows      行数据
+     * @return this
+     */
+    public StreamExcelWriter write(String sheetName, Iterable<?> rows) {
+        final String entry = addSheet(sheetName);
+        try {
+            out.putNextEntry(new ZipEntry(entry));
+            writeSheet(new OutputStreamWriter(out, Charset.UTF_8), rows);
+            out.closeEntry();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        return this;
+    }
+
+    /**
+     * 使用全局线程池并行生成多个工作表
+     *
+     * @param sheets 工作表名和行数据，按迭代顺序写出
+     * @return this
+     * @see #write(Map, Executor)
+     */
+    public StreamExcelWriter write(Map<String, ? extends Iterable<?>> sheets) {
+        return write(sheets, GlobalThread.getExecutor());
+    }
+
+    /**
+     * 并行生成多个工作表
+     * 每个工作表在线程池中编码到临时文件，再按顺序压缩写出，前面的工作表压缩时后面的工作表仍在编码
+     *
+     * @param sheets   工作表名和行数据，按迭代顺序写出，各行数据需可在不同线程中迭代
+     * @param executor 线程池
+     * @return this
+     */
+    public StreamExcelWriter write(Map<String, ? extends Iterable<?>> sheets, Executor executor) {
+        final List<String> entries = new ArrayList<>(sheets.size());
+        final List<File> files = new ArrayList<>(sheets.size());
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(sheets.size());
+        try {
+            for (Map.Entry<String, ? extends Iterable<?>> sheet : sheets.entrySet()) {
+                entries.add(addSheet(sheet.getKey()));
+                final File file = File.createTempFile("bus-sheet", ".xml");
+                files.add(file);
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try (Writer writer = new OutputStreamWriter(new BufferedOutputStream(
+                            new FileOutputStream(file), 65536), Charset.UTF_8)) {
+                        writeSheet(writer, sheet.getValue());
+                    } catch (IOException e) {
+                        throw new InstrumentException(e);
+                    }
+                }, executor));
+            }
+            for (int i = 0; i < entries.size(); i++) {
+                futures.get(i).join();
+                out.putNextEntry(new ZipEntry(entries.get(i)));
+                Files.copy(files.get(i).toPath(), out);
+                out.closeEntry();
+                FileKit.delete(files.get(i));
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof InstrumentException
+                    ? (InstrumentException) e.getCause() : new InstrumentException(e.getCause());
+        } finally {
+            // 出错时等待其余工作表结束编码后再删除临时文件
+            for (CompletableFuture<Void> future : futures) {
+                try {
+                    future.join();
+                } catch (CompletionException ignore) {
+                    // 已在上面处理第一个异常
+                }
+            }
+            for (File file : files) {
+                FileKit.delete(file);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 写出工作簿、关系、样式和共享字符串，并关闭输出流
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (sheetNames.isEmpty()) {
+                write(Collections.emptyList());
+            }
+            final Writer writer = new OutputStreamWriter(out, Charset.UTF_8);
+            entry("[Content_Types].xml", writer, contentTypes());
+            entry("_rels/.rels", writer, "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" "
+                    + "Target=\"xl/workbook.xml\"/></Relationships>");
+            entry("xl/workbook.xml", writer, workbook());
+            entry("xl/_rels/workbook.xml.rels", writer, workbookRelationships());
+            entry("xl/styles.xml", writer, StyleTable.XML);
+            if (null != sharedStrings) {
+                out.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+                sharedStrings.write(writer);
+                out.closeEntry();
+            }
+            out.finish();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } finally {
+            IoKit.close(out);
+        }
+    }
+
+    private String addSheet(String sheetName) {
+        if (closed) {
+            throw new InstrumentException("Writer is closed");
+        }
+        validateSheetName(sheetName);
+        for (String name : sheetNames) {
+            if (name.equalsIgnoreCase(sheetName)) {
+                throw new InstrumentException("Duplicate sheet name: " + sheetName);
+            }
+        }
+        sheetNames.add(sheetName);
+        return "xl/worksheets/sheet" + sheetNames.size() + ".xml";
+    }
+
+    /**
+     * 按Excel的规则校验工作表名：非空，不超过31个字符，不含[]:*?/\，且不以单引号开头或结尾
+     *
+     * @param sheetName 工作表名
+     */
+    private static void validateSheetName(String sheetName) {
+        if (null == sheetName || sheetName.isEmpty()) {
+            throw new InstrumentException("Sheet name must not be empty");
+        }
+        if (sheetName.length() > 31) {
+            throw new InstrumentException("Sheet name is longer than 31 characters: " + sheetName);
+        }
+        for (int i = 0; i < sheetName.length(); i++) {
+            if ("[]:*?/\\".indexOf(sheetName.charAt(i)) >= 0) {
+                throw new InstrumentException("Invalid char '" + sheetName.charAt(i) + "' in sheet name: " + sheetName);
+            }
+        }
+        if (sheetName.charAt(0) == '\'' || sheetName.charAt(sheetName.length() - 1) == '\'') {
+            throw new InstrumentException("Sheet name must not start or end with an apostrophe: " + sheetName);
+        }
+    }
+
+    private void writeSheet(Writer writer, Iterable<?> rows) throws IOException {
+        final Iterator<?> iterator = rows.iterator();
+        Object row = iterator.hasNext() ? iterator.next() : null;
+        final RowEncoder encoder;
+        if (null == row || row instanceof Iterable || row instanceof Object[] || isSimple(row.getClass())) {
+            encoder = null;
+        } else if (row instanceof Map) {
+            encoder = RowEncoder.of((Map<?, ?>) row).alias(headerAlias, onlyAlias);
+        } else {
+            encoder = encoders.computeIfAbsent(row.getClass(), RowEncoder::of).alias(headerAlias, onlyAlias);
+        }
+        final boolean header = null != encoder && writeHeader;
+        final SheetWriter sheet = new SheetWriter(writer, sharedStrings);
+        sheet.start(header && freezeHeader ? 1 : 0);
+        if (header) {
+            encoder.header(sheet);
+        }
+        while (null != row || iterator.hasNext()) {
+            if (null == row) {
+                row = iterator.next();
+            }
+            if (null == encoder) {
+                RowEncoder.encodeValues(sheet, row);
+            } else {
+                encoder.encode(sheet, row);
+            }
+            row = null;
+        }
+        sheet.end();
+    }
+
+    private static boolean isSimple(Class<?> type) {
+        return CellKind.of(type) != CellKind.STRING || CharSequence.class.isAssignableFrom(type)
+                || type.isEnum() || type.isPrimitive();
+    }
+
+    private void entry(String name, Writer writer, String content) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        out.closeEntry();
+    }
+
+    private String contentTypes() {
+        final StringBuilder builder = new StringBuilder(512);
+        builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n")
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        if (null != sharedStrings) {
+            builder.append("<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>");
+        }
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            builder.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return builder.append("</Types>").toString();
+    }
+
+    private String workbook() throws IOException {
+        final StringBuilder builder = new StringBuilder(512);
+        builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n")
+                .append("<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" ")
+                .append("xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            builder.append("<sheet name=\"");
+            SheetWriter.escape(sheetNames.get(i - 1), builder);
+            builder.append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return builder.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRelationships() {
+        final int count = sheetNames.size();
+        final StringBuilder builder = new StringBuilder(512);
+        builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n")
+                .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        for (int i = 1; i <= count; i++) {
+            builder.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet")
+                    .append(i).append(".xml\"/>");
+        }
+        builder.append("<Relationship Id=\"rId").append(count + 1)
+                .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>");
+        if (null != sharedStrings) {
+            builder.append("<Relationship Id=\"rId").append(count + 2)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings\" Target=\"sharedStrings.xml\"/>");
+        }
+        return builder.append("</Relationships>").toString();
+    }
+
+}
@@ -0,0 +1,8 @@
+/**
+ * 不依赖POI的流式xlsx写出
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+package org.aoju.bus.office.support.excel.stream;
\ No newline at end of file
@@ -99,6 +99,8 @@ public class StorageProviderService {
             return new UpaiYunOssProvider(context);
         } else if (Registry.LOCAL.equals(type)) {
             return new LocalFileProvider(context);
+        } else if (Registry.BLOB.equals(type)) {
+            return new LocalBlobProvider(context);
         }
         throw new InstrumentException(Builder.ErrorCode.UNSUPPORTED.getMsg());
     }
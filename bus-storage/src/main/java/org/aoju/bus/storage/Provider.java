@@ -26,13 +26,16 @@
 package org.aoju.bus.storage;
 
 import org.aoju.bus.storage.magic.Message;
+import org.aoju.bus.storage.magic.Part;
 
 import java.io.File;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * 文件存储提供者
+ * 区间下载及分片上传等扩展操作默认返回不支持,{@link Transfer}此时退回整体上传/下载
  *
  * @author Kimi Liu
  * @version 6.3.2
@@ -157,4 +160,104 @@ public interface Provider {
      */
     Message remove(String bucket, Path path);
 
+    /**
+     * 文件信息
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名
+     * @return 处理结果 {@link Message},data 为 {@link org.aoju.bus.storage.magic.Attachs}
+     */
+    default Message stat(String bucket, String fileName) {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.UNSUPPORTED.getCode())
+                .errmsg(Builder.ErrorCode.UNSUPPORTED.getMsg()).build();
+    }
+
+    /**
+     * 文件下载(区间下载)
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名
+     * @param position 起始位置
+     * @param length   下载长度
+     * @return 处理结果 {@link Message},data 为 {@link InputStream}
+     */
+    default Message download(String bucket, String fileName, long position, long length) {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.UNSUPPORTED.getCode())
+                .errmsg(Builder.ErrorCode.UNSUPPORTED.getMsg()).build();
+    }
+
+    /**
+     * 初始化分片上传
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名字
+     * @return 处理结果 {@link Message},data 为上传标识 uploadId
+     */
+    default Message initiate(String bucket, String fileName) {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.UNSUPPORTED.getCode())
+                .errmsg(Builder.ErrorCode.UNSUPPORTED.getMsg()).build();
+    }
+
+    /**
+     * 上传分片,分片之间可以并发上传
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名字
+     * @param uploadId 上传标识
+     * @param part     分片信息,如包含校验值则写入后进行校验
+     * @param content  分片内容
+     * @return 处理结果 {@link Message},data 为带校验值的 {@link Part}
+     */
+    default Message upload(String bucket, String fileName, String uploadId, Part part, InputStream content) {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.UNSUPPORTED.getCode())
+                .errmsg(Builder.ErrorCode.UNSUPPORTED.getMsg()).build();
+    }
+
+    /**
+     * 已上传的分片列表,用于断点续传
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名字
+     * @param uploadId 上传标识
+     * @return 处理结果 {@link Message},data 为 {@link List} 形式的 {@link Part}
+     */
+    default Message parts(String bucket, String fileName, String uploadId) {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.UNSUPPORTED.getCode())
+                .errmsg(Builder.ErrorCode.UNSUPPORTED.getMsg()).build();
+    }
+
+    /**
+     * 完成分片上传
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名字
+     * @param uploadId 上传标识
+     * @param parts    全部分片
+     * @return 处理结果 {@link Message}
+     */
+    default Message complete(String bucket, String fileName, String uploadId, List<Part> parts) {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.UNSUPPORTED.getCode())
+                .errmsg(Builder.ErrorCode.UNSUPPORTED.getMsg()).build();
+    }
+
+    /**
+     * 取消分片上传
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名字
+     * @param uploadId 上传标识
+     * @return 处理结果 {@link Message}
+     */
+    default Message abort(String bucket, String fileName, String uploadId) {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.UNSUPPORTED.getCode())
+                .errmsg(Builder.ErrorCode.UNSUPPORTED.getMsg()).build();
+    }
+
 }
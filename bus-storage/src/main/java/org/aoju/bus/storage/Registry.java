@@ -70,5 +70,9 @@ public enum Registry {
     /**
      * 本地 file
      */
-    LOCAL
+    LOCAL,
+    /**
+     * 本地 内容寻址存储
+     */
+    BLOB
 }
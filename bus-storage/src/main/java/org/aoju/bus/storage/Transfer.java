@@ -0,0 +1,315 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.storage;
+
+import org.aoju.bus.core.io.streams.ChannelInputStream;
+import org.aoju.bus.core.lang.Algorithm;
+import org.aoju.bus.core.toolkit.HexKit;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.logger.Logger;
+import org.aoju.bus.storage.magic.Attachs;
+import org.aoju.bus.storage.magic.Message;
+import org.aoju.bus.storage.magic.Part;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 分片并发传输
+ * 基于{@link Provider}的分片上传及区间下载接口,将大文件切分后并发上传/下载,
+ * 上传失败时返回上传标识,可通过该标识续传;提供者不支持分片操作时退回整体上传/下载
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class Transfer {
+
+    /**
+     * 默认分片大小 8MB
+     */
+    public static final long DEFAULT_PART_SIZE = 8L << 20;
+
+    private final Provider provider;
+    private final ExecutorService executor;
+    private final long partSize;
+
+    public Transfer(Provider provider, ExecutorService executor) {
+        this(provider, executor, DEFAULT_PART_SIZE);
+    }
+
+    public Transfer(Provider provider, ExecutorService executor, long partSize) {
+        this.provider = provider;
+        this.executor = executor;
+        this.partSize = partSize;
+    }
+
+    /**
+     * 分片并发上传
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名字
+     * @param file     本地文件
+     * @return 处理结果 {@link Message}
+     */
+    public Message upload(String bucket, String fileName, File file) {
+        Message message = this.provider.initiate(bucket, fileName);
+        if (isUnsupported(message)) {
+            try (InputStream in = new FileInputStream(file)) {
+                return this.provider.upload(bucket, fileName, in);
+            } catch (IOException e) {
+                Logger.error("upload failed", e.getMessage());
+                return failure(null);
+            }
+        }
+        if (!isSuccess(message)) {
+            return message;
+        }
+        return upload(bucket, fileName, file, (String) message.getData());
+    }
+
+    /**
+     * 分片并发上传(断点续传),已上传且校验一致的分片将被跳过
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名字
+     * @param file     本地文件
+     * @param uploadId 上传标识
+     * @return 处理结果 {@link Message},失败时 data 为上传标识
+     */
+    public Message upload(String bucket, String fileName, File file, String uploadId) {
+        Map<Integer, Part> uploaded = new HashMap<>();
+        Message listed = this.provider.parts(bucket, fileName, uploadId);
+        if (isSuccess(listed) && listed.getData() instanceof List) {
+            for (Object item : (List<?>) listed.getData()) {
+                Part part = (Part) item;
+                uploaded.put(part.getNumber(), part);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Part> parts = new ArrayList<>();
+            List<Future<Message>> futures = new ArrayList<>();
+            int number = 1;
+            for (long offset = 0; offset < size || number == 1; offset += this.partSize, number++) {
+                Part part = Part.builder()
+                        .number(number)
+                        .offset(offset)
+                        .size(Math.min(this.partSize, size - offset))
+                        .build();
+                Part done = uploaded.get(number);
+                parts.add(part);
+                futures.add(this.executor.submit(() -> uploadPart(bucket, fileName, uploadId, channel, part, done)));
+            }
+            try {
+                for (Future<Message> future : futures) {
+                    if (!isSuccess(future.get())) {
+                        return failure(uploadId);
+                    }
+                }
+            } finally {
+                cancel(futures);
+            }
+            return this.provider.complete(bucket, fileName, uploadId, parts);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ExecutionException e) {
+            Logger.error("multipart upload failed", e.getMessage());
+        }
+        return failure(uploadId);
+    }
+
+    /**
+     * 分段并发下载
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名
+     * @param file     保存的本地文件
+     * @return 处理结果 {@link Message}
+     */
+    public Message download(String bucket, String fileName, File file) {
+        Message stat = this.provider.stat(bucket, fileName);
+        if (isUnsupported(stat)) {
+            return this.provider.download(bucket, fileName, file);
+        }
+        if (!isSuccess(stat)) {
+            return stat;
+        }
+        long size = Long.parseLong(((Attachs) stat.getData()).getSize());
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            List<Future<Message>> futures = new ArrayList<>();
+            for (long offset = 0; offset < size; offset += this.partSize) {
+                long position = offset;
+                long length = Math.min(this.partSize, size - offset);
+                futures.add(this.executor.submit(() -> downloadSegment(bucket, fileName, channel, position, length)));
+            }
+            try {
+                for (Future<Message> future : futures) {
+                    Message message = future.get();
+                    if (!isSuccess(message)) {
+                        return message;
+                    }
+                }
+            } finally {
+                cancel(futures);
+            }
+            return Message.builder()
+                    .errcode(Builder.ErrorCode.SUCCESS.getCode())
+                    .errmsg(Builder.ErrorCode.SUCCESS.getMsg())
+                    .data(file)
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ExecutionException e) {
+            Logger.error("segment download failed", e.getMessage());
+        }
+        return failure(null);
+    }
+
+    /**
+     * 上传单个分片,续传时已存在且校验一致的分片直接复用
+     */
+    private Message uploadPart(String bucket, String fileName, String uploadId,
+                               FileChannel channel, Part part, Part done) throws IOException {
+        if (null != done && done.getOffset() == part.getOffset() && done.getSize() == part.getSize()
+                && null != done.getChecksum() && done.getChecksum().equalsIgnoreCase(checksum(channel, part))) {
+            part.setChecksum(done.getChecksum());
+            return Message.builder()
+                    .errcode(Builder.ErrorCode.SUCCESS.getCode())
+                    .errmsg(Builder.ErrorCode.SUCCESS.getMsg())
+                    .data(done)
+                    .build();
+        }
+        Message message = this.provider.upload(bucket, fileName, uploadId, part,
+                new ChannelInputStream(channel, part.getOffset(), part.getSize(), false));
+        if (isSuccess(message) && message.getData() instanceof Part) {
+            part.setChecksum(((Part) message.getData()).getChecksum());
+        }
+        return message;
+    }
+
+    /**
+     * 下载单个区间并按位置写入本地文件
+     */
+    private Message downloadSegment(String bucket, String fileName, FileChannel channel,
+                                    long position, long length) throws IOException {
+        Message message = this.provider.download(bucket, fileName, position, length);
+        if (!isSuccess(message)) {
+            return message;
+        }
+        try (InputStream in = (InputStream) message.getData()) {
+            byte[] buffer = new byte[IoKit.DEFAULT_BUFFER_SIZE];
+            long offset = position;
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                ByteBuffer src = ByteBuffer.wrap(buffer, 0, len);
+                while (src.hasRemaining()) {
+                    offset += channel.write(src, offset);
+                }
+            }
+            if (offset - position != length) {
+                return failure(null);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * 计算本地分片的校验值
+     */
+    private String checksum(FileChannel channel, Part part) throws IOException {
+        try (InputStream in = new ChannelInputStream(channel, part.getOffset(), part.getSize(), false)) {
+            MessageDigest digest = MessageDigest.getInstance(Algorithm.MD5.getValue());
+            byte[] buffer = new byte[IoKit.DEFAULT_BUFFER_SIZE];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, len);
+            }
+            return HexKit.encodeHexStr(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 取消尚未开始的分片,并等待正在执行的分片结束,避免其在通道关闭后继续读写
+     */
+    private void cancel(List<Future<Message>> futures) {
+        boolean interrupted = false;
+        for (Future<Message> future : futures) {
+            if (future.cancel(false)) {
+                continue;
+            }
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isUnsupported(Message message) {
+        return null != message && Builder.ErrorCode.UNSUPPORTED.getCode().equals(message.getErrcode());
+    }
+
+    private boolean isSuccess(Message message) {
+        return null != message && Builder.ErrorCode.SUCCESS.getCode().equals(message.getErrcode());
+    }
+
+    private Message failure(Object data) {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.FAILURE.getCode())
+                .errmsg(Builder.ErrorCode.FAILURE.getMsg())
+                .data(data)
+                .build();
+    }
+
+}
@@ -0,0 +1,226 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2021 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.storage.provider;
+
+import org.aoju.bus.core.key.ID;
+import org.aoju.bus.core.lang.Algorithm;
+import org.aoju.bus.core.toolkit.HexKit;
+import org.aoju.bus.logger.Logger;
+import org.aoju.bus.storage.Context;
+import org.aoju.bus.storage.magic.Message;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 本地内容寻址存储
+ * 文件内容按 SHA-256 摘要存放在分级目录 .blobs/ab/cd/abcd... 中,相同内容只保存一份,
+ * 对象文件通过硬链接指向内容文件,链接数即引用计数;不支持硬链接的文件系统退化为复制
+ *
+ * @author Kimi Liu
+ * @version 6.3.2
+ * @since JDK 1.8+
+ */
+public class LocalBlobProvider extends LocalFileProvider {
+
+    /**
+     * 内容文件目录
+     */
+    private static final String BLOBS = ".blobs";
+    /**
+     * 临时文件目录
+     */
+    private static final String TEMP = ".tmp";
+    /**
+     * 单次内存映射的最大字节数
+     */
+    private static final long MAP_SIZE = 64L << 20;
+
+    public LocalBlobProvider(Context context) {
+        super(context);
+    }
+
+    /**
+     * 通过 transferTo 将文件内容写入目标通道
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名
+     * @param target   目标通道,如 SocketChannel
+     * @return 处理结果 {@link Message},data 为写入的字节数
+     */
+    public Message download(String bucket, String fileName, WritableByteChannel target) {
+        try (FileChannel channel = FileChannel.open(Paths.get(context.getRegion(), bucket, fileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return success(position);
+        } catch (IOException e) {
+            Logger.error("file download failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    /**
+     * 以只读内存映射方式读取文件
+     *
+     * @param bucket   存储桶名
+     * @param fileName 文件名
+     * @return 处理结果 {@link Message},data 为 {@link MappedByteBuffer}
+     */
+    public Message map(String bucket, String fileName) {
+        try (FileChannel channel = FileChannel.open(Paths.get(context.getRegion(), bucket, fileName), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return failure();
+            }
+            return success(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            Logger.error("file map failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    /**
+     * 回收不再被任何对象引用的内容文件
+     *
+     * @return 处理结果 {@link Message},data 为回收的文件数
+     */
+    public Message gc() {
+        Path root = Paths.get(context.getRegion(), BLOBS);
+        if (!Files.isDirectory(root)) {
+            return success(0);
+        }
+        long count = 0;
+        try (Stream<Path> stream = Files.walk(root)) {
+            Iterator<Path> iterator = stream.filter(Files::isRegularFile).iterator();
+            while (iterator.hasNext()) {
+                Path blob = iterator.next();
+                if ((Integer) Files.getAttribute(blob, "unix:nlink") <= 1 && Files.deleteIfExists(blob)) {
+                    count++;
+                }
+            }
+            return success(count);
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            Logger.error("blob gc failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    @Override
+    protected void write(Path dest, InputStream content) throws IOException {
+        Path temp = temp();
+        try {
+            MessageDigest digest = digest();
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                transferFrom(Channels.newChannel(new DigestInputStream(content, digest)), out);
+            }
+            link(temp, HexKit.encodeHexStr(digest.digest()), dest);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    protected void store(Path source, Path dest) throws IOException {
+        try {
+            MessageDigest digest = digest();
+            try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+                long size = channel.size();
+                for (long position = 0; position < size; position += MAP_SIZE) {
+                    digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SIZE, size - position)));
+                }
+            }
+            link(source, HexKit.encodeHexStr(digest.digest()), dest);
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    /**
+     * 将已写完的文件登记为内容文件,并使目标对象指向它
+     * 已存在相同内容时直接链接已有内容文件,否则先链接再转移,保证内容文件出现时引用数已大于 1,
+     * 不会被并发的 {@link #gc()} 回收
+     *
+     * @param source 已写完的文件
+     * @param hash   内容摘要
+     * @param dest   目标对象
+     * @throws IOException 写入异常
+     */
+    private void link(Path source, String hash, Path dest) throws IOException {
+        Path blob = Paths.get(context.getRegion(), BLOBS, hash.substring(0, 2), hash.substring(2, 4), hash);
+        Path staging = temp();
+        try {
+            boolean linked = false;
+            if (Files.exists(blob)) {
+                try {
+                    Files.createLink(staging, blob);
+                    linked = true;
+                } catch (NoSuchFileException e) {
+                    // 内容文件刚被回收,重新登记
+                }
+            }
+            if (!linked) {
+                Files.createDirectories(blob.getParent());
+                Files.createLink(staging, source);
+                Files.move(source, blob, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.deleteIfExists(staging);
+            Files.copy(source, staging);
+        }
+        Files.move(staging, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path temp() throws IOException {
+        return Files.createDirectories(Paths.get(context.getRegion(), TEMP)).resolve(ID.objectId());
+    }
+
+    private MessageDigest digest() throws IOException {
+        try {
+            return MessageDigest.getInstance(Algorithm.SHA256.getValue());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+}
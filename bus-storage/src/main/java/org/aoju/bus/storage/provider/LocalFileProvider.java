@@ -25,20 +25,41 @@
  ********************************************************************************/
 package org.aoju.bus.storage.provider;
 
+import org.aoju.bus.core.io.streams.ChannelInputStream;
+import org.aoju.bus.core.key.ID;
+import org.aoju.bus.core.lang.Algorithm;
 import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.core.lang.Charset;
 import org.aoju.bus.core.lang.Symbol;
-import org.aoju.bus.core.toolkit.StreamKit;
+import org.aoju.bus.core.toolkit.HexKit;
+import org.aoju.bus.core.toolkit.IoKit;
 import org.aoju.bus.logger.Logger;
 import org.aoju.bus.storage.Builder;
 import org.aoju.bus.storage.Context;
+import org.aoju.bus.storage.magic.Attachs;
 import org.aoju.bus.storage.magic.Message;
+import org.aoju.bus.storage.magic.Part;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * 本地文件上传
@@ -49,6 +70,16 @@ import java.nio.file.Path;
  */
 public class LocalFileProvider extends AbstractProvider {
 
+    /**
+     * 分片上传临时目录
+     */
+    private static final String MULTIPART = ".multipart";
+
+    /**
+     * 单次通道传输的最大字节数
+     */
+    private static final long TRANSFER_SIZE = 8L << 20;
+
     public LocalFileProvider(Context context) {
         this.context = context;
         Assert.notBlank(this.context.getRegion(), "[region] not defined");
@@ -56,26 +87,22 @@ public class LocalFileProvider extends AbstractProvider {
 
     @Override
     public Message download(String fileName) {
-        return Message.builder()
-                .errcode(Builder.ErrorCode.SUCCESS.getCode())
-                .errmsg(Builder.ErrorCode.SUCCESS.getMsg())
-                .data(new File(context.getRegion() + Symbol.SLASH + fileName))
-                .build();
+        return success(Paths.get(context.getRegion(), fileName).toFile());
     }
 
     @Override
     public Message download(String bucket, String fileName) {
-        return download(context.getRegion() + Symbol.SLASH + bucket + Symbol.SLASH + fileName);
+        return success(Paths.get(context.getRegion(), bucket, fileName).toFile());
     }
 
     @Override
     public Message download(String bucket, String fileName, File file) {
-        return null;
+        return transfer(Paths.get(context.getRegion(), bucket, fileName), file);
     }
 
     @Override
     public Message download(String fileName, File file) {
-        return null;
+        return transfer(Paths.get(context.getRegion(), fileName), file);
     }
 
     @Override
@@ -85,64 +112,335 @@ public class LocalFileProvider extends AbstractProvider {
 
     @Override
     public Message rename(String oldName, String newName) {
-        return null;
+        return move(Paths.get(context.getRegion(), oldName), Paths.get(context.getRegion(), newName));
     }
 
     @Override
     public Message rename(String bucket, String oldName, String newName) {
-        return null;
+        return move(Paths.get(context.getRegion(), bucket, oldName), Paths.get(context.getRegion(), bucket, newName));
     }
 
     @Override
     public Message upload(String fileName, byte[] content) {
-        return null;
+        return upload(Paths.get(context.getRegion(), fileName), new ByteArrayInputStream(content));
     }
 
     @Override
     public Message upload(String bucket, String fileName, InputStream content) {
-        try {
-            File dest = new File(context.getRegion() + Symbol.SLASH + bucket + Symbol.SLASH, fileName);
-            if (!new File(dest.getParent()).exists()) {
-                boolean result = new File(dest.getParent()).mkdirs();
-                if (!result) {
-                    return Message.builder()
-                            .errcode(Builder.ErrorCode.FAILURE.getCode())
-                            .errmsg(Builder.ErrorCode.FAILURE.getMsg()).build();
-                }
-            }
-            OutputStream out = Files.newOutputStream(dest.toPath());
-            StreamKit.copy(content, out);
-            content.close();
-            out.close();
-            return Message.builder()
-                    .errcode(Builder.ErrorCode.SUCCESS.getCode())
-                    .errmsg(Builder.ErrorCode.SUCCESS.getMsg()).build();
-        } catch (IOException e) {
-            Logger.error("file upload failed", e.getMessage());
-        }
-        return Message.builder()
-                .errcode(Builder.ErrorCode.FAILURE.getCode())
-                .errmsg(Builder.ErrorCode.FAILURE.getMsg()).build();
+        return upload(Paths.get(context.getRegion(), bucket, fileName), content);
     }
 
     @Override
     public Message upload(String bucket, String fileName, byte[] content) {
-        return null;
+        return upload(Paths.get(context.getRegion(), bucket, fileName), new ByteArrayInputStream(content));
     }
 
     @Override
     public Message remove(String fileName) {
-        return null;
+        return delete(Paths.get(context.getRegion(), fileName));
     }
 
     @Override
     public Message remove(String bucket, String fileName) {
-        return null;
+        return delete(Paths.get(context.getRegion(), bucket, fileName));
     }
 
     @Override
     public Message remove(String bucket, Path path) {
-        return null;
+        return delete(Paths.get(context.getRegion(), bucket).resolve(path));
+    }
+
+    @Override
+    public Message stat(String bucket, String fileName) {
+        Path path = Paths.get(context.getRegion(), bucket, fileName);
+        if (!Files.isRegularFile(path)) {
+            return failure();
+        }
+        try {
+            return success(Attachs.builder()
+                    .name(fileName)
+                    .path(path.toString())
+                    .size(String.valueOf(Files.size(path)))
+                    .build());
+        } catch (IOException e) {
+            Logger.error("file stat failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    @Override
+    public Message download(String bucket, String fileName, long position, long length) {
+        try {
+            FileChannel channel = FileChannel.open(Paths.get(context.getRegion(), bucket, fileName), StandardOpenOption.READ);
+            long size = channel.size();
+            if (position < 0 || position > size) {
+                channel.close();
+                return failure();
+            }
+            return success(new ChannelInputStream(channel, position, Math.min(length, size - position), true));
+        } catch (IOException e) {
+            Logger.error("file download failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    @Override
+    public Message initiate(String bucket, String fileName) {
+        String uploadId = ID.objectId();
+        try {
+            Path dir = Files.createDirectories(Paths.get(context.getRegion(), bucket, MULTIPART));
+            Files.createFile(dir.resolve(uploadId + ".data"));
+            Files.createFile(dir.resolve(uploadId + ".parts"));
+            return success(uploadId);
+        } catch (IOException e) {
+            Logger.error("multipart initiate failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    @Override
+    public Message upload(String bucket, String fileName, String uploadId, Part part, InputStream content) {
+        Path dir = Paths.get(context.getRegion(), bucket, MULTIPART);
+        Path data = dir.resolve(uploadId + ".data");
+        if (!Files.exists(data)) {
+            return failure();
+        }
+        try (FileChannel channel = FileChannel.open(data, StandardOpenOption.WRITE)) {
+            MessageDigest digest = MessageDigest.getInstance(Algorithm.MD5.getValue());
+            byte[] buffer = new byte[IoKit.DEFAULT_BUFFER_SIZE];
+            long position = part.getOffset();
+            int len;
+            while ((len = content.read(buffer)) != -1) {
+                digest.update(buffer, 0, len);
+                ByteBuffer src = ByteBuffer.wrap(buffer, 0, len);
+                while (src.hasRemaining()) {
+                    position += channel.write(src, position);
+                }
+            }
+            long size = position - part.getOffset();
+            String checksum = HexKit.encodeHexStr(digest.digest());
+            if ((part.getSize() > 0 && part.getSize() != size)
+                    || (null != part.getChecksum() && !part.getChecksum().equalsIgnoreCase(checksum))) {
+                return failure();
+            }
+            Part result = Part.builder()
+                    .number(part.getNumber())
+                    .offset(part.getOffset())
+                    .size(size)
+                    .checksum(checksum)
+                    .build();
+            String line = result.getNumber() + Symbol.COMMA + result.getOffset() + Symbol.COMMA
+                    + result.getSize() + Symbol.COMMA + result.getChecksum() + Symbol.LF;
+            synchronized (this) {
+                Files.write(dir.resolve(uploadId + ".parts"), line.getBytes(Charset.UTF_8), StandardOpenOption.APPEND);
+            }
+            return success(result);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            Logger.error("part upload failed", e.getMessage());
+        } finally {
+            IoKit.close(content);
+        }
+        return failure();
+    }
+
+    @Override
+    public Message parts(String bucket, String fileName, String uploadId) {
+        try {
+            return success(new ArrayList<>(readParts(bucket, uploadId).values()));
+        } catch (IOException e) {
+            Logger.error("multipart list failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    @Override
+    public Message complete(String bucket, String fileName, String uploadId, List<Part> parts) {
+        Path dir = Paths.get(context.getRegion(), bucket, MULTIPART);
+        try {
+            Map<Integer, Part> uploaded = readParts(bucket, uploadId);
+            List<Part> sorted = new ArrayList<>(parts);
+            sorted.sort(Comparator.comparingLong(Part::getOffset));
+            long total = 0;
+            for (Part part : sorted) {
+                Part done = uploaded.get(part.getNumber());
+                if (null == done || done.getOffset() != total
+                        || (null != part.getChecksum() && !part.getChecksum().equalsIgnoreCase(done.getChecksum()))) {
+                    return failure();
+                }
+                total += done.getSize();
+            }
+            Path data = dir.resolve(uploadId + ".data");
+            try (FileChannel channel = FileChannel.open(data, StandardOpenOption.WRITE)) {
+                channel.truncate(total);
+                channel.force(true);
+            }
+            Path dest = Paths.get(context.getRegion(), bucket, fileName);
+            Files.createDirectories(dest.getParent());
+            store(data, dest);
+            Files.deleteIfExists(dir.resolve(uploadId + ".parts"));
+            return success(null);
+        } catch (IOException e) {
+            Logger.error("multipart complete failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    @Override
+    public Message abort(String bucket, String fileName, String uploadId) {
+        Path dir = Paths.get(context.getRegion(), bucket, MULTIPART);
+        try {
+            Files.deleteIfExists(dir.resolve(uploadId + ".data"));
+            Files.deleteIfExists(dir.resolve(uploadId + ".parts"));
+            return success(null);
+        } catch (IOException e) {
+            Logger.error("multipart abort failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    /**
+     * 读取分片清单,同一序号以最后一次上传为准
+     *
+     * @param bucket   存储桶名
+     * @param uploadId 上传标识
+     * @return 分片序号与分片信息
+     * @throws IOException 读取异常
+     */
+    private Map<Integer, Part> readParts(String bucket, String uploadId) throws IOException {
+        Path manifest = Paths.get(context.getRegion(), bucket, MULTIPART, uploadId + ".parts");
+        Map<Integer, Part> parts = new TreeMap<>();
+        for (String line : Files.readAllLines(manifest, Charset.UTF_8)) {
+            String[] fields = line.split(Symbol.COMMA);
+            if (fields.length == 4) {
+                Part part = Part.builder()
+                        .number(Integer.parseInt(fields[0]))
+                        .offset(Long.parseLong(fields[1]))
+                        .size(Long.parseLong(fields[2]))
+                        .checksum(fields[3])
+                        .build();
+                parts.put(part.getNumber(), part);
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * 写入文件
+     *
+     * @param dest    目标文件
+     * @param content 文件内容
+     * @return 处理结果 {@link Message}
+     */
+    private Message upload(Path dest, InputStream content) {
+        try {
+            Files.createDirectories(dest.getParent());
+            write(dest, content);
+            return success(null);
+        } catch (IOException e) {
+            Logger.error("file upload failed", e.getMessage());
+        } finally {
+            IoKit.close(content);
+        }
+        return failure();
+    }
+
+    /**
+     * 通过 transferFrom 将流写入目标文件,子类可改变文件的存储方式
+     *
+     * @param dest    目标文件
+     * @param content 文件内容
+     * @throws IOException 写入异常
+     */
+    protected void write(Path dest, InputStream content) throws IOException {
+        try (FileChannel out = FileChannel.open(dest, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            transferFrom(Channels.newChannel(content), out);
+        }
+    }
+
+    /**
+     * 将已写完的临时文件存放到目标位置,子类可改变文件的存储方式
+     *
+     * @param source 临时文件
+     * @param dest   目标文件
+     * @throws IOException 写入异常
+     */
+    protected void store(Path source, Path dest) throws IOException {
+        Files.move(source, dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 将读通道的内容全部写入文件通道
+     *
+     * @param src 读通道
+     * @param out 文件通道
+     * @return 写入的字节数
+     * @throws IOException 写入异常
+     */
+    protected static long transferFrom(ReadableByteChannel src, FileChannel out) throws IOException {
+        long position = 0;
+        long count;
+        while ((count = out.transferFrom(src, position, TRANSFER_SIZE)) > 0) {
+            position += count;
+        }
+        return position;
+    }
+
+    private Message move(Path source, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            return success(null);
+        } catch (IOException e) {
+            Logger.error("file rename failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    private Message delete(Path path) {
+        try {
+            return Files.deleteIfExists(path) ? success(null) : failure();
+        } catch (IOException e) {
+            Logger.error("file remove failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    /**
+     * 通过 transferTo 将文件复制到本地目标文件
+     *
+     * @param source 源文件
+     * @param file   目标文件
+     * @return 处理结果 {@link Message}
+     */
+    private Message transfer(Path source, File file) {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            return success(file);
+        } catch (IOException e) {
+            Logger.error("file download failed", e.getMessage());
+        }
+        return failure();
+    }
+
+    protected Message success(Object data) {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.SUCCESS.getCode())
+                .errmsg(Builder.ErrorCode.SUCCESS.getMsg())
+                .data(data)
+                .build();
+    }
+
+    protected Message failure() {
+        return Message.builder()
+                .errcode(Builder.ErrorCode.FAILURE.getCode())
+                .errmsg(Builder.ErrorCode.FAILURE.getMsg()).build();
     }
 
 }